@@ -2,9 +2,11 @@ package connection;
 
 import chess.ChessMove;
 import com.google.gson.Gson;
+import websocket.codec.BinaryCodec;
 import websocket.commands.*;
 import javax.websocket.*;
 import java.net.URI;
+import java.nio.ByteBuffer;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 
@@ -17,13 +19,26 @@ import java.util.concurrent.TimeUnit;
 public class WebSocketClient {
 
   private final String serverUri;
+  private final boolean binaryProtocol;
   private final Gson gson = new Gson();
   private Session session;
   private boolean isConnected = false;
   private final CountDownLatch connectionLatch = new CountDownLatch(1);
 
   public WebSocketClient(String serverUrl, WebSocketListener listener) {
+    this(serverUrl, listener, false);
+  }
 
+  /**
+   * Creates a client that optionally speaks the compact binary protocol
+   * instead of JSON text frames.
+   *
+   * @param serverUrl      The HTTP or WebSocket URL of the server.
+   * @param listener       The listener for server messages.
+   * @param binaryProtocol Whether to negotiate the binary protocol.
+   */
+  public WebSocketClient(String serverUrl, WebSocketListener listener, boolean binaryProtocol) {
+    this.binaryProtocol = binaryProtocol;
     String wsUrl = serverUrl.replaceFirst("^http", "ws");
     if (!wsUrl.endsWith("/ws")) {
       if (wsUrl.endsWith("/")) {
@@ -32,7 +47,7 @@ public class WebSocketClient {
         wsUrl += "/ws";
       }
     }
-    this.serverUri = wsUrl;
+    this.serverUri = binaryProtocol ? wsUrl + "?protocol=binary" : wsUrl;
   }
 
   /**
@@ -97,7 +112,8 @@ public class WebSocketClient {
 
   /**
    * Sends a command object to the server over the WebSocket connection.
-   * The command object is serialized to JSON before sending.
+   * The command object is serialized to JSON, or to a binary frame if the
+   * binary protocol was requested, before sending.
    *
    * @param command The UserGameCommand to send.
    * @throws Exception If not connected or if sending fails.
@@ -110,8 +126,12 @@ public class WebSocketClient {
       throw new Exception("WebSocket session is null, cannot send command.");
     }
     try {
-      String jsonCommand = gson.toJson(command);
-      session.getBasicRemote().sendText(jsonCommand);
+      if (binaryProtocol) {
+        session.getBasicRemote().sendBinary(ByteBuffer.wrap(BinaryCodec.encodeCommand(command)));
+      } else {
+        String jsonCommand = gson.toJson(command);
+        session.getBasicRemote().sendText(jsonCommand);
+      }
     } catch (Exception e) {
       this.isConnected = false;
       this.session = null;
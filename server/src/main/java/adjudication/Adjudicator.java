@@ -0,0 +1,53 @@
+package adjudication;
+
+import chess.ChessGame;
+import chess.tablebase.Tablebase;
+
+/**
+ * Ends games whose result an endgame tablebase has already settled.
+ * <p>
+ * Drawn positions, including a lone king against a king, bishop or knight,
+ * are always ended. Won positions are ended only when the adjudicator is told
+ * to; otherwise the winner is left to find the mate.
+ * </p>
+ */
+public class Adjudicator {
+    private final Tablebase tablebase;
+    private final boolean adjudicateWins;
+
+    /**
+     * Creates an adjudicator.
+     *
+     * @param tablebase      The tables to consult
+     * @param adjudicateWins Whether to end won positions as well as drawn ones
+     */
+    public Adjudicator(Tablebase tablebase, boolean adjudicateWins) {
+        this.tablebase = tablebase;
+        this.adjudicateWins = adjudicateWins;
+    }
+
+    /**
+     * Decides whether a game should end. Callers sharing the game must hold
+     * its monitor during the call.
+     *
+     * @param game A game in progress whose side to move has a legal move
+     * @return The announcement to make as the game ends, or null to play on
+     */
+    public String adjudicate(ChessGame game) {
+        Tablebase.Result result = tablebase.probe(game);
+        if (result == null) {
+            return null;
+        }
+        if (result.verdict() == Tablebase.Verdict.DRAW) {
+            return "The tablebase shows a draw with best play. The game is drawn.";
+        }
+        if (!adjudicateWins) {
+            return null;
+        }
+        ChessGame.TeamColor winner = result.verdict() == Tablebase.Verdict.WIN
+                ? game.getTeamTurn()
+                : game.getTeamTurn().not();
+        return String.format("The tablebase shows %s mates in %d with best play. %s wins.", winner,
+                result.movesToMate(), winner);
+    }
+}
@@ -0,0 +1,585 @@
+package analysis;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.InvalidMoveException;
+import chess.engine.PieceSquareEvaluator;
+import chess.engine.SearchLimits;
+import chess.engine.SearchResult;
+import chess.engine.Searcher;
+import chess.engine.TranspositionTable;
+import chess.engine.Zobrist;
+import chess.notation.Fen;
+import dataaccess.DataAccessException;
+import dataaccess.implementations.MySQLGameAnalysisDAO;
+import dataaccess.implementations.MySQLGameArchiveDAO;
+import dataaccess.interfaces.GameAnalysisDAO;
+import dataaccess.interfaces.GameArchiveDAO;
+import model.GameAnalysis;
+import model.GameData;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Analyzes every move of every archived game in bulk, storing each move's
+ * evaluation and centipawn loss so each side's accuracy can be reported.
+ * <p>
+ * Finished games are moved to the archive by the
+ * {@link dataaccess.GameArchiver}, so the archive is read in the order games
+ * were archived, a page at a time. Each game's recorded moves are replayed from the
+ * starting position and every position along the way is evaluated to a fixed
+ * depth on a pool of search threads, so one long game is spread over all of
+ * them. Games whose history does not replay to the stored position, such as
+ * games set up from FEN or stored before moves were recorded, are skipped, as
+ * are games whose recorded history cannot be read.
+ * </p>
+ * <p>
+ * Evaluations are cached by position hash and shared by all the search
+ * threads, so the opening positions most games pass through are searched once.
+ * Each search thread keeps its own {@link Searcher} and transposition table.
+ * </p>
+ * <p>
+ * At most {@code gamesInFlight} games are held between being read and being
+ * stored; reading the archive waits for a slot, so a slow search pool or
+ * database holds back the reading rather than filling the heap. Pages of
+ * {@code gamesInFlight} games are read in full and the next page is asked for
+ * from the last game read, so no query stays open while reading waits. A single writer
+ * thread stores finished analyses in batches of whatever has completed, up to
+ * {@code batchSize}, in one transaction each.
+ * </p>
+ * <p>
+ * After each batch the run's position is saved to a checkpoint file: the last
+ * game such that it and every game archived before it have been stored.
+ * Games complete out of order, so after a crash the games after the
+ * checkpoint are analyzed again, which replaces their earlier results. A
+ * later run starts from the checkpoint, so each night's run analyzes the games
+ * archived since the last one.
+ * </p>
+ */
+public class GameAnalysisPipeline implements AutoCloseable {
+    public static final int DEFAULT_DEPTH = 6;
+    public static final int DEFAULT_GAMES_IN_FLIGHT = 256;
+    public static final int DEFAULT_BATCH_SIZE = 100;
+    public static final int DEFAULT_CACHE_ENTRIES = 200_000;
+    public static final int DEFAULT_TABLE_MB = 16;
+
+    // Games archived this recently are left for the next run, in case their transaction is still committing
+    private static final long SETTLE_MILLIS = Duration.ofMinutes(1).toMillis();
+    private static final long PROGRESS_INTERVAL_NANOS = Duration.ofSeconds(5).toNanos();
+
+    private record Evaluation(int score, ChessMove bestMove) {
+    }
+
+    private record Cursor(long archivedAt, int gameID) {
+    }
+
+    /**
+     * The outcome of a run.
+     *
+     * @param games     The number of games analyzed and stored
+     * @param skipped   The number of games whose moves could not be replayed
+     * @param positions The number of positions evaluated
+     * @param cacheHits The number of positions answered from the cache
+     * @param elapsed   The time the run took
+     */
+    public record Stats(long games, long skipped, long positions, long cacheHits, Duration elapsed) {
+        /**
+         * Gets the analysis rate.
+         *
+         * @return Games per second
+         */
+        public double gamesPerSecond() {
+            return games / Math.max(elapsed.toNanos() / 1e9, 1e-9);
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "%d games (%d skipped), %d positions (%.0f%% cached) in %.1fs: "
+                    + "%.1f games/s", games, skipped, positions, 100.0 * cacheHits / Math.max(positions, 1),
+                    elapsed.toNanos() / 1e9, gamesPerSecond());
+        }
+    }
+
+    private final GameArchiveDAO archive;
+    private final GameAnalysisDAO analyses;
+    private final int depth;
+    private final int gamesInFlight;
+    private final int batchSize;
+    private final ThreadPoolExecutor executor;
+    private final ThreadLocal<Searcher> searchers;
+    private final Map<Long, Evaluation> cache;
+
+    /**
+     * Creates a pipeline with the default limits.
+     *
+     * @param archive  The archive to read finished games from
+     * @param analyses The store to write analyses to
+     * @param threads  The number of positions searched at once
+     * @param depth    The depth to search each position
+     */
+    public GameAnalysisPipeline(GameArchiveDAO archive, GameAnalysisDAO analyses, int threads, int depth) {
+        this(archive, analyses, threads, depth, DEFAULT_GAMES_IN_FLIGHT, DEFAULT_BATCH_SIZE, DEFAULT_CACHE_ENTRIES,
+                DEFAULT_TABLE_MB);
+    }
+
+    /**
+     * Creates a pipeline.
+     *
+     * @param archive       The archive to read finished games from
+     * @param analyses      The store to write analyses to
+     * @param threads       The number of positions searched at once
+     * @param depth         The depth to search each position
+     * @param gamesInFlight The number of games read but not yet stored
+     * @param batchSize     The most analyses stored together
+     * @param cacheEntries  The number of position evaluations to keep
+     * @param tableMB       The transposition table size for each search thread
+     */
+    public GameAnalysisPipeline(GameArchiveDAO archive, GameAnalysisDAO analyses, int threads, int depth,
+            int gamesInFlight, int batchSize, int cacheEntries, int tableMB) {
+        if (threads <= 0 || gamesInFlight <= 0 || batchSize <= 0 || cacheEntries <= 0) {
+            throw new IllegalArgumentException("threads, gamesInFlight, batchSize and cacheEntries must be positive");
+        }
+        if (depth < 1 || depth > SearchLimits.MAX_DEPTH) {
+            throw new IllegalArgumentException("depth must be between 1 and " + SearchLimits.MAX_DEPTH);
+        }
+        this.archive = archive;
+        this.analyses = analyses;
+        this.depth = depth;
+        this.gamesInFlight = gamesInFlight;
+        this.batchSize = batchSize;
+        AtomicInteger count = new AtomicInteger();
+        // The queue is bounded by gamesInFlight, as only games holding a slot have positions queued
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "game-analysis-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.searchers = ThreadLocal.withInitial(
+                () -> new Searcher(new PieceSquareEvaluator(), new TranspositionTable(tableMB)));
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Evaluation> eldest) {
+                return size() > cacheEntries;
+            }
+        };
+    }
+
+    /**
+     * Analyzes the games archived since the checkpoint, saving the checkpoint
+     * as games are stored. Runs must not overlap.
+     *
+     * @param checkpoint The checkpoint file, which need not exist yet
+     * @return What was analyzed
+     * @throws IOException         if the checkpoint cannot be read or written
+     * @throws DataAccessException if the archive cannot be read or analyses
+     *                             cannot be stored; games stored before the
+     *                             failure stay stored
+     */
+    public Stats run(Path checkpoint) throws IOException, DataAccessException {
+        return run(checkpoint, System.currentTimeMillis() - SETTLE_MILLIS);
+    }
+
+    Stats run(Path checkpoint, long archivedBefore) throws IOException, DataAccessException {
+        long start = System.nanoTime();
+        Cursor from = readCheckpoint(checkpoint);
+        Run run = new Run(checkpoint, from, start);
+        Thread writer = new Thread(run::write, "game-analysis-writer");
+        writer.setDaemon(true);
+        writer.start();
+        try {
+            Cursor after = from;
+            List<GameArchiveDAO.ArchivedGame> page;
+            do {
+                page = archive.listArchivedGames(after.archivedAt(), after.gameID(), archivedBefore, gamesInFlight);
+                for (GameArchiveDAO.ArchivedGame archived : page) {
+                    run.submit(archived);
+                    after = new Cursor(archived.archivedAt(), archived.game().gameID());
+                }
+            } while (page.size() == gamesInFlight);
+        } catch (Aborted e) {
+            // The failure is recorded by the run
+        } catch (DataAccessException | RuntimeException e) {
+            run.fail(e);
+        }
+        run.finish(writer);
+
+        Exception failure = run.failure.get();
+        if (failure instanceof IOException e) {
+            throw e;
+        } else if (failure instanceof DataAccessException e) {
+            throw e;
+        } else if (failure != null) {
+            throw new DataAccessException("Analysis failed: " + failure.getMessage());
+        }
+        return new Stats(run.stored.sum(), run.skipped.sum(), run.positions.sum(), run.cacheHits.sum(),
+                Duration.ofNanos(System.nanoTime() - start));
+    }
+
+    /**
+     * Stops the search threads. Must not be called while a run is in progress.
+     */
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    // Replays a game's moves, returning every position from the start to the stored one, or null if they do not
+    // lead there
+    static List<ChessGame> replay(ChessGame stored, List<ChessMove> history) {
+        if (history.isEmpty()) {
+            return null;
+        }
+        ChessGame game = Fen.parse(Fen.START).game();
+        List<ChessGame> positions = new ArrayList<>(history.size() + 1);
+        positions.add(game.copy());
+        try {
+            for (ChessMove move : history) {
+                game.makeMove(move);
+                positions.add(game.copy());
+            }
+        } catch (InvalidMoveException e) {
+            return null;
+        }
+        return game.getBoard().equals(stored.getBoard()) ? positions : null;
+    }
+
+    // Scores a game from its positions' evaluations, each from the side to move's point of view
+    static GameAnalysis score(int gameID, int depth, List<ChessMove> moves, int[] scores, ChessMove[] bestMoves) {
+        List<GameAnalysis.MoveEvaluation> evaluations = new ArrayList<>(moves.size());
+        for (int ply = 0; ply < moves.size(); ply++) {
+            // The move is worth the negation of the reply's score, so the loss is the two scores' sum
+            int loss = Math.max(0, Math.min(GameAnalysis.MAX_LOSS, scores[ply] + scores[ply + 1]));
+            int whiteScore = ply % 2 == 0 ? -scores[ply + 1] : scores[ply + 1];
+            evaluations.add(new GameAnalysis.MoveEvaluation(coordinates(moves.get(ply)),
+                    bestMoves[ply] == null ? null : coordinates(bestMoves[ply]), whiteScore, loss));
+        }
+        return new GameAnalysis(gameID, depth, evaluations);
+    }
+
+    private static String coordinates(ChessMove move) {
+        String text = Fen.squareName(move.getStartPosition()) + Fen.squareName(move.getEndPosition());
+        if (move.getPromotionPiece() == null) {
+            return text;
+        }
+        return text + switch (move.getPromotionPiece()) {
+            case QUEEN -> "q";
+            case ROOK -> "r";
+            case BISHOP -> "b";
+            default -> "n";
+        };
+    }
+
+    private Evaluation evaluate(ChessGame position, Run run) {
+        long hash = Zobrist.hash(position);
+        Evaluation evaluation;
+        synchronized (cache) {
+            evaluation = cache.get(hash);
+        }
+        run.positions.increment();
+        if (evaluation != null) {
+            run.cacheHits.increment();
+            return evaluation;
+        }
+        SearchResult result = searchers.get().search(position, SearchLimits.depth(depth));
+        evaluation = new Evaluation(result.score(), result.bestMove());
+        synchronized (cache) {
+            cache.put(hash, evaluation);
+        }
+        return evaluation;
+    }
+
+    private static Cursor readCheckpoint(Path file) throws IOException {
+        if (!Files.exists(file)) {
+            return new Cursor(0, 0);
+        }
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        }
+        try {
+            return new Cursor(Long.parseLong(properties.getProperty("archivedAt", "0")),
+                    Integer.parseInt(properties.getProperty("gameID", "0")));
+        } catch (NumberFormatException e) {
+            throw new IOException("Not an analysis checkpoint: " + file, e);
+        }
+    }
+
+    // Written beside the checkpoint and moved over it, so a crash leaves the old or new checkpoint, never half of one
+    private static void writeCheckpoint(Path file, Cursor cursor) throws IOException {
+        Properties properties = new Properties();
+        properties.setProperty("archivedAt", Long.toString(cursor.archivedAt()));
+        properties.setProperty("gameID", Integer.toString(cursor.gameID()));
+        Path directory = file.toAbsolutePath().getParent();
+        Path temp = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+        try {
+            try (Writer writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                properties.store(writer, "Game analysis checkpoint");
+            }
+            Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    // Thrown from the archive stream to stop reading once the run has failed
+    private static final class Aborted extends RuntimeException {
+        Aborted() {
+            super(null, null, false, false);
+        }
+    }
+
+    // One game from being read until it is stored
+    private static final class Job {
+        final Cursor cursor;
+        final int gameID;
+        final List<ChessMove> moves;
+        final List<ChessGame> positions;
+        final int[] scores;
+        final ChessMove[] bestMoves;
+        final AtomicInteger remaining;
+        GameAnalysis analysis;
+        boolean done;
+
+        Job(Cursor cursor, int gameID, List<ChessMove> moves, List<ChessGame> positions) {
+            this.cursor = cursor;
+            this.gameID = gameID;
+            this.moves = moves;
+            this.positions = positions;
+            this.scores = new int[positions.size()];
+            this.bestMoves = new ChessMove[positions.size()];
+            this.remaining = new AtomicInteger(positions.size());
+        }
+    }
+
+    private static final Job END = new Job(null, 0, List.of(), List.of());
+
+    private final class Run {
+        final Path checkpoint;
+        final long start;
+        final Semaphore slots = new Semaphore(gamesInFlight);
+        // Games in the order they were read, so the checkpoint only passes games that are stored
+        final ArrayDeque<Job> order = new ArrayDeque<>();
+        final BlockingQueue<Job> completed = new LinkedBlockingQueue<>();
+        final AtomicReference<Exception> failure = new AtomicReference<>();
+        final LongAdder stored = new LongAdder();
+        final LongAdder skipped = new LongAdder();
+        final LongAdder positions = new LongAdder();
+        final LongAdder cacheHits = new LongAdder();
+        Cursor watermark;
+        Cursor saved;
+        long lastReport;
+
+        Run(Path checkpoint, Cursor from, long start) {
+            this.checkpoint = checkpoint;
+            this.watermark = from;
+            this.saved = from;
+            this.start = start;
+            this.lastReport = start;
+        }
+
+        void submit(GameArchiveDAO.ArchivedGame archived) {
+            if (failure.get() != null) {
+                throw new Aborted();
+            }
+            try {
+                slots.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                fail(new DataAccessException("Interrupted reading the archive"));
+                throw new Aborted();
+            }
+            GameData data = archived.game();
+            List<ChessMove> moves;
+            List<ChessGame> replayed;
+            try {
+                moves = data.game().getMoveHistory();
+                replayed = replay(data.game(), moves);
+            } catch (RuntimeException e) {
+                // An unreadable history is skipped like one that does not replay
+                System.err.println("[GameAnalysisPipeline] Skipping game " + data.gameID() + ": " + e.getMessage());
+                moves = List.of();
+                replayed = null;
+            }
+            Job job = new Job(new Cursor(archived.archivedAt(), data.gameID()), data.gameID(), moves,
+                    replayed == null ? List.of() : replayed);
+            synchronized (order) {
+                order.addLast(job);
+            }
+            if (replayed == null) {
+                skipped.increment();
+                markDone(List.of(job));
+                slots.release();
+                return;
+            }
+            for (int i = 0; i < job.positions.size(); i++) {
+                int ply = i;
+                executor.execute(() -> search(job, ply));
+            }
+        }
+
+        void search(Job job, int ply) {
+            try {
+                if (failure.get() == null) {
+                    Evaluation evaluation = evaluate(job.positions.get(ply), this);
+                    job.scores[ply] = evaluation.score();
+                    job.bestMoves[ply] = evaluation.bestMove();
+                }
+            } catch (RuntimeException e) {
+                fail(e);
+            } finally {
+                if (job.remaining.decrementAndGet() == 0) {
+                    if (failure.get() == null) {
+                        job.analysis = score(job.gameID, depth, job.moves, job.scores, job.bestMoves);
+                    }
+                    completed.add(job);
+                }
+            }
+        }
+
+        // Runs on the writer thread until the end marker, which is only sent once every game has been through here
+        void write() {
+            List<Job> batch = new ArrayList<>(batchSize);
+            List<GameAnalysis> results = new ArrayList<>(batchSize);
+            while (true) {
+                Job first;
+                try {
+                    first = completed.take();
+                } catch (InterruptedException e) {
+                    fail(new DataAccessException("Interrupted storing analyses"));
+                    return;
+                }
+                if (first == END) {
+                    return;
+                }
+                batch.add(first);
+                completed.drainTo(batch, batchSize - 1);
+                for (Job job : batch) {
+                    if (job.analysis != null) {
+                        results.add(job.analysis);
+                    }
+                }
+                if (failure.get() == null && results.size() == batch.size()) {
+                    try {
+                        analyses.saveAnalyses(results);
+                        stored.add(results.size());
+                        markDone(batch);
+                        saveCheckpoint();
+                        reportProgress();
+                    } catch (DataAccessException | IOException e) {
+                        fail(e);
+                    }
+                }
+                // Failed batches are not stored, but their slots are freed so the run can wind down
+                slots.release(batch.size());
+                batch.clear();
+                results.clear();
+            }
+        }
+
+        void markDone(List<Job> jobs) {
+            synchronized (order) {
+                for (Job job : jobs) {
+                    job.done = true;
+                }
+                while (!order.isEmpty() && order.peekFirst().done) {
+                    watermark = order.removeFirst().cursor;
+                }
+            }
+        }
+
+        void saveCheckpoint() throws IOException {
+            Cursor current;
+            synchronized (order) {
+                current = watermark;
+            }
+            if (!current.equals(saved)) {
+                writeCheckpoint(checkpoint, current);
+                saved = current;
+            }
+        }
+
+        void reportProgress() {
+            long now = System.nanoTime();
+            if (now - lastReport >= PROGRESS_INTERVAL_NANOS) {
+                lastReport = now;
+                double seconds = (now - start) / 1e9;
+                System.out.printf(Locale.ROOT, "[GameAnalysisPipeline] Analyzed %d games (%.1f games/s, "
+                        + "%.0f positions/s)%n", stored.sum(), stored.sum() / seconds, positions.sum() / seconds);
+            }
+        }
+
+        void fail(Exception e) {
+            failure.compareAndSet(null, e);
+        }
+
+        // Waits for every game read to be stored or dropped, then stops the writer and saves the checkpoint
+        void finish(Thread writer) {
+            slots.acquireUninterruptibly(gamesInFlight);
+            completed.add(END);
+            try {
+                writer.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                fail(new DataAccessException("Interrupted waiting for the writer"));
+                return;
+            }
+            if (failure.get() == null) {
+                try {
+                    saveCheckpoint();
+                } catch (IOException e) {
+                    fail(e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Analyzes the games archived in the database configured in db.properties
+     * since the last run.
+     * <p>
+     * Usage: {@code <checkpointFile> [depth] [threads]}
+     * </p>
+     *
+     * @param args The command line
+     */
+    public static void main(String[] args) {
+        if (args.length < 1 || args.length > 3) {
+            System.err.println("Usage: GameAnalysisPipeline <checkpointFile> [depth] [threads]");
+            System.exit(2);
+        }
+        try (MySQLGameArchiveDAO archive = new MySQLGameArchiveDAO();
+                MySQLGameAnalysisDAO analyses = new MySQLGameAnalysisDAO();
+                GameAnalysisPipeline pipeline = new GameAnalysisPipeline(archive, analyses,
+                        args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors(),
+                        args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_DEPTH)) {
+            Stats stats = pipeline.run(Path.of(args[0]));
+            System.out.println("[GameAnalysisPipeline] Done: " + stats);
+        } catch (Exception e) {
+            System.err.println("[GameAnalysisPipeline] Failed: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+}
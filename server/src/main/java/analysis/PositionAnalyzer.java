@@ -0,0 +1,213 @@
+package analysis;
+
+import chess.ChessGame;
+import chess.engine.PieceSquareEvaluator;
+import chess.engine.SearchLimits;
+import chess.engine.SearchResult;
+import chess.engine.Searcher;
+import chess.engine.TranspositionTable;
+import chess.engine.Zobrist;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Analyzes positions for clients on a dedicated, bounded pool of search
+ * threads, caching and sharing the results.
+ * <p>
+ * Results are cached by position hash and depth, so a position that many
+ * spectators are watching is searched once per depth. Requests for a position
+ * already being searched to the same depth wait for that search instead of
+ * starting another. Searches are capped at a maximum depth and time; one cut
+ * short by the time cap is still returned but not cached, so a later request
+ * can search it fully.
+ * </p>
+ * <p>
+ * At most {@code threads} searches run at once and at most
+ * {@code queueCapacity} wait; a request beyond that fails at once. Each search
+ * thread keeps its own {@link Searcher} and transposition table.
+ * </p>
+ */
+public class PositionAnalyzer implements AutoCloseable {
+    public static final int DEFAULT_DEPTH = 8;
+    public static final int DEFAULT_MAX_DEPTH = 12;
+    public static final Duration DEFAULT_MAX_TIME = Duration.ofSeconds(2);
+    public static final int DEFAULT_QUEUE_CAPACITY = 256;
+    public static final int DEFAULT_CACHE_ENTRIES = 10_000;
+    public static final int DEFAULT_TABLE_MB = 16;
+    // The error for an analysis turned away because the pool is saturated or the answer took too long
+    public static final String BUSY = "Error: analysis busy";
+
+    private record Key(long hash, int depth) {
+    }
+
+    private final ThreadPoolExecutor executor;
+    private final ThreadLocal<Searcher> searchers;
+    private final int maxDepth;
+    private final Duration maxTime;
+    private final Map<Key, SearchResult> cache;
+    private final ConcurrentHashMap<Key, CompletableFuture<SearchResult>> inFlight = new ConcurrentHashMap<>();
+
+    private final LongAdder searches = new LongAdder();
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    /**
+     * A snapshot of the analyzer's counters.
+     *
+     * @param searches  Searches run
+     * @param cacheHits Requests answered from the cache
+     * @param coalesced Requests that joined a search already running
+     * @param rejected  Requests shed because the pool was saturated
+     * @param queued    Searches currently waiting for a thread
+     */
+    public record Metrics(long searches, long cacheHits, long coalesced, long rejected, int queued) {
+    }
+
+    /**
+     * Creates an analyzer with the default limits.
+     *
+     * @param threads The number of searches that may run at once
+     */
+    public PositionAnalyzer(int threads) {
+        this(threads, DEFAULT_QUEUE_CAPACITY, DEFAULT_CACHE_ENTRIES, DEFAULT_TABLE_MB, DEFAULT_MAX_DEPTH,
+                DEFAULT_MAX_TIME);
+    }
+
+    /**
+     * Creates an analyzer.
+     *
+     * @param threads       The number of searches that may run at once
+     * @param queueCapacity The number of searches that may wait for a thread
+     * @param cacheEntries  The number of results to keep
+     * @param tableMB       The transposition table size for each search thread
+     * @param maxDepth      The deepest search a request may ask for
+     * @param maxTime       The longest a search may run
+     */
+    public PositionAnalyzer(int threads, int queueCapacity, int cacheEntries, int tableMB, int maxDepth,
+            Duration maxTime) {
+        if (threads <= 0 || queueCapacity <= 0 || cacheEntries <= 0) {
+            throw new IllegalArgumentException("threads, queueCapacity and cacheEntries must be positive");
+        }
+        if (maxDepth < 1 || maxDepth > SearchLimits.MAX_DEPTH) {
+            throw new IllegalArgumentException("maxDepth must be between 1 and " + SearchLimits.MAX_DEPTH);
+        }
+        AtomicInteger count = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "analysis-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    thread.setPriority(Thread.NORM_PRIORITY - 1);
+                    return thread;
+                });
+        this.searchers = ThreadLocal.withInitial(
+                () -> new Searcher(new PieceSquareEvaluator(), new TranspositionTable(tableMB)));
+        this.maxDepth = maxDepth;
+        this.maxTime = maxTime;
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, SearchResult> eldest) {
+                return size() > cacheEntries;
+            }
+        };
+    }
+
+    /**
+     * Gets the deepest search a request may ask for.
+     *
+     * @return The depth cap in plies
+     */
+    public int maxDepth() {
+        return maxDepth;
+    }
+
+    /**
+     * Starts analyzing a position. The game is read before this returns, so
+     * callers sharing the game must hold its monitor during the call.
+     *
+     * @param game  The game, which must not be over
+     * @param depth The depth to search, clamped to 1 through {@link #maxDepth()}
+     * @return The analysis; fails with {@link RejectedExecutionException} if the
+     *         pool is saturated
+     * @throws IllegalArgumentException if the game is over
+     */
+    public CompletableFuture<SearchResult> analyze(ChessGame game, int depth) {
+        if (game.getTeamTurn() == null) {
+            throw new IllegalArgumentException("Cannot analyze a finished game");
+        }
+        Key key = new Key(Zobrist.hash(game), Math.max(1, Math.min(depth, maxDepth)));
+        SearchResult cached = cached(key);
+        if (cached != null) {
+            cacheHits.increment();
+            return CompletableFuture.completedFuture(cached);
+        }
+
+        CompletableFuture<SearchResult> search = new CompletableFuture<>();
+        CompletableFuture<SearchResult> running = inFlight.putIfAbsent(key, search);
+        if (running != null) {
+            coalesced.increment();
+            return running.copy();
+        }
+        ChessGame position = game.copy();
+        try {
+            executor.execute(() -> {
+                SearchResult result;
+                try {
+                    searches.increment();
+                    result = searchers.get().search(position, SearchLimits.depth(key.depth()).withTime(maxTime));
+                } catch (RuntimeException e) {
+                    inFlight.remove(key, search);
+                    search.completeExceptionally(e);
+                    return;
+                }
+                // Cache before completing, so a caller that has its answer finds it cached on the next request
+                if (result.depth() >= key.depth() || result.isMate()) {
+                    synchronized (cache) {
+                        cache.put(key, result);
+                    }
+                }
+                inFlight.remove(key, search);
+                search.complete(result);
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            inFlight.remove(key, search);
+            search.completeExceptionally(e);
+        }
+        return search.copy();
+    }
+
+    /**
+     * Gets the current counters.
+     *
+     * @return A snapshot of the metrics
+     */
+    public Metrics metrics() {
+        return new Metrics(searches.sum(), cacheHits.sum(), coalesced.sum(), rejected.sum(),
+                executor.getQueue().size());
+    }
+
+    /**
+     * Stops the search threads. Analyses still running are abandoned.
+     */
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    private SearchResult cached(Key key) {
+        synchronized (cache) {
+            return cache.get(key);
+        }
+    }
+}
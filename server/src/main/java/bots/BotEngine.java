@@ -0,0 +1,188 @@
+package bots;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.book.OpeningBook;
+import chess.engine.PieceSquareEvaluator;
+import chess.engine.SearchLimits;
+import chess.engine.SearchResult;
+import chess.engine.Searcher;
+import chess.engine.TranspositionTable;
+import chess.tablebase.Tablebase;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Chooses bot moves on a dedicated, bounded pool of search threads.
+ * <p>
+ * Searches are CPU-bound and last as long as a bot's time budget, so they
+ * never run on Jetty's threads or the DAO pool. At most {@code threads}
+ * searches run at once and at most {@code queueCapacity} wait; a request
+ * beyond that fails at once rather than delaying every other game. A move's
+ * budget starts when it is requested, so a search that waited in the queue
+ * gets less time and bot replies stay close to their budgets under load.
+ * Each search thread keeps its own {@link Searcher} and transposition table,
+ * so no search state is shared between games.
+ * </p>
+ * <p>
+ * With an {@link OpeningBook} or a {@link Tablebase}, positions either one
+ * covers are answered on the caller's thread straight from it, without
+ * queueing or searching.
+ * </p>
+ */
+public class BotEngine implements AutoCloseable {
+    public static final int DEFAULT_QUEUE_CAPACITY = 4096;
+    public static final int DEFAULT_TABLE_MB = 16;
+
+    private final ThreadPoolExecutor executor;
+    private final ThreadLocal<Searcher> searchers;
+    private final OpeningBook book;
+    private final Tablebase tablebase;
+
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder bookMoves = new LongAdder();
+    private final LongAdder tablebaseMoves = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+    /**
+     * A snapshot of the engine's counters.
+     *
+     * @param completed      Moves chosen by searching
+     * @param bookMoves      Moves taken from the opening book
+     * @param tablebaseMoves Moves taken from the endgame tablebase
+     * @param rejected       Requests shed because the pool was saturated
+     * @param queued         Requests currently waiting for a search thread
+     * @param averageMillis  Mean time from request to move
+     * @param maxMillis      Longest time from request to move
+     */
+    public record Metrics(long completed, long bookMoves, long tablebaseMoves, long rejected, int queued,
+            double averageMillis, double maxMillis) {
+    }
+
+    /**
+     * Creates an engine.
+     *
+     * @param threads       The number of searches that may run at once
+     * @param queueCapacity The number of searches that may wait for a thread
+     * @param tableMB       The transposition table size for each search thread
+     */
+    public BotEngine(int threads, int queueCapacity, int tableMB) {
+        this(threads, queueCapacity, tableMB, null, null);
+    }
+
+    /**
+     * Creates an engine that plays from an opening book and an endgame
+     * tablebase where they cover the position.
+     *
+     * @param threads       The number of searches that may run at once
+     * @param queueCapacity The number of searches that may wait for a thread
+     * @param tableMB       The transposition table size for each search thread
+     * @param book          The opening book, or null for none
+     * @param tablebase     The endgame tablebase, or null for none
+     */
+    public BotEngine(int threads, int queueCapacity, int tableMB, OpeningBook book, Tablebase tablebase) {
+        if (threads <= 0 || queueCapacity <= 0) {
+            throw new IllegalArgumentException("threads and queueCapacity must be positive");
+        }
+        AtomicInteger count = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "bot-search-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    // Bots should never slow down threads serving people
+                    thread.setPriority(Thread.NORM_PRIORITY - 1);
+                    return thread;
+                });
+        this.searchers = ThreadLocal.withInitial(
+                () -> new Searcher(new PieceSquareEvaluator(), new TranspositionTable(tableMB)));
+        this.book = book;
+        this.tablebase = tablebase;
+    }
+
+    /**
+     * Starts choosing a move. The game is copied before this returns, so the
+     * caller may change it afterwards; callers sharing the game must hold its
+     * monitor during the call. A move from the book or tablebase is returned
+     * already complete.
+     *
+     * @param game The game, with the bot to move
+     * @param bot  The bot choosing
+     * @return The chosen move; fails with {@link RejectedExecutionException} if
+     *         the pool is saturated, or {@link IllegalArgumentException} if the
+     *         game is over
+     */
+    public CompletableFuture<ChessMove> chooseMove(ChessGame game, BotProfile bot) {
+        if (book != null && game.getTeamTurn() != null) {
+            ChessMove booked = book.choose(game, ThreadLocalRandom.current());
+            if (booked != null) {
+                bookMoves.increment();
+                return CompletableFuture.completedFuture(booked);
+            }
+        }
+        if (tablebase != null && game.getTeamTurn() != null) {
+            ChessMove perfect = tablebase.bestMove(game);
+            if (perfect != null) {
+                tablebaseMoves.increment();
+                return CompletableFuture.completedFuture(perfect);
+            }
+        }
+        long requested = System.nanoTime();
+        ChessGame position = game.copy();
+        CompletableFuture<ChessMove> move = new CompletableFuture<>();
+        try {
+            executor.execute(() -> {
+                try {
+                    long remaining = bot.moveTime().toNanos() - (System.nanoTime() - requested);
+                    // The first iteration always completes, so even a spent budget yields a move
+                    SearchLimits limits = SearchLimits.time(Duration.ofNanos(Math.max(remaining, 1)))
+                            .withDepth(bot.maxDepth());
+                    SearchResult result = searchers.get().search(position, limits);
+                    if (result.bestMove() == null) {
+                        throw new IllegalArgumentException("Game is over");
+                    }
+                    long elapsed = System.nanoTime() - requested;
+                    completed.increment();
+                    totalNanos.add(elapsed);
+                    maxNanos.accumulate(elapsed);
+                    move.complete(result.bestMove());
+                } catch (RuntimeException e) {
+                    move.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            move.completeExceptionally(e);
+        }
+        return move;
+    }
+
+    /**
+     * Gets the current counters.
+     *
+     * @return A snapshot of the metrics
+     */
+    public Metrics metrics() {
+        long done = completed.sum();
+        return new Metrics(done, bookMoves.sum(), tablebaseMoves.sum(), rejected.sum(), executor.getQueue().size(),
+                done == 0 ? 0 : totalNanos.sum() / 1e6 / done, maxNanos.get() / 1e6);
+    }
+
+    /**
+     * Stops the search threads. Moves still being chosen are abandoned.
+     */
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,25 @@
+package bots;
+
+import java.time.Duration;
+
+/**
+ * A bot account and how hard it thinks.
+ *
+ * @param username The name the bot is seated under
+ * @param moveTime The time budget for each move, counted from when the move is
+ *                 requested, so time spent waiting for a search thread counts
+ * @param maxDepth The deepest the bot searches, which keeps weak bots weak
+ */
+public record BotProfile(String username, Duration moveTime, int maxDepth) {
+    public BotProfile {
+        if (username == null || username.isBlank()) {
+            throw new IllegalArgumentException("Bot username must not be blank");
+        }
+        if (moveTime == null || moveTime.isNegative() || moveTime.isZero()) {
+            throw new IllegalArgumentException("Bot move time must be positive");
+        }
+        if (maxDepth < 1) {
+            throw new IllegalArgumentException("Bot depth must be at least 1");
+        }
+    }
+}
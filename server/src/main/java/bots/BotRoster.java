@@ -0,0 +1,93 @@
+package bots;
+
+import dataaccess.DataAccessException;
+import dataaccess.interfaces.UserDAO;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The bot accounts the server plays. Bot names are reserved, so no user can
+ * register under one; a name a user already had before the bot was configured
+ * is left to the user, see {@link #withoutUsers(UserDAO)}.
+ */
+public class BotRoster {
+    private final Map<String, BotProfile> bots = new LinkedHashMap<>();
+
+    /**
+     * Creates a roster.
+     *
+     * @param profiles The bots
+     * @throws IllegalArgumentException if two bots share a name
+     */
+    public BotRoster(Collection<BotProfile> profiles) {
+        for (BotProfile profile : profiles) {
+            if (bots.put(profile.username(), profile) != null) {
+                throw new IllegalArgumentException("Duplicate bot name: " + profile.username());
+            }
+        }
+    }
+
+    /**
+     * Creates a roster with no bots.
+     *
+     * @return An empty roster
+     */
+    public static BotRoster empty() {
+        return new BotRoster(List.of());
+    }
+
+    /**
+     * Leaves out bots whose names already belong to registered users. Such a
+     * bot would otherwise play every game that user is seated in, so it is
+     * not started and the clash is logged.
+     *
+     * @param users The registered users
+     * @return The bots whose names are free
+     * @throws DataAccessException if the users cannot be read
+     */
+    public BotRoster withoutUsers(UserDAO users) throws DataAccessException {
+        List<BotProfile> free = new ArrayList<>();
+        for (BotProfile profile : bots.values()) {
+            if (users.getUser(profile.username()) != null) {
+                System.err.println("[BotRoster] Not starting bot " + profile.username()
+                        + ": a user already has that name");
+            } else {
+                free.add(profile);
+            }
+        }
+        return free.size() == bots.size() ? this : new BotRoster(free);
+    }
+
+    /**
+     * Looks up a bot by name.
+     *
+     * @param username The name, which may be null
+     * @return The bot, or null if the name is not a bot's
+     */
+    public BotProfile get(String username) {
+        return username == null ? null : bots.get(username);
+    }
+
+    /**
+     * Checks whether a name belongs to a bot.
+     *
+     * @param username The name, which may be null
+     * @return Whether a bot has that name
+     */
+    public boolean isBot(String username) {
+        return get(username) != null;
+    }
+
+    /**
+     * Lists the bots.
+     *
+     * @return The bots, in the order they were configured
+     */
+    public Collection<BotProfile> profiles() {
+        return List.copyOf(bots.values());
+    }
+}
@@ -0,0 +1,91 @@
+package dataaccess;
+
+import dataaccess.interfaces.AuthDAO;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodically deletes expired auth tokens in the background.
+ * <p>
+ * Each sweep deletes tokens in small batches and pauses briefly between
+ * batches, so clearing a large backlog never holds locks on the auth table
+ * long enough to stall logins or lookups.
+ * </p>
+ */
+public class AuthTokenSweeper implements AutoCloseable {
+    public static final Duration DEFAULT_INTERVAL = Duration.ofMinutes(1);
+    public static final int DEFAULT_BATCH_SIZE = 500;
+
+    private static final long PAUSE_BETWEEN_BATCHES_MILLIS = 10;
+
+    private final AuthDAO authDAO;
+    private final int batchSize;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "auth-token-sweeper");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Starts sweeping.
+     *
+     * @param authDAO   The DAO to delete expired tokens from
+     * @param interval  The time between sweeps
+     * @param batchSize The maximum number of tokens deleted per statement
+     */
+    public AuthTokenSweeper(AuthDAO authDAO, Duration interval, int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("batchSize must be positive");
+        }
+        this.authDAO = authDAO;
+        this.batchSize = batchSize;
+        long millis = interval.toMillis();
+        scheduler.scheduleWithFixedDelay(this::sweepSafely, millis, millis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Deletes every expired token, one batch at a time.
+     *
+     * @return The number of tokens deleted
+     * @throws DataAccessException if a batch fails
+     */
+    public int sweep() throws DataAccessException {
+        int total = 0;
+        int deleted;
+        do {
+            deleted = authDAO.deleteExpired(batchSize);
+            total += deleted;
+            if (deleted == batchSize) {
+                try {
+                    Thread.sleep(PAUSE_BETWEEN_BATCHES_MILLIS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        } while (deleted == batchSize);
+        return total;
+    }
+
+    /**
+     * Stops sweeping.
+     */
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+
+    private void sweepSafely() {
+        try {
+            int deleted = sweep();
+            if (deleted > 0) {
+                System.out.println("[AuthTokenSweeper] Deleted " + deleted + " expired auth tokens");
+            }
+        } catch (DataAccessException | RuntimeException e) {
+            System.err.println("[AuthTokenSweeper] Sweep failed: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package dataaccess;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Helpers for running blocking DAO calls off the caller's thread and for
+ * turning the resulting futures back into ordinary results and exceptions.
+ */
+public final class DataAccessFutures {
+
+    /**
+     * A blocking data access call.
+     *
+     * @param <T> The call's result type
+     */
+    @FunctionalInterface
+    public interface Call<T> {
+        T call() throws DataAccessException;
+    }
+
+    // JDBC calls block, so they get their own platform threads rather than the common pool
+    private static final class IoPool {
+        private static final AtomicInteger COUNT = new AtomicInteger();
+        private static final ExecutorService EXECUTOR = Executors.newFixedThreadPool(
+                Math.max(4, Runtime.getRuntime().availableProcessors() * 2), runnable -> {
+                    Thread thread = new Thread(runnable, "dao-io-" + COUNT.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    private DataAccessFutures() {
+    }
+
+    /**
+     * Gets the shared pool that the DAO adapters run blocking calls on.
+     *
+     * @return The I/O executor
+     */
+    public static Executor ioExecutor() {
+        return IoPool.EXECUTOR;
+    }
+
+    /**
+     * Runs a blocking call on an executor.
+     *
+     * @param call     The call to run
+     * @param executor Where to run it
+     * @param <T>      The call's result type
+     * @return A future holding the result, or completed exceptionally with
+     *         whatever the call threw
+     */
+    public static <T> CompletableFuture<T> supplyAsync(Call<T> call, Executor executor) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return call.call();
+            } catch (DataAccessException e) {
+                throw new CompletionException(e);
+            }
+        }, executor);
+    }
+
+    /**
+     * Waits for a future and rethrows its failure as the exception the blocking
+     * call would have thrown, so that callers and handlers see the same
+     * {@code DataAccessException} or {@code "Error: ..."} runtime exception.
+     *
+     * @param future The future to wait for
+     * @param <T>    The result type
+     * @return The result
+     * @throws DataAccessException if the operation failed with one
+     */
+    public static <T> T join(CompletableFuture<T> future) throws DataAccessException {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = unwrap(e);
+            if (cause instanceof DataAccessException dataAccess) {
+                throw dataAccess;
+            } else if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            } else if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new DataAccessException(cause.getMessage());
+        }
+    }
+
+    /**
+     * Strips the {@code CompletionException} wrappers a future adds around a
+     * failure.
+     *
+     * @param failure The failure passed to a completion stage
+     * @return The original exception
+     */
+    public static Throwable unwrap(Throwable failure) {
+        while (failure instanceof CompletionException && failure.getCause() != null) {
+            failure = failure.getCause();
+        }
+        return failure;
+    }
+}
@@ -0,0 +1,107 @@
+package dataaccess;
+
+import dataaccess.interfaces.GameArchiveDAO;
+import dataaccess.interfaces.GameDAO;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodically moves finished games out of the live games table into the
+ * archive.
+ * <p>
+ * Each game is written to the archive before it is deleted from the live
+ * store, so a game is always readable from one or the other. Games are moved
+ * in small batches, in game ID order, with a short pause between them. A game
+ * is only deleted if it has not changed since it was listed; games that
+ * changed, or that clients are still viewing, are passed over until a later
+ * run, and each batch starts after the last game the one before it listed.
+ * </p>
+ */
+public class GameArchiver implements AutoCloseable {
+    public static final Duration DEFAULT_INTERVAL = Duration.ofMinutes(5);
+    public static final int DEFAULT_BATCH_SIZE = 100;
+
+    private static final long PAUSE_BETWEEN_BATCHES_MILLIS = 10;
+
+    private final GameDAO games;
+    private final GameArchiveDAO archive;
+    private final int batchSize;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "game-archiver");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Starts archiving.
+     *
+     * @param games     The live games to move finished games out of
+     * @param archive   The archive to move them into
+     * @param interval  The time between runs
+     * @param batchSize The maximum number of games moved per batch
+     */
+    public GameArchiver(GameDAO games, GameArchiveDAO archive, Duration interval, int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("batchSize must be positive");
+        }
+        this.games = games;
+        this.archive = archive;
+        this.batchSize = batchSize;
+        long millis = interval.toMillis();
+        scheduler.scheduleWithFixedDelay(this::archiveSafely, millis, millis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Moves every finished game that can be moved, one batch at a time.
+     *
+     * @return The number of games archived
+     * @throws DataAccessException if listing or archiving fails
+     */
+    public int archiveFinished() throws DataAccessException {
+        int total = 0;
+        int after = 0;
+        while (true) {
+            Collection<GameDAO.FinishedGame> finished = games.listFinishedGames(after, batchSize);
+            for (GameDAO.FinishedGame game : finished) {
+                archive.archiveGame(game.game());
+                // Otherwise in use or changed; the archived copy is replaced when it is moved later
+                if (games.deleteGameIfUnchanged(game)) {
+                    total++;
+                }
+                after = game.game().gameID();
+            }
+            if (finished.size() < batchSize) {
+                return total;
+            }
+            try {
+                Thread.sleep(PAUSE_BETWEEN_BATCHES_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return total;
+            }
+        }
+    }
+
+    /**
+     * Stops archiving.
+     */
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+
+    private void archiveSafely() {
+        try {
+            int archived = archiveFinished();
+            if (archived > 0) {
+                System.out.println("[GameArchiver] Archived " + archived + " finished games");
+            }
+        } catch (DataAccessException | RuntimeException e) {
+            System.err.println("[GameArchiver] Archiving failed: " + e.getMessage());
+        }
+    }
+}
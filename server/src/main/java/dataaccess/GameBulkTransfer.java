@@ -0,0 +1,452 @@
+package dataaccess;
+
+import chess.ChessGame;
+import chess.InvalidMoveException;
+import chess.notation.Fen;
+import chess.notation.MoveReplayer;
+import chess.notation.PgnGame;
+import chess.notation.PgnReader;
+import chess.notation.PgnFormatException;
+import chess.notation.PgnWriter;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+import dataaccess.implementations.MySQLGameArchiveDAO;
+import dataaccess.interfaces.BulkGameDAO;
+import dataaccess.interfaces.GameArchiveDAO;
+import dataaccess.interfaces.GameDAO;
+import model.GameData;
+import server.Server;
+import server.ServerConfig;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Imports games from files and exports them to files, streaming one game at a
+ * time.
+ * <p>
+ * Files are read and written through buffered NIO file channels, and games are
+ * handed to the store as they are parsed, so memory use does not grow with the
+ * size of the file. Stores that implement {@link BulkGameDAO} receive games in
+ * JDBC-sized batches and stream them back out; other stores fall back to one
+ * game at a time. Progress is logged as the transfer runs.
+ * </p>
+ * <p>
+ * Two formats are supported. {@link Format#NATIVE} is one JSON game per line,
+ * the same encoding the MySQL store uses, and round-trips every field except
+ * the game ID. {@link Format#PGN} is the standard interchange format. Stored
+ * games keep only the current position, so exported PGN sets it up with a
+ * {@code FEN} tag rather than listing moves; imported PGN games are replayed
+ * move by move. A PGN game that cannot be parsed is skipped, and reading
+ * carries on from the next {@code Event} tag.
+ * </p>
+ * <p>
+ * Exports can include an archive as well, so a dump holds finished games that
+ * have left the live store. Imports always go to the live store.
+ * </p>
+ */
+public class GameBulkTransfer {
+    public static final int DEFAULT_BATCH_SIZE = 1000;
+
+    private static final int IO_BUFFER_SIZE = 1 << 16;
+    private static final long PROGRESS_INTERVAL_NANOS = Duration.ofSeconds(5).toNanos();
+    private static final String DEFAULT_GAME_NAME = "Imported game";
+
+    /**
+     * File formats for games.
+     */
+    public enum Format {
+        PGN, NATIVE
+    }
+
+    /**
+     * The outcome of a transfer.
+     *
+     * @param games   The number of games transferred
+     * @param skipped The number of games in the file that could not be read
+     * @param bytes   The size of the file read or written
+     * @param elapsed The time the transfer took
+     */
+    public record Stats(long games, long skipped, long bytes, Duration elapsed) {
+        /**
+         * Gets the transfer rate.
+         *
+         * @return Games per second
+         */
+        public double gamesPerSecond() {
+            return games / Math.max(elapsed.toNanos() / 1e9, 1e-9);
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "%d games (%d skipped), %.1f MB in %.1fs: %.0f games/s, %.1f MB/s",
+                    games, skipped, bytes / 1e6, elapsed.toNanos() / 1e9, gamesPerSecond(),
+                    bytes / 1e6 / Math.max(elapsed.toNanos() / 1e9, 1e-9));
+        }
+    }
+
+    private final GameDAO games;
+    private final GameArchiveDAO archive;
+    private final Gson gson = new GsonBuilder().serializeNulls().create();
+
+    /**
+     * Creates a transfer against a game store.
+     *
+     * @param games The store to import into or export from
+     */
+    public GameBulkTransfer(GameDAO games) {
+        this(games, null);
+    }
+
+    /**
+     * Creates a transfer against a game store and its archive.
+     *
+     * @param games   The store to import into or export from
+     * @param archive Archived games to export after the store's, or null for
+     *                none
+     */
+    public GameBulkTransfer(GameDAO games, GameArchiveDAO archive) {
+        this.games = games;
+        this.archive = archive;
+    }
+
+    /**
+     * Imports every game in a file as a new game.
+     *
+     * @param file      The file to read
+     * @param format    The file's format
+     * @param batchSize The number of games inserted and committed together
+     * @return What was imported
+     * @throws IOException         if the file cannot be read
+     * @throws DataAccessException if the store rejects a batch; earlier batches
+     *                             stay imported
+     */
+    public Stats importFile(Path file, Format format, int batchSize) throws IOException, DataAccessException {
+        long start = System.nanoTime();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+                BufferedReader reader = new BufferedReader(
+                        Channels.newReader(channel, StandardCharsets.UTF_8.newDecoder(), IO_BUFFER_SIZE),
+                        IO_BUFFER_SIZE)) {
+            GameSource source = new GameSource(format, reader, channel, start);
+            long imported;
+            try {
+                if (games instanceof BulkGameDAO bulk) {
+                    imported = bulk.insertGames(source, batchSize);
+                } else {
+                    imported = 0;
+                    while (source.hasNext()) {
+                        GameData game = source.next();
+                        int gameID = games.createGame(game.gameName());
+                        games.updateGame(gameID, new GameData(gameID, game.whiteUsername(), game.blackUsername(),
+                                game.gameName(), game.game()));
+                        imported++;
+                    }
+                }
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            return new Stats(imported, source.skipped, channel.size(), Duration.ofNanos(System.nanoTime() - start));
+        }
+    }
+
+    /**
+     * Exports every game in the store, then every archived game, to a file,
+     * replacing its contents.
+     *
+     * @param file   The file to write
+     * @param format The format to write
+     * @return What was exported
+     * @throws IOException         if the file cannot be written
+     * @throws DataAccessException if the games cannot be read
+     */
+    public Stats exportFile(Path file, Format format) throws IOException, DataAccessException {
+        long start = System.nanoTime();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+                BufferedWriter writer = new BufferedWriter(
+                        Channels.newWriter(channel, StandardCharsets.UTF_8.newEncoder(), IO_BUFFER_SIZE),
+                        IO_BUFFER_SIZE)) {
+            GameSink sink = new GameSink(format, writer, channel, start);
+            try {
+                if (games instanceof BulkGameDAO bulk) {
+                    bulk.forEachGame(sink::write);
+                } else {
+                    games.listGames().forEach(sink::write);
+                }
+                if (archive != null) {
+                    archive.forEachArchivedGame(Long.MIN_VALUE, 0, Long.MAX_VALUE,
+                            archived -> sink.write(archived.game()));
+                }
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            sink.flush();
+            return new Stats(sink.count, 0, channel.size(), Duration.ofNanos(System.nanoTime() - start));
+        }
+    }
+
+    /**
+     * Converts a PGN game to a stored game by replaying its moves.
+     *
+     * @param pgn The game read from PGN
+     * @return The game, with ID 0
+     * @throws InvalidMoveException     if a move cannot be played
+     * @throws IllegalArgumentException if the starting position is invalid
+     */
+    static GameData fromPgn(PgnGame pgn) throws InvalidMoveException {
+        String fen = pgn.tag("FEN");
+        MoveReplayer replayer = fen != null ? new MoveReplayer(Fen.parse(fen)) : new MoveReplayer();
+        for (String move : pgn.moves()) {
+            replayer.play(move);
+        }
+        ChessGame game = replayer.game();
+        String termination = pgn.tag("Termination");
+        if (!pgn.result().equals(PgnGame.UNFINISHED)
+                || (termination != null && !termination.equalsIgnoreCase("unterminated"))) {
+            game.setTeamTurn(null);
+        }
+        String name = known(pgn.tag("Event"));
+        return new GameData(0, known(pgn.tag("White")), known(pgn.tag("Black")),
+                name != null ? name : DEFAULT_GAME_NAME, game);
+    }
+
+    /**
+     * Converts a stored game to PGN. The result is taken from the final position
+     * where it shows one; other finished games are marked abandoned.
+     *
+     * @param data The stored game
+     * @return The game as PGN
+     */
+    static PgnGame toPgn(GameData data) {
+        ChessGame game = data.game();
+        Map<String, String> tags = new LinkedHashMap<>();
+        tags.put("Event", data.gameName() != null ? data.gameName() : "?");
+        tags.put("Site", "?");
+        tags.put("Date", "????.??.??");
+        tags.put("Round", "?");
+        tags.put("White", data.whiteUsername() != null ? data.whiteUsername() : "?");
+        tags.put("Black", data.blackUsername() != null ? data.blackUsername() : "?");
+
+        String result = PgnGame.UNFINISHED;
+        if (game.getTeamTurn() == null) {
+            if (game.isInCheckmate(ChessGame.TeamColor.WHITE)) {
+                result = "0-1";
+            } else if (game.isInCheckmate(ChessGame.TeamColor.BLACK)) {
+                result = "1-0";
+            } else if (game.isInStalemate(ChessGame.TeamColor.WHITE) || game.isInStalemate(ChessGame.TeamColor.BLACK)) {
+                result = "1/2-1/2";
+            } else {
+                // Resignations are not recorded, so the winner is unknown
+                tags.put("Termination", "abandoned");
+            }
+        }
+
+        String fen = Fen.toFen(game);
+        if (!fen.equals(Fen.START)) {
+            tags.put("SetUp", "1");
+            tags.put("FEN", fen);
+        }
+        return new PgnGame(tags, List.of(), result);
+    }
+
+    private static String known(String value) {
+        return value == null || value.isEmpty() || value.equals("?") ? null : value;
+    }
+
+    private static void reportProgress(String verb, long count, FileChannel channel, long start) {
+        double seconds = (System.nanoTime() - start) / 1e9;
+        long bytes;
+        try {
+            bytes = channel.position();
+        } catch (IOException e) {
+            bytes = 0;
+        }
+        System.out.printf(Locale.ROOT, "[GameBulkTransfer] %s %d games (%.0f games/s, %.1f MB/s)%n",
+                verb, count, count / seconds, bytes / 1e6 / seconds);
+    }
+
+    // Parses games lazily so the store pulls them as fast as it can insert them
+    private final class GameSource implements Iterator<GameData> {
+        private final Format format;
+        private final BufferedReader reader;
+        private final PgnReader pgn;
+        private final FileChannel channel;
+        private final long start;
+        private GameData next;
+        private long read;
+        private long skipped;
+        private long lastReport;
+
+        GameSource(Format format, BufferedReader reader, FileChannel channel, long start) {
+            this.format = format;
+            this.reader = reader;
+            this.pgn = format == Format.PGN ? new PgnReader(reader) : null;
+            this.channel = channel;
+            this.start = start;
+            this.lastReport = start;
+        }
+
+        @Override
+        public boolean hasNext() {
+            try {
+                while (next == null) {
+                    if (format == Format.PGN) {
+                        PgnGame game;
+                        try {
+                            game = pgn.next();
+                        } catch (PgnFormatException e) {
+                            skipped++;
+                            pgn.skipToNextGame();
+                            continue;
+                        }
+                        if (game == null) {
+                            return false;
+                        }
+                        try {
+                            next = fromPgn(game);
+                        } catch (InvalidMoveException | IllegalArgumentException e) {
+                            skipped++;
+                        }
+                    } else {
+                        String line = reader.readLine();
+                        if (line == null) {
+                            return false;
+                        }
+                        if (line.isBlank()) {
+                            continue;
+                        }
+                        try {
+                            next = gson.fromJson(line, GameData.class);
+                        } catch (JsonParseException e) {
+                            skipped++;
+                            continue;
+                        }
+                        if (next == null || next.game() == null || next.gameName() == null) {
+                            next = null;
+                            skipped++;
+                        }
+                    }
+                }
+                return true;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public GameData next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            GameData game = next;
+            next = null;
+            read++;
+            long now = System.nanoTime();
+            if (now - lastReport >= PROGRESS_INTERVAL_NANOS) {
+                lastReport = now;
+                reportProgress("Imported", read, channel, start);
+            }
+            return game;
+        }
+    }
+
+    private final class GameSink {
+        private final Format format;
+        private final Writer writer;
+        private final PgnWriter pgn;
+        private final FileChannel channel;
+        private final long start;
+        private long count;
+        private long lastReport;
+
+        GameSink(Format format, Writer writer, FileChannel channel, long start) {
+            this.format = format;
+            this.writer = writer;
+            this.pgn = format == Format.PGN ? new PgnWriter(writer) : null;
+            this.channel = channel;
+            this.start = start;
+            this.lastReport = start;
+        }
+
+        void write(GameData game) {
+            try {
+                if (format == Format.PGN) {
+                    pgn.write(toPgn(game));
+                } else {
+                    gson.toJson(game, writer);
+                    writer.write('\n');
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            count++;
+            long now = System.nanoTime();
+            if (now - lastReport >= PROGRESS_INTERVAL_NANOS) {
+                lastReport = now;
+                reportProgress("Exported", count, channel, start);
+            }
+        }
+
+        void flush() throws IOException {
+            writer.flush();
+        }
+    }
+
+    /**
+     * Imports or exports games against the database configured in
+     * db.properties, sharded as server.properties says. Exports include the
+     * archive.
+     * <p>
+     * Usage: {@code import|export pgn|native <file> [batchSize]}
+     * </p>
+     *
+     * @param args The command line
+     */
+    public static void main(String[] args) {
+        if (args.length < 3 || args.length > 4) {
+            System.err.println("Usage: GameBulkTransfer import|export pgn|native <file> [batchSize]");
+            System.exit(2);
+        }
+        GameDAO dao = null;
+        try (MySQLGameArchiveDAO archive = new MySQLGameArchiveDAO()) {
+            dao = Server.createGameDAO(new ServerConfig());
+            GameBulkTransfer transfer = new GameBulkTransfer(dao, archive);
+            Format format = Format.valueOf(args[1].toUpperCase(Locale.ROOT));
+            Path file = Path.of(args[2]);
+            Stats stats = switch (args[0]) {
+                case "import" -> transfer.importFile(file, format,
+                        args.length > 3 ? Integer.parseInt(args[3]) : DEFAULT_BATCH_SIZE);
+                case "export" -> transfer.exportFile(file, format);
+                default -> throw new IllegalArgumentException("Unknown command: " + args[0]);
+            };
+            System.out.println("[GameBulkTransfer] Done: " + stats);
+        } catch (Exception e) {
+            System.err.println("[GameBulkTransfer] Failed: " + e.getMessage());
+            System.exit(1);
+        } finally {
+            if (dao instanceof AutoCloseable closeable) {
+                try {
+                    closeable.close();
+                } catch (Exception e) {
+                    System.err.println("[GameBulkTransfer] Failed to close game store: " + e.getMessage());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package dataaccess;
+
+import org.mindrot.jbcrypt.BCrypt;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runs BCrypt hashing on a dedicated, bounded pool of worker threads.
+ * <p>
+ * BCrypt is deliberately slow, so running it inline lets a burst of logins
+ * tie up every request thread. Here at most {@code threads} hashes run at
+ * once and at most {@code queueCapacity} wait. Anything beyond that, or
+ * anything that waits longer than the timeout, fails fast with
+ * {@code "Error: service unavailable"} so the handlers can answer 503 while
+ * the rest of the server keeps responding.
+ * </p>
+ * <p>
+ * The asynchronous methods return as soon as the work is queued, so callers
+ * can compose the result instead of parking a thread until it is ready.
+ * </p>
+ */
+public class PasswordHasher implements AutoCloseable {
+    public static final String UNAVAILABLE = "Error: service unavailable";
+
+    public static final int DEFAULT_COST = 10;
+    public static final int DEFAULT_QUEUE_CAPACITY = 64;
+    public static final long DEFAULT_TIMEOUT_MILLIS = 5_000;
+
+    private final ThreadPoolExecutor executor;
+    private final int cost;
+    private final long timeoutMillis;
+
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+    /**
+     * A snapshot of the hasher's counters.
+     *
+     * @param completed     Hashes and checks that finished
+     * @param rejected      Requests shed because the pool was saturated or slow
+     * @param queued        Requests currently waiting for a worker
+     * @param averageMillis Mean time from submission to completion
+     * @param maxMillis     Longest time from submission to completion
+     */
+    public record Metrics(long completed, long rejected, int queued, double averageMillis, double maxMillis) {
+    }
+
+    /**
+     * Creates a hasher with one worker per core and the default limits.
+     */
+    public PasswordHasher() {
+        this(Runtime.getRuntime().availableProcessors(), DEFAULT_QUEUE_CAPACITY, DEFAULT_COST,
+                DEFAULT_TIMEOUT_MILLIS);
+    }
+
+    /**
+     * Creates a hasher.
+     *
+     * @param threads       The number of hashes that may run at once
+     * @param queueCapacity The number of hashes that may wait for a worker
+     * @param cost          The BCrypt log2 work factor for new hashes (4-31)
+     * @param timeoutMillis How long a hash may wait and run before it is given up on
+     */
+    public PasswordHasher(int threads, int queueCapacity, int cost, long timeoutMillis) {
+        if (threads <= 0 || queueCapacity <= 0) {
+            throw new IllegalArgumentException("threads and queueCapacity must be positive");
+        }
+        if (cost < 4 || cost > 31) {
+            throw new IllegalArgumentException("BCrypt cost must be between 4 and 31");
+        }
+        AtomicInteger count = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "password-hasher-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.cost = cost;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    /**
+     * Hashes a password with a fresh salt, waiting for the result.
+     *
+     * @param password The plaintext password
+     * @return The BCrypt hash
+     * @throws RuntimeException with {@link #UNAVAILABLE} if the pool is saturated
+     */
+    public String hash(String password) {
+        return await(hashAsync(password));
+    }
+
+    /**
+     * Checks a password against a stored hash, waiting for the result.
+     *
+     * @param password The plaintext password
+     * @param hash     The stored BCrypt hash
+     * @return true if the password matches
+     * @throws RuntimeException with {@link #UNAVAILABLE} if the pool is saturated
+     */
+    public boolean check(String password, String hash) {
+        return await(checkAsync(password, hash));
+    }
+
+    /**
+     * Hashes a password with a fresh salt on the hashing pool.
+     *
+     * @param password The plaintext password
+     * @return A future holding the BCrypt hash, or failed with
+     *         {@link #UNAVAILABLE} if the pool is saturated or too slow
+     */
+    public CompletableFuture<String> hashAsync(String password) {
+        return submit(() -> BCrypt.hashpw(password, BCrypt.gensalt(cost)));
+    }
+
+    /**
+     * Checks a password against a stored hash on the hashing pool.
+     *
+     * @param password The plaintext password
+     * @param hash     The stored BCrypt hash
+     * @return A future holding whether the password matches, or failed with
+     *         {@link #UNAVAILABLE} if the pool is saturated or too slow
+     */
+    public CompletableFuture<Boolean> checkAsync(String password, String hash) {
+        return submit(() -> BCrypt.checkpw(password, hash));
+    }
+
+    /**
+     * Gets the current counters.
+     *
+     * @return A snapshot of the metrics
+     */
+    public Metrics metrics() {
+        long done = completed.sum();
+        return new Metrics(done, rejected.sum(), executor.getQueue().size(),
+                done == 0 ? 0 : totalNanos.sum() / 1e6 / done, maxNanos.get() / 1e6);
+    }
+
+    /**
+     * Stops the worker threads.
+     */
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    private <T> CompletableFuture<T> submit(Callable<T> task) {
+        long submitted = System.nanoTime();
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Future<?> work;
+        try {
+            work = executor.submit(() -> {
+                try {
+                    T value = task.call();
+                    long elapsed = System.nanoTime() - submitted;
+                    completed.increment();
+                    totalNanos.add(elapsed);
+                    maxNanos.accumulate(elapsed);
+                    result.complete(value);
+                } catch (RuntimeException e) {
+                    result.completeExceptionally(e);
+                } catch (Exception e) {
+                    result.completeExceptionally(new RuntimeException("Error: " + e.getMessage(), e));
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            return CompletableFuture.failedFuture(new RuntimeException(UNAVAILABLE));
+        }
+
+        // Fail the caller on time without a thread waiting on it, and free the worker if it hasn't started
+        CompletableFuture.delayedExecutor(timeoutMillis, TimeUnit.MILLISECONDS).execute(() -> {
+            if (result.completeExceptionally(new RuntimeException(UNAVAILABLE))) {
+                work.cancel(true);
+                rejected.increment();
+            }
+        });
+        return result;
+    }
+
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw e;
+        }
+    }
+}
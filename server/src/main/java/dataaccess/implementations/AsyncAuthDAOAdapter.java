@@ -0,0 +1,69 @@
+package dataaccess.implementations;
+
+import dataaccess.DataAccessFutures;
+import dataaccess.interfaces.AsyncAuthDAO;
+import dataaccess.interfaces.AuthDAO;
+import model.AuthData;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Runs a blocking AuthDAO's calls on an executor so callers can overlap them
+ * with other work.
+ */
+public class AsyncAuthDAOAdapter implements AsyncAuthDAO {
+    private final AuthDAO delegate;
+    private final Executor executor;
+
+    /**
+     * Wraps a blocking DAO, running its calls on the shared DAO I/O pool.
+     *
+     * @param delegate The DAO to run calls against
+     */
+    public AsyncAuthDAOAdapter(AuthDAO delegate) {
+        this(delegate, DataAccessFutures.ioExecutor());
+    }
+
+    /**
+     * Wraps a blocking DAO.
+     *
+     * @param delegate The DAO to run calls against
+     * @param executor Where to run the calls
+     */
+    public AsyncAuthDAOAdapter(AuthDAO delegate, Executor executor) {
+        this.delegate = delegate;
+        this.executor = executor;
+    }
+
+    @Override
+    public CompletableFuture<Void> clear() {
+        return DataAccessFutures.supplyAsync(() -> {
+            delegate.clear();
+            return null;
+        }, executor);
+    }
+
+    @Override
+    public CompletableFuture<String> createAuth(String username) {
+        return DataAccessFutures.supplyAsync(() -> delegate.createAuth(username), executor);
+    }
+
+    @Override
+    public CompletableFuture<Void> deleteAuth(String authToken) {
+        return DataAccessFutures.supplyAsync(() -> {
+            delegate.deleteAuth(authToken);
+            return null;
+        }, executor);
+    }
+
+    @Override
+    public CompletableFuture<AuthData> getAuth(String authToken) {
+        return DataAccessFutures.supplyAsync(() -> delegate.getAuth(authToken), executor);
+    }
+
+    @Override
+    public CompletableFuture<Integer> deleteExpired(int limit) {
+        return DataAccessFutures.supplyAsync(() -> delegate.deleteExpired(limit), executor);
+    }
+}
@@ -0,0 +1,76 @@
+package dataaccess.implementations;
+
+import dataaccess.DataAccessFutures;
+import dataaccess.interfaces.AsyncGameDAO;
+import dataaccess.interfaces.GameDAO;
+import model.GameData;
+
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.UnaryOperator;
+
+/**
+ * Runs a blocking GameDAO's calls on an executor so callers can overlap them
+ * with other work.
+ */
+public class AsyncGameDAOAdapter implements AsyncGameDAO {
+    private final GameDAO delegate;
+    private final Executor executor;
+
+    /**
+     * Wraps a blocking DAO, running its calls on the shared DAO I/O pool.
+     *
+     * @param delegate The DAO to run calls against
+     */
+    public AsyncGameDAOAdapter(GameDAO delegate) {
+        this(delegate, DataAccessFutures.ioExecutor());
+    }
+
+    /**
+     * Wraps a blocking DAO.
+     *
+     * @param delegate The DAO to run calls against
+     * @param executor Where to run the calls
+     */
+    public AsyncGameDAOAdapter(GameDAO delegate, Executor executor) {
+        this.delegate = delegate;
+        this.executor = executor;
+    }
+
+    @Override
+    public CompletableFuture<Integer> createGame(String gameName) {
+        return DataAccessFutures.supplyAsync(() -> delegate.createGame(gameName), executor);
+    }
+
+    @Override
+    public CompletableFuture<GameData> getGame(int gameID) {
+        return DataAccessFutures.supplyAsync(() -> delegate.getGame(gameID), executor);
+    }
+
+    @Override
+    public CompletableFuture<Collection<GameData>> listGames() {
+        return DataAccessFutures.supplyAsync(delegate::listGames, executor);
+    }
+
+    @Override
+    public CompletableFuture<Void> updateGame(int gameID, GameData game) {
+        return DataAccessFutures.supplyAsync(() -> {
+            delegate.updateGame(gameID, game);
+            return null;
+        }, executor);
+    }
+
+    @Override
+    public CompletableFuture<GameData> modifyGame(int gameID, UnaryOperator<GameData> change) {
+        return DataAccessFutures.supplyAsync(() -> delegate.modifyGame(gameID, change), executor);
+    }
+
+    @Override
+    public CompletableFuture<Void> clear() {
+        return DataAccessFutures.supplyAsync(() -> {
+            delegate.clear();
+            return null;
+        }, executor);
+    }
+}
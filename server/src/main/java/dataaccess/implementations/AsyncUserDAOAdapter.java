@@ -0,0 +1,106 @@
+package dataaccess.implementations;
+
+import dataaccess.DataAccessFutures;
+import dataaccess.PasswordHasher;
+import dataaccess.interfaces.AsyncUserDAO;
+import dataaccess.interfaces.UserDAO;
+import model.UserData;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Runs a blocking UserDAO's calls on an executor so callers can overlap them
+ * with other work.
+ * <p>
+ * Given a {@link PasswordHasher}, BCrypt work runs only on the hasher's own
+ * pool and the executor is left to the short database calls, so a burst of
+ * logins queues behind the hasher instead of filling the shared DAO pool.
+ * </p>
+ */
+public class AsyncUserDAOAdapter implements AsyncUserDAO {
+    private final UserDAO delegate;
+    private final Executor executor;
+    private final PasswordHasher hasher;
+
+    /**
+     * Wraps a blocking DAO, running its calls on the shared DAO I/O pool.
+     *
+     * @param delegate The DAO to run calls against
+     */
+    public AsyncUserDAOAdapter(UserDAO delegate) {
+        this(delegate, DataAccessFutures.ioExecutor());
+    }
+
+    /**
+     * Wraps a blocking DAO.
+     *
+     * @param delegate The DAO to run calls against
+     * @param executor Where to run the calls
+     */
+    public AsyncUserDAOAdapter(UserDAO delegate, Executor executor) {
+        this(delegate, executor, null);
+    }
+
+    /**
+     * Wraps a blocking DAO, running its calls on the shared DAO I/O pool and
+     * its password hashing on the given hasher.
+     *
+     * @param delegate The DAO to run calls against
+     * @param hasher   The pool that hashes and checks passwords
+     */
+    public AsyncUserDAOAdapter(UserDAO delegate, PasswordHasher hasher) {
+        this(delegate, DataAccessFutures.ioExecutor(), hasher);
+    }
+
+    /**
+     * Wraps a blocking DAO.
+     *
+     * @param delegate The DAO to run calls against
+     * @param executor Where to run the calls
+     * @param hasher   The pool that hashes and checks passwords, or null to
+     *                 leave hashing to the DAO
+     */
+    public AsyncUserDAOAdapter(UserDAO delegate, Executor executor, PasswordHasher hasher) {
+        this.delegate = delegate;
+        this.executor = executor;
+        this.hasher = hasher;
+    }
+
+    @Override
+    public CompletableFuture<Void> createUser(UserData user) {
+        if (hasher == null || user == null || user.password() == null) {
+            return DataAccessFutures.supplyAsync(() -> {
+                delegate.createUser(user);
+                return null;
+            }, executor);
+        }
+        return hasher.hashAsync(user.password()).thenCompose(hash -> DataAccessFutures.supplyAsync(() -> {
+            delegate.createHashedUser(new UserData(user.username(), hash, user.email()));
+            return null;
+        }, executor));
+    }
+
+    @Override
+    public CompletableFuture<UserData> getUser(String username) {
+        return DataAccessFutures.supplyAsync(() -> delegate.getUser(username), executor);
+    }
+
+    @Override
+    public CompletableFuture<Void> clear() {
+        return DataAccessFutures.supplyAsync(() -> {
+            delegate.clear();
+            return null;
+        }, executor);
+    }
+
+    @Override
+    public CompletableFuture<UserData> authenticate(String username, String password) {
+        if (hasher == null) {
+            return DataAccessFutures.supplyAsync(() -> delegate.authenticate(username, password), executor);
+        }
+        return getUser(username).thenCompose(user -> user == null || password == null
+                ? CompletableFuture.completedFuture(null)
+                : hasher.checkAsync(password, user.password()).thenApply(matches -> matches ? user : null));
+    }
+}
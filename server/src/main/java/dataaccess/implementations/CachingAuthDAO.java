@@ -0,0 +1,149 @@
+package dataaccess.implementations;
+
+import dataaccess.DataAccessException;
+import dataaccess.interfaces.AuthDAO;
+import model.AuthData;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * AuthDAO decorator that caches token lookups.
+ * <p>
+ * Valid tokens are cached for a while, and unknown tokens are cached for a
+ * shorter time so that repeated bad tokens don't reach the backing DAO.
+ * Deleting a token or clearing the DAO through this decorator invalidates
+ * the cache immediately. The TTLs only bound how long changes made behind
+ * its back can go unnoticed. The cache holds at most a fixed number of
+ * tokens and drops expired entries first when it is full.
+ * </p>
+ */
+public class CachingAuthDAO implements AuthDAO {
+    public static final int DEFAULT_MAX_ENTRIES = 10_000;
+    public static final Duration DEFAULT_POSITIVE_TTL = Duration.ofMinutes(1);
+    public static final Duration DEFAULT_NEGATIVE_TTL = Duration.ofSeconds(5);
+
+    private final AuthDAO delegate;
+    private final int maxEntries;
+    private final long positiveTtlNanos;
+    private final long negativeTtlNanos;
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    // Bumped on every invalidation so a lookup racing with one doesn't cache what it read
+    private final AtomicLong invalidations = new AtomicLong();
+
+    /**
+     * A cached lookup; {@code data} is null for tokens known not to exist.
+     */
+    private record Entry(AuthData data, long expiresAt) {
+    }
+
+    /**
+     * Wraps a backing AuthDAO using the default size and TTLs.
+     *
+     * @param delegate The DAO to cache lookups from
+     */
+    public CachingAuthDAO(AuthDAO delegate) {
+        this(delegate, DEFAULT_MAX_ENTRIES, DEFAULT_POSITIVE_TTL, DEFAULT_NEGATIVE_TTL);
+    }
+
+    /**
+     * Wraps a backing AuthDAO.
+     *
+     * @param delegate    The DAO to cache lookups from
+     * @param maxEntries  The maximum number of cached tokens
+     * @param positiveTtl How long a valid token is trusted without a lookup
+     * @param negativeTtl How long an unknown token is rejected without a lookup
+     */
+    public CachingAuthDAO(AuthDAO delegate, int maxEntries, Duration positiveTtl, Duration negativeTtl) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("maxEntries must be positive");
+        }
+        this.delegate = delegate;
+        this.maxEntries = maxEntries;
+        this.positiveTtlNanos = positiveTtl.toNanos();
+        this.negativeTtlNanos = negativeTtl.toNanos();
+    }
+
+    @Override
+    public void clear() throws DataAccessException {
+        delegate.clear();
+        invalidations.incrementAndGet();
+        entries.clear();
+    }
+
+    @Override
+    public String createAuth(String username) throws DataAccessException {
+        String authToken = delegate.createAuth(username);
+        invalidate(authToken);
+        return authToken;
+    }
+
+    @Override
+    public void deleteAuth(String authToken) throws DataAccessException {
+        delegate.deleteAuth(authToken);
+        invalidate(authToken);
+    }
+
+    @Override
+    public AuthData getAuth(String authToken) throws DataAccessException {
+        if (authToken == null || authToken.isEmpty()) {
+            return delegate.getAuth(authToken);
+        }
+
+        long now = System.nanoTime();
+        Entry cached = entries.get(authToken);
+        if (cached != null && now - cached.expiresAt() < 0) {
+            return cached.data();
+        }
+
+        long seen = invalidations.get();
+        AuthData data = delegate.getAuth(authToken);
+        Entry loaded = new Entry(data, now + (data != null ? positiveTtlNanos : negativeTtlNanos));
+        if (entries.size() >= maxEntries) {
+            makeRoom(now);
+        }
+        entries.put(authToken, loaded);
+        if (invalidations.get() != seen) {
+            // An invalidation ran during the lookup; what we read may already be stale
+            entries.remove(authToken, loaded);
+        }
+        return data;
+    }
+
+    /**
+     * Deletes expired tokens from the backing DAO. Cached copies of them age out
+     * within the positive TTL, so the cache isn't flushed on every sweep.
+     */
+    @Override
+    public int deleteExpired(int limit) throws DataAccessException {
+        return delegate.deleteExpired(limit);
+    }
+
+    /**
+     * Gets the number of cached tokens, including expired ones not yet dropped.
+     *
+     * @return The number of cache entries
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    private void invalidate(String authToken) {
+        invalidations.incrementAndGet();
+        if (authToken != null) {
+            entries.remove(authToken);
+        }
+    }
+
+    // Drops expired entries, then arbitrary ones, until there is room for one more
+    private void makeRoom(long now) {
+        entries.values().removeIf(entry -> now - entry.expiresAt() >= 0);
+        Iterator<String> tokens = entries.keySet().iterator();
+        while (entries.size() >= maxEntries && tokens.hasNext()) {
+            tokens.next();
+            tokens.remove();
+        }
+    }
+}
@@ -9,7 +9,8 @@ public class DatabaseManager {
     private static final String DATABASE_NAME;
     private static final String USER;
     private static final String PASSWORD;
-    private static final String CONNECTION_URL;
+    private static final String HOST;
+    private static final int PORT;
 
     /*
      * Load the database information for the db.properties file.
@@ -26,23 +27,48 @@ public class DatabaseManager {
                 USER = props.getProperty("db.user");
                 PASSWORD = props.getProperty("db.password");
 
-                var host = props.getProperty("db.host");
-                var port = Integer.parseInt(props.getProperty("db.port"));
-                CONNECTION_URL = String.format("jdbc:mysql://%s:%d", host, port);
+                HOST = props.getProperty("db.host");
+                PORT = Integer.parseInt(props.getProperty("db.port"));
             }
         } catch (Exception ex) {
             throw new RuntimeException("unable to process db.properties. " + ex.getMessage());
         }
     }
 
+    /**
+     * Connection settings for one MySQL database. The database configured in
+     * db.properties is {@link #defaultDatabase()}; others, such as game shards,
+     * can live on the same server or on different ones.
+     */
+    public record Database(String host, int port, String user, String password, String name) {
+        String connectionUrl() {
+            // Lets the driver send a JDBC batch as one multi-row statement
+            return String.format("jdbc:mysql://%s:%d?rewriteBatchedStatements=true", host, port);
+        }
+    }
+
+    /**
+     * Gets the database configured in db.properties.
+     */
+    public static Database defaultDatabase() {
+        return new Database(HOST, PORT, USER, PASSWORD, DATABASE_NAME);
+    }
+
     /**
      * Creates the database if it does not already exist.
      */
     static void createDatabase() throws DataAccessException {
+        createDatabase(defaultDatabase());
+    }
+
+    /**
+     * Creates the given database if it does not already exist.
+     */
+    static void createDatabase(Database database) throws DataAccessException {
         try {
-            var statement = "CREATE DATABASE IF NOT EXISTS " + DATABASE_NAME;
-            var conn = DriverManager.getConnection(CONNECTION_URL, USER, PASSWORD);
-            try (var preparedStatement = conn.prepareStatement(statement)) {
+            var statement = "CREATE DATABASE IF NOT EXISTS " + database.name();
+            try (var conn = DriverManager.getConnection(database.connectionUrl(), database.user(), database.password());
+                    var preparedStatement = conn.prepareStatement(statement)) {
                 preparedStatement.executeUpdate();
             }
         } catch (SQLException e) {
@@ -63,9 +89,17 @@ public class DatabaseManager {
      * </code>
      */
     static Connection getConnection() throws DataAccessException {
+        return getConnection(defaultDatabase());
+    }
+
+    /**
+     * Create a connection to the given database, as {@link #getConnection()}
+     * does for the default one.
+     */
+    static Connection getConnection(Database database) throws DataAccessException {
         try {
-            var conn = DriverManager.getConnection(CONNECTION_URL, USER, PASSWORD);
-            conn.setCatalog(DATABASE_NAME);
+            var conn = DriverManager.getConnection(database.connectionUrl(), database.user(), database.password());
+            conn.setCatalog(database.name());
             return conn;
         } catch (SQLException e) {
             throw new DataAccessException(e.getMessage());
@@ -0,0 +1,91 @@
+package dataaccess.implementations;
+
+import chess.ChessGame;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Compresses game state for the archive. Archived games are written once and
+ * read rarely, so they trade a little CPU for a much smaller footprint. The
+ * move history is not part of the serialized game, so it is compressed on its
+ * own.
+ */
+final class GameStateCompression {
+    private static final Gson GSON = new GsonBuilder().serializeNulls().create();
+
+    private GameStateCompression() {
+    }
+
+    static byte[] compress(ChessGame game) {
+        return deflate(GSON.toJson(game));
+    }
+
+    static byte[] compressMoves(ChessGame game) {
+        return deflate(game.getMoveText());
+    }
+
+    /**
+     * Restores an archived game.
+     *
+     * @param state The compressed game
+     * @param moves The compressed move history, or null if none was stored
+     *              apart from the game
+     */
+    static ChessGame decompress(byte[] state, byte[] moves) {
+        JsonObject json = JsonParser.parseString(inflate(state)).getAsJsonObject();
+        ChessGame game = GSON.fromJson(json, ChessGame.class);
+        if (moves != null) {
+            game.setMoveText(inflate(moves));
+        } else if (json.has("moves")) {
+            // Archived while the history was still part of the serialized game
+            game.setMoveText(json.get("moves").getAsString());
+        }
+        return game;
+    }
+
+    private static byte[] deflate(String text) {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try {
+            deflater.setInput(bytes);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 4 + 16);
+            byte[] buffer = new byte[1024];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static String inflate(byte[] compressed) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compressed);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(compressed.length * 4);
+            byte[] buffer = new byte[1024];
+            while (!inflater.finished()) {
+                int read = inflater.inflate(buffer);
+                if (read == 0 && !inflater.finished() && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new IllegalArgumentException("Truncated archived game state");
+                }
+                out.write(buffer, 0, read);
+            }
+            return out.toString(StandardCharsets.UTF_8);
+        } catch (DataFormatException e) {
+            throw new IllegalArgumentException("Corrupt archived game state: " + e.getMessage());
+        } finally {
+            inflater.end();
+        }
+    }
+}
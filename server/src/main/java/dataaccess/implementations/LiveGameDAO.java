@@ -0,0 +1,495 @@
+package dataaccess.implementations;
+
+import dataaccess.DataAccessException;
+import dataaccess.interfaces.GameDAO;
+import chess.ChessGame;
+import model.GameData;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * GameDAO decorator acting as the registry of live games.
+ * <p>
+ * Games that have connected WebSocket clients are pinned in memory and become
+ * the authoritative copy: reads are served from memory and writes update the
+ * resident game and are persisted to the backing DAO asynchronously, with
+ * pending writes for the same game coalesced into one. Evicting a game flushes
+ * its latest state before it stops being resident. Games that are not pinned
+ * pass straight through to the backing DAO.
+ * </p>
+ * <p>
+ * A resident {@code ChessGame} is shared between threads, so code that reads or
+ * mutates it must hold the game's own monitor. Changes to the players or other
+ * fields of a game should go through {@link #modifyGame}, which applies them to
+ * the current data rather than replacing it with a possibly stale copy.
+ * </p>
+ * <p>
+ * A failed background write is kept and retried with the game's next change;
+ * {@link #evict} and {@link #close} report it to the caller.
+ * </p>
+ */
+public class LiveGameDAO implements GameDAO, AutoCloseable {
+    private final GameDAO delegate;
+    private final ConcurrentHashMap<Integer, LiveGame> liveGames = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Integer, GameData> pendingWrites = new ConcurrentHashMap<>();
+    // Locks held while a backing DAO call runs for a game that is not resident, present only while in use
+    private final ConcurrentHashMap<Integer, AbsentLock> absentLocks = new ConcurrentHashMap<>();
+    // Games whose last background write failed and has no write queued to retry it
+    private final Set<Integer> failedWrites = ConcurrentHashMap.newKeySet();
+    private final AtomicLong versions = new AtomicLong();
+    private final ExecutorService persister = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "live-game-persister");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * A game's resident state. {@code version} increases on every change and is
+     * unique across all games, so it can key caches of derived data.
+     */
+    private static final class LiveGame {
+        private GameData data;
+        private long version;
+        private boolean evicted;
+
+        private LiveGame(GameData data, long version) {
+            this.data = data;
+            this.version = version;
+        }
+    }
+
+    /**
+     * The lock on a game that is not resident, counting the threads holding or
+     * waiting for it so the last one can remove it.
+     */
+    private static final class AbsentLock {
+        private int holders;
+    }
+
+    /**
+     * A consistent view of a resident game and the version it was read at.
+     *
+     * @param data    The resident game data
+     * @param version The state version of {@code data}
+     */
+    public record Snapshot(GameData data, long version) {
+    }
+
+    /**
+     * A backing DAO call made while a game is not resident.
+     */
+    @FunctionalInterface
+    private interface AbsentCall {
+        LiveGame call() throws DataAccessException;
+    }
+
+    /**
+     * Wraps a backing GameDAO.
+     *
+     * @param delegate The DAO that live games are loaded from and persisted to
+     */
+    public LiveGameDAO(GameDAO delegate) {
+        this.delegate = delegate;
+    }
+
+    /**
+     * Makes a game resident, loading it from the backing DAO if necessary.
+     *
+     * @param gameID The game to pin
+     * @return The resident game, or null if the game does not exist
+     * @throws DataAccessException if the game cannot be loaded
+     */
+    public Snapshot pin(int gameID) throws DataAccessException {
+        while (true) {
+            LiveGame live = liveGames.get(gameID);
+            if (live == null) {
+                live = whileAbsent(gameID, () -> {
+                    GameData loaded = delegate.getGame(gameID);
+                    return loaded == null ? null : new LiveGame(loaded, versions.incrementAndGet());
+                });
+                if (live == null) {
+                    return null;
+                }
+            }
+            synchronized (live) {
+                // An evicted game is loaded again once it is gone
+                if (!live.evicted) {
+                    return new Snapshot(live.data, live.version);
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets a resident game along with its version.
+     *
+     * @param gameID The game to look up
+     * @return The resident game, or null if it is not pinned
+     */
+    public Snapshot getLive(int gameID) {
+        LiveGame live = liveGames.get(gameID);
+        if (live == null) {
+            return null;
+        }
+        synchronized (live) {
+            return live.evicted ? null : new Snapshot(live.data, live.version);
+        }
+    }
+
+    /**
+     * Stops keeping a game resident. Its latest state is written to the backing
+     * DAO before this returns, so later reads fall through consistently. The
+     * write is waited for without holding the game's lock, so the game can be
+     * read and changed meanwhile; a change made during the write is written
+     * too before the game is let go.
+     *
+     * @param gameID The game to evict
+     * @throws DataAccessException if the final write fails; the game then stays
+     *                             resident so its state is not lost
+     */
+    public void evict(int gameID) throws DataAccessException {
+        evictIf(gameID, () -> true);
+    }
+
+    /**
+     * Evicts a game, as {@link #evict} does, unless a condition no longer holds
+     * once its state is written. The condition is checked under the game's
+     * lock as the last step, so a caller that makes it false and then pins the
+     * game either keeps it resident or loads it again. It must not block.
+     *
+     * @param gameID    The game to evict
+     * @param condition Whether the game should still be evicted, e.g. that no
+     *                  client is connected to it
+     * @return true if the game was evicted by this call
+     * @throws DataAccessException if the final write fails; the game then stays
+     *                             resident so its state is not lost
+     */
+    public boolean evictIf(int gameID, BooleanSupplier condition) throws DataAccessException {
+        LiveGame live = liveGames.get(gameID);
+        if (live == null) {
+            return false;
+        }
+        while (true) {
+            long written;
+            synchronized (live) {
+                if (live.evicted) {
+                    return false;
+                }
+                written = live.version;
+            }
+            flush(gameID);
+            synchronized (live) {
+                if (live.evicted || !condition.getAsBoolean()) {
+                    return false;
+                }
+                if (live.version == written) {
+                    live.evicted = true;
+                    liveGames.remove(gameID, live);
+                    return true;
+                }
+            }
+        }
+    }
+
+    @Override
+    public int createGame(String gameName) throws DataAccessException {
+        return delegate.createGame(gameName);
+    }
+
+    @Override
+    public GameData getGame(int gameID) throws DataAccessException {
+        Snapshot snapshot = getLive(gameID);
+        if (snapshot != null) {
+            return snapshot.data();
+        }
+        return delegate.getGame(gameID);
+    }
+
+    @Override
+    public Collection<GameData> listGames() throws DataAccessException {
+        Collection<GameData> stored = delegate.listGames();
+        if (liveGames.isEmpty()) {
+            return stored;
+        }
+
+        Collection<GameData> games = new ArrayList<>(stored.size());
+        for (GameData game : stored) {
+            Snapshot snapshot = getLive(game.gameID());
+            games.add(snapshot != null ? copyOf(snapshot.data()) : game);
+        }
+        return games;
+    }
+
+    @Override
+    public void updateGame(int gameID, GameData game) throws DataAccessException {
+        if (game == null) {
+            throw new DataAccessException("Game data cannot be null");
+        }
+        while (true) {
+            LiveGame live = liveGames.get(gameID);
+            if (live != null) {
+                // Copy before taking the entry lock; callers may already hold the game's monitor
+                GameData persisted = copyOf(game);
+                synchronized (live) {
+                    if (!live.evicted) {
+                        store(gameID, live, game, persisted);
+                        return;
+                    }
+                }
+            } else if (whileAbsent(gameID, () -> {
+                delegate.updateGame(gameID, game);
+                return null;
+            }) == null) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Applies a change to a resident game's current data under its lock, so a
+     * change made from a stale snapshot, e.g. a move played while a seat was
+     * being claimed, cannot undo another. Games that are not resident are read
+     * and written back while they are kept from becoming resident.
+     * <p>
+     * The change may be applied while the game's monitor is held, so it must
+     * not block.
+     * </p>
+     */
+    @Override
+    public GameData modifyGame(int gameID, UnaryOperator<GameData> change) throws DataAccessException {
+        while (true) {
+            LiveGame live = liveGames.get(gameID);
+            if (live != null) {
+                GameData changed = modifyLive(gameID, live, change);
+                if (changed != null) {
+                    return changed;
+                }
+                continue;
+            }
+            AtomicReference<GameData> result = new AtomicReference<>();
+            if (whileAbsent(gameID, () -> {
+                GameData current = delegate.getGame(gameID);
+                GameData updated = change.apply(current);
+                if (updated != null) {
+                    delegate.updateGame(gameID, updated);
+                }
+                result.set(updated != null ? updated : current);
+                return null;
+            }) == null) {
+                return result.get();
+            }
+        }
+    }
+
+    /**
+     * Lists finished games as stored, including resident ones, so callers can
+     * page past them. Resident games are refused by
+     * {@link #deleteGameIfUnchanged}.
+     */
+    @Override
+    public Collection<FinishedGame> listFinishedGames(int afterGameID, int limit) throws DataAccessException {
+        return delegate.listFinishedGames(afterGameID, limit);
+    }
+
+    /**
+     * Deletes a game that is not resident. The check and the delete happen
+     * while the game is kept from being pinned.
+     *
+     * @throws DataAccessException if the game is resident
+     */
+    @Override
+    public void deleteGame(int gameID) throws DataAccessException {
+        if (whileAbsent(gameID, () -> {
+            delegate.deleteGame(gameID);
+            return null;
+        }) != null) {
+            throw new DataAccessException("Game " + gameID + " is live and cannot be deleted");
+        }
+    }
+
+    /**
+     * Deletes a game that is neither resident nor changed since it was read.
+     * Games with connected clients are still being viewed, so they are left
+     * alone until they are evicted.
+     */
+    @Override
+    public boolean deleteGameIfUnchanged(FinishedGame game) throws DataAccessException {
+        AtomicReference<Boolean> deleted = new AtomicReference<>(false);
+        whileAbsent(game.game().gameID(), () -> {
+            deleted.set(delegate.deleteGameIfUnchanged(game));
+            return null;
+        });
+        return deleted.get();
+    }
+
+    @Override
+    public void clear() throws DataAccessException {
+        for (LiveGame live : liveGames.values()) {
+            synchronized (live) {
+                live.evicted = true;
+            }
+        }
+        liveGames.clear();
+        pendingWrites.clear();
+        failedWrites.clear();
+        delegate.clear();
+    }
+
+    /**
+     * Flushes all pending writes and stops the persister thread.
+     */
+    @Override
+    public void close() throws Exception {
+        persister.shutdown();
+        persister.awaitTermination(10, TimeUnit.SECONDS);
+        DataAccessException failure = null;
+        for (Integer gameID : pendingWrites.keySet()) {
+            try {
+                writePending(gameID);
+            } catch (DataAccessException e) {
+                failure = failure != null ? failure : e;
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    // Returns null if the game was evicted before the change could be applied
+    private GameData modifyLive(int gameID, LiveGame live, UnaryOperator<GameData> change) {
+        ChessGame game;
+        synchronized (live) {
+            if (live.evicted) {
+                return null;
+            }
+            game = live.data.game();
+        }
+        // Game monitor first, then the entry, the same order as a move followed by its update
+        synchronized (game != null ? game : live) {
+            synchronized (live) {
+                if (live.evicted || live.data.game() != game) {
+                    return null;
+                }
+                GameData updated = change.apply(live.data);
+                if (updated == null) {
+                    return live.data;
+                }
+                store(gameID, live, updated, copyOf(updated));
+                return updated;
+            }
+        }
+    }
+
+    private void store(int gameID, LiveGame live, GameData game, GameData persisted) {
+        live.data = game;
+        live.version = versions.incrementAndGet();
+        schedulePersist(gameID, persisted);
+    }
+
+    /**
+     * Runs a backing DAO call for a game that is not resident, keeping the game
+     * from being pinned until the call returns, so a write can't land between
+     * a pin's load and the game becoming resident. The call's result, if not
+     * null, becomes the resident game.
+     * <p>
+     * Games only become resident here, under a lock of the game's own, so a
+     * slow call holds up that game alone.
+     * </p>
+     *
+     * @return The resident game, which is the existing one if the game was
+     *         already resident and the call did not run
+     */
+    private LiveGame whileAbsent(int gameID, AbsentCall call) throws DataAccessException {
+        AbsentLock lock = absentLocks.compute(gameID, (id, held) -> {
+            AbsentLock taken = held != null ? held : new AbsentLock();
+            taken.holders++;
+            return taken;
+        });
+        try {
+            synchronized (lock) {
+                LiveGame live = liveGames.get(gameID);
+                if (live != null) {
+                    return live;
+                }
+                live = call.call();
+                if (live != null) {
+                    liveGames.put(gameID, live);
+                }
+                return live;
+            }
+        } finally {
+            absentLocks.computeIfPresent(gameID, (id, held) -> --held.holders == 0 ? null : held);
+        }
+    }
+
+    // Queues a write; a write already queued for the game picks up the newer data
+    private void schedulePersist(int gameID, GameData game) {
+        if (pendingWrites.put(gameID, game) == null || failedWrites.remove(gameID)) {
+            persister.execute(() -> {
+                try {
+                    writePending(gameID);
+                } catch (DataAccessException e) {
+                    System.err.println("[LiveGameDAO] Failed to persist game " + gameID + ", will retry: "
+                            + e.getMessage());
+                }
+            });
+        }
+    }
+
+    // Runs on the persister thread so writes for a game never reorder
+    private void flush(int gameID) throws DataAccessException {
+        try {
+            persister.submit(() -> {
+                writePending(gameID);
+                return null;
+            }).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DataAccessException("Interrupted flushing game " + gameID);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof DataAccessException dataAccess) {
+                throw dataAccess;
+            }
+            throw new DataAccessException("Error flushing game " + gameID + ": " + e.getCause().getMessage());
+        }
+    }
+
+    private void writePending(int gameID) throws DataAccessException {
+        GameData pending = pendingWrites.remove(gameID);
+        if (pending == null) {
+            return;
+        }
+        try {
+            delegate.updateGame(gameID, pending);
+        } catch (DataAccessException e) {
+            // Keep the state for the game's next write, unless a newer one is already queued
+            failedWrites.add(gameID);
+            if (pendingWrites.putIfAbsent(gameID, pending) != null) {
+                failedWrites.remove(gameID);
+            }
+            throw e;
+        }
+    }
+
+    // Copies the game under its monitor so a concurrent move can't be observed half-applied
+    private static GameData copyOf(GameData data) {
+        if (data.game() == null) {
+            return data;
+        }
+        synchronized (data.game()) {
+            return new GameData(data.gameID(), data.whiteUsername(), data.blackUsername(), data.gameName(),
+                    data.game().copy());
+        }
+    }
+}
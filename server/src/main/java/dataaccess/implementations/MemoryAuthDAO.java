@@ -1,18 +1,49 @@
 package dataaccess.implementations;
 
-import java.util.HashMap;
+import java.time.Duration;
+import java.util.Iterator;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 import dataaccess.interfaces.AuthDAO;
 import dataaccess.DataAccessException;
 import model.AuthData;
 
 /**
- * In-memory implementation of AuthDAO
+ * In-memory implementation of AuthDAO. Tokens expire once they have gone
+ * unused for longer than the token TTL.
  */
 public class MemoryAuthDAO implements AuthDAO {
-    private final Map<String, AuthData> authTokens = new HashMap<>(); // str authToken -> AuthData
+    public static final Duration DEFAULT_TOKEN_TTL = Duration.ofHours(12);
+
+    private final Map<String, Token> authTokens = new ConcurrentHashMap<>(); // str authToken -> Token
+    private final long ttlMillis;
+
+    private static final class Token {
+        private final AuthData data;
+        private final long issuedAt;
+        private volatile long lastUsed;
+
+        private Token(AuthData data, long issuedAt) {
+            this.data = data;
+            this.issuedAt = issuedAt;
+            this.lastUsed = issuedAt;
+        }
+    }
+
+    public MemoryAuthDAO() {
+        this(DEFAULT_TOKEN_TTL);
+    }
+
+    /**
+     * Creates the DAO with a custom idle TTL.
+     *
+     * @param tokenTtl How long a token stays valid without being used
+     */
+    public MemoryAuthDAO(Duration tokenTtl) {
+        this.ttlMillis = tokenTtl.toMillis();
+    }
 
     @Override
     public void clear() throws DataAccessException {
@@ -26,18 +57,61 @@ public class MemoryAuthDAO implements AuthDAO {
         }
 
         String authToken = UUID.randomUUID().toString();
-        authTokens.put(authToken, new AuthData(authToken, username));
+        authTokens.put(authToken, new Token(new AuthData(authToken, username), System.currentTimeMillis()));
         return authToken;
     }
 
     @Override
     public void deleteAuth(String authToken) throws DataAccessException {
-        authTokens.remove(authToken);
-        return;
+        if (authToken != null) {
+            authTokens.remove(authToken);
+        }
     }
 
     @Override
     public AuthData getAuth(String authToken) throws DataAccessException {
-        return authTokens.get(authToken);
+        if (authToken == null) {
+            return null;
+        }
+        Token token = authTokens.get(authToken);
+        if (token == null) {
+            return null;
+        }
+        long now = System.currentTimeMillis();
+        if (isExpired(token, now)) {
+            authTokens.remove(authToken, token);
+            return null;
+        }
+        token.lastUsed = now;
+        return token.data;
+    }
+
+    @Override
+    public int deleteExpired(int limit) throws DataAccessException {
+        long now = System.currentTimeMillis();
+        int deleted = 0;
+        Iterator<Map.Entry<String, Token>> entries = authTokens.entrySet().iterator();
+        while (deleted < limit && entries.hasNext()) {
+            Map.Entry<String, Token> entry = entries.next();
+            if (isExpired(entry.getValue(), now) && authTokens.remove(entry.getKey(), entry.getValue())) {
+                deleted++;
+            }
+        }
+        return deleted;
+    }
+
+    /**
+     * Gets when a token was issued.
+     *
+     * @param authToken The token to look up
+     * @return The issue time in epoch milliseconds, or -1 if the token is unknown
+     */
+    public long issuedAt(String authToken) {
+        Token token = authToken == null ? null : authTokens.get(authToken);
+        return token == null ? -1 : token.issuedAt;
+    }
+
+    private boolean isExpired(Token token, long now) {
+        return now - token.lastUsed > ttlMillis;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,47 @@
+package dataaccess.implementations;
+
+import dataaccess.DataAccessException;
+import dataaccess.interfaces.GameAnalysisDAO;
+import model.GameAnalysis;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory implementation of GameAnalysisDAO
+ */
+public class MemoryGameAnalysisDAO implements GameAnalysisDAO {
+    private final Map<Integer, GameAnalysis> analyses = new ConcurrentHashMap<>();
+
+    @Override
+    public synchronized void saveAnalyses(Collection<GameAnalysis> batch) throws DataAccessException {
+        for (GameAnalysis analysis : batch) {
+            if (analysis == null || analysis.moves() == null) {
+                throw new DataAccessException("Analysis cannot be null");
+            }
+        }
+        for (GameAnalysis analysis : batch) {
+            analyses.put(analysis.gameID(), analysis);
+        }
+    }
+
+    @Override
+    public GameAnalysis getAnalysis(int gameID) throws DataAccessException {
+        return analyses.get(gameID);
+    }
+
+    @Override
+    public void clear() throws DataAccessException {
+        analyses.clear();
+    }
+
+    /**
+     * Gets the number of games analyzed.
+     *
+     * @return The number of analyses stored
+     */
+    public int size() {
+        return analyses.size();
+    }
+}
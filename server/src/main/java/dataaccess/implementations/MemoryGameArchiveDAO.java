@@ -0,0 +1,101 @@
+package dataaccess.implementations;
+
+import dataaccess.DataAccessException;
+import dataaccess.interfaces.GameArchiveDAO;
+import model.GameData;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * In-memory implementation of GameArchiveDAO. Game state is kept compressed,
+ * as it is in the database archive.
+ */
+public class MemoryGameArchiveDAO implements GameArchiveDAO {
+    private final Map<Integer, Archived> games = new ConcurrentHashMap<>();
+
+    private record Archived(int gameID, String whiteUsername, String blackUsername, String gameName,
+            long archivedAt, byte[] state, byte[] moves) {
+    }
+
+    @Override
+    public void archiveGame(GameData game) throws DataAccessException {
+        if (game == null || game.game() == null) {
+            throw new DataAccessException("Game data cannot be null");
+        }
+        byte[] state = GameStateCompression.compress(game.game());
+        byte[] moves = GameStateCompression.compressMoves(game.game());
+        games.compute(game.gameID(), (id, previous) -> new Archived(id, game.whiteUsername(), game.blackUsername(),
+                game.gameName(), previous != null ? previous.archivedAt() : System.currentTimeMillis(), state,
+                moves));
+    }
+
+    @Override
+    public GameData getArchivedGame(int gameID) throws DataAccessException {
+        Archived archived = games.get(gameID);
+        if (archived == null) {
+            return null;
+        }
+        return toGameData(archived);
+    }
+
+    @Override
+    public long forEachArchivedGame(long afterTime, int afterGameID, long beforeTime,
+            Consumer<ArchivedGame> action) throws DataAccessException {
+        List<Archived> selected = select(afterTime, afterGameID, beforeTime);
+        for (Archived archived : selected) {
+            action.accept(new ArchivedGame(toGameData(archived), archived.archivedAt()));
+        }
+        return selected.size();
+    }
+
+    @Override
+    public List<ArchivedGame> listArchivedGames(long afterTime, int afterGameID, long beforeTime, int limit)
+            throws DataAccessException {
+        List<ArchivedGame> page = new ArrayList<>();
+        for (Archived archived : select(afterTime, afterGameID, beforeTime)) {
+            if (page.size() == limit) {
+                break;
+            }
+            page.add(new ArchivedGame(toGameData(archived), archived.archivedAt()));
+        }
+        return page;
+    }
+
+    @Override
+    public void clear() throws DataAccessException {
+        games.clear();
+    }
+
+    /**
+     * Gets the number of archived games.
+     *
+     * @return The archive size
+     */
+    public int size() {
+        return games.size();
+    }
+
+    // The games archived after the given position and before the cutoff, in archive order
+    private List<Archived> select(long afterTime, int afterGameID, long beforeTime) {
+        List<Archived> selected = new ArrayList<>();
+        for (Archived archived : games.values()) {
+            boolean after = archived.archivedAt() > afterTime
+                    || (archived.archivedAt() == afterTime && archived.gameID() > afterGameID);
+            if (after && archived.archivedAt() < beforeTime) {
+                selected.add(archived);
+            }
+        }
+        selected.sort(Comparator.comparingLong(Archived::archivedAt).thenComparingInt(Archived::gameID));
+        return selected;
+    }
+
+    private static GameData toGameData(Archived archived) {
+        return new GameData(archived.gameID(), archived.whiteUsername(), archived.blackUsername(),
+                archived.gameName(), GameStateCompression.decompress(archived.state(), archived.moves()));
+    }
+}
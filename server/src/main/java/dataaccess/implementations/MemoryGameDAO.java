@@ -5,8 +5,11 @@ import dataaccess.DataAccessException;
 import dataaccess.interfaces.GameDAO;
 import chess.ChessGame;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -49,4 +52,26 @@ public class MemoryGameDAO implements GameDAO {
         }
         games.put(gameID, game);
     }
+
+    @Override
+    public Collection<FinishedGame> listFinishedGames(int afterGameID, int limit) throws DataAccessException {
+        List<FinishedGame> finished = new ArrayList<>();
+        for (GameData game : games.values()) {
+            if (game.gameID() > afterGameID && game.game() != null && game.game().getTeamTurn() == null) {
+                finished.add(new FinishedGame(game, 0));
+            }
+        }
+        finished.sort(Comparator.comparingInt(listed -> listed.game().gameID()));
+        return finished.subList(0, Math.min(limit, finished.size()));
+    }
+
+    @Override
+    public void deleteGame(int gameID) throws DataAccessException {
+        games.remove(gameID);
+    }
+
+    @Override
+    public boolean deleteGameIfUnchanged(FinishedGame game) throws DataAccessException {
+        return games.remove(game.game().gameID(), game.game());
+    }
 }
\ No newline at end of file
@@ -44,10 +44,15 @@ public class MemoryUserDAO implements UserDAO {
 
     @Override
     public boolean verifyPassword(String username, String password) throws DataAccessException {
+        return authenticate(username, password) != null;
+    }
+
+    @Override
+    public UserData authenticate(String username, String password) throws DataAccessException {
         UserData user = getUser(username);
-        if (user == null) {
-            return false;
+        if (user == null || password == null) {
+            return null;
         }
-        return checkPassword(password, user.password());
+        return checkPassword(password, user.password()) ? user : null;
     }
 }
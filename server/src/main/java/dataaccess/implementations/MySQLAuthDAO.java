@@ -5,33 +5,36 @@ import dataaccess.DataAccessException;
 import model.AuthData;
 
 import java.sql.*;
+import java.time.Duration;
 import java.util.UUID;
 
+/**
+ * MySQL implementation of AuthDAO. Tokens record when they were issued and
+ * last used, and expire once unused for longer than the token TTL.
+ */
 public class MySQLAuthDAO implements AuthDAO, AutoCloseable {
+    public static final Duration DEFAULT_TOKEN_TTL = Duration.ofHours(12);
+
     private final Connection connection;
+    private final long ttlMillis;
+    // last_used is only rewritten once it is this stale, so lookups rarely write
+    private final long touchIntervalMillis;
 
     public MySQLAuthDAO() throws DataAccessException {
-        DatabaseManager.createDatabase(); 
-        connection = DatabaseManager.getConnection();
-        createAuthTable();
+        this(DEFAULT_TOKEN_TTL);
     }
 
-    private void createAuthTable() throws DataAccessException {
-        try {
-            String createTableSQL = """
-                    CREATE TABLE IF NOT EXISTS auth (
-                        auth_token VARCHAR(255) NOT NULL,
-                        username VARCHAR(255) NOT NULL,
-                        PRIMARY KEY (auth_token)
-                    )
-                    """;
-
-            try (PreparedStatement stmt = connection.prepareStatement(createTableSQL)) {
-                stmt.executeUpdate();
-            }
-        } catch (SQLException e) {
-            throw new DataAccessException("Error creating auth table: " + e.getMessage());
-        }
+    /**
+     * Creates the DAO with a custom idle TTL.
+     *
+     * @param tokenTtl How long a token stays valid without being used
+     * @throws DataAccessException if the database cannot be set up
+     */
+    public MySQLAuthDAO(Duration tokenTtl) throws DataAccessException {
+        this.ttlMillis = tokenTtl.toMillis();
+        this.touchIntervalMillis = Math.min(60_000, ttlMillis / 10);
+        SchemaBootstrap.ensureSchema();
+        connection = DatabaseManager.getConnection();
     }
 
     @Override
@@ -56,11 +59,14 @@ public class MySQLAuthDAO implements AuthDAO, AutoCloseable {
         String authToken = UUID.randomUUID().toString();
 
         try {
-            String sql = "INSERT INTO auth (auth_token, username) VALUES (?, ?)";
+            String sql = "INSERT INTO auth (auth_token, username, issued_at, last_used) VALUES (?, ?, ?, ?)";
+            long now = System.currentTimeMillis();
 
             try (PreparedStatement stmt = connection.prepareStatement(sql)) {
                 stmt.setString(1, authToken);
                 stmt.setString(2, username);
+                stmt.setLong(3, now);
+                stmt.setLong(4, now);
                 stmt.executeUpdate();
             }
 
@@ -95,25 +101,64 @@ public class MySQLAuthDAO implements AuthDAO, AutoCloseable {
         }
 
         try {
-            String sql = "SELECT auth_token, username FROM auth WHERE auth_token = ?";
+            String sql = "SELECT auth_token, username, last_used FROM auth WHERE auth_token = ?";
+            AuthData authData;
+            long lastUsed;
 
             try (PreparedStatement stmt = connection.prepareStatement(sql)) {
                 stmt.setString(1, authToken);
 
                 try (ResultSet rs = stmt.executeQuery()) {
-                    if (rs.next()) {
-                        return new AuthData(
-                                rs.getString("auth_token"),
-                                rs.getString("username"));
+                    if (!rs.next()) {
+                        return null;
                     }
-                    return null;
+                    authData = new AuthData(
+                            rs.getString("auth_token"),
+                            rs.getString("username"));
+                    lastUsed = rs.getLong("last_used");
                 }
             }
+
+            long now = System.currentTimeMillis();
+            if (now - lastUsed > ttlMillis) {
+                return null; // Left for the sweeper to delete
+            }
+            if (now - lastUsed > touchIntervalMillis) {
+                touch(authToken, now);
+            }
+            return authData;
         } catch (SQLException e) {
             throw new DataAccessException("Error retrieving auth data: " + e.getMessage());
         }
     }
 
+    private void touch(String authToken, long now) throws SQLException {
+        String sql = "UPDATE auth SET last_used = ? WHERE auth_token = ? AND last_used < ?";
+
+        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+            stmt.setLong(1, now);
+            stmt.setString(2, authToken);
+            stmt.setLong(3, now);
+            stmt.executeUpdate();
+        }
+    }
+
+    @Override
+    public int deleteExpired(int limit) throws DataAccessException {
+        try {
+            // Indexed range delete in small autocommitted batches keeps row locks short
+            String sql = "DELETE FROM auth WHERE last_used < ? LIMIT ?";
+
+            try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+                stmt.setLong(1, System.currentTimeMillis() - ttlMillis);
+                stmt.setInt(2, limit);
+                return stmt.executeUpdate();
+            }
+        } catch (SQLException e) {
+            throw new DataAccessException("Error deleting expired auth tokens: " + e.getMessage());
+        }
+    }
+
     @Override
     public void close() throws Exception {
         if (connection != null && !connection.isClosed()) {
@@ -0,0 +1,107 @@
+package dataaccess.implementations;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.google.gson.reflect.TypeToken;
+import dataaccess.DataAccessException;
+import dataaccess.interfaces.GameAnalysisDAO;
+import model.GameAnalysis;
+
+import java.lang.reflect.Type;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * MySQL implementation of GameAnalysisDAO, storing each game's move
+ * evaluations as one JSON row in the {@code game_analysis} table.
+ */
+public class MySQLGameAnalysisDAO implements GameAnalysisDAO, AutoCloseable {
+    private static final Type MOVES_TYPE = new TypeToken<List<GameAnalysis.MoveEvaluation>>() {
+    }.getType();
+
+    private final Connection connection;
+    private final Gson gson = new Gson();
+
+    public MySQLGameAnalysisDAO() throws DataAccessException {
+        SchemaBootstrap.ensureSchema();
+        connection = DatabaseManager.getConnection();
+    }
+
+    @Override
+    public void saveAnalyses(Collection<GameAnalysis> analyses) throws DataAccessException {
+        String sql = "REPLACE INTO game_analysis (game_id, depth, analyzed_at, moves) VALUES (?, ?, ?, ?)";
+
+        try {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+                long now = System.currentTimeMillis();
+                for (GameAnalysis analysis : analyses) {
+                    if (analysis == null || analysis.moves() == null) {
+                        throw new DataAccessException("Analysis cannot be null");
+                    }
+                    stmt.setInt(1, analysis.gameID());
+                    stmt.setInt(2, analysis.depth());
+                    stmt.setLong(3, now);
+                    stmt.setString(4, gson.toJson(analysis.moves(), MOVES_TYPE));
+                    stmt.addBatch();
+                }
+                stmt.executeBatch();
+                connection.commit();
+            } catch (SQLException | DataAccessException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        } catch (SQLException e) {
+            throw new DataAccessException("Error saving " + analyses.size() + " analyses: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public GameAnalysis getAnalysis(int gameID) throws DataAccessException {
+        try {
+            String sql = "SELECT depth, moves FROM game_analysis WHERE game_id = ?";
+
+            try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+                stmt.setInt(1, gameID);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    if (!rs.next()) {
+                        return null;
+                    }
+                    List<GameAnalysis.MoveEvaluation> moves = gson.fromJson(rs.getString("moves"), MOVES_TYPE);
+                    return new GameAnalysis(gameID, rs.getInt("depth"), moves);
+                }
+            }
+        } catch (SQLException e) {
+            throw new DataAccessException("Error retrieving analysis: " + e.getMessage());
+        } catch (JsonParseException e) {
+            throw new DataAccessException("Error decoding analysis of game " + gameID + ": " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void clear() throws DataAccessException {
+        try {
+            String sql = "DELETE FROM game_analysis";
+
+            try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+                stmt.executeUpdate();
+            }
+        } catch (SQLException e) {
+            throw new DataAccessException("Error clearing analyses: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void close() throws Exception {
+        if (connection != null && !connection.isClosed()) {
+            connection.close();
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package dataaccess.implementations;
+
+import dataaccess.DataAccessException;
+import dataaccess.interfaces.GameArchiveDAO;
+import model.GameData;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * MySQL implementation of GameArchiveDAO, storing finished games compressed in
+ * the {@code games_archive} table.
+ */
+public class MySQLGameArchiveDAO implements GameArchiveDAO, AutoCloseable {
+    private static final String SELECT_AFTER =
+            "SELECT game_id, white_username, black_username, game_name, archived_at, game_state, move_history "
+            + "FROM games_archive WHERE (archived_at > ? OR (archived_at = ? AND game_id > ?)) "
+            + "AND archived_at < ? ORDER BY archived_at, game_id";
+
+    private final Connection connection;
+
+    public MySQLGameArchiveDAO() throws DataAccessException {
+        SchemaBootstrap.ensureSchema();
+        connection = DatabaseManager.getConnection();
+    }
+
+    @Override
+    public void archiveGame(GameData game) throws DataAccessException {
+        if (game == null || game.game() == null) {
+            throw new DataAccessException("Game data cannot be null");
+        }
+
+        try {
+            // A copy archived again keeps its archived_at, which orders the archive for resuming readers
+            String sql = "INSERT INTO games_archive "
+                    + "(game_id, white_username, black_username, game_name, archived_at, game_state, move_history) "
+                    + "VALUES (?, ?, ?, ?, ?, ?, ?) ON DUPLICATE KEY UPDATE white_username = VALUES(white_username), "
+                    + "black_username = VALUES(black_username), game_name = VALUES(game_name), "
+                    + "game_state = VALUES(game_state), move_history = VALUES(move_history)";
+
+            try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+                stmt.setInt(1, game.gameID());
+                stmt.setString(2, game.whiteUsername());
+                stmt.setString(3, game.blackUsername());
+                stmt.setString(4, game.gameName());
+                stmt.setLong(5, System.currentTimeMillis());
+                stmt.setBytes(6, GameStateCompression.compress(game.game()));
+                stmt.setBytes(7, GameStateCompression.compressMoves(game.game()));
+                stmt.executeUpdate();
+            }
+        } catch (SQLException e) {
+            throw new DataAccessException("Error archiving game: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public GameData getArchivedGame(int gameID) throws DataAccessException {
+        try {
+            String sql = "SELECT white_username, black_username, game_name, game_state, move_history "
+                    + "FROM games_archive WHERE game_id = ?";
+
+            try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+                stmt.setInt(1, gameID);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    if (!rs.next()) {
+                        return null;
+                    }
+                    return new GameData(
+                            gameID,
+                            rs.getString("white_username"),
+                            rs.getString("black_username"),
+                            rs.getString("game_name"),
+                            GameStateCompression.decompress(rs.getBytes("game_state"), rs.getBytes("move_history")));
+                }
+            }
+        } catch (SQLException e) {
+            throw new DataAccessException("Error retrieving archived game: " + e.getMessage());
+        } catch (IllegalArgumentException e) {
+            throw new DataAccessException("Error decoding archived game " + gameID + ": " + e.getMessage());
+        }
+    }
+
+    @Override
+    public long forEachArchivedGame(long afterTime, int afterGameID, long beforeTime,
+            Consumer<ArchivedGame> action) throws DataAccessException {
+        long count = 0;
+        int gameID = 0;
+        // A streaming result set ties up its connection until it is read, so the stream gets one of its own
+        try (Connection stream = DatabaseManager.getConnection();
+                PreparedStatement stmt = stream.prepareStatement(SELECT_AFTER, ResultSet.TYPE_FORWARD_ONLY,
+                        ResultSet.CONCUR_READ_ONLY)) {
+            // Makes the driver stream rows instead of buffering the whole result set
+            stmt.setFetchSize(Integer.MIN_VALUE);
+            stmt.setLong(1, afterTime);
+            stmt.setLong(2, afterTime);
+            stmt.setInt(3, afterGameID);
+            stmt.setLong(4, beforeTime);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    gameID = rs.getInt("game_id");
+                    action.accept(readArchived(rs));
+                    count++;
+                }
+            }
+            return count;
+        } catch (SQLException e) {
+            throw new DataAccessException("Error reading archived games: " + e.getMessage());
+        } catch (IllegalArgumentException e) {
+            throw new DataAccessException("Error decoding archived game " + gameID + ": " + e.getMessage());
+        }
+    }
+
+    @Override
+    public List<ArchivedGame> listArchivedGames(long afterTime, int afterGameID, long beforeTime, int limit)
+            throws DataAccessException {
+        List<ArchivedGame> page = new ArrayList<>();
+        int gameID = 0;
+        try (PreparedStatement stmt = connection.prepareStatement(SELECT_AFTER + " LIMIT ?")) {
+            stmt.setLong(1, afterTime);
+            stmt.setLong(2, afterTime);
+            stmt.setInt(3, afterGameID);
+            stmt.setLong(4, beforeTime);
+            stmt.setInt(5, limit);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    gameID = rs.getInt("game_id");
+                    page.add(readArchived(rs));
+                }
+            }
+            return page;
+        } catch (SQLException e) {
+            throw new DataAccessException("Error reading archived games: " + e.getMessage());
+        } catch (IllegalArgumentException e) {
+            throw new DataAccessException("Error decoding archived game " + gameID + ": " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void clear() throws DataAccessException {
+        try {
+            String sql = "DELETE FROM games_archive";
+
+            try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+                stmt.executeUpdate();
+            }
+        } catch (SQLException e) {
+            throw new DataAccessException("Error clearing archived games: " + e.getMessage());
+        }
+    }
+
+    private static ArchivedGame readArchived(ResultSet rs) throws SQLException {
+        return new ArchivedGame(new GameData(
+                rs.getInt("game_id"),
+                rs.getString("white_username"),
+                rs.getString("black_username"),
+                rs.getString("game_name"),
+                GameStateCompression.decompress(rs.getBytes("game_state"), rs.getBytes("move_history"))),
+                rs.getLong("archived_at"));
+    }
+
+    @Override
+    public void close() throws Exception {
+        if (connection != null && !connection.isClosed()) {
+            connection.close();
+        }
+    }
+}
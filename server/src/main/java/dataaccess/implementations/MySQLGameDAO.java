@@ -4,42 +4,34 @@ import chess.ChessGame;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import dataaccess.DataAccessException;
-import dataaccess.interfaces.GameDAO;
+import dataaccess.interfaces.BulkGameDAO;
 
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Iterator;
+import java.util.function.Consumer;
 import model.GameData;
 
-public class MySQLGameDAO implements GameDAO, AutoCloseable {
+public class MySQLGameDAO implements BulkGameDAO, AutoCloseable {
+  private final DatabaseManager.Database database;
   private final Connection connection;
   private final Gson gson = new GsonBuilder().serializeNulls().create();
 
   public MySQLGameDAO() throws DataAccessException {
-    DatabaseManager.createDatabase();
-    connection = DatabaseManager.getConnection();
-    createGameTable();
+    this(DatabaseManager.defaultDatabase());
   }
 
-  private void createGameTable() throws DataAccessException {
-    try {
-      String createTableSQL = """
-          CREATE TABLE IF NOT EXISTS games (
-              game_id INT NOT NULL AUTO_INCREMENT,
-              white_username VARCHAR(255),
-              black_username VARCHAR(255),
-              game_name VARCHAR(255) NOT NULL,
-              game_state TEXT,
-              PRIMARY KEY (game_id)
-          )
-          """;
-
-      try (PreparedStatement stmt = connection.prepareStatement(createTableSQL)) {
-        stmt.executeUpdate();
-      }
-    } catch (SQLException e) {
-      throw new DataAccessException("Error creating game table: " + e.getMessage());
-    }
+  /**
+   * Creates a DAO backed by a specific database, such as one game shard.
+   *
+   * @param database the database holding the games table
+   * @throws DataAccessException if the database cannot be set up
+   */
+  public MySQLGameDAO(DatabaseManager.Database database) throws DataAccessException {
+    SchemaBootstrap.ensureSchema(database);
+    this.database = database;
+    connection = DatabaseManager.getConnection(database);
   }
 
   @Override
@@ -75,17 +67,15 @@ public class MySQLGameDAO implements GameDAO, AutoCloseable {
   @Override
   public GameData getGame(int gameID) throws DataAccessException {
     try {
-      String sql = "SELECT game_id, white_username, black_username, game_name, game_state FROM games WHERE game_id = ?";
+      String sql = "SELECT game_id, white_username, black_username, game_name, game_state, move_history FROM games "
+          + "WHERE game_id = ?";
 
       try (PreparedStatement stmt = connection.prepareStatement(sql)) {
         stmt.setInt(1, gameID);
 
         try (ResultSet rs = stmt.executeQuery()) {
           if (rs.next()) {
-            String gameStateJson = rs.getString("game_state");
-
-            ChessGame game = gson.fromJson(gameStateJson, ChessGame.class);
-
+            ChessGame game = readState(rs);
 
             return new GameData(
                 rs.getInt("game_id"),
@@ -109,13 +99,13 @@ public class MySQLGameDAO implements GameDAO, AutoCloseable {
     Collection<GameData> games = new ArrayList<>();
 
     try {
-      String sql = "SELECT game_id, white_username, black_username, game_name, game_state FROM games";
+      String sql = "SELECT game_id, white_username, black_username, game_name, game_state, move_history FROM games";
 
       try (PreparedStatement stmt = connection.prepareStatement(sql);
           ResultSet rs = stmt.executeQuery()) {
 
         while (rs.next()) {
-          ChessGame game = gson.fromJson(rs.getString("game_state"), ChessGame.class);
+          ChessGame game = readState(rs);
 
           games.add(new GameData(
               rs.getInt("game_id"),
@@ -143,7 +133,8 @@ public class MySQLGameDAO implements GameDAO, AutoCloseable {
 
 
     try {
-      String sql = "UPDATE games SET white_username = ?, black_username = ?, game_name = ?, game_state = ? WHERE game_id = ?";
+      String sql = "UPDATE games SET white_username = ?, black_username = ?, game_name = ?, game_state = ?, "
+          + "move_history = ?, finished = ?, version = version + 1 WHERE game_id = ?";
 
 
       String gameState = gson.toJson(gameToSerialize);
@@ -154,7 +145,10 @@ public class MySQLGameDAO implements GameDAO, AutoCloseable {
         stmt.setString(2, gameDataInput.blackUsername());
         stmt.setString(3, gameDataInput.gameName());
         stmt.setString(4, gameState);
-        stmt.setInt(5, gameID);
+        stmt.setString(5, gameToSerialize.getMoveText());
+        // Kept in its own indexed column so the archiver can find finished games without parsing state
+        stmt.setBoolean(6, gameToSerialize.getTeamTurn() == null);
+        stmt.setInt(7, gameID);
 
         int rowsAffected = stmt.executeUpdate();
         if (rowsAffected == 0) {
@@ -169,6 +163,144 @@ public class MySQLGameDAO implements GameDAO, AutoCloseable {
     }
   }
 
+  @Override
+  public Collection<FinishedGame> listFinishedGames(int afterGameID, int limit) throws DataAccessException {
+    Collection<FinishedGame> games = new ArrayList<>();
+
+    try {
+      String sql = "SELECT game_id, white_username, black_username, game_name, game_state, move_history, version "
+          + "FROM games WHERE finished = TRUE AND game_id > ? ORDER BY game_id LIMIT ?";
+
+      try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+        stmt.setInt(1, afterGameID);
+        stmt.setInt(2, limit);
+        try (ResultSet rs = stmt.executeQuery()) {
+          while (rs.next()) {
+            games.add(new FinishedGame(new GameData(
+                rs.getInt("game_id"),
+                rs.getString("white_username"),
+                rs.getString("black_username"),
+                rs.getString("game_name"),
+                readState(rs)),
+                rs.getLong("version")));
+          }
+        }
+      }
+      return games;
+    } catch (SQLException e) {
+      throw new DataAccessException("Error listing finished games: " + e.getMessage());
+    }
+  }
+
+  @Override
+  public void deleteGame(int gameID) throws DataAccessException {
+    try {
+      String sql = "DELETE FROM games WHERE game_id = ?";
+
+      try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+        stmt.setInt(1, gameID);
+        stmt.executeUpdate();
+      }
+    } catch (SQLException e) {
+      throw new DataAccessException("Error deleting game: " + e.getMessage());
+    }
+  }
+
+  /**
+   * Deletes the game in one statement that only matches the row if it still
+   * has the version it was listed at. Every update bumps the version, so the
+   * check does not depend on how the state happens to be serialized.
+   */
+  @Override
+  public boolean deleteGameIfUnchanged(FinishedGame game) throws DataAccessException {
+    try {
+      String sql = "DELETE FROM games WHERE game_id = ? AND version = ?";
+
+      try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+        stmt.setInt(1, game.game().gameID());
+        stmt.setLong(2, game.version());
+        return stmt.executeUpdate() > 0;
+      }
+    } catch (SQLException e) {
+      throw new DataAccessException("Error deleting game: " + e.getMessage());
+    }
+  }
+
+  @Override
+  public long insertGames(Iterator<GameData> games, int batchSize) throws DataAccessException {
+    if (batchSize <= 0) {
+      throw new DataAccessException("Batch size must be positive");
+    }
+    String sql = "INSERT INTO games (white_username, black_username, game_name, game_state, move_history, finished) "
+        + "VALUES (?, ?, ?, ?, ?, ?)";
+
+    long inserted = 0;
+    // A connection of its own, so the import's transaction never takes in other callers' statements
+    try (Connection bulk = DatabaseManager.getConnection(database)) {
+      bulk.setAutoCommit(false);
+      try (PreparedStatement stmt = bulk.prepareStatement(sql)) {
+        int pending = 0;
+        while (games.hasNext()) {
+          GameData game = games.next();
+          if (game.gameName() == null || game.gameName().isEmpty() || game.game() == null) {
+            throw new DataAccessException("Cannot insert a game without a name and state");
+          }
+          stmt.setString(1, game.whiteUsername());
+          stmt.setString(2, game.blackUsername());
+          stmt.setString(3, game.gameName());
+          stmt.setString(4, gson.toJson(game.game()));
+          stmt.setString(5, game.game().getMoveText());
+          stmt.setBoolean(6, game.game().getTeamTurn() == null);
+          stmt.addBatch();
+          if (++pending == batchSize) {
+            stmt.executeBatch();
+            bulk.commit();
+            inserted += pending;
+            pending = 0;
+          }
+        }
+        if (pending > 0) {
+          stmt.executeBatch();
+          bulk.commit();
+          inserted += pending;
+        }
+      } catch (SQLException | DataAccessException | RuntimeException e) {
+        bulk.rollback();
+        throw e;
+      }
+      return inserted;
+    } catch (SQLException e) {
+      throw new DataAccessException("Error inserting games after " + inserted + " rows: " + e.getMessage());
+    }
+  }
+
+  @Override
+  public long forEachGame(Consumer<GameData> action) throws DataAccessException {
+    String sql = "SELECT game_id, white_username, black_username, game_name, game_state, move_history FROM games";
+
+    long count = 0;
+    // A streaming result set ties up its connection until it is read, so the export gets one of its own
+    try (Connection stream = DatabaseManager.getConnection(database);
+        Statement stmt = stream.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+      // Makes the driver stream rows instead of buffering the whole result set
+      stmt.setFetchSize(Integer.MIN_VALUE);
+      try (ResultSet rs = stmt.executeQuery(sql)) {
+        while (rs.next()) {
+          action.accept(new GameData(
+              rs.getInt("game_id"),
+              rs.getString("white_username"),
+              rs.getString("black_username"),
+              rs.getString("game_name"),
+              readState(rs)));
+          count++;
+        }
+      }
+      return count;
+    } catch (SQLException e) {
+      throw new DataAccessException("Error reading games: " + e.getMessage());
+    }
+  }
+
   @Override
   public void clear() throws DataAccessException {
     try {
@@ -182,6 +314,15 @@ public class MySQLGameDAO implements GameDAO, AutoCloseable {
     }
   }
 
+  // The move history is kept in its own column, so the stored state keeps the format it always had
+  private ChessGame readState(ResultSet rs) throws SQLException {
+    ChessGame game = gson.fromJson(rs.getString("game_state"), ChessGame.class);
+    if (game != null) {
+      game.setMoveText(rs.getString("move_history"));
+    }
+    return game;
+  }
+
   @Override
   public void close() throws Exception {
     if (connection != null && !connection.isClosed()) {
@@ -1,48 +1,41 @@
 package dataaccess.implementations;
 
 import dataaccess.DataAccessException;
+import dataaccess.PasswordHasher;
 import dataaccess.interfaces.UserDAO;
 import model.UserData;
-import org.mindrot.jbcrypt.BCrypt;
 
 import java.sql.*;
 
 public class MySQLUserDAO implements UserDAO, AutoCloseable {
     private final Connection connection;
+    private final PasswordHasher passwordHasher;
 
     public MySQLUserDAO() throws DataAccessException {
-        DatabaseManager.createDatabase(); 
-        connection = DatabaseManager.getConnection();
-        createUserTable();
+        this(new PasswordHasher());
     }
 
-    private void createUserTable() throws DataAccessException {
-        try {
-            String createTableSQL = """
-                    CREATE TABLE IF NOT EXISTS users (
-                        username VARCHAR(255) NOT NULL,
-                        password VARCHAR(255) NOT NULL,
-                        email VARCHAR(255) NOT NULL,
-                        PRIMARY KEY (username)
-                    )
-                    """;
-
-            try (PreparedStatement stmt = connection.prepareStatement(createTableSQL)) {
-                stmt.executeUpdate();
-            }
-        } catch (SQLException e) {
-            throw new DataAccessException("Error creating user table: " + e.getMessage());
-        }
+    /**
+     * Creates the DAO with a shared hashing pool, so that BCrypt work never runs
+     * on the calling request thread.
+     *
+     * @param passwordHasher The pool that hashes and checks passwords
+     * @throws DataAccessException if the database cannot be set up
+     */
+    public MySQLUserDAO(PasswordHasher passwordHasher) throws DataAccessException {
+        this.passwordHasher = passwordHasher;
+        SchemaBootstrap.ensureSchema();
+        connection = DatabaseManager.getConnection();
     }
 
     @Override
     public String hashPassword(String password) {
-        return BCrypt.hashpw(password, BCrypt.gensalt());
+        return passwordHasher.hash(password);
     }
 
     @Override
     public boolean checkPassword(String password, String hash) {
-        return BCrypt.checkpw(password, hash);
+        return passwordHasher.check(password, hash);
     }
 
     @Override
@@ -50,15 +43,21 @@ public class MySQLUserDAO implements UserDAO, AutoCloseable {
         if (user == null || user.username() == null || user.password() == null || user.email() == null) {
             throw new DataAccessException("Invalid user data");
         }
+        createHashedUser(new UserData(user.username(), hashPassword(user.password()), user.email()));
+    }
+
+    @Override
+    public void createHashedUser(UserData user) throws DataAccessException {
+        if (user == null || user.username() == null || user.password() == null || user.email() == null) {
+            throw new DataAccessException("Invalid user data");
+        }
 
         try {
             String sql = "INSERT INTO users (username, password, email) VALUES (?, ?, ?)";
 
-            String hashedPassword = hashPassword(user.password());
-
             try (PreparedStatement stmt = connection.prepareStatement(sql)) {
                 stmt.setString(1, user.username());
-                stmt.setString(2, hashedPassword);
+                stmt.setString(2, user.password());
                 stmt.setString(3, user.email());
                 stmt.executeUpdate();
             }
@@ -96,13 +95,16 @@ public class MySQLUserDAO implements UserDAO, AutoCloseable {
 
     @Override
     public boolean verifyPassword(String username, String password) throws DataAccessException {
-        UserData user = getUser(username);
+        return authenticate(username, password) != null;
+    }
 
-        if (user == null) {
-            return false;
+    @Override
+    public UserData authenticate(String username, String password) throws DataAccessException {
+        UserData user = getUser(username);
+        if (user == null || password == null) {
+            return null;
         }
-
-        return checkPassword(password, user.password());
+        return checkPassword(password, user.password()) ? user : null;
     }
 
     @Override
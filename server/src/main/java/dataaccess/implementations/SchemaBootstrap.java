@@ -0,0 +1,260 @@
+package dataaccess.implementations;
+
+import dataaccess.DataAccessException;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Creates and upgrades the MySQL schema.
+ * <p>
+ * The schema version is stored in the single-row {@code schema_version}
+ * table. If it already matches {@link #VERSION}, startup reads that one row
+ * and runs no DDL. Otherwise the database, tables, columns and indexes are
+ * created as needed and the version is recorded. Every step checks whether it
+ * is needed first, so a database created before versioning existed, or two
+ * servers starting at once, end up with the same schema.
+ * </p>
+ * <p>
+ * To change the schema, add an idempotent step to {@link #migrate(Connection)}
+ * and bump {@link #VERSION}.
+ * </p>
+ */
+public final class SchemaBootstrap {
+    public static final int VERSION = 5;
+
+    // MySQL error codes for a column or index that already exists
+    private static final int DUPLICATE_COLUMN_NAME = 1060;
+    private static final int DUPLICATE_KEY_NAME = 1061;
+
+    // Databases already brought up to date by this process
+    private static final Set<DatabaseManager.Database> CURRENT = ConcurrentHashMap.newKeySet();
+
+    private SchemaBootstrap() {
+    }
+
+    /**
+     * Brings the default database's schema up to date. Only the first call in a
+     * process touches the database; later calls return immediately.
+     *
+     * @throws DataAccessException if the schema cannot be read or upgraded
+     */
+    public static void ensureSchema() throws DataAccessException {
+        ensureSchema(DatabaseManager.defaultDatabase());
+    }
+
+    /**
+     * Brings a database's schema up to date, once per database per process.
+     *
+     * @param database The database to bootstrap
+     * @throws DataAccessException if the schema cannot be read or upgraded
+     */
+    public static void ensureSchema(DatabaseManager.Database database) throws DataAccessException {
+        if (CURRENT.contains(database)) {
+            return;
+        }
+        synchronized (SchemaBootstrap.class) {
+            if (CURRENT.contains(database)) {
+                return;
+            }
+            if (storedVersion(database) != VERSION) {
+                DatabaseManager.createDatabase(database);
+                try (Connection conn = DatabaseManager.getConnection(database)) {
+                    migrate(conn);
+                } catch (SQLException e) {
+                    throw new DataAccessException("Error upgrading schema: " + e.getMessage());
+                }
+            }
+            CURRENT.add(database);
+        }
+    }
+
+    // The recorded version, or 0 if the database or version table doesn't exist yet
+    private static int storedVersion(DatabaseManager.Database database) {
+        try (Connection conn = DatabaseManager.getConnection(database);
+                PreparedStatement stmt = conn.prepareStatement("SELECT version FROM schema_version WHERE id = 1");
+                ResultSet rs = stmt.executeQuery()) {
+            return rs.next() ? rs.getInt(1) : 0;
+        } catch (DataAccessException | SQLException e) {
+            return 0;
+        }
+    }
+
+    private static void migrate(Connection conn) throws SQLException {
+        execute(conn, """
+                CREATE TABLE IF NOT EXISTS users (
+                    username VARCHAR(255) NOT NULL,
+                    password VARCHAR(255) NOT NULL,
+                    email VARCHAR(255) NOT NULL,
+                    PRIMARY KEY (username)
+                )
+                """);
+        execute(conn, """
+                CREATE TABLE IF NOT EXISTS games (
+                    game_id INT NOT NULL AUTO_INCREMENT,
+                    white_username VARCHAR(255),
+                    black_username VARCHAR(255),
+                    game_name VARCHAR(255) NOT NULL,
+                    game_state TEXT,
+                    finished BOOLEAN NOT NULL DEFAULT FALSE,
+                    version BIGINT NOT NULL DEFAULT 0,
+                    move_history MEDIUMTEXT,
+                    PRIMARY KEY (game_id)
+                )
+                """);
+        execute(conn, """
+                CREATE TABLE IF NOT EXISTS auth (
+                    auth_token VARCHAR(255) NOT NULL,
+                    username VARCHAR(255) NOT NULL,
+                    issued_at BIGINT NOT NULL,
+                    last_used BIGINT NOT NULL,
+                    PRIMARY KEY (auth_token)
+                )
+                """);
+        addAuthTimestampColumns(conn);
+        addFinishedColumn(conn);
+        // Existing games start at version 0 like new ones; the archiver only compares versions it has read
+        addColumn(conn, "games", "version", "BIGINT NOT NULL DEFAULT 0");
+        addMoveHistoryColumn(conn);
+
+        addIndex(conn, "games", "idx_games_white_username", "white_username");
+        addIndex(conn, "games", "idx_games_black_username", "black_username");
+        addIndex(conn, "auth", "idx_auth_username", "username");
+        addIndex(conn, "auth", "idx_auth_last_used", "last_used");
+        addIndex(conn, "games", "idx_games_finished", "finished");
+
+        execute(conn, """
+                CREATE TABLE IF NOT EXISTS games_archive (
+                    game_id INT NOT NULL,
+                    white_username VARCHAR(255),
+                    black_username VARCHAR(255),
+                    game_name VARCHAR(255) NOT NULL,
+                    archived_at BIGINT NOT NULL,
+                    game_state MEDIUMBLOB NOT NULL,
+                    move_history MEDIUMBLOB,
+                    PRIMARY KEY (game_id)
+                )
+                """);
+        addColumn(conn, "games_archive", "move_history", "MEDIUMBLOB");
+        // Lets batch analysis read the archive in the order games were archived and resume part way
+        addIndex(conn, "games_archive", "idx_games_archive_archived_at", "archived_at, game_id");
+        execute(conn, """
+                CREATE TABLE IF NOT EXISTS game_analysis (
+                    game_id INT NOT NULL,
+                    depth INT NOT NULL,
+                    analyzed_at BIGINT NOT NULL,
+                    moves MEDIUMTEXT NOT NULL,
+                    PRIMARY KEY (game_id)
+                )
+                """);
+
+        execute(conn, """
+                CREATE TABLE IF NOT EXISTS schema_version (
+                    id INT NOT NULL,
+                    version INT NOT NULL,
+                    PRIMARY KEY (id)
+                )
+                """);
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "INSERT INTO schema_version (id, version) VALUES (1, ?) "
+                        + "ON DUPLICATE KEY UPDATE version = GREATEST(version, VALUES(version))")) {
+            stmt.setInt(1, VERSION);
+            stmt.executeUpdate();
+        }
+    }
+
+    // Auth tables created before tokens expired lack the timestamp columns. Existing
+    // rows get the migration time as a literal default, which MySQL can add without
+    // rewriting the table, so they expire one TTL from now.
+    private static void addAuthTimestampColumns(Connection conn) throws SQLException {
+        try (ResultSet columns = conn.getMetaData().getColumns(conn.getCatalog(), null, "auth", "last_used")) {
+            if (columns.next()) {
+                return;
+            }
+        }
+        long now = System.currentTimeMillis();
+        try {
+            execute(conn, "ALTER TABLE auth ADD COLUMN issued_at BIGINT NOT NULL DEFAULT " + now
+                    + ", ADD COLUMN last_used BIGINT NOT NULL DEFAULT " + now);
+        } catch (SQLException e) {
+            if (e.getErrorCode() != DUPLICATE_COLUMN_NAME) {
+                throw e;
+            }
+        }
+    }
+
+    // Games tables from before archiving lack the finished flag. Ended games are
+    // found once by their serialized state; after that updateGame maintains it.
+    private static void addFinishedColumn(Connection conn) throws SQLException {
+        try (ResultSet columns = conn.getMetaData().getColumns(conn.getCatalog(), null, "games", "finished")) {
+            if (columns.next()) {
+                return;
+            }
+        }
+        try {
+            execute(conn, "ALTER TABLE games ADD COLUMN finished BOOLEAN NOT NULL DEFAULT FALSE");
+        } catch (SQLException e) {
+            if (e.getErrorCode() != DUPLICATE_COLUMN_NAME) {
+                throw e;
+            }
+        }
+        execute(conn, "UPDATE games SET finished = TRUE WHERE game_state LIKE '%\"teamTurn\":null%'");
+    }
+
+    // Games briefly stored their move history inside the serialized state. It is copied
+    // into its own column once; the state itself is left as it is.
+    private static void addMoveHistoryColumn(Connection conn) throws SQLException {
+        if (addColumn(conn, "games", "move_history", "MEDIUMTEXT")) {
+            execute(conn, "UPDATE games SET move_history = JSON_UNQUOTE(JSON_EXTRACT(game_state, '$.moves')) "
+                    + "WHERE game_state LIKE '%\"moves\":%'");
+        }
+    }
+
+    // Adds a column to a table created before it existed; existing rows take its default
+    private static boolean addColumn(Connection conn, String table, String column, String definition)
+            throws SQLException {
+        try (ResultSet columns = conn.getMetaData().getColumns(conn.getCatalog(), null, table, column)) {
+            if (columns.next()) {
+                return false;
+            }
+        }
+        try {
+            execute(conn, "ALTER TABLE " + table + " ADD COLUMN " + column + " " + definition);
+            return true;
+        } catch (SQLException e) {
+            // Another server starting at the same time may have just added it
+            if (e.getErrorCode() != DUPLICATE_COLUMN_NAME) {
+                throw e;
+            }
+            return false;
+        }
+    }
+
+    private static void addIndex(Connection conn, String table, String index, String column) throws SQLException {
+        try (ResultSet indexes = conn.getMetaData().getIndexInfo(conn.getCatalog(), null, table, false, false)) {
+            while (indexes.next()) {
+                if (index.equalsIgnoreCase(indexes.getString("INDEX_NAME"))) {
+                    return;
+                }
+            }
+        }
+        try {
+            execute(conn, "CREATE INDEX " + index + " ON " + table + " (" + column + ")");
+        } catch (SQLException e) {
+            // Another server starting at the same time may have just added it
+            if (e.getErrorCode() != DUPLICATE_KEY_NAME) {
+                throw e;
+            }
+        }
+    }
+
+    private static void execute(Connection conn, String sql) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.executeUpdate();
+        }
+    }
+}
@@ -0,0 +1,232 @@
+package dataaccess.implementations;
+
+import dataaccess.DataAccessException;
+import dataaccess.DataAccessFutures;
+import dataaccess.interfaces.AsyncGameDAO;
+import dataaccess.interfaces.GameDAO;
+import model.GameData;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * GameDAO that spreads games across several backing stores.
+ * <p>
+ * New games go to the shards in turn. Each shard numbers its own games, and
+ * the global game ID interleaves them: local game {@code n} on shard
+ * {@code s} of {@code N} is game {@code n * N + s}. IDs are therefore unique
+ * across shards without any coordination, and a game ID alone says which
+ * shard holds it. Changing the number of shards changes that mapping, so
+ * existing shards must keep their positions and the count must stay fixed once
+ * games exist.
+ * </p>
+ * <p>
+ * {@link #listGames()} and {@link #clear()} query every shard at once and
+ * combine the results. The shard queries run on a pool of their own, because
+ * callers such as the asynchronous DAO views already run on the shared DAO
+ * I/O pool and wait for the results there; fanning out onto that same pool
+ * could leave every thread waiting on work queued behind it.
+ * </p>
+ */
+public class ShardedGameDAO implements GameDAO, AutoCloseable {
+    private final List<GameDAO> shards;
+    private final List<AsyncGameDAO> asyncShards = new ArrayList<>();
+    private final AtomicInteger nextShard = new AtomicInteger();
+    // The fan-out pool this DAO created, and so must shut down
+    private final ExecutorService ownedExecutor;
+
+    /**
+     * Creates a sharded DAO that fans out on a pool of its own with a thread
+     * per shard.
+     *
+     * @param shards The backing stores, in a fixed order
+     */
+    public ShardedGameDAO(List<? extends GameDAO> shards) {
+        this(shards, fanOutPool(shards.size()), true);
+    }
+
+    /**
+     * Creates a sharded DAO.
+     *
+     * @param shards   The backing stores, in a fixed order
+     * @param executor Where to run calls that fan out to every shard. It must
+     *                 not be a pool whose threads call this DAO, or they can
+     *                 end up waiting on shard queries queued behind them.
+     */
+    public ShardedGameDAO(List<? extends GameDAO> shards, Executor executor) {
+        this(shards, executor, false);
+    }
+
+    private ShardedGameDAO(List<? extends GameDAO> shards, Executor executor, boolean owned) {
+        if (shards.isEmpty()) {
+            throw new IllegalArgumentException("At least one shard is required");
+        }
+        this.shards = List.copyOf(shards);
+        this.ownedExecutor = owned ? (ExecutorService) executor : null;
+        for (GameDAO shard : this.shards) {
+            asyncShards.add(new AsyncGameDAOAdapter(shard, executor));
+        }
+    }
+
+    /**
+     * Gets the number of shards.
+     *
+     * @return The shard count
+     */
+    public int shardCount() {
+        return shards.size();
+    }
+
+    /**
+     * Gets the index of the shard that holds a game.
+     *
+     * @param gameID The global game ID
+     * @return The shard index
+     */
+    public int shardOf(int gameID) {
+        return Math.floorMod(gameID, shards.size());
+    }
+
+    @Override
+    public int createGame(String gameName) throws DataAccessException {
+        int shard = Math.floorMod(nextShard.getAndIncrement(), shards.size());
+        int localID = shards.get(shard).createGame(gameName);
+        if (localID > (Integer.MAX_VALUE - shard) / shards.size()) {
+            throw new DataAccessException("Game ID space exhausted on shard " + shard);
+        }
+        return localID * shards.size() + shard;
+    }
+
+    @Override
+    public GameData getGame(int gameID) throws DataAccessException {
+        int localID = gameID / shards.size();
+        if (gameID <= 0 || localID <= 0) {
+            return null;
+        }
+        return withID(shards.get(shardOf(gameID)).getGame(localID), gameID);
+    }
+
+    @Override
+    public Collection<GameData> listGames() throws DataAccessException {
+        List<CompletableFuture<Collection<GameData>>> listings = new ArrayList<>();
+        for (AsyncGameDAO shard : asyncShards) {
+            listings.add(shard.listGames());
+        }
+        DataAccessFutures.join(CompletableFuture.allOf(listings.toArray(new CompletableFuture<?>[0])));
+
+        List<GameData> games = new ArrayList<>();
+        for (int shard = 0; shard < listings.size(); shard++) {
+            for (GameData game : listings.get(shard).join()) {
+                games.add(withID(game, game.gameID() * shards.size() + shard));
+            }
+        }
+        games.sort(Comparator.comparingInt(GameData::gameID));
+        return games;
+    }
+
+    @Override
+    public void updateGame(int gameID, GameData game) throws DataAccessException {
+        int localID = gameID / shards.size();
+        if (gameID <= 0 || localID <= 0) {
+            throw new DataAccessException("Game not found with ID: " + gameID);
+        }
+        shards.get(shardOf(gameID)).updateGame(localID, withID(game, localID));
+    }
+
+    /**
+     * Lists the first finished games after a global ID across every shard.
+     * Each shard is asked for its first {@code limit} games past the same
+     * point, and the combined list is cut back to the lowest {@code limit}
+     * global IDs, so paging reaches every shard evenly.
+     */
+    @Override
+    public Collection<FinishedGame> listFinishedGames(int afterGameID, int limit) throws DataAccessException {
+        List<FinishedGame> games = new ArrayList<>();
+        for (int shard = 0; shard < shards.size(); shard++) {
+            // Local game n on this shard is global n * N + shard, so these are the local IDs past the cursor
+            int afterLocalID = Math.floorDiv(afterGameID - shard, shards.size());
+            for (FinishedGame listed : shards.get(shard).listFinishedGames(afterLocalID, limit)) {
+                GameData game = listed.game();
+                games.add(new FinishedGame(withID(game, game.gameID() * shards.size() + shard), listed.version()));
+            }
+        }
+        games.sort(Comparator.comparingInt(listed -> listed.game().gameID()));
+        return games.subList(0, Math.min(limit, games.size()));
+    }
+
+    @Override
+    public void deleteGame(int gameID) throws DataAccessException {
+        int localID = gameID / shards.size();
+        if (gameID > 0 && localID > 0) {
+            shards.get(shardOf(gameID)).deleteGame(localID);
+        }
+    }
+
+    @Override
+    public boolean deleteGameIfUnchanged(FinishedGame game) throws DataAccessException {
+        int gameID = game.game().gameID();
+        int localID = gameID / shards.size();
+        if (gameID <= 0 || localID <= 0) {
+            return false;
+        }
+        return shards.get(shardOf(gameID)).deleteGameIfUnchanged(
+                new FinishedGame(withID(game.game(), localID), game.version()));
+    }
+
+    @Override
+    public void clear() throws DataAccessException {
+        List<CompletableFuture<Void>> clears = new ArrayList<>();
+        for (AsyncGameDAO shard : asyncShards) {
+            clears.add(shard.clear());
+        }
+        DataAccessFutures.join(CompletableFuture.allOf(clears.toArray(new CompletableFuture<?>[0])));
+    }
+
+    /**
+     * Closes every shard that holds resources, and the fan-out pool if this
+     * DAO created it.
+     */
+    @Override
+    public void close() throws Exception {
+        if (ownedExecutor != null) {
+            ownedExecutor.shutdown();
+        }
+        Exception failure = null;
+        for (GameDAO shard : shards) {
+            if (shard instanceof AutoCloseable closeable) {
+                try {
+                    closeable.close();
+                } catch (Exception e) {
+                    failure = e;
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private static ExecutorService fanOutPool(int shardCount) {
+        AtomicInteger count = new AtomicInteger();
+        return Executors.newFixedThreadPool(Math.max(1, shardCount), runnable -> {
+            Thread thread = new Thread(runnable, "shard-fanout-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // Shards store local IDs; callers only ever see global ones
+    private static GameData withID(GameData game, int gameID) {
+        if (game == null || game.gameID() == gameID) {
+            return game;
+        }
+        return new GameData(gameID, game.whiteUsername(), game.blackUsername(), game.gameName(), game.game());
+    }
+}
@@ -0,0 +1,243 @@
+package dataaccess.implementations;
+
+import dataaccess.DataAccessException;
+import dataaccess.interfaces.AuthDAO;
+import model.AuthData;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * AuthDAO that issues self-contained HMAC-signed tokens instead of storing
+ * them, so that validating a token needs no database access and any server
+ * sharing the signing keys can validate it.
+ * <p>
+ * A token is {@code base64url(payload) + "." + base64url(HMAC-SHA256)}, where
+ * the payload holds the signing key id, the issue stamp, the expiry, a random
+ * nonce and the username. Keys are looked up by id, so keys can be rotated by
+ * adding a new key and signing with it while the old one still verifies
+ * outstanding tokens.
+ * </p>
+ * <p>
+ * Logging out records the token's nonce in a revocation list, which
+ * {@link #deleteExpired(int)} trims once the token would have expired anyway,
+ * and {@link #clear()} revokes every token issued so far. Both are local to
+ * this instance.
+ * </p>
+ */
+public class SignedTokenAuthDAO implements AuthDAO {
+    public static final Duration DEFAULT_TOKEN_TTL = Duration.ofHours(12);
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final int HEADER_BYTES = 1 + 8 + 8 + 8;
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final Map<Integer, SecretKeySpec> keys;
+    private final int signingKeyId;
+    private final long tokenTtlMillis;
+    private final SecureRandom random = new SecureRandom();
+    private final ThreadLocal<Mac> macs = ThreadLocal.withInitial(SignedTokenAuthDAO::newMac);
+    // nonce -> expiry of the logged out token
+    private final ConcurrentHashMap<Long, Long> revoked = new ConcurrentHashMap<>();
+    // Issue stamps are strictly increasing, so clear() can revoke by stamp
+    private final AtomicLong lastIssued = new AtomicLong();
+    private volatile long revokedThrough = Long.MIN_VALUE;
+
+    /**
+     * A decoded and verified token.
+     */
+    private record Claims(long issued, long expires, long nonce, String username) {
+    }
+
+    /**
+     * Creates a DAO that signs with a single key.
+     *
+     * @param secret   The HMAC key
+     * @param tokenTtl How long issued tokens remain valid
+     */
+    public SignedTokenAuthDAO(byte[] secret, Duration tokenTtl) {
+        this(Map.of(0, secret), 0, tokenTtl);
+    }
+
+    /**
+     * Creates a DAO that accepts tokens signed by any of the given keys.
+     *
+     * @param keys         The HMAC keys by key id (0-255)
+     * @param signingKeyId The id of the key used to sign new tokens
+     * @param tokenTtl     How long issued tokens remain valid
+     */
+    public SignedTokenAuthDAO(Map<Integer, byte[]> keys, int signingKeyId, Duration tokenTtl) {
+        if (!keys.containsKey(signingKeyId)) {
+            throw new IllegalArgumentException("No key with id " + signingKeyId);
+        }
+        Map<Integer, SecretKeySpec> specs = new ConcurrentHashMap<>();
+        for (Map.Entry<Integer, byte[]> key : keys.entrySet()) {
+            if (key.getKey() < 0 || key.getKey() > 255) {
+                throw new IllegalArgumentException("Key id out of range: " + key.getKey());
+            }
+            if (key.getValue().length < 32) {
+                throw new IllegalArgumentException("Key " + key.getKey() + " must be at least 32 bytes");
+            }
+            specs.put(key.getKey(), new SecretKeySpec(key.getValue(), ALGORITHM));
+        }
+        this.keys = specs;
+        this.signingKeyId = signingKeyId;
+        this.tokenTtlMillis = tokenTtl.toMillis();
+    }
+
+    @Override
+    public void clear() throws DataAccessException {
+        revokedThrough = lastIssued.get();
+        revoked.clear();
+    }
+
+    @Override
+    public String createAuth(String username) throws DataAccessException {
+        if (username == null || username.isEmpty()) {
+            throw new DataAccessException("Username cannot be null or empty");
+        }
+
+        long issued = lastIssued.updateAndGet(last -> Math.max(last + 1, System.currentTimeMillis()));
+        byte[] name = username.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer payload = ByteBuffer.allocate(HEADER_BYTES + name.length);
+        payload.put((byte) signingKeyId)
+                .putLong(issued)
+                .putLong(issued + tokenTtlMillis)
+                .putLong(random.nextLong())
+                .put(name);
+        byte[] body = payload.array();
+        return ENCODER.encodeToString(body) + "." + ENCODER.encodeToString(sign(signingKeyId, body));
+    }
+
+    @Override
+    public void deleteAuth(String authToken) throws DataAccessException {
+        Claims claims = verify(authToken);
+        if (claims != null) {
+            revoked.put(claims.nonce(), claims.expires());
+        }
+    }
+
+    @Override
+    public AuthData getAuth(String authToken) throws DataAccessException {
+        Claims claims = verify(authToken);
+        if (claims == null) {
+            return null;
+        }
+        if (claims.expires() <= System.currentTimeMillis() || claims.issued() <= revokedThrough
+                || revoked.containsKey(claims.nonce())) {
+            return null;
+        }
+        return new AuthData(authToken, claims.username());
+    }
+
+    /**
+     * Signed tokens carry their own expiry, so there is nothing to delete except
+     * revocation entries for tokens that have expired anyway.
+     */
+    @Override
+    public int deleteExpired(int limit) throws DataAccessException {
+        long now = System.currentTimeMillis();
+        int deleted = 0;
+        Iterator<Map.Entry<Long, Long>> entries = revoked.entrySet().iterator();
+        while (deleted < limit && entries.hasNext()) {
+            if (entries.next().getValue() <= now) {
+                entries.remove();
+                deleted++;
+            }
+        }
+        return deleted;
+    }
+
+    /**
+     * Gets the number of logged out tokens that have not expired yet.
+     *
+     * @return The size of the revocation list
+     */
+    public int revokedCount() {
+        return revoked.size();
+    }
+
+    // Checks the signature and decodes the payload; null for anything malformed
+    private Claims verify(String authToken) {
+        if (authToken == null) {
+            return null;
+        }
+        int dot = authToken.indexOf('.');
+        if (dot <= 0) {
+            return null;
+        }
+        byte[] body;
+        byte[] signature;
+        try {
+            body = DECODER.decode(authToken.substring(0, dot));
+            signature = DECODER.decode(authToken.substring(dot + 1));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        if (body.length <= HEADER_BYTES) {
+            return null;
+        }
+        int keyId = body[0] & 0xFF;
+        if (!keys.containsKey(keyId) || !MessageDigest.isEqual(sign(keyId, body), signature)) {
+            return null;
+        }
+
+        ByteBuffer payload = ByteBuffer.wrap(body, 1, body.length - 1);
+        long issued = payload.getLong();
+        long expires = payload.getLong();
+        long nonce = payload.getLong();
+        String username = new String(body, HEADER_BYTES, body.length - HEADER_BYTES, StandardCharsets.UTF_8);
+        return new Claims(issued, expires, nonce, username);
+    }
+
+    private byte[] sign(int keyId, byte[] body) {
+        Mac mac = macs.get();
+        try {
+            mac.init(keys.get(keyId));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Invalid signing key " + keyId, e);
+        }
+        return mac.doFinal(body);
+    }
+
+    private static Mac newMac() {
+        try {
+            return Mac.getInstance(ALGORITHM);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(ALGORITHM + " is not available", e);
+        }
+    }
+
+    /**
+     * Decodes a key given as base64, or generates a random one if none is
+     * configured. A generated key invalidates all tokens when the server
+     * restarts and is not shared with other servers.
+     *
+     * @param base64Key The configured key, or null
+     * @return The key bytes
+     */
+    public static byte[] keyFrom(String base64Key) {
+        if (base64Key == null) {
+            byte[] key = new byte[32];
+            new SecureRandom().nextBytes(key);
+            return key;
+        }
+        byte[] key = Base64.getDecoder().decode(base64Key);
+        if (key.length < 32) {
+            throw new IllegalArgumentException("Signing key must be at least 32 bytes");
+        }
+        return key;
+    }
+}
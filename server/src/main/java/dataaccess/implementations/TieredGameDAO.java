@@ -0,0 +1,91 @@
+package dataaccess.implementations;
+
+import dataaccess.DataAccessException;
+import dataaccess.interfaces.GameArchiveDAO;
+import dataaccess.interfaces.GameDAO;
+import model.GameData;
+
+import java.util.Collection;
+
+/**
+ * GameDAO that puts the live games table in front of the archive of finished
+ * games.
+ * <p>
+ * Listing and creating games only touch the live store, so its size tracks the
+ * games still in progress. Looking up a game by ID falls back to the archive,
+ * so finished games can still be opened, and an update to an archived game is
+ * written back to the archive. The {@link dataaccess.GameArchiver} moves games
+ * from the live store to the archive.
+ * </p>
+ */
+public class TieredGameDAO implements GameDAO {
+    private final GameDAO live;
+    private final GameArchiveDAO archive;
+
+    /**
+     * Combines a live store and an archive.
+     *
+     * @param live    The store for games in progress
+     * @param archive The store finished games are moved to
+     */
+    public TieredGameDAO(GameDAO live, GameArchiveDAO archive) {
+        this.live = live;
+        this.archive = archive;
+    }
+
+    @Override
+    public int createGame(String gameName) throws DataAccessException {
+        return live.createGame(gameName);
+    }
+
+    @Override
+    public GameData getGame(int gameID) throws DataAccessException {
+        GameData game = live.getGame(gameID);
+        return game != null ? game : archive.getArchivedGame(gameID);
+    }
+
+    /**
+     * Lists the games in the live store. Archived games are only reachable by ID.
+     */
+    @Override
+    public Collection<GameData> listGames() throws DataAccessException {
+        return live.listGames();
+    }
+
+    @Override
+    public void updateGame(int gameID, GameData game) throws DataAccessException {
+        try {
+            live.updateGame(gameID, game);
+        } catch (DataAccessException e) {
+            // Updates to archived games are rare (a seat freed after the game ended)
+            if (archive.getArchivedGame(gameID) == null) {
+                throw e;
+            }
+            archive.archiveGame(game);
+        }
+    }
+
+    @Override
+    public Collection<FinishedGame> listFinishedGames(int afterGameID, int limit) throws DataAccessException {
+        return live.listFinishedGames(afterGameID, limit);
+    }
+
+    /**
+     * Deletes a game from the live store, leaving any archived copy in place.
+     */
+    @Override
+    public void deleteGame(int gameID) throws DataAccessException {
+        live.deleteGame(gameID);
+    }
+
+    @Override
+    public boolean deleteGameIfUnchanged(FinishedGame game) throws DataAccessException {
+        return live.deleteGameIfUnchanged(game);
+    }
+
+    @Override
+    public void clear() throws DataAccessException {
+        live.clear();
+        archive.clear();
+    }
+}
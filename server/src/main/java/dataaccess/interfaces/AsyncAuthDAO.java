@@ -0,0 +1,53 @@
+package dataaccess.interfaces;
+
+import model.AuthData;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Non-blocking view of {@link AuthDAO}. Each method starts the operation and
+ * returns immediately; the future completes exceptionally with a
+ * {@link dataaccess.DataAccessException} where the blocking method would throw
+ * one.
+ */
+public interface AsyncAuthDAO {
+    /**
+     * Clears all authentication data
+     * 
+     * @return a future that completes once the data is cleared
+     */
+    CompletableFuture<Void> clear();
+
+    /**
+     * Creates a new authentication token for a user
+     * 
+     * @param username the username to create a token for
+     * @return a future holding the newly created token
+     */
+    CompletableFuture<String> createAuth(String username);
+
+    /**
+     * Deletes an authentication token (logout)
+     * 
+     * @param authToken the token to delete
+     * @return a future that completes once the token is deleted
+     */
+    CompletableFuture<Void> deleteAuth(String authToken);
+
+    /**
+     * Gets authentication data by token
+     * 
+     * @param authToken the token to look up
+     * @return a future holding the authentication data, or null if the token is
+     *         unknown
+     */
+    CompletableFuture<AuthData> getAuth(String authToken);
+
+    /**
+     * Deletes at most {@code limit} tokens that have outlived the token TTL
+     * 
+     * @param limit the maximum number of tokens to delete
+     * @return a future holding the number of tokens deleted
+     */
+    CompletableFuture<Integer> deleteExpired(int limit);
+}
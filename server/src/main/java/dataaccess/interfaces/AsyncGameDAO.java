@@ -0,0 +1,65 @@
+package dataaccess.interfaces;
+
+import model.GameData;
+
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.UnaryOperator;
+
+/**
+ * Non-blocking view of {@link GameDAO}. Each method starts the operation and
+ * returns immediately; the future completes exceptionally with a
+ * {@link dataaccess.DataAccessException} where the blocking method would throw
+ * one.
+ */
+public interface AsyncGameDAO {
+    /**
+     * Creates a new game
+     * 
+     * @param gameName the name of the game
+     * @return a future holding the ID of the newly created game
+     */
+    CompletableFuture<Integer> createGame(String gameName);
+
+    /**
+     * Gets a game by ID
+     * 
+     * @param gameID the game ID to look up
+     * @return a future holding the game data, or null if there is no such game
+     */
+    CompletableFuture<GameData> getGame(int gameID);
+
+    /**
+     * Lists all games
+     * 
+     * @return a future holding all games
+     */
+    CompletableFuture<Collection<GameData>> listGames();
+
+    /**
+     * Updates a game's information
+     * 
+     * @param gameID the ID of the game to update
+     * @param game   the updated game data
+     * @return a future that completes once the game is updated
+     */
+    CompletableFuture<Void> updateGame(int gameID, GameData game);
+
+    /**
+     * Applies a change to a game's current information and saves the result
+     * 
+     * @param gameID the ID of the game to update
+     * @param change maps the current game data to the updated data, or to null
+     *               to leave the game as it is
+     * @return a future holding the game data as it stands after the change
+     * @see GameDAO#modifyGame(int, UnaryOperator)
+     */
+    CompletableFuture<GameData> modifyGame(int gameID, UnaryOperator<GameData> change);
+
+    /**
+     * Clears all games
+     * 
+     * @return a future that completes once the games are cleared
+     */
+    CompletableFuture<Void> clear();
+}
@@ -0,0 +1,47 @@
+package dataaccess.interfaces;
+
+import model.UserData;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Non-blocking view of {@link UserDAO}. Each method starts the operation and
+ * returns immediately; the future completes exceptionally with a
+ * {@link dataaccess.DataAccessException} where the blocking method would throw
+ * one.
+ */
+public interface AsyncUserDAO {
+    /**
+     * Creates a new user in the database
+     * 
+     * @param user the user to create
+     * @return a future that completes once the user is created
+     */
+    CompletableFuture<Void> createUser(UserData user);
+
+    /**
+     * Gets a user from the database by username
+     * 
+     * @param username the username to look up
+     * @return a future holding the user data, or null if there is no such user
+     */
+    CompletableFuture<UserData> getUser(String username);
+
+    /**
+     * Clears all users from the database
+     * 
+     * @return a future that completes once the users are cleared
+     */
+    CompletableFuture<Void> clear();
+
+    /**
+     * Looks up a user and verifies their password with a single fetch of the
+     * stored credentials
+     * 
+     * @param username the username to look up
+     * @param password the password to verify
+     * @return a future holding the user if the password matches, or null if the
+     *         user does not exist or the password is wrong
+     */
+    CompletableFuture<UserData> authenticate(String username, String password);
+}
@@ -42,4 +42,14 @@ public interface AuthDAO {
      * @throws DataAccessException if there is an error retrieving the auth data
      */
     AuthData getAuth(String authToken) throws DataAccessException;
+
+    /**
+     * Deletes tokens that have outlived the token TTL, at most {@code limit} at a
+     * time so that a sweep never holds locks for long
+     * 
+     * @param limit the maximum number of tokens to delete
+     * @return the number of tokens deleted
+     * @throws DataAccessException if there is an error deleting the tokens
+     */
+    int deleteExpired(int limit) throws DataAccessException;
 }
\ No newline at end of file
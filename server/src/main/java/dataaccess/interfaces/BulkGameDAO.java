@@ -0,0 +1,34 @@
+package dataaccess.interfaces;
+
+import dataaccess.DataAccessException;
+
+import model.GameData;
+import java.util.Iterator;
+import java.util.function.Consumer;
+
+/**
+ * Game data access for stores that can load and read many games at once,
+ * without holding them all in memory
+ */
+public interface BulkGameDAO extends GameDAO {
+    /**
+     * Inserts games in batches, committing after each batch. The games' IDs are
+     * ignored and new ones are assigned
+     * 
+     * @param games     the games to insert, consumed as they are inserted
+     * @param batchSize the number of games sent and committed together
+     * @return the number of games inserted
+     * @throws DataAccessException if a batch fails; earlier batches stay
+     *                             committed
+     */
+    long insertGames(Iterator<GameData> games, int batchSize) throws DataAccessException;
+
+    /**
+     * Streams every game to a consumer, one at a time
+     * 
+     * @param action called with each game
+     * @return the number of games read
+     * @throws DataAccessException if there is an error reading the games
+     */
+    long forEachGame(Consumer<GameData> action) throws DataAccessException;
+}
@@ -0,0 +1,36 @@
+package dataaccess.interfaces;
+
+import dataaccess.DataAccessException;
+
+import model.GameAnalysis;
+import java.util.Collection;
+
+/**
+ * Interface for storing the results of analyzing finished games
+ */
+public interface GameAnalysisDAO {
+    /**
+     * Stores analyses together, replacing any earlier analysis of the same
+     * games. Either every analysis is stored or none is
+     * 
+     * @param analyses the analyses to store
+     * @throws DataAccessException if there is an error storing them
+     */
+    void saveAnalyses(Collection<GameAnalysis> analyses) throws DataAccessException;
+
+    /**
+     * Gets a game's analysis
+     * 
+     * @param gameID the ID of the game analyzed
+     * @return the analysis, or null if the game has not been analyzed
+     * @throws DataAccessException if there is an error retrieving it
+     */
+    GameAnalysis getAnalysis(int gameID) throws DataAccessException;
+
+    /**
+     * Clears all analyses
+     * 
+     * @throws DataAccessException if there is an error clearing them
+     */
+    void clear() throws DataAccessException;
+}
@@ -0,0 +1,83 @@
+package dataaccess.interfaces;
+
+import dataaccess.DataAccessException;
+
+import model.GameData;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Interface for the archive of finished games, kept apart from the live games
+ * so that listing and updating live games never touches them
+ */
+public interface GameArchiveDAO {
+    /**
+     * An archived game with the time it was archived, which orders the archive
+     * for readers that resume where they left off
+     * 
+     * @param game       the game
+     * @param archivedAt when the game was first archived, in epoch milliseconds
+     */
+    record ArchivedGame(GameData game, long archivedAt) {
+    }
+
+    /**
+     * Stores a game in the archive, replacing any archived copy with the same ID.
+     * A replaced copy's archive time is kept, so the game keeps its place in
+     * the archive order
+     * 
+     * @param game the game to archive
+     * @throws DataAccessException if there is an error storing the game
+     */
+    void archiveGame(GameData game) throws DataAccessException;
+
+    /**
+     * Gets an archived game by ID
+     * 
+     * @param gameID the game ID to look up
+     * @return the game data, or null if the game is not archived
+     * @throws DataAccessException if there is an error retrieving the game
+     */
+    GameData getArchivedGame(int gameID) throws DataAccessException;
+
+    /**
+     * Streams archived games to a consumer in the order they were archived,
+     * ties broken by game ID. Only games archived after the given position and
+     * before the cutoff are read, so a reader that records the last game it
+     * finished can resume from there. A game archived again keeps its first
+     * position, so a resumed reader does not read it twice.
+     * 
+     * @param afterTime   the archive time of the last game already read
+     * @param afterGameID the ID of the last game already read at that time
+     * @param beforeTime  the archive time at which to stop, exclusive
+     * @param action      called with each game
+     * @return the number of games read
+     * @throws DataAccessException if there is an error reading the games
+     */
+    long forEachArchivedGame(long afterTime, int afterGameID, long beforeTime, Consumer<ArchivedGame> action)
+            throws DataAccessException;
+
+    /**
+     * Reads one page of archived games, in the order
+     * {@link #forEachArchivedGame} streams them. The page is read in full
+     * before it is returned, so a reader that is slow to get through its games
+     * holds nothing open in the meantime; it asks for the next page from the
+     * last game of this one.
+     * 
+     * @param afterTime   the archive time of the last game already read
+     * @param afterGameID the ID of the last game already read at that time
+     * @param beforeTime  the archive time at which to stop, exclusive
+     * @param limit       the most games to read
+     * @return the games, fewer than {@code limit} only once the cutoff is reached
+     * @throws DataAccessException if there is an error reading the games
+     */
+    List<ArchivedGame> listArchivedGames(long afterTime, int afterGameID, long beforeTime, int limit)
+            throws DataAccessException;
+
+    /**
+     * Clears the archive
+     * 
+     * @throws DataAccessException if there is an error clearing the archive
+     */
+    void clear() throws DataAccessException;
+}
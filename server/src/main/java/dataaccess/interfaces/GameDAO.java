@@ -4,6 +4,7 @@ import dataaccess.DataAccessException;
 
 import model.GameData;
 import java.util.Collection;
+import java.util.function.UnaryOperator;
 
 // Auto generated comments
 
@@ -46,6 +47,79 @@ public interface GameDAO {
      */
     void updateGame(int gameID, GameData game) throws DataAccessException;
 
+    /**
+     * Applies a change to a game's current information and saves the result.
+     * Implementations that share games between threads apply the change
+     * atomically, so concurrent changes to different fields are not lost.
+     * 
+     * @param gameID the ID of the game to update
+     * @param change maps the current game data (null if there is no such game)
+     *               to the updated data, or to null to leave the game as it is
+     * @return the game data as it stands after the change
+     * @throws DataAccessException if there is an error reading or updating the game
+     */
+    default GameData modifyGame(int gameID, UnaryOperator<GameData> change) throws DataAccessException {
+        GameData current = getGame(gameID);
+        GameData updated = change.apply(current);
+        if (updated == null) {
+            return current;
+        }
+        updateGame(gameID, updated);
+        return updated;
+    }
+
+    /**
+     * A finished game as listed for archiving, along with the stored version
+     * it was read at. Stores that count changes to a game bump the version on
+     * every update, so the game can later be deleted only if it still has it.
+     * 
+     * @param game    the game as it was read
+     * @param version the stored version of the game, or 0 if the store does
+     *                not count changes
+     */
+    record FinishedGame(GameData game, long version) {
+    }
+
+    /**
+     * Lists games that have ended (no team to move), so they can be archived.
+     * Games come in ascending ID order, so a caller can read every finished
+     * game a page at a time by passing the last ID of each page to the next.
+     * 
+     * @param afterGameID only games with a greater ID are listed
+     * @param limit       the maximum number of games to return
+     * @return up to {@code limit} finished games, in ascending ID order
+     * @throws DataAccessException if there is an error listing the games
+     */
+    Collection<FinishedGame> listFinishedGames(int afterGameID, int limit) throws DataAccessException;
+
+    /**
+     * Deletes a game
+     * 
+     * @param gameID the ID of the game to delete
+     * @throws DataAccessException if there is an error deleting the game
+     */
+    void deleteGame(int gameID) throws DataAccessException;
+
+    /**
+     * Deletes a game only if it has not changed since it was listed, e.g. once
+     * the listed copy has been archived, so that a change made since the game
+     * was read is never lost. The default compares the stored data with the
+     * listed data and deletes in two steps; stores that count changes compare
+     * versions instead, in one atomic step.
+     * 
+     * @param game the game as it was listed
+     * @return true if the game was deleted, false if it changed, is gone or is
+     *         still in use
+     * @throws DataAccessException if there is an error deleting the game
+     */
+    default boolean deleteGameIfUnchanged(FinishedGame game) throws DataAccessException {
+        if (!game.game().equals(getGame(game.game().gameID()))) {
+            return false;
+        }
+        deleteGame(game.game().gameID());
+        return true;
+    }
+
     /**
      * Clears all games
      * 
@@ -16,6 +16,17 @@ public interface UserDAO {
      */
     void createUser(UserData user) throws DataAccessException;
 
+    /**
+     * Creates a new user whose password has already been hashed with
+     * {@link #hashPassword}, so the hashing can happen elsewhere
+     * 
+     * @param user the user to create, holding the password hash
+     * @throws DataAccessException if there is an error creating the user
+     */
+    default void createHashedUser(UserData user) throws DataAccessException {
+        createUser(user);
+    }
+
     /**
      * Gets a user from the database by username
      * 
@@ -58,4 +69,16 @@ public interface UserDAO {
      * @throws DataAccessException if there is an error retrieving the user
      */
     boolean verifyPassword(String username, String password) throws DataAccessException;
+
+    /**
+     * Looks up a user and verifies their password with a single fetch of the
+     * stored credentials
+     * 
+     * @param username the username to look up
+     * @param password the password to verify
+     * @return the user if the password matches, null if the user does not exist
+     *         or the password is wrong
+     * @throws DataAccessException if there is an error retrieving the user
+     */
+    UserData authenticate(String username, String password) throws DataAccessException;
 }
\ No newline at end of file
@@ -0,0 +1,78 @@
+package handlers;
+
+import analysis.PositionAnalyzer;
+import spark.Request;
+import spark.Response;
+import requests.AnalysisRequest;
+import results.AnalysisResult;
+import service.ChessService;
+import com.google.gson.JsonObject;
+
+/**
+ * Serves engine analysis of a game's current position.
+ * Returns the score and best line found by a depth-limited search; positions
+ * many users are watching are searched once and shared.
+ */
+public class AnalysisHandler extends AbstractHandler {
+    private final ChessService chessService;
+
+    /**
+     * Creates an analysis handler with service access.
+     *
+     * @param chessService The service component that runs the analysis
+     */
+    public AnalysisHandler(ChessService chessService) {
+        this.chessService = chessService;
+    }
+
+    /**
+     * Processes a request to analyze a game. The body names the game and may
+     * ask for a search depth in plies.
+     *
+     * @param req The request containing authentication, the game and the depth
+     * @param res The response object for returning results
+     * @return The score and best line, or error details
+     */
+    @Override
+    public Object handle(Request req, Response res) {
+        try {
+            String authToken = req.headers("authorization");
+            if (authToken == null || authToken.isEmpty()) {
+                return error(res, 401, "Error: unauthorized");
+            }
+
+            JsonObject requestBody = gson.fromJson(req.body(), JsonObject.class);
+            if (requestBody == null || !requestBody.has("gameID")) {
+                return error(res, 400, "Error: bad request");
+            }
+            int gameID;
+            Integer depth = null;
+            try {
+                gameID = requestBody.get("gameID").getAsInt();
+                if (requestBody.has("depth") && !requestBody.get("depth").isJsonNull()) {
+                    depth = requestBody.get("depth").getAsInt();
+                }
+            } catch (Exception e) {
+                return error(res, 400, "Error: bad request");
+            }
+
+            AnalysisResult serviceResult = chessService.analyze(new AnalysisRequest(gameID, depth, authToken));
+
+            return success(res, 200, serviceResult);
+        } catch (Exception e) {
+            String message = e.getMessage();
+            if (message != null) {
+                if (message.contains("unauthorized")) {
+                    return error(res, 401, "Error: unauthorized");
+                } else if (message.contains("bad request")) {
+                    return error(res, 400, "Error: bad request");
+                } else if (message.contains("analysis busy")) {
+                    return error(res, 503, PositionAnalyzer.BUSY);
+                } else if (message.contains("analysis not available")) {
+                    return error(res, 503, "Error: analysis not available");
+                }
+            }
+            return error(res, 500, "Error: " + e.getMessage());
+        }
+    }
+}
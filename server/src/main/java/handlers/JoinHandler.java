@@ -30,6 +30,8 @@ public class JoinHandler extends AbstractHandler {
      * Authenticates users, validates game existence, verifies position
      * availability,
      * and completes the integration of players into their requested team positions.
+     * A request that names a {@code bot} seats that bot in the requested
+     * position instead of the caller.
      * 
      * @param req The inbound player participation request with authentication and
      *            preferences
@@ -74,7 +76,12 @@ public class JoinHandler extends AbstractHandler {
             }
 
             JoinRequest serviceRequest = new JoinRequest(gameID, playerColor, authToken);
-            chessService.joinGame(serviceRequest);
+            // Naming a bot seats that bot in the requested color instead of the caller
+            if (requestBody.has("bot") && !requestBody.get("bot").isJsonNull()) {
+                chessService.seatBot(serviceRequest, requestBody.get("bot").getAsString());
+            } else {
+                chessService.joinGame(serviceRequest);
+            }
 
             return success(res, 200);
         } catch (Exception e) {
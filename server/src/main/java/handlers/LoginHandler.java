@@ -46,6 +46,8 @@ public class LoginHandler extends AbstractHandler {
                     return error(res, 401, "Error: unauthorized");
                 } else if (message.contains("bad request")) {
                     return error(res, 400, "Error: bad request");
+                } else if (message.contains("service unavailable")) {
+                    return error(res, 503, "Error: service unavailable");
                 }
             }
             return error(res, 500, "Error: " + e.getMessage());
@@ -45,6 +45,8 @@ public class RegisterHandler extends AbstractHandler {
                     return error(res, 403, "Error: already taken");
                 } else if (message.contains("bad request")) {
                     return error(res, 400, "Error: bad request");
+                } else if (message.contains("service unavailable")) {
+                    return error(res, 503, "Error: service unavailable");
                 }
             }
             return error(res, 500, "Error: " + e.getMessage());
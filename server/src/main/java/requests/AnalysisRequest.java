@@ -0,0 +1,4 @@
+package requests;
+
+public record AnalysisRequest(int gameID, Integer depth, String authToken) {
+}
@@ -0,0 +1,8 @@
+package results;
+
+import chess.ChessMove;
+import java.util.List;
+
+public record AnalysisResult(int depth, int score, Integer mateIn, ChessMove bestMove, List<ChessMove> line,
+        long nodes) {
+}
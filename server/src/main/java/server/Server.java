@@ -3,16 +3,51 @@ package server;
 import spark.*;
 import handlers.*;
 import service.ChessService;
+import dataaccess.AuthTokenSweeper;
 import dataaccess.DataAccessException;
+import dataaccess.GameArchiver;
+import dataaccess.PasswordHasher;
+import dataaccess.implementations.AsyncAuthDAOAdapter;
+import dataaccess.implementations.AsyncGameDAOAdapter;
+import dataaccess.implementations.AsyncUserDAOAdapter;
+import dataaccess.implementations.CachingAuthDAO;
+import dataaccess.implementations.DatabaseManager;
+import dataaccess.implementations.LiveGameDAO;
 import dataaccess.implementations.MySQLAuthDAO;
+import dataaccess.implementations.MySQLGameArchiveDAO;
 import dataaccess.implementations.MySQLGameDAO;
 import dataaccess.implementations.MySQLUserDAO;
+import dataaccess.implementations.SchemaBootstrap;
+import dataaccess.implementations.ShardedGameDAO;
+import dataaccess.implementations.SignedTokenAuthDAO;
+import dataaccess.implementations.TieredGameDAO;
 import dataaccess.interfaces.AuthDAO;
+import dataaccess.interfaces.GameArchiveDAO;
 import dataaccess.interfaces.GameDAO;
 import dataaccess.interfaces.UserDAO;
 import websocket.WebSocketHandler;
+import adjudication.Adjudicator;
+import analysis.PositionAnalyzer;
+import bots.BotEngine;
+import bots.BotProfile;
+import bots.BotRoster;
+import chess.book.OpeningBook;
+import chess.engine.SearchLimits;
+import chess.tablebase.Tablebase;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 
 public class Server {
+    private LiveGameDAO liveGameDAO;
+    private PasswordHasher passwordHasher;
+    private AuthTokenSweeper authTokenSweeper;
+    private GameArchiver gameArchiver;
+    private BotEngine botEngine;
+    private PositionAnalyzer analyzer;
 
     public int run(int desiredPort) {
         Spark.port(desiredPort);
@@ -20,13 +55,59 @@ public class Server {
         Spark.staticFiles.location("web");
 
         try {
-            AuthDAO authDAO = new MySQLAuthDAO();
-            GameDAO gameDAO = new MySQLGameDAO();
-            UserDAO userDAO = new MySQLUserDAO();
+            ServerConfig config = new ServerConfig();
+            // Create or upgrade the tables once, before any DAO uses them
+            SchemaBootstrap.ensureSchema();
+            AuthDAO authDAO = createAuthDAO(config);
+            authTokenSweeper = new AuthTokenSweeper(authDAO,
+                    Duration.ofSeconds(config.getInt("auth.sweepIntervalSeconds",
+                            (int) AuthTokenSweeper.DEFAULT_INTERVAL.toSeconds())),
+                    config.getInt("auth.sweepBatchSize", AuthTokenSweeper.DEFAULT_BATCH_SIZE));
+            // Finished games move to a compressed archive so the live table only holds games in progress
+            GameArchiveDAO gameArchive = new MySQLGameArchiveDAO();
+            GameDAO gameDAO = new TieredGameDAO(createGameDAO(config), gameArchive);
+            // BCrypt runs on its own bounded pool so login bursts can't starve request threads
+            passwordHasher = new PasswordHasher(
+                    config.getInt("password.threads", Runtime.getRuntime().availableProcessors()),
+                    config.getInt("password.queue", PasswordHasher.DEFAULT_QUEUE_CAPACITY),
+                    config.getInt("password.bcryptCost", PasswordHasher.DEFAULT_COST),
+                    config.getInt("password.timeoutMillis", (int) PasswordHasher.DEFAULT_TIMEOUT_MILLIS));
+            UserDAO userDAO = new MySQLUserDAO(passwordHasher);
+            // Games with connected clients stay resident and are shared by HTTP and WebSocket paths
+            liveGameDAO = new LiveGameDAO(gameDAO);
+            gameArchiver = new GameArchiver(liveGameDAO, gameArchive,
+                    Duration.ofSeconds(config.getInt("archive.intervalSeconds",
+                            (int) GameArchiver.DEFAULT_INTERVAL.toSeconds())),
+                    config.getInt("archive.batchSize", GameArchiver.DEFAULT_BATCH_SIZE));
+
+            // Bot searches run on their own bounded pool so they can't slow down people's requests
+            BotRoster botRoster = createBotRoster(config).withoutUsers(userDAO);
+            Tablebase tablebase = openTablebase(config);
+            botEngine = new BotEngine(
+                    config.getInt("bots.threads", Math.max(1, Runtime.getRuntime().availableProcessors() / 2)),
+                    config.getInt("bots.queue", BotEngine.DEFAULT_QUEUE_CAPACITY),
+                    config.getInt("bots.tableMB", BotEngine.DEFAULT_TABLE_MB),
+                    openBook(config), tablebase);
 
-            ChessService chessService = new ChessService(userDAO, gameDAO, authDAO);
+            // Analysis also gets its own pool, and shares results between everyone watching a position
+            analyzer = new PositionAnalyzer(
+                    config.getInt("analysis.threads", Math.max(1, Runtime.getRuntime().availableProcessors() / 2)),
+                    config.getInt("analysis.queue", PositionAnalyzer.DEFAULT_QUEUE_CAPACITY),
+                    config.getInt("analysis.cacheEntries", PositionAnalyzer.DEFAULT_CACHE_ENTRIES),
+                    config.getInt("analysis.tableMB", PositionAnalyzer.DEFAULT_TABLE_MB),
+                    config.getInt("analysis.maxDepth", PositionAnalyzer.DEFAULT_MAX_DEPTH),
+                    Duration.ofMillis(config.getInt("analysis.maxMillis",
+                            (int) PositionAnalyzer.DEFAULT_MAX_TIME.toMillis())));
 
-            WebSocketHandler webSocketHandler = new WebSocketHandler(authDAO, gameDAO);
+            // Only short database calls go to the shared DAO pool; password work stays on the hasher's threads
+            ChessService chessService = new ChessService(new AsyncUserDAOAdapter(userDAO, passwordHasher),
+                    new AsyncGameDAOAdapter(liveGameDAO), new AsyncAuthDAOAdapter(authDAO), botRoster, analyzer);
+
+            // tablebase.adjudicate=wins also ends won endgames; drawn ones always end
+            Adjudicator adjudicator = tablebase == null ? null
+                    : new Adjudicator(tablebase, "wins".equalsIgnoreCase(config.get("tablebase.adjudicate", "draws")));
+            WebSocketHandler webSocketHandler = new WebSocketHandler(authDAO, liveGameDAO, botRoster, botEngine,
+                    analyzer, adjudicator);
             ClearHandler clearHandler = new ClearHandler(chessService);
             RegisterHandler registerHandler = new RegisterHandler(chessService);
             LoginHandler loginHandler = new LoginHandler(chessService);
@@ -34,6 +115,7 @@ public class Server {
             ListHandler listGamesHandler = new ListHandler(chessService);
             NewGameHandler createGameHandler = new NewGameHandler(chessService);
             JoinHandler joinGameHandler = new JoinHandler(chessService);
+            AnalysisHandler analysisHandler = new AnalysisHandler(chessService);
 
             // Setup WebSocket endpoint
             Spark.webSocket("/ws", webSocketHandler);
@@ -45,6 +127,7 @@ public class Server {
             Spark.get("/game", listGamesHandler::handle);
             Spark.post("/game", createGameHandler::handle);
             Spark.put("/game", joinGameHandler::handle);
+            Spark.post("/analysis", analysisHandler::handle);
 
             Spark.awaitInitialization();
             System.out.println("Server started on port " + Spark.port());
@@ -66,9 +149,125 @@ public class Server {
         }
     }
 
+    // auth.mode=signed issues stateless signed tokens; the default stores tokens in the database.
+    // auth.ttlMinutes sets how long tokens last; auth.tokenTtlMinutes is its older name and is still read
+    private AuthDAO createAuthDAO(ServerConfig config) throws DataAccessException {
+        Duration tokenTtl = Duration.ofMinutes(config.getInt("auth.ttlMinutes",
+                config.getInt("auth.tokenTtlMinutes", (int) MySQLAuthDAO.DEFAULT_TOKEN_TTL.toMinutes())));
+        if ("signed".equalsIgnoreCase(config.get("auth.mode", "table"))) {
+            String key = config.get("auth.key", null);
+            if (key == null) {
+                System.err.println("auth.key is not set; using a random key, tokens will not survive a restart");
+            }
+            return new SignedTokenAuthDAO(SignedTokenAuthDAO.keyFrom(key), tokenTtl);
+        }
+        // Every request and WebSocket frame authenticates, so keep hot tokens in memory
+        return new CachingAuthDAO(new MySQLAuthDAO(tokenTtl));
+    }
+
+    // bots.names lists the bot accounts; bots.<name>.moveMillis and bots.<name>.depth set how hard each thinks
+    private BotRoster createBotRoster(ServerConfig config) {
+        List<BotProfile> profiles = new ArrayList<>();
+        for (String name : config.get("bots.names", "").split(",")) {
+            if (name.isBlank()) {
+                continue;
+            }
+            String prefix = "bots." + name.trim() + ".";
+            profiles.add(new BotProfile(name.trim(),
+                    Duration.ofMillis(config.getInt(prefix + "moveMillis", 1_000)),
+                    config.getInt(prefix + "depth", SearchLimits.MAX_DEPTH)));
+        }
+        return new BotRoster(profiles);
+    }
+
+    // book.path names an opening book built by OpeningBookBuilder; bots search every move without one
+    private OpeningBook openBook(ServerConfig config) {
+        String path = config.get("book.path", null);
+        if (path == null) {
+            return null;
+        }
+        try {
+            OpeningBook book = OpeningBook.open(Path.of(path));
+            System.out.println("Opening book " + path + ": " + book.size() + " moves");
+            return book;
+        } catch (IOException e) {
+            System.err.println("Failed to open opening book, bots will search every move: " + e.getMessage());
+            return null;
+        }
+    }
+
+    // tablebase.path names a directory of tables built by TablebaseGenerator; without one there is no adjudication
+    private Tablebase openTablebase(ServerConfig config) {
+        String path = config.get("tablebase.path", null);
+        if (path == null) {
+            return null;
+        }
+        try {
+            Tablebase tablebase = Tablebase.open(Path.of(path));
+            System.out.println("Tablebase " + path + ": " + tablebase.tables());
+            return tablebase;
+        } catch (IOException e) {
+            System.err.println("Failed to open tablebase, endgames will be searched: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Creates the live game store from the settings. games.shards > 1 spreads
+     * games across databases; shard i defaults to {@code <db.name>_shard<i>} on
+     * the same server.
+     *
+     * @param config The settings
+     * @return The store
+     * @throws DataAccessException if a database cannot be set up
+     */
+    public static GameDAO createGameDAO(ServerConfig config) throws DataAccessException {
+        int shardCount = config.getInt("games.shards", 1);
+        if (shardCount <= 1) {
+            return new MySQLGameDAO();
+        }
+        DatabaseManager.Database base = DatabaseManager.defaultDatabase();
+        List<GameDAO> shards = new ArrayList<>();
+        for (int i = 0; i < shardCount; i++) {
+            String prefix = "games.shard." + i + ".";
+            shards.add(new MySQLGameDAO(new DatabaseManager.Database(
+                    config.get(prefix + "host", base.host()),
+                    config.getInt(prefix + "port", base.port()),
+                    config.get(prefix + "user", base.user()),
+                    config.get(prefix + "password", base.password()),
+                    config.get(prefix + "name", base.name() + "_shard" + i))));
+        }
+        return new ShardedGameDAO(shards);
+    }
+
     public void stop() {
         Spark.stop();
         Spark.awaitStop();
+        if (gameArchiver != null) {
+            gameArchiver.close();
+        }
+        if (liveGameDAO != null) {
+            try {
+                liveGameDAO.close();
+            } catch (Exception e) {
+                System.err.println("Failed to flush live games: " + e.getMessage());
+            }
+        }
+        if (authTokenSweeper != null) {
+            authTokenSweeper.close();
+        }
+        if (analyzer != null) {
+            System.out.println("Analysis: " + analyzer.metrics());
+            analyzer.close();
+        }
+        if (botEngine != null) {
+            System.out.println("Bot moves: " + botEngine.metrics());
+            botEngine.close();
+        }
+        if (passwordHasher != null) {
+            System.out.println("Password hashing: " + passwordHasher.metrics());
+            passwordHasher.close();
+        }
         System.out.println("Server stopped.");
     }
 }
\ No newline at end of file
@@ -0,0 +1,64 @@
+package server;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Properties;
+
+/**
+ * Optional server settings.
+ * <p>
+ * Values are read from {@code server.properties} on the classpath if it
+ * exists. A JVM system property with the same name overrides the file, so a
+ * deployment can tune a setting with {@code -Dname=value} without rebuilding.
+ * Every setting has a default, so the file is not required.
+ * </p>
+ */
+public class ServerConfig {
+    private final Properties properties = new Properties();
+
+    /**
+     * Loads {@code server.properties} from the classpath, if present.
+     */
+    public ServerConfig() {
+        try (InputStream stream = Thread.currentThread().getContextClassLoader()
+                .getResourceAsStream("server.properties")) {
+            if (stream != null) {
+                properties.load(stream);
+            }
+        } catch (IOException e) {
+            System.err.println("[ServerConfig] Ignoring unreadable server.properties: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Gets a setting.
+     *
+     * @param name         The setting name
+     * @param defaultValue The value to use if the setting is absent
+     * @return The configured value, or {@code defaultValue}
+     */
+    public String get(String name, String defaultValue) {
+        String value = System.getProperty(name, properties.getProperty(name));
+        return value == null || value.isBlank() ? defaultValue : value.trim();
+    }
+
+    /**
+     * Gets an integer setting.
+     *
+     * @param name         The setting name
+     * @param defaultValue The value to use if the setting is absent
+     * @return The configured value, or {@code defaultValue}
+     * @throws IllegalArgumentException if the setting is not an integer
+     */
+    public int getInt(String name, int defaultValue) {
+        String value = get(name, null);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Setting " + name + " must be an integer: " + value);
+        }
+    }
+}
@@ -4,24 +4,54 @@ import model.*;
 import requests.*;
 import results.*;
 import dataaccess.*;
+import dataaccess.interfaces.AsyncAuthDAO;
+import dataaccess.interfaces.AsyncGameDAO;
+import dataaccess.interfaces.AsyncUserDAO;
 import dataaccess.interfaces.GameDAO;
 import dataaccess.interfaces.AuthDAO;
 import dataaccess.interfaces.UserDAO;
+import dataaccess.implementations.AsyncAuthDAOAdapter;
+import dataaccess.implementations.AsyncGameDAOAdapter;
+import dataaccess.implementations.AsyncUserDAOAdapter;
 import dataaccess.implementations.MemoryGameDAO;
 import dataaccess.implementations.MemoryAuthDAO;
 import dataaccess.implementations.MemoryUserDAO;
 import dataaccess.implementations.MySQLGameDAO;
 import dataaccess.implementations.MySQLAuthDAO;
 import dataaccess.implementations.MySQLUserDAO;
+import chess.ChessGame;
 import chess.ChessGame.TeamColor;
+import chess.engine.SearchResult;
+import analysis.PositionAnalyzer;
+import bots.BotProfile;
+import bots.BotRoster;
 
+import java.time.Duration;
 import java.util.Collection;
-
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Application service behind the HTTP handlers.
+ * <p>
+ * DAO calls go through the asynchronous DAO views, so lookups that don't
+ * depend on each other run at the same time and each request waits once for
+ * the composed result instead of once per call.
+ * </p>
+ */
 @SuppressWarnings("unused")
 public class ChessService {
-    private final UserDAO userDAO;
-    private final GameDAO gameDAO;
-    private final AuthDAO authDAO;
+    // The longest an analysis request holds its request thread
+    public static final Duration ANALYSIS_WAIT = Duration.ofSeconds(1);
+
+    private final AsyncUserDAO userDAO;
+    private final AsyncGameDAO gameDAO;
+    private final AsyncAuthDAO authDAO;
+    private final BotRoster bots;
+    private final PositionAnalyzer analyzer;
 
     /**
      * Constructor with DAO dependencies.
@@ -31,19 +61,57 @@ public class ChessService {
      * @param authDAO Auth data access.
      */
     public ChessService(UserDAO userDAO, GameDAO gameDAO, AuthDAO authDAO) {
+        this(new AsyncUserDAOAdapter(userDAO), new AsyncGameDAOAdapter(gameDAO), new AsyncAuthDAOAdapter(authDAO));
+    }
+
+    /**
+     * Constructor with asynchronous DAO dependencies.
+     *
+     * @param userDAO User data access.
+     * @param gameDAO Game data access.
+     * @param authDAO Auth data access.
+     */
+    public ChessService(AsyncUserDAO userDAO, AsyncGameDAO gameDAO, AsyncAuthDAO authDAO) {
+        this(userDAO, gameDAO, authDAO, BotRoster.empty(), null);
+    }
+
+    /**
+     * Constructor with DAO dependencies, the bots players may seat and the
+     * analyzer behind position analysis.
+     *
+     * @param userDAO  User data access.
+     * @param gameDAO  Game data access.
+     * @param authDAO  Auth data access.
+     * @param bots     Bot accounts; their names cannot be registered.
+     * @param analyzer Position analysis, or null to turn analysis off.
+     */
+    public ChessService(UserDAO userDAO, GameDAO gameDAO, AuthDAO authDAO, BotRoster bots,
+            PositionAnalyzer analyzer) {
+        this(new AsyncUserDAOAdapter(userDAO), new AsyncGameDAOAdapter(gameDAO), new AsyncAuthDAOAdapter(authDAO),
+                bots, analyzer);
+    }
+
+    /**
+     * Constructor with asynchronous DAO dependencies, the bots players may
+     * seat and the analyzer behind position analysis.
+     *
+     * @param userDAO  User data access.
+     * @param gameDAO  Game data access.
+     * @param authDAO  Auth data access.
+     * @param bots     Bot accounts; their names cannot be registered.
+     * @param analyzer Position analysis, or null to turn analysis off.
+     */
+    public ChessService(AsyncUserDAO userDAO, AsyncGameDAO gameDAO, AsyncAuthDAO authDAO, BotRoster bots,
+            PositionAnalyzer analyzer) {
         this.authDAO = authDAO;
         this.gameDAO = gameDAO;
         this.userDAO = userDAO;
+        this.bots = bots;
+        this.analyzer = analyzer;
     }
 
     public ChessService() throws DataAccessException {
-        UserDAO userStorage = new MySQLUserDAO();
-        GameDAO gameStorage = new MySQLGameDAO();
-        AuthDAO authStorage = new MySQLAuthDAO();
-
-        this.userDAO = userStorage;
-        this.gameDAO = gameStorage;
-        this.authDAO = authStorage;
+        this(new MySQLUserDAO(), new MySQLGameDAO(), new MySQLAuthDAO());
     }
 
     /**
@@ -52,9 +120,7 @@ public class ChessService {
      * @throws DataAccessException Data access error.
      */
     public void clear() throws DataAccessException {
-        authDAO.clear();
-        userDAO.clear();
-        gameDAO.clear();
+        DataAccessFutures.join(CompletableFuture.allOf(authDAO.clear(), userDAO.clear(), gameDAO.clear()));
     }
 
     /**
@@ -75,16 +141,20 @@ public class ChessService {
         if (invalidInput) {
             throw new RuntimeException("Error: bad request");
         }
-
-        if (userDAO.getUser(playerName) != null) {
+        if (bots.isBot(playerName)) {
             throw new RuntimeException("Error: already taken");
         }
 
         UserData playerData = new UserData(playerName, playerPass, playerEmail);
-        userDAO.createUser(playerData);
-
-        String sessionToken = authDAO.createAuth(playerName);
-        return new RegisterResult(playerName, sessionToken);
+        return DataAccessFutures.join(userDAO.getUser(playerName)
+                .thenCompose(existing -> {
+                    if (existing != null) {
+                        throw new RuntimeException("Error: already taken");
+                    }
+                    return userDAO.createUser(playerData);
+                })
+                .thenCompose(created -> authDAO.createAuth(playerName))
+                .thenApply(sessionToken -> new RegisterResult(playerName, sessionToken)));
     }
 
     /**
@@ -99,17 +169,15 @@ public class ChessService {
             throw new RuntimeException("Error: bad request");
         }
 
-        UserData user = userDAO.getUser(request.username());
-        if (user == null) {
-            throw new RuntimeException("Error: unauthorized");
-        }
-
-        if (!userDAO.verifyPassword(request.username(), request.password())) {
-            throw new RuntimeException("Error: unauthorized");
-        }
-
-        String authToken = authDAO.createAuth(request.username());
-        return new LoginResult(request.username(), authToken);
+        // One fetch of the stored hash covers both "no such user" and "wrong password"
+        return DataAccessFutures.join(userDAO.authenticate(request.username(), request.password())
+                .thenCompose(user -> {
+                    if (user == null) {
+                        throw new RuntimeException("Error: unauthorized");
+                    }
+                    return authDAO.createAuth(request.username());
+                })
+                .thenApply(authToken -> new LoginResult(request.username(), authToken)));
     }
 
     /**
@@ -121,14 +189,9 @@ public class ChessService {
      */
     public LogoutResult logout(LogoutRequest request) throws DataAccessException {
         String accessToken = request.authToken();
-        AuthData authInfo = authDAO.getAuth(accessToken);
-
-        if (authInfo == null) {
-            throw new RuntimeException("Error: unauthorized");
-        }
-
-        authDAO.deleteAuth(accessToken);
-        return new LogoutResult();
+        return DataAccessFutures.join(requireAuth(accessToken)
+                .thenCompose(authInfo -> authDAO.deleteAuth(accessToken))
+                .thenApply(deleted -> new LogoutResult()));
     }
 
     /**
@@ -139,13 +202,10 @@ public class ChessService {
      * @throws DataAccessException Data access error.
      */
     public ListResult listAll(ListRequest request) throws DataAccessException {
-        AuthData authData = authDAO.getAuth(request.authToken());
-        if (authData == null) {
-            throw new RuntimeException("Error: unauthorized");
-        }
-
-        Collection<GameData> games = gameDAO.listGames();
-        return new ListResult(games);
+        // Listing waits for the auth check so that bad tokens never cost a full scan
+        return DataAccessFutures.join(requireAuth(request.authToken())
+                .thenCompose(authData -> gameDAO.listGames())
+                .thenApply(ListResult::new));
     }
 
     /**
@@ -159,18 +219,15 @@ public class ChessService {
         String accessKey = request.authToken();
         String matchName = request.gameName();
 
-        AuthData sessionData = authDAO.getAuth(accessKey);
-        if (sessionData == null) {
-            throw new RuntimeException("Error: unauthorized");
-        }
-
-        boolean emptyTitle = matchName == null || matchName.isEmpty();
-        if (emptyTitle) {
-            throw new RuntimeException("Error: bad request");
-        }
-
-        int gameID = gameDAO.createGame(matchName);
-        return new NewGameResult(String.valueOf(gameID));
+        return DataAccessFutures.join(requireAuth(accessKey)
+                .thenCompose(sessionData -> {
+                    boolean emptyTitle = matchName == null || matchName.isEmpty();
+                    if (emptyTitle) {
+                        throw new RuntimeException("Error: bad request");
+                    }
+                    return gameDAO.createGame(matchName);
+                })
+                .thenApply(gameID -> new NewGameResult(String.valueOf(gameID))));
     }
 
     /**
@@ -181,59 +238,133 @@ public class ChessService {
      * @throws DataAccessException Data access error.
      */
     public JoinResult joinGame(JoinRequest request) throws DataAccessException {
-        try {
-            AuthData authData = authDAO.getAuth(request.authToken());
-            if (authData == null) {
-                throw new RuntimeException("Error: unauthorized");
-            }
+        return DataAccessFutures.join(requireAuth(request.authToken())
+                .thenCompose(authData -> claimSeat(request, authData.username())));
+    }
 
-            int gameID = request.gameID();
-            GameData gameData = gameDAO.getGame(gameID);
+    /**
+     * Seat a bot in an existing game on behalf of a logged-in player. The bot
+     * starts playing once a client connects to the game.
+     *
+     * @param request Join game request; the color is the bot's.
+     * @param botName The bot to seat.
+     * @return Join game result.
+     * @throws DataAccessException Data access error.
+     */
+    public JoinResult seatBot(JoinRequest request, String botName) throws DataAccessException {
+        BotProfile bot = bots.get(botName);
+        if (bot == null || request.playerColor() == null) {
+            throw new RuntimeException("Error: bad request");
+        }
+        return DataAccessFutures.join(requireAuth(request.authToken())
+                .thenCompose(authData -> claimSeat(request, bot.username())));
+    }
 
-            if (gameData == null) {
+    /**
+     * Analyze the current position of a game. Any logged-in user may ask,
+     * whether or not they play in the game. The caller waits at most
+     * {@link #ANALYSIS_WAIT}; a search still queued or running then carries on,
+     * and a full-depth result is cached, so asking again picks it up.
+     *
+     * @param request Analysis request; a null depth uses the default.
+     * @return The score and best line.
+     * @throws DataAccessException Data access error.
+     */
+    public AnalysisResult analyze(AnalysisRequest request) throws DataAccessException {
+        if (analyzer == null) {
+            throw new RuntimeException("Error: analysis not available");
+        }
+        int depth = request.depth() == null ? PositionAnalyzer.DEFAULT_DEPTH : request.depth();
+        CompletableFuture<AuthData> auth = requireAuth(request.authToken());
+        CompletableFuture<GameData> game = gameDAO.getGame(request.gameID());
+        return DataAccessFutures.join(auth
+                .thenCombine(game, (authData, gameData) -> gameData)
+                .thenCompose(gameData -> startAnalysis(gameData, depth))
+                .orTimeout(ANALYSIS_WAIT.toMillis(), TimeUnit.MILLISECONDS)
+                .exceptionally(failure -> {
+                    Throwable cause = DataAccessFutures.unwrap(failure);
+                    // Every analysis thread is busy and the queue is full, or the answer is slow in coming
+                    if (cause instanceof RejectedExecutionException || cause instanceof TimeoutException) {
+                        throw new RuntimeException(PositionAnalyzer.BUSY);
+                    }
+                    throw new CompletionException(cause);
+                })
+                .thenApply(result -> new AnalysisResult(result.depth(), result.score(),
+                        result.isMate() ? result.mateIn() : null, result.bestMove(),
+                        result.principalVariation(), result.nodes())));
+    }
+
+    // A resident game is shared with the WebSocket path, so read it under its lock
+    private CompletableFuture<SearchResult> startAnalysis(GameData gameData, int depth) {
+        if (gameData == null || gameData.game() == null) {
+            throw new RuntimeException("Error: bad request");
+        }
+        ChessGame chessGame = gameData.game();
+        synchronized (chessGame) {
+            if (chessGame.getTeamTurn() == null) {
                 throw new RuntimeException("Error: bad request");
             }
+            return analyzer.analyze(chessGame, depth);
+        }
+    }
 
-            TeamColor playerColor = request.playerColor();
-            String username = authData.username();
+    // Claims the seat against the game's current players, so a concurrent move or claim can't undo it
+    private CompletableFuture<JoinResult> claimSeat(JoinRequest request, String username) {
+        return gameDAO.modifyGame(request.gameID(), gameData -> seatPlayer(request, username, gameData))
+                .thenApply(gameData -> new JoinResult(request.playerColor(), gameData.gameName()));
+    }
 
-            if (playerColor == null) {
-                return new JoinResult(playerColor, gameData.gameName());
-            }
+    // Returns the game with the player seated, or null if the player only observes
+    private GameData seatPlayer(JoinRequest request, String username, GameData gameData) {
+        if (gameData == null) {
+            throw new RuntimeException("Error: bad request");
+        }
 
-            GameData updatedGame;
-            switch (playerColor) {
-                case WHITE:
-                    if (gameData.whiteUsername() != null) {
-                        throw new RuntimeException("Error: already taken");
-                    }
-                    updatedGame = new GameData(
-                            gameID,
-                            username,
-                            gameData.blackUsername(),
-                            gameData.gameName(),
-                            gameData.game());
-                    break;
-                case BLACK:
-                    if (gameData.blackUsername() != null) {
-                        throw new RuntimeException("Error: already taken");
-                    }
-                    updatedGame = new GameData(
-                            gameID,
-                            gameData.whiteUsername(),
-                            username,
-                            gameData.gameName(),
-                            gameData.game());
-                    break;
-                default:
-                    throw new RuntimeException("Error: bad request");
-            }
+        int gameID = request.gameID();
+        TeamColor playerColor = request.playerColor();
 
-            gameDAO.updateGame(gameID, updatedGame);
-            return new JoinResult(playerColor, gameData.gameName());
+        if (playerColor == null) {
+            return null;
+        }
 
-        } catch (NumberFormatException e) {
-            throw new RuntimeException("Error: bad request");
+        GameData updatedGame;
+        switch (playerColor) {
+            case WHITE:
+                if (gameData.whiteUsername() != null) {
+                    throw new RuntimeException("Error: already taken");
+                }
+                updatedGame = new GameData(
+                        gameID,
+                        username,
+                        gameData.blackUsername(),
+                        gameData.gameName(),
+                        gameData.game());
+                break;
+            case BLACK:
+                if (gameData.blackUsername() != null) {
+                    throw new RuntimeException("Error: already taken");
+                }
+                updatedGame = new GameData(
+                        gameID,
+                        gameData.whiteUsername(),
+                        username,
+                        gameData.gameName(),
+                        gameData.game());
+                break;
+            default:
+                throw new RuntimeException("Error: bad request");
         }
+
+        return updatedGame;
+    }
+
+    // Looks up a token, failing with "unauthorized" if it is unknown
+    private CompletableFuture<AuthData> requireAuth(String authToken) {
+        return authDAO.getAuth(authToken).thenApply(authData -> {
+            if (authData == null) {
+                throw new RuntimeException("Error: unauthorized");
+            }
+            return authData;
+        });
     }
 }
\ No newline at end of file
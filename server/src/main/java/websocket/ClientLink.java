@@ -1,8 +1,12 @@
 package websocket;
 
+import org.eclipse.jetty.websocket.api.BatchMode;
+import org.eclipse.jetty.websocket.api.RemoteEndpoint;
 import org.eclipse.jetty.websocket.api.Session;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.List;
 import java.util.Objects; // Retained for equals/hashCode
 
 /**
@@ -12,6 +16,8 @@ public class ClientLink {
   public final String participantName;
   public final Session matchSession;
   public final Integer matchID;
+  public final WireFormat wireFormat;
+  public final boolean batching;
 
   /**
    * Initializes a new ClientLink instance.
@@ -24,6 +30,8 @@ public class ClientLink {
     this.matchID = matchID;
     this.participantName = participantName;
     this.matchSession = session;
+    this.wireFormat = WireFormat.of(session);
+    this.batching = "1".equals(WireFormat.queryParameter(session, "batch"));
   }
 
   /**
@@ -34,12 +42,86 @@ public class ClientLink {
    */
   public void transmit(String message) throws IOException {
     if (matchSession != null && matchSession.isOpen()) {
-      matchSession.getRemote().sendString(message);
+      synchronized (matchSession) {
+        matchSession.getRemote().sendString(message);
+      }
     } else {
       throw new IOException("Session is closed or null.");
     }
   }
 
+  /**
+   * Transmits a message to the client in the wire format it negotiated.
+   * 
+   * @param message The message to transmit.
+   * @throws IOException If an error occurs during transmission.
+   */
+  public void transmit(OutboundMessage message) throws IOException {
+    if (matchSession == null || !matchSession.isOpen()) {
+      throw new IOException("Session is closed or null.");
+    }
+    send(matchSession, wireFormat, message);
+  }
+
+  /**
+   * Transmits the messages produced by one command. Clients that asked for
+   * batching receive a single BATCH frame; others receive separate frames
+   * that are written to the network together.
+   * 
+   * @param messages The messages to transmit, in order.
+   * @throws IOException If an error occurs during transmission.
+   */
+  public void transmitAll(List<OutboundMessage> messages) throws IOException {
+    if (messages.size() == 1) {
+      transmit(messages.get(0));
+      return;
+    }
+    if (matchSession == null || !matchSession.isOpen()) {
+      throw new IOException("Session is closed or null.");
+    }
+    synchronized (matchSession) {
+      RemoteEndpoint remote = matchSession.getRemote();
+      if (batching) {
+        if (wireFormat == WireFormat.BINARY) {
+          remote.sendBytes(ByteBuffer.wrap(OutboundMessage.batchBinary(messages)));
+        } else {
+          remote.sendString(OutboundMessage.batchJson(messages));
+        }
+        return;
+      }
+      BatchMode mode = remote.getBatchMode();
+      remote.setBatchMode(BatchMode.ON);
+      try {
+        for (OutboundMessage message : messages) {
+          send(matchSession, wireFormat, message);
+        }
+        remote.flush();
+      } finally {
+        remote.setBatchMode(mode);
+      }
+    }
+  }
+
+  /**
+   * Sends a message to a session in the given wire format. Sends to the same
+   * session are serialized, since Jetty rejects a blocking send while another
+   * is still in progress.
+   * 
+   * @param session The session to send to.
+   * @param format  The wire format the session negotiated.
+   * @param message The message to send.
+   * @throws IOException If an error occurs during transmission.
+   */
+  public static void send(Session session, WireFormat format, OutboundMessage message) throws IOException {
+    synchronized (session) {
+      if (format == WireFormat.BINARY) {
+        session.getRemote().sendBytes(ByteBuffer.wrap(message.binary()));
+      } else {
+        session.getRemote().sendString(message.json());
+      }
+    }
+  }
+
   @Override
   public boolean equals(Object obj) {
     if (this == obj) {
@@ -1,21 +1,42 @@
 package websocket;
 
-import com.google.gson.Gson;
 import org.eclipse.jetty.websocket.api.Session;
 import websocket.messages.ServerMessage;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Objects;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.Map;
+import java.util.function.Consumer;
 
 /**
  * Handles active WebSocket client links, mapping them to users and matches.
  */
 public class ClientManager {
   public final ConcurrentHashMap<String, ClientLink> userLinks = new ConcurrentHashMap<>();
-  private static final Gson SERAILIZER = new Gson();
+  private final Consumer<Integer> onMatchIdle;
+  // Messages held back per recipient while the current thread runs a command
+  private final ThreadLocal<Map<ClientLink, List<OutboundMessage>>> outbox = new ThreadLocal<>();
+  // How many batches the current thread has open; only the outermost flush sends
+  private final ThreadLocal<Integer> batchDepth = ThreadLocal.withInitial(() -> 0);
+
+  public ClientManager() {
+    this(matchId -> {
+    });
+  }
+
+  /**
+   * Creates a manager that reports when a match loses its last client.
+   * 
+   * @param onMatchIdle Called with the match ID whenever the last link for that
+   *                    match is removed or replaced.
+   */
+  public ClientManager(Consumer<Integer> onMatchIdle) {
+    this.onMatchIdle = onMatchIdle;
+  }
 
   /**
    * Registers a new client link for a match and user.
@@ -23,11 +44,16 @@ public class ClientManager {
    * @param matchId     The ID of the game the user is connecting to.
    * @param participant The username of the connecting user.
    * @param wsSession   The new WebSocket session.
+   * @return The link this participant had before, or null if there was none.
    */
-  public void register(Integer matchId, String participant, Session wsSession) {
+  public ClientLink register(Integer matchId, String participant, Session wsSession) {
     var link = new ClientLink(matchId, participant, wsSession);
-    userLinks.put(participant, link);
+    ClientLink replaced = userLinks.put(participant, link);
     System.out.println("[ClientManager] Registered link for participant: " + participant + " in match: " + matchId);
+    if (replaced != null && !Objects.equals(matchId, replaced.matchID)) {
+      notifyIfIdle(replaced.matchID);
+    }
+    return replaced;
   }
 
   /**
@@ -40,6 +66,7 @@ public class ClientManager {
       ClientLink removed = userLinks.remove(participant);
       if (removed != null) {
         System.out.println("[ClientManager] Unregistered link for participant: " + participant);
+        notifyIfIdle(removed.matchID);
       }
     }
   }
@@ -64,6 +91,7 @@ public class ClientManager {
     if (participantToRemove != null) {
       userLinks.remove(participantToRemove);
       System.out.println("[ClientManager] Unregistered link via session for participant: " + participantToRemove);
+      notifyIfIdle(removedLink.matchID);
     }
     return removedLink; // Return the link object (or null)
   }
@@ -80,14 +108,28 @@ public class ClientManager {
    *                     is thrown, requires better handling in prod).
    */
   public void notifyMatch(Integer matchId, String skipParticipant, ServerMessage msg) throws IOException {
+    notifyMatch(matchId, skipParticipant, new OutboundMessage(msg));
+  }
+
+  /**
+   * Sends an already wrapped message to all clients connected to a specific
+   * match, optionally excluding one participant. Each encoding of the message
+   * is produced once and reused for every recipient that speaks it.
+   * 
+   * @param matchId         The ID of the match to broadcast to.
+   * @param skipParticipant The username to exclude from the broadcast (can be
+   *                        null).
+   * @param msg             The message to send.
+   * @throws IOException If sending fails for any client.
+   */
+  public void notifyMatch(Integer matchId, String skipParticipant, OutboundMessage msg) throws IOException {
     if (matchId == null) {
       System.err.println("[ClientManager] Broadcast attempted with null matchId.");
       return;
     }
 
-    String json = SERAILIZER.toJson(msg);
     System.out.println("[ClientManager] Broadcasting to match " + matchId +
-        " (excluding " + skipParticipant + "): " + json);
+        " (excluding " + skipParticipant + "): " + msg);
 
     var toRemove = new ArrayList<ClientLink>();
 
@@ -105,8 +147,16 @@ public class ClientManager {
         continue;
       }
 
+      Map<ClientLink, List<OutboundMessage>> pending = outbox.get();
+      if (pending != null) {
+        // Encode now, while the caller still holds whatever lock guards the state
+        msg.encodeFor(link.wireFormat);
+        pending.computeIfAbsent(link, key -> new ArrayList<>()).add(msg);
+        continue;
+      }
+
       try {
-        link.transmit(json);
+        link.transmit(msg);
       } catch (IOException e) {
         System.err.println("Failed broadcast to " + link.participantName +
             " in match " + matchId + ": " + e.getMessage());
@@ -118,4 +168,73 @@ public class ClientManager {
       unregisterBySession(link.matchSession);
     }
   }
+
+  /**
+   * Starts holding back broadcasts made by the current thread so that the
+   * messages produced by one command can be sent together by
+   * {@link #flushBatch()}. Batches nest: one begun inside another joins it,
+   * and its messages are sent when the outer batch is flushed.
+   */
+  public void beginBatch() {
+    int depth = batchDepth.get();
+    batchDepth.set(depth + 1);
+    if (depth == 0) {
+      outbox.set(new LinkedHashMap<>());
+    }
+  }
+
+  /**
+   * Ends the batch begun by the matching {@link #beginBatch()}. Closing the
+   * outermost batch sends the broadcasts held back since it began, one write
+   * per recipient, and stops holding back messages on the current thread.
+   */
+  public void flushBatch() {
+    int depth = batchDepth.get();
+    if (depth > 1) {
+      batchDepth.set(depth - 1);
+      return;
+    }
+    batchDepth.remove();
+    Map<ClientLink, List<OutboundMessage>> pending = outbox.get();
+    outbox.remove();
+    if (pending == null) {
+      return;
+    }
+
+    var toRemove = new ArrayList<ClientLink>();
+    for (Map.Entry<ClientLink, List<OutboundMessage>> entry : pending.entrySet()) {
+      ClientLink link = entry.getKey();
+      try {
+        link.transmitAll(entry.getValue());
+      } catch (IOException e) {
+        System.err.println("Failed broadcast to " + link.participantName +
+            " in match " + link.matchID + ": " + e.getMessage());
+        toRemove.add(link);
+      }
+    }
+    for (var link : toRemove) {
+      unregisterBySession(link.matchSession);
+    }
+  }
+
+  /**
+   * Checks whether any client is still connected to a match.
+   * 
+   * @param matchId The ID of the match to check.
+   * @return true if at least one link belongs to the match.
+   */
+  public boolean hasLinks(Integer matchId) {
+    for (ClientLink link : userLinks.values()) {
+      if (Objects.equals(matchId, link.matchID)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private void notifyIfIdle(Integer matchId) {
+    if (matchId != null && !hasLinks(matchId)) {
+      onMatchIdle.accept(matchId);
+    }
+  }
 }
\ No newline at end of file
@@ -0,0 +1,59 @@
+package websocket;
+
+import model.GameData;
+import websocket.messages.LoadGameMessage;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Caches the encoded LOAD_GAME frames for each game so that a board is only
+ * serialized once per state change and wire format, no matter how many
+ * clients receive it.
+ * <p>
+ * Frames are keyed by the state version handed out by the live game registry,
+ * which changes on every update to the game. A frame is only replaced by one
+ * built from a newer version, so a slow reader cannot overwrite a fresh frame
+ * with a stale one.
+ * </p>
+ */
+public class LoadGameFrameCache {
+  private record Frame(long version, OutboundMessage message) {
+  }
+
+  private final ConcurrentHashMap<Integer, Frame> frames = new ConcurrentHashMap<>();
+
+  /**
+   * Returns the LOAD_GAME message for a game, creating it only if no frame
+   * for the given version has been cached yet. The returned message caches
+   * its own encodings, so each wire format is encoded once per version.
+   * <p>
+   * Encodings are produced lazily, so callers must keep the game from
+   * changing until the message has been sent.
+   * </p>
+   *
+   * @param gameData The game state to encode on a cache miss.
+   * @param version  The state version {@code gameData} was read at.
+   * @return The LOAD_GAME message.
+   */
+  public OutboundMessage frameFor(GameData gameData, long version) {
+    int gameID = gameData.gameID();
+    Frame cached = frames.get(gameID);
+    if (cached != null && cached.version() == version) {
+      return cached.message();
+    }
+
+    OutboundMessage message = new OutboundMessage(new LoadGameMessage(gameData));
+    frames.merge(gameID, new Frame(version, message),
+        (old, fresh) -> old.version() >= fresh.version() ? old : fresh);
+    return message;
+  }
+
+  /**
+   * Drops the cached frame for a game, e.g. once nobody is connected to it.
+   *
+   * @param gameID The game to evict.
+   */
+  public void evict(int gameID) {
+    frames.remove(gameID);
+  }
+}
@@ -0,0 +1,123 @@
+package websocket;
+
+import com.google.gson.Gson;
+import websocket.codec.BinaryCodec;
+import websocket.messages.ServerMessage;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A server message together with its encodings, so that a broadcast encodes
+ * the message at most once per wire format regardless of how many clients
+ * receive it.
+ * <p>
+ * Encodings are produced lazily on first use. Two threads racing to encode
+ * the same format both produce identical bytes, so no locking is needed.
+ * </p>
+ */
+public class OutboundMessage {
+  private static final Gson SERIALIZER = new Gson();
+
+  private final ServerMessage message;
+  private volatile String json;
+  private volatile byte[] binary;
+
+  /**
+   * Wraps a message for sending.
+   *
+   * @param message The message to encode.
+   */
+  public OutboundMessage(ServerMessage message) {
+    this.message = message;
+  }
+
+  /**
+   * Gets the wrapped message.
+   *
+   * @return The ServerMessage being sent.
+   */
+  public ServerMessage message() {
+    return message;
+  }
+
+  /**
+   * Gets the JSON text frame for this message.
+   *
+   * @return The JSON encoding.
+   */
+  public String json() {
+    String encoded = json;
+    if (encoded == null) {
+      encoded = SERIALIZER.toJson(message);
+      json = encoded;
+    }
+    return encoded;
+  }
+
+  /**
+   * Gets the binary frame for this message. Callers must not modify the
+   * returned array.
+   *
+   * @return The binary encoding.
+   */
+  public byte[] binary() {
+    byte[] encoded = binary;
+    if (encoded == null) {
+      encoded = BinaryCodec.encodeServerMessage(message);
+      binary = encoded;
+    }
+    return encoded;
+  }
+
+  /**
+   * Produces the encoding for a wire format now rather than on first send,
+   * e.g. while the state it describes is still locked.
+   *
+   * @param format The format to encode.
+   */
+  public void encodeFor(WireFormat format) {
+    if (format == WireFormat.BINARY) {
+      binary();
+    } else {
+      json();
+    }
+  }
+
+  /**
+   * Builds the JSON text of a BATCH message from already encoded messages
+   * without re-serializing them.
+   *
+   * @param messages The messages to batch, in order.
+   * @return The JSON encoding of the batch.
+   */
+  public static String batchJson(List<OutboundMessage> messages) {
+    StringBuilder json = new StringBuilder("{\"serverMessageType\":\"BATCH\",\"messages\":[");
+    for (int i = 0; i < messages.size(); i++) {
+      if (i > 0) {
+        json.append(',');
+      }
+      json.append(messages.get(i).json());
+    }
+    return json.append("]}").toString();
+  }
+
+  /**
+   * Builds the binary frame of a BATCH message from already encoded messages.
+   *
+   * @param messages The messages to batch, in order.
+   * @return The binary encoding of the batch.
+   */
+  public static byte[] batchBinary(List<OutboundMessage> messages) {
+    List<byte[]> frames = new ArrayList<>(messages.size());
+    for (OutboundMessage message : messages) {
+      frames.add(message.binary());
+    }
+    return BinaryCodec.encodeBatch(frames);
+  }
+
+  @Override
+  public String toString() {
+    return message.getServerMessageType().toString();
+  }
+}
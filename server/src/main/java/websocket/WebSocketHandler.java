@@ -1,11 +1,25 @@
 package websocket;
 
+import adjudication.Adjudicator;
+import analysis.PositionAnalyzer;
+import bots.BotEngine;
+import bots.BotProfile;
+import bots.BotRoster;
 import chess.ChessGame;
+import chess.ChessMove;
 import chess.InvalidMoveException;
+import chess.engine.SearchResult;
+import chess.engine.Zobrist;
 import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
 import dataaccess.DataAccessException;
+import dataaccess.DataAccessFutures;
+import dataaccess.implementations.AsyncAuthDAOAdapter;
+import dataaccess.implementations.AsyncGameDAOAdapter;
+import dataaccess.implementations.LiveGameDAO;
+import dataaccess.interfaces.AsyncAuthDAO;
+import dataaccess.interfaces.AsyncGameDAO;
 import dataaccess.interfaces.AuthDAO;
-import dataaccess.interfaces.GameDAO;
 import model.AuthData;
 import model.GameData;
 import org.eclipse.jetty.websocket.api.Session;
@@ -14,37 +28,117 @@ import org.eclipse.jetty.websocket.api.annotations.OnWebSocketConnect;
 import org.eclipse.jetty.websocket.api.annotations.OnWebSocketError;
 import org.eclipse.jetty.websocket.api.annotations.OnWebSocketMessage;
 import org.eclipse.jetty.websocket.api.annotations.WebSocket;
+import websocket.codec.BinaryCodec;
 import websocket.commands.*;
 import websocket.messages.*;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 /**
  * Handles WebSocket connections and routes chess game commands between clients
  * and the server.
+ * <p>
+ * Commands are processed asynchronously: the auth lookup and game fetch for a
+ * command run at the same time on the DAO I/O pool, and Jetty's thread returns
+ * as soon as they are started. Each session's commands are chained so they
+ * still complete, and are answered, in the order they arrived.
+ * </p>
+ * <p>
+ * Bots seated in a game play from here too. When a bot is to move in a
+ * resident game, its move is chosen on the {@link BotEngine}'s own threads and
+ * then applied exactly as a human move would be.
+ * </p>
  */
 @WebSocket
 public class WebSocketHandler {
+  private static final long BOT_RETRY_MILLIS = 500;
 
-  private final AuthDAO authDAO;
-  private final GameDAO gameDAO;
-  private final ClientManager clientManager = new ClientManager();
-  private final Gson serializer = new Gson();
+  private final AsyncAuthDAO authDAO;
+  private final LiveGameDAO gameDAO;
+  private final AsyncGameDAO asyncGames;
+  // The last queued step for each session with work in flight
+  private final ConcurrentHashMap<Session, CompletableFuture<Void>> sessionChains = new ConcurrentHashMap<>();
+  private final ClientManager clientManager = new ClientManager(this::releaseGame);
+  private final LoadGameFrameCache loadGameFrames = new LoadGameFrameCache();
+  private final Gson commandDecoder = new GsonBuilder()
+      .registerTypeHierarchyAdapter(UserGameCommand.class, new UserGameCommandAdapter())
+      .create();
+  private final BotRoster botRoster;
+  private final BotEngine botEngine;
+  private final PositionAnalyzer analyzer;
+  private final Adjudicator adjudicator;
+  // Games whose bot is choosing a move, so each game has at most one search running
+  private final Set<Integer> botsThinking = ConcurrentHashMap.newKeySet();
 
   /**
-   * Constructs a WebSocketHandler with the given DAOs.
+   * Reports a rejected move to whoever made it.
    */
-  public WebSocketHandler(AuthDAO authDAO, GameDAO gameDAO) {
+  @FunctionalInterface
+  private interface ErrorSink {
+    void send(String message) throws IOException;
+  }
+
+  /**
+   * Constructs a WebSocketHandler with the given DAOs. Games with connected
+   * clients are kept resident in the live game registry; the same registry
+   * must back the HTTP service so both paths see the same state.
+   */
+  public WebSocketHandler(AuthDAO authDAO, LiveGameDAO gameDAO) {
+    this(new AsyncAuthDAOAdapter(authDAO), gameDAO);
+  }
+
+  /**
+   * Constructs a WebSocketHandler that looks up auth tokens asynchronously
+   * through the given DAO.
+   */
+  public WebSocketHandler(AsyncAuthDAO authDAO, LiveGameDAO gameDAO) {
+    this(authDAO, gameDAO, BotRoster.empty(), null, null, null);
+  }
+
+  /**
+   * Constructs a WebSocketHandler whose games may seat bots, be analyzed and
+   * be adjudicated. A bot to move in a resident game chooses its move on the
+   * engine's search threads and plays it through the same path as a human
+   * move.
+   */
+  public WebSocketHandler(AuthDAO authDAO, LiveGameDAO gameDAO, BotRoster botRoster, BotEngine botEngine,
+      PositionAnalyzer analyzer, Adjudicator adjudicator) {
+    this(new AsyncAuthDAOAdapter(authDAO), gameDAO, botRoster, botEngine, analyzer, adjudicator);
+  }
+
+  /**
+   * Constructs a WebSocketHandler that looks up auth tokens asynchronously
+   * and whose games may seat bots, be analyzed and be adjudicated. The
+   * engines and the adjudicator may be null to turn their features off.
+   */
+  public WebSocketHandler(AsyncAuthDAO authDAO, LiveGameDAO gameDAO, BotRoster botRoster, BotEngine botEngine,
+      PositionAnalyzer analyzer, Adjudicator adjudicator) {
     this.authDAO = authDAO;
     this.gameDAO = gameDAO;
+    this.asyncGames = new AsyncGameDAOAdapter(gameDAO);
+    this.botRoster = botRoster;
+    this.botEngine = botEngine;
+    this.analyzer = analyzer;
+    this.adjudicator = adjudicator;
   }
 
   /**
-   * Called when a new WebSocket connection is established.
+   * Called when a new WebSocket connection is established. Jetty negotiates
+   * permessage-deflate compression with clients that offer it.
    */
   @OnWebSocketConnect
   public void onConnect(Session session) {
-    System.out.println("WebSocket connected: " + session.getRemoteAddress());
+    System.out.println("WebSocket connected: " + session.getRemoteAddress() + " Format: " + WireFormat.of(session)
+        + " Extensions: " + session.getUpgradeResponse().getExtensions());
   }
 
   /**
@@ -54,7 +148,7 @@ public class WebSocketHandler {
   public void onClose(Session session, int statusCode, String reason) {
     System.out
         .println("WebSocket closed: " + session.getRemoteAddress() + " Code: " + statusCode + " Reason: " + reason);
-    handleDisconnect(session);
+    enqueue(session, () -> handleDisconnect(session));
   }
 
   /**
@@ -64,69 +158,193 @@ public class WebSocketHandler {
   public void onError(Session session, Throwable throwable) {
     System.err.println("WebSocket error on session " + session.getRemoteAddress() + ": " + throwable.getMessage());
     throwable.printStackTrace(System.err);
-    handleDisconnect(session);
+    enqueue(session, () -> handleDisconnect(session));
+  }
+
+  /**
+   * Called when a text message is received from a client.
+   * Decodes the message in one pass into its concrete command and dispatches
+   * it to the appropriate handler.
+   */
+  @OnWebSocketMessage
+  public void onMessage(Session session, String message) {
+    UserGameCommand command;
+    try {
+      command = commandDecoder.fromJson(message, UserGameCommand.class);
+    } catch (com.google.gson.JsonSyntaxException ex) {
+      enqueueError(session, "Invalid command format: " + ex.getMessage());
+      return;
+    }
+    if (command == null) {
+      enqueueError(session, "Invalid command format: empty message");
+      return;
+    }
+    dispatch(session, command);
   }
 
   /**
-   * Called when a message is received from a client.
-   * Parses the message and dispatches it to the appropriate handler.
+   * Called when a binary message is received from a client using the binary
+   * protocol.
    */
   @OnWebSocketMessage
-  public void onMessage(Session session, String message) throws IOException {
-    AuthData authData = null;
+  public void onMessage(Session session, byte[] payload, int offset, int length) {
+    UserGameCommand command;
+    try {
+      command = BinaryCodec.decodeCommand(ByteBuffer.wrap(payload, offset, length));
+    } catch (IllegalArgumentException ex) {
+      enqueueError(session, "Invalid command format: " + ex.getMessage());
+      return;
+    }
+    dispatch(session, command);
+  }
+
+  /**
+   * Queues a decoded command behind the session's earlier commands.
+   */
+  private void dispatch(Session session, UserGameCommand command) {
+    enqueueAsync(session, () -> process(session, command));
+  }
+
+  /**
+   * Starts the lookups a command needs and routes it once they complete. CONNECT
+   * pins its game, which must not happen for a bad token, so only the other
+   * commands fetch their game alongside the auth lookup.
+   */
+  private CompletableFuture<Void> process(Session session, UserGameCommand command) {
+    CompletableFuture<AuthData> auth = authDAO.getAuth(command.getAuthToken());
+    CompletableFuture<GameData> game = command.getCommandType() == UserGameCommand.CommandType.CONNECT
+        || command.getGameID() == null
+            ? CompletableFuture.completedFuture(null)
+            : asyncGames.getGame(command.getGameID());
+    return auth.thenAcceptBoth(game, (authData, gameData) -> {
+      // Broadcasts produced by the command are sent together once it completes
+      clientManager.beginBatch();
+      try {
+        route(session, command, authData, gameData);
+      } finally {
+        clientManager.flushBatch();
+      }
+    }).exceptionally(failure -> {
+      reportFailure(session, DataAccessFutures.unwrap(failure));
+      return null;
+    });
+  }
+
+  /**
+   * Routes a command to its handler once its auth token checks out.
+   */
+  private void route(Session session, UserGameCommand command, AuthData authData, GameData gameData) {
     try {
-      UserGameCommand baseCommand = serializer.fromJson(message, UserGameCommand.class);
-      String authToken = baseCommand.getAuthToken();
-      authData = authDAO.getAuth(authToken);
       if (authData == null) {
         sendError(session, "Unauthorized - Invalid or missing authToken.");
         return;
       }
-      switch (baseCommand.getCommandType()) {
+      switch (command.getCommandType()) {
         case CONNECT:
-          ConnectCommand connectCmd = serializer.fromJson(message, ConnectCommand.class);
-          handleConnect(session, connectCmd, authData);
+          handleConnect(session, (ConnectCommand) command, authData);
           break;
         case LEAVE:
-          LeaveCommand leaveCmd = serializer.fromJson(message, LeaveCommand.class);
-          handleLeave(session, leaveCmd, authData);
+          handleLeave(session, (LeaveCommand) command, authData, gameData);
           break;
         case MAKE_MOVE:
-          MakeMoveCommand moveCmd = serializer.fromJson(message, MakeMoveCommand.class);
-          handleMakeMove(session, moveCmd, authData);
+          handleMakeMove(session, (MakeMoveCommand) command, authData, gameData);
           break;
         case RESIGN:
-          ResignCommand resignCmd = serializer.fromJson(message, ResignCommand.class);
-          handleResign(session, resignCmd, authData);
+          handleResign(session, (ResignCommand) command, authData, gameData);
+          break;
+        case ANALYZE:
+          handleAnalyze(session, (AnalyzeCommand) command, gameData);
           break;
         default:
-          sendError(session, "Unknown command type: " + baseCommand.getCommandType());
+          sendError(session, "Unknown command type: " + command.getCommandType());
           break;
       }
-    } catch (com.google.gson.JsonSyntaxException ex) {
-      sendError(session, "Invalid command format: " + ex.getMessage());
-    } catch (DataAccessException e) {
-      sendError(session, "Data access error: " + e.getMessage());
     } catch (Exception e) {
-      System.err.println("Unexpected WebSocket error processing message: " + e.getMessage());
-      e.printStackTrace(System.err);
-      sendError(session, "An internal server error occurred: " + e.getClass().getSimpleName());
+      reportFailure(session, e);
+    }
+  }
+
+  /**
+   * Answers a command that failed with an error message.
+   */
+  private void reportFailure(Session session, Throwable failure) {
+    try {
+      if (failure instanceof DataAccessException) {
+        sendError(session, "Data access error: " + failure.getMessage());
+      } else {
+        System.err.println("Unexpected WebSocket error processing message: " + failure.getMessage());
+        failure.printStackTrace(System.err);
+        sendError(session, "An internal server error occurred: " + failure.getClass().getSimpleName());
+      }
+    } catch (IOException e) {
+      System.err.println("Error reporting failure to " + session.getRemoteAddress() + ": " + e.getMessage());
     }
   }
 
+  /**
+   * Queues an error reply behind the session's earlier commands, so it doesn't
+   * overtake their replies.
+   */
+  private void enqueueError(Session session, String errorMessage) {
+    enqueue(session, () -> {
+      try {
+        sendError(session, errorMessage);
+      } catch (IOException e) {
+        System.err.println("Error sending to " + session.getRemoteAddress() + ": " + e.getMessage());
+      }
+    });
+  }
+
+  private void enqueue(Session session, Runnable step) {
+    enqueueAsync(session, () -> {
+      step.run();
+      return CompletableFuture.completedFuture(null);
+    });
+  }
+
+  /**
+   * Runs a step once every step queued before it for the same session has
+   * finished. A session's entry is removed once its last step completes, so
+   * idle sessions hold nothing here.
+   */
+  private void enqueueAsync(Session session, Supplier<CompletableFuture<Void>> step) {
+    CompletableFuture<Void> done = new CompletableFuture<>();
+    CompletableFuture<Void> previous = sessionChains.put(session, done);
+    CompletableFuture<Void> ready = previous == null ? CompletableFuture.completedFuture(null) : previous;
+    ready.thenCompose(ignored -> step.get()).whenComplete((result, failure) -> {
+      if (failure != null) {
+        System.err.println("WebSocket step failed for " + session.getRemoteAddress() + ": " + failure.getMessage());
+      }
+      sessionChains.remove(session, done);
+      done.complete(null);
+    });
+  }
+
   /**
    * Handles a client request to connect to a game.
    */
   private void handleConnect(Session session, ConnectCommand command, AuthData authData)
       throws DataAccessException, IOException {
-    GameData gameData = gameDAO.getGame(command.getGameID());
-    if (gameData == null) {
+    if (gameDAO.pin(command.getGameID()) == null) {
       sendError(session, "Error: Invalid Game ID " + command.getGameID());
       return;
     }
     clientManager.register(command.getGameID(), authData.username(), session);
-    LoadGameMessage loadGameMsg = new LoadGameMessage(gameData);
-    sendDirectMessage(session, loadGameMsg);
+    // Pinned again now that this client counts: the last client may have left in between and the game been
+    // evicted, and from here on releaseGame sees this client and keeps the game resident
+    LiveGameDAO.Snapshot snapshot = gameDAO.pin(command.getGameID());
+    if (snapshot == null) {
+      clientManager.unregister(authData.username());
+      sendError(session, "Error: Invalid Game ID " + command.getGameID());
+      return;
+    }
+    GameData gameData = snapshot.data();
+    OutboundMessage loadGame;
+    synchronized (gameData.game()) {
+      loadGame = loadGameFrame(gameData);
+      loadGame.encodeFor(WireFormat.of(session));
+    }
+    sendDirect(session, loadGame);
     // Default is observer if not specifid
     String role = "observer";
     if (authData.username().equals(gameData.whiteUsername())) {
@@ -137,70 +355,186 @@ public class WebSocketHandler {
     String notificationText = String.format("%s joined the game as %s.", authData.username(), role);
     NotificationMessage notificationMsg = new NotificationMessage(notificationText);
     clientManager.notifyMatch(command.getGameID(), authData.username(), notificationMsg);
+    // A bot seated over HTTP, or left mid-game, starts playing once someone is connected
+    requestBotMove(command.getGameID());
   }
 
   /**
    * Handles a client request to make a move in a game.
    */
-  private void handleMakeMove(Session session, MakeMoveCommand command, AuthData authData)
+  private void handleMakeMove(Session session, MakeMoveCommand command, AuthData authData, GameData gameData)
       throws DataAccessException, IOException {
-    GameData gameData = gameDAO.getGame(command.getGameID());
     if (gameData == null) {
       sendError(session, "Error: Invalid Game ID.");
       return;
     }
+    if (applyMove(gameData, authData.username(), command.getMove(), message -> sendError(session, message))) {
+      requestBotMove(gameData.gameID());
+    }
+  }
+
+  /**
+   * Validates and applies a player's move, then tells everyone in the game.
+   * Human and bot moves both come through here, always inside a batch, so
+   * nothing is sent until the game's monitor has been released.
+   *
+   * @return Whether the move was made
+   */
+  private boolean applyMove(GameData gameData, String username, ChessMove move, ErrorSink errors)
+      throws DataAccessException, IOException {
+    List<String> rejections = new ArrayList<>();
+    // A live game is shared with other sessions, so validate and apply under its lock
+    synchronized (gameData.game()) {
+      playMove(gameData, username, move, rejections);
+    }
+    for (String rejection : rejections) {
+      errors.send(rejection);
+    }
+    return rejections.isEmpty();
+  }
+
+  /**
+   * Does the work of {@link #applyMove} while the game's monitor is held,
+   * collecting the reasons a move is rejected rather than sending them.
+   */
+  private void playMove(GameData gameData, String username, ChessMove move, List<String> rejections)
+      throws DataAccessException, IOException {
     ChessGame game = gameData.game();
     if (game.getTeamTurn() == null) {
-      sendError(session, "Error: Game is already over.");
+      rejections.add("Error: Game is already over.");
       return;
     }
     ChessGame.TeamColor playerColor = null;
-    if (authData.username().equals(gameData.whiteUsername())) {
+    if (username.equals(gameData.whiteUsername())) {
       playerColor = ChessGame.TeamColor.WHITE;
-    } else if (authData.username().equals(gameData.blackUsername())) {
+    } else if (username.equals(gameData.blackUsername())) {
       playerColor = ChessGame.TeamColor.BLACK;
     }
     if (game.getTeamTurn() != playerColor) {
-      sendError(session, "Error: It's not your turn.");
+      rejections.add("Error: It's not your turn.");
 
       if (playerColor == null) {
-        sendError(session, "Error: Observers cannot make moves.");
-        return;
+        rejections.add("Error: Observers cannot make moves.");
       }
       return;
     }
 
     // Ensures move actually happens
     try {
-      game.makeMove(command.getMove());
-      gameDAO.updateGame(gameData.gameID(), gameData);
-      LoadGameMessage loadGameMsg = new LoadGameMessage(gameData);
-      String moveNotation = command.getMove().toString();
-      String notificationText = String.format("%s played %s.", authData.username(), moveNotation);
-      NotificationMessage notificationMsg = new NotificationMessage(notificationText);
-      clientManager.notifyMatch(command.getGameID(), null, loadGameMsg);
-      clientManager.notifyMatch(command.getGameID(), authData.username(), notificationMsg);
-      handlePostMoveChecks(command.getGameID(), game);
+      game.makeMove(move);
     } catch (InvalidMoveException e) {
-      sendError(session, "Error: Invalid move - " + e.getMessage());
+      rejections.add("Error: Invalid move - " + e.getMessage());
+      return;
+    }
+    GameData updated = saveBoard(gameData.gameID(), game);
+    OutboundMessage loadGame = loadGameFrame(updated != null ? updated : gameData);
+    String moveNotation = move.toString();
+    String notificationText = String.format("%s played %s.", username, moveNotation);
+    NotificationMessage notificationMsg = new NotificationMessage(notificationText);
+    clientManager.notifyMatch(gameData.gameID(), null, loadGame);
+    clientManager.notifyMatch(gameData.gameID(), username, notificationMsg);
+    handlePostMoveChecks(gameData);
+  }
+
+  /**
+   * Starts the bot to move thinking, if a bot is to move in a resident game
+   * and is not already thinking there. Only resident games are played, so
+   * bots stop once nobody is connected.
+   */
+  private void requestBotMove(int gameID) {
+    if (botEngine == null) {
+      return;
+    }
+    LiveGameDAO.Snapshot live = gameDAO.getLive(gameID);
+    if (live == null) {
+      return;
+    }
+    GameData gameData = live.data();
+    ChessGame game = gameData.game();
+    BotProfile bot;
+    long position;
+    CompletableFuture<ChessMove> chosen;
+    synchronized (game) {
+      ChessGame.TeamColor turn = game.getTeamTurn();
+      if (turn == null) {
+        return;
+      }
+      bot = botRoster.get(turn == ChessGame.TeamColor.WHITE ? gameData.whiteUsername() : gameData.blackUsername());
+      if (bot == null || !botsThinking.add(gameID)) {
+        return;
+      }
+      position = Zobrist.hash(game);
+      chosen = botEngine.chooseMove(game, bot);
+    }
+    // Book and tablebase moves arrive already complete; playing them on this thread would recurse
+    // through bot-versus-bot games inside the caller's batch, so the move is always played as a new task
+    chosen.whenCompleteAsync((move, failure) -> {
+      botsThinking.remove(gameID);
+      if (failure == null) {
+        playBotMove(gameID, bot, position, move);
+      } else if (failure instanceof RejectedExecutionException) {
+        // Every search thread is busy; try again shortly rather than dropping the game
+        CompletableFuture.delayedExecutor(BOT_RETRY_MILLIS, TimeUnit.MILLISECONDS)
+            .execute(() -> requestBotMove(gameID));
+      } else {
+        System.err.println("[WebSocketHandler] Bot " + bot.username() + " failed in game " + gameID + ": "
+            + failure.getMessage());
+      }
+    }, DataAccessFutures.ioExecutor());
+  }
+
+  /**
+   * Plays a move a bot chose, unless the game changed while it was thinking,
+   * then lets the next bot think if the opponent is one too.
+   */
+  private void playBotMove(int gameID, BotProfile bot, long position, ChessMove move) {
+    LiveGameDAO.Snapshot live = gameDAO.getLive(gameID);
+    if (live == null) {
+      return;
+    }
+    GameData gameData = live.data();
+    boolean moved;
+    clientManager.beginBatch();
+    try {
+      synchronized (gameData.game()) {
+        if (Zobrist.hash(gameData.game()) != position) {
+          return;
+        }
+        moved = applyMove(gameData, bot.username(), move, message -> System.err
+            .println("[WebSocketHandler] Bot " + bot.username() + " move rejected in game " + gameID + ": " + message));
+      }
+    } catch (DataAccessException | IOException e) {
+      System.err.println("[WebSocketHandler] Error playing bot move in game " + gameID + ": " + e.getMessage());
+      return;
+    } finally {
+      clientManager.flushBatch();
+    }
+    if (moved) {
+      requestBotMove(gameID);
     }
   }
 
   /**
    * Checks the game state after a move and notifies players if the game is in
-   * check, checkmate, or stalemate.
+   * check, checkmate, or stalemate. Ends the game if the adjudicator finds its
+   * result already settled.
    */
-  private void handlePostMoveChecks(Integer gameID, ChessGame game) throws IOException {
+  private void handlePostMoveChecks(GameData gameData) throws DataAccessException, IOException {
+    Integer gameID = gameData.gameID();
+    ChessGame game = gameData.game();
     ChessGame.TeamColor currentTurn = game.getTeamTurn();
     if (currentTurn == null) {
       return;
     }
 
     String notificationText = null;
+    boolean finished = false;
     if (game.isInCheckmate(currentTurn)) {
       notificationText = String.format("Checkmate! %s wins.", currentTurn.not());
+      finished = true;
     } else if (game.isInStalemate(currentTurn)) {
       notificationText = "Stalemate! The game is a draw.";
+      finished = true;
     } else if (game.isInCheck(currentTurn)) {
       notificationText = String.format("%s is in check.", currentTurn);
     }
@@ -208,28 +542,28 @@ public class WebSocketHandler {
       NotificationMessage checkNotification = new NotificationMessage(notificationText);
       clientManager.notifyMatch(gameID, null, checkNotification);
     }
+
+    String adjudication = finished || adjudicator == null ? null : adjudicator.adjudicate(game);
+    if (adjudication != null) {
+      // The result is settled, so end the game the way a resignation does
+      game.setTeamTurn(null);
+      saveBoard(gameID, game);
+      clientManager.notifyMatch(gameID, null, new NotificationMessage(adjudication));
+    }
   }
 
   /**
    * Handles a client request to leave a game.
    */
-  private void handleLeave(Session session, LeaveCommand command, AuthData authData)
+  private void handleLeave(Session session, LeaveCommand command, AuthData authData, GameData gameData)
       throws DataAccessException, IOException {
-    GameData gameData = gameDAO.getGame(command.getGameID());
     if (gameData == null) {
       clientManager.unregister(authData.username());
       return;
     }
     String username = authData.username();
-    GameData updatedGameData = gameData;
-    if (username.equals(gameData.whiteUsername())) {
-      updatedGameData = new GameData(gameData.gameID(), null, gameData.blackUsername(), gameData.gameName(),
-          gameData.game());
-      gameDAO.updateGame(updatedGameData.gameID(), updatedGameData);
-    } else if (username.equals(gameData.blackUsername())) {
-      updatedGameData = new GameData(gameData.gameID(), gameData.whiteUsername(), null, gameData.gameName(),
-          gameData.game());
-      gameDAO.updateGame(updatedGameData.gameID(), updatedGameData);
+    if (username.equals(gameData.whiteUsername()) || username.equals(gameData.blackUsername())) {
+      gameDAO.modifyGame(gameData.gameID(), current -> vacateSeat(current, username));
     }
     String notificationText = String.format("%s left the game.", username);
     NotificationMessage notificationMsg = new NotificationMessage(notificationText);
@@ -240,30 +574,75 @@ public class WebSocketHandler {
   /**
    * Handles a client request to resign from a game.
    */
-  private void handleResign(Session session, ResignCommand command, AuthData authData)
+  private void handleResign(Session session, ResignCommand command, AuthData authData, GameData gameData)
       throws DataAccessException, IOException {
-    GameData gameData = gameDAO.getGame(command.getGameID());
     if (gameData == null) {
       sendError(session, "Error: Game not found.");
       return;
     }
     ChessGame game = gameData.game();
-    if (game.getTeamTurn() == null) {
-      sendError(session, "Error: Cannot resign, game is already over.");
-      return;
-    }
     String username = authData.username();
-    if (!username.equals(gameData.whiteUsername()) && !username.equals(gameData.blackUsername())) {
-      sendError(session, "Error: Observers cannot resign.");
+    String rejection = null;
+    synchronized (game) {
+      if (game.getTeamTurn() == null) {
+        rejection = "Error: Cannot resign, game is already over.";
+      } else if (!username.equals(gameData.whiteUsername()) && !username.equals(gameData.blackUsername())) {
+        rejection = "Error: Observers cannot resign.";
+      } else {
+        game.setTeamTurn(null);
+        saveBoard(command.getGameID(), game);
+      }
+    }
+    if (rejection != null) {
+      sendError(session, rejection);
       return;
     }
-    game.setTeamTurn(null);
-    gameDAO.updateGame(command.getGameID(), gameData);
     String notificationText = String.format("%s resigned. The game is over.", username);
     NotificationMessage notificationMsg = new NotificationMessage(notificationText);
     clientManager.notifyMatch(command.getGameID(), null, notificationMsg);
   }
 
+  /**
+   * Handles a client request to analyze a game's position. The search runs on
+   * the analyzer's threads and the answer goes to the sender alone when it is
+   * ready, so it may arrive after replies to the sender's later commands.
+   */
+  private void handleAnalyze(Session session, AnalyzeCommand command, GameData gameData) throws IOException {
+    if (analyzer == null) {
+      sendError(session, "Error: Analysis is not available.");
+      return;
+    }
+    if (gameData == null) {
+      sendError(session, "Error: Invalid Game ID.");
+      return;
+    }
+    ChessGame game = gameData.game();
+    CompletableFuture<SearchResult> analysis;
+    synchronized (game) {
+      analysis = game.getTeamTurn() == null ? null
+          : analyzer.analyze(game, command.getDepth() == null ? PositionAnalyzer.DEFAULT_DEPTH : command.getDepth());
+    }
+    if (analysis == null) {
+      sendError(session, "Error: Game is already over.");
+      return;
+    }
+    analysis.whenComplete((result, failure) -> {
+      try {
+        if (failure != null) {
+          Throwable cause = DataAccessFutures.unwrap(failure);
+          sendError(session, cause instanceof RejectedExecutionException
+              ? "Error: Analysis is busy, try again shortly."
+              : "Error: Analysis failed - " + cause.getMessage());
+          return;
+        }
+        sendDirectMessage(session, new AnalysisMessage(gameData.gameID(), result.depth(), result.score(),
+            result.isMate() ? result.mateIn() : null, result.principalVariation(), result.nodes()));
+      } catch (IOException e) {
+        System.err.println("Error sending analysis to " + session.getRemoteAddress() + ": " + e.getMessage());
+      }
+    });
+  }
+
   /**
    * Handles cleanup and notifications when a client disconnects.
    */
@@ -301,18 +680,53 @@ public class WebSocketHandler {
 
   // Updates player slot iff the game data doesn't match the request
   private void updatePlayerSlotIfNeeded(Integer gameID, String username, GameData gameData) throws DataAccessException {
-    GameData updatedGameData = null;
+    if (username.equals(gameData.whiteUsername()) || username.equals(gameData.blackUsername())) {
+      gameDAO.modifyGame(gameID, current -> vacateSeat(current, username));
+    }
+  }
 
-    if (username.equals(gameData.whiteUsername())) {
-      updatedGameData = new GameData(gameData.gameID(), null, gameData.blackUsername(),
-          gameData.gameName(), gameData.game());
-    } else if (username.equals(gameData.blackUsername())) {
-      updatedGameData = new GameData(gameData.gameID(), gameData.whiteUsername(), null,
-          gameData.gameName(), gameData.game());
+  // Frees the seat a player holds in the game's current data, or returns null if they no longer hold one
+  private static GameData vacateSeat(GameData current, String username) {
+    if (current == null) {
+      return null;
+    }
+    if (username.equals(current.whiteUsername())) {
+      return new GameData(current.gameID(), null, current.blackUsername(), current.gameName(), current.game());
+    } else if (username.equals(current.blackUsername())) {
+      return new GameData(current.gameID(), current.whiteUsername(), null, current.gameName(), current.game());
+    }
+    return null;
+  }
+
+  // Saves a changed board without touching the players, which may have changed since the board was read
+  private GameData saveBoard(int gameID, ChessGame game) throws DataAccessException {
+    return gameDAO.modifyGame(gameID, current -> current == null ? null
+        : new GameData(current.gameID(), current.whiteUsername(), current.blackUsername(), current.gameName(), game));
+  }
+
+  // Releases the resident game and its caches once the last client has left, unless another has joined since
+  private void releaseGame(Integer gameID) {
+    loadGameFrames.evict(gameID);
+    try {
+      gameDAO.evictIf(gameID, () -> !clientManager.hasLinks(gameID));
+    } catch (DataAccessException e) {
+      System.err.println("Error releasing live game " + gameID + ": " + e.getMessage());
     }
+  }
 
-    if (updatedGameData != null) {
-      gameDAO.updateGame(updatedGameData.gameID(), updatedGameData);
+  /**
+   * Builds the LOAD_GAME frame for a game, reusing the cached frame when the
+   * game is resident and unchanged since it was last encoded. The frame is
+   * encoded lazily, so callers must encode it, or hand it to a batched
+   * broadcast, while holding the game's monitor.
+   */
+  private OutboundMessage loadGameFrame(GameData gameData) {
+    synchronized (gameData.game()) {
+      LiveGameDAO.Snapshot live = gameDAO.getLive(gameData.gameID());
+      if (live == null || live.data() != gameData) {
+        return new OutboundMessage(new LoadGameMessage(gameData));
+      }
+      return loadGameFrames.frameFor(gameData, live.version());
     }
   }
 
@@ -320,9 +734,16 @@ public class WebSocketHandler {
    * Sends a message directly to a client session.
    */
   private void sendDirectMessage(Session session, ServerMessage message) throws IOException {
+    sendDirect(session, new OutboundMessage(message));
+  }
+
+  /**
+   * Sends a message directly to a client session in the wire format the
+   * session negotiated.
+   */
+  private void sendDirect(Session session, OutboundMessage message) throws IOException {
     if (session.isOpen()) {
-      String messageJson = serializer.toJson(message);
-      session.getRemote().sendString(messageJson);
+      ClientLink.send(session, WireFormat.of(session), message);
     }
   }
 
@@ -0,0 +1,49 @@
+package websocket;
+
+import org.eclipse.jetty.websocket.api.Session;
+import org.eclipse.jetty.websocket.api.UpgradeRequest;
+
+import java.util.List;
+
+/**
+ * The framing a WebSocket client asked for when it connected.
+ * <p>
+ * Clients opt into the binary protocol with {@code ?protocol=binary} on the
+ * upgrade URL; everything else speaks JSON text frames.
+ * </p>
+ */
+public enum WireFormat {
+  JSON,
+  BINARY;
+
+  public static final String PARAMETER = "protocol";
+
+  /**
+   * Determines the wire format negotiated by a session.
+   *
+   * @param session The WebSocket session (may be null).
+   * @return BINARY if the client requested it, JSON otherwise.
+   */
+  public static WireFormat of(Session session) {
+    return "binary".equalsIgnoreCase(queryParameter(session, PARAMETER)) ? BINARY : JSON;
+  }
+
+  /**
+   * Reads a query parameter from a session's upgrade request.
+   *
+   * @param session The WebSocket session (may be null).
+   * @param name    The parameter name.
+   * @return The first value of the parameter, or null if it is absent.
+   */
+  static String queryParameter(Session session, String name) {
+    if (session == null) {
+      return null;
+    }
+    UpgradeRequest request = session.getUpgradeRequest();
+    if (request == null || request.getParameterMap() == null) {
+      return null;
+    }
+    List<String> values = request.getParameterMap().get(name);
+    return values == null || values.isEmpty() ? null : values.get(0);
+  }
+}
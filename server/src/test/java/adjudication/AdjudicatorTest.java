@@ -0,0 +1,55 @@
+package adjudication;
+
+import chess.notation.Fen;
+import chess.tablebase.Tablebase;
+import chess.tablebase.TablebaseGenerator;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdjudicatorTest {
+    @TempDir
+    static Path directory;
+
+    private static Tablebase tablebase;
+
+    @BeforeAll
+    static void generate() throws IOException {
+        try (TablebaseGenerator generator = new TablebaseGenerator(1)) {
+            generator.generate("KQK", directory);
+        }
+        tablebase = Tablebase.open(directory);
+    }
+
+    @Test
+    void testEndsDrawnEndgames() {
+        Adjudicator adjudicator = new Adjudicator(tablebase, false);
+
+        // Black simply takes the queen
+        assertNotNull(adjudicator.adjudicate(Fen.parse("7k/6Q1/8/8/8/8/8/K7 b - - 0 1").game()));
+        assertNotNull(adjudicator.adjudicate(Fen.parse("4k3/8/8/8/8/8/3B4/4K3 w - - 0 1").game()));
+    }
+
+    @Test
+    void testEndsWonEndgamesOnlyWhenAsked() {
+        String won = "7k/8/6K1/8/8/8/8/1Q6 w - - 0 1";
+
+        assertNull(new Adjudicator(tablebase, false).adjudicate(Fen.parse(won).game()));
+        assertEquals("The tablebase shows WHITE mates in 1 with best play. WHITE wins.",
+                new Adjudicator(tablebase, true).adjudicate(Fen.parse(won).game()));
+        assertEquals("The tablebase shows WHITE mates in 1 with best play. WHITE wins.",
+                new Adjudicator(tablebase, true).adjudicate(Fen.parse("7k/8/6K1/8/8/8/8/2Q5 b - - 0 1").game()));
+    }
+
+    @Test
+    void testPlaysOnWithoutTable() {
+        Adjudicator adjudicator = new Adjudicator(tablebase, true);
+
+        assertNull(adjudicator.adjudicate(Fen.parse(Fen.START).game()));
+        assertNull(adjudicator.adjudicate(Fen.parse("4k3/8/8/8/8/8/3R4/4K3 w - - 0 1").game()));
+    }
+}
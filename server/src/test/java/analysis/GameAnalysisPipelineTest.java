@@ -0,0 +1,188 @@
+package analysis;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.InvalidMoveException;
+import chess.engine.Searcher;
+import chess.notation.Fen;
+import dataaccess.DataAccessException;
+import dataaccess.implementations.MemoryGameAnalysisDAO;
+import dataaccess.implementations.MemoryGameArchiveDAO;
+import dataaccess.interfaces.GameAnalysisDAO;
+import model.GameAnalysis;
+import model.GameData;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameAnalysisPipelineTest {
+    private static final String[] FOOLS_MATE = {"f2f3", "e7e5", "g2g4", "d8h4"};
+
+    @TempDir
+    Path directory;
+
+    private MemoryGameArchiveDAO archive;
+    private MemoryGameAnalysisDAO analyses;
+    private GameAnalysisPipeline pipeline;
+    private Path checkpoint;
+
+    @BeforeEach
+    void setUp() {
+        archive = new MemoryGameArchiveDAO();
+        analyses = new MemoryGameAnalysisDAO();
+        checkpoint = directory.resolve("analysis.checkpoint");
+    }
+
+    @AfterEach
+    void tearDown() {
+        pipeline.close();
+    }
+
+    @Test
+    void testEvaluatesEveryMove() throws Exception {
+        pipeline = new GameAnalysisPipeline(archive, analyses, 2, 3);
+        archive.archiveGame(finished(1, FOOLS_MATE));
+
+        GameAnalysisPipeline.Stats stats = pipeline.run(checkpoint, Long.MAX_VALUE);
+
+        assertEquals(1, stats.games());
+        assertEquals(5, stats.positions());
+        GameAnalysis analysis = analyses.getAnalysis(1);
+        assertEquals(3, analysis.depth());
+        assertEquals(List.of(FOOLS_MATE), analysis.moves().stream().map(GameAnalysis.MoveEvaluation::move).toList());
+        // g4 allows mate in one, which black finds
+        assertEquals(GameAnalysis.MAX_LOSS, analysis.moves().get(2).loss());
+        assertEquals(0, analysis.moves().get(3).loss());
+        assertEquals(-Searcher.MATE, analysis.moves().get(3).score());
+        assertTrue(analysis.averageLoss(ChessGame.TeamColor.WHITE) > analysis.averageLoss(ChessGame.TeamColor.BLACK));
+    }
+
+    @Test
+    void testSkipsGamesWithoutReplayableMoves() throws Exception {
+        pipeline = new GameAnalysisPipeline(archive, analyses, 1, 2);
+        ChessGame setUp = Fen.parse("4k3/8/8/8/8/8/4P3/4K3 w - - 0 1").game();
+        play(setUp, "e2e4");
+        setUp.setTeamTurn(null);
+        archive.archiveGame(new GameData(1, "a", "b", "set up", setUp));
+        archive.archiveGame(finished(2, FOOLS_MATE));
+
+        GameAnalysisPipeline.Stats stats = pipeline.run(checkpoint, Long.MAX_VALUE);
+
+        assertEquals(1, stats.games());
+        assertEquals(1, stats.skipped());
+        assertNull(analyses.getAnalysis(1));
+        assertNotNull(analyses.getAnalysis(2));
+    }
+
+    @Test
+    void testSkipsGamesWithUnreadableHistory() throws Exception {
+        pipeline = new GameAnalysisPipeline(archive, analyses, 1, 2);
+        GameData corrupt = finished(1, FOOLS_MATE);
+        corrupt.game().setMoveText(corrupt.game().getMoveText().replace("f2f3 ", "f2f3x "));
+        archive.archiveGame(corrupt);
+        archive.archiveGame(finished(2, FOOLS_MATE));
+
+        GameAnalysisPipeline.Stats stats = pipeline.run(checkpoint, Long.MAX_VALUE);
+
+        assertEquals(1, stats.games());
+        assertEquals(1, stats.skipped());
+        assertNull(analyses.getAnalysis(1));
+        assertNotNull(analyses.getAnalysis(2));
+    }
+
+    @Test
+    void testResumesFromCheckpoint() throws Exception {
+        pipeline = new GameAnalysisPipeline(archive, analyses, 1, 2);
+        archive.archiveGame(finished(1, FOOLS_MATE));
+        archive.archiveGame(finished(2, "e2e4", "e7e5"));
+        assertEquals(2, pipeline.run(checkpoint, Long.MAX_VALUE).games());
+        assertTrue(Files.exists(checkpoint));
+
+        archive.archiveGame(finished(3, "d2d4"));
+        GameAnalysisPipeline.Stats second = pipeline.run(checkpoint, Long.MAX_VALUE);
+
+        assertEquals(1, second.games());
+        assertEquals(3, analyses.size());
+        assertEquals(0, pipeline.run(checkpoint, Long.MAX_VALUE).games());
+    }
+
+    @Test
+    void testGameArchivedAgainIsNotAnalyzedAgain() throws Exception {
+        pipeline = new GameAnalysisPipeline(archive, analyses, 1, 2);
+        GameData game = finished(1, FOOLS_MATE);
+        archive.archiveGame(game);
+        assertEquals(1, pipeline.run(checkpoint, Long.MAX_VALUE).games());
+
+        // A seat freed after the game ended writes the game back to the archive
+        Thread.sleep(5);
+        archive.archiveGame(new GameData(1, null, game.blackUsername(), game.gameName(), game.game()));
+
+        assertEquals(0, pipeline.run(checkpoint, Long.MAX_VALUE).games());
+        assertNull(archive.getArchivedGame(1).whiteUsername());
+    }
+
+    @Test
+    void testManyGamesThroughFewSlots() throws Exception {
+        // Two games in flight and batches of three, so reading waits on the search pool and writer throughout.
+        // One search thread takes positions in order, so no position is searched twice at once
+        pipeline = new GameAnalysisPipeline(archive, analyses, 1, 2, 2, 3, 1_000, 1);
+        for (int id = 1; id <= 20; id++) {
+            archive.archiveGame(finished(id, id % 2 == 0 ? FOOLS_MATE : new String[]{"e2e4", "e7e5", "g1f3"}));
+        }
+
+        GameAnalysisPipeline.Stats stats = pipeline.run(checkpoint, Long.MAX_VALUE);
+
+        assertEquals(20, stats.games());
+        assertEquals(20, analyses.size());
+        assertEquals(10 * 5 + 10 * 4, stats.positions());
+        // Only the first game of each kind is searched, along with the shared start position
+        assertEquals(stats.positions() - 8, stats.cacheHits());
+    }
+
+    @Test
+    void testFailedWriteKeepsCheckpoint() throws Exception {
+        GameAnalysisDAO failing = new MemoryGameAnalysisDAO() {
+            @Override
+            public void saveAnalyses(Collection<GameAnalysis> batch) throws DataAccessException {
+                throw new DataAccessException("disk full");
+            }
+        };
+        pipeline = new GameAnalysisPipeline(archive, failing, 1, 2, 1, 1, 1_000, 1);
+        for (int id = 1; id <= 5; id++) {
+            archive.archiveGame(finished(id, FOOLS_MATE));
+        }
+
+        DataAccessException e = assertThrows(DataAccessException.class,
+                () -> pipeline.run(checkpoint, Long.MAX_VALUE));
+        assertEquals("disk full", e.getMessage());
+        assertFalse(Files.exists(checkpoint));
+    }
+
+    @Test
+    void testLeavesRecentGamesForLaterRuns() throws Exception {
+        pipeline = new GameAnalysisPipeline(archive, analyses, 1, 2);
+        archive.archiveGame(finished(1, FOOLS_MATE));
+
+        assertEquals(0, pipeline.run(checkpoint).games());
+        assertEquals(1, pipeline.run(checkpoint, Long.MAX_VALUE).games());
+    }
+
+    private static GameData finished(int gameID, String... moves) throws InvalidMoveException {
+        ChessGame game = Fen.parse(Fen.START).game();
+        play(game, moves);
+        game.setTeamTurn(null);
+        return new GameData(gameID, "white", "black", "game " + gameID, game);
+    }
+
+    private static void play(ChessGame game, String... moves) throws InvalidMoveException {
+        for (String move : moves) {
+            game.makeMove(new ChessMove(Fen.square(move.substring(0, 2)), Fen.square(move.substring(2, 4))));
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package analysis;
+
+import chess.ChessGame;
+import chess.ChessPosition;
+import chess.engine.SearchResult;
+import org.junit.jupiter.api.*;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PositionAnalyzerTest {
+    private PositionAnalyzer analyzer;
+
+    @AfterEach
+    void tearDown() {
+        analyzer.close();
+    }
+
+    @Test
+    void testCachesByPositionAndDepth() {
+        analyzer = new PositionAnalyzer(1, 4, 16, 1, 6, Duration.ofSeconds(30));
+        ChessGame game = new ChessGame();
+
+        SearchResult first = analyzer.analyze(game, 3).join();
+        SearchResult second = analyzer.analyze(new ChessGame(), 3).join();
+        analyzer.analyze(game, 2).join();
+
+        assertSame(first, second);
+        assertEquals(3, first.depth());
+        assertNotNull(first.bestMove());
+        assertEquals(2, analyzer.metrics().searches());
+        assertEquals(1, analyzer.metrics().cacheHits());
+    }
+
+    @Test
+    void testCoalescesIdenticalRequests() {
+        analyzer = new PositionAnalyzer(1, 4, 16, 1, 6, Duration.ofSeconds(30));
+
+        List<CompletableFuture<SearchResult>> requests = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            requests.add(analyzer.analyze(new ChessGame(), 5));
+        }
+        SearchResult first = requests.get(0).join();
+        for (CompletableFuture<SearchResult> request : requests) {
+            assertSame(first, request.join());
+        }
+
+        assertEquals(1, analyzer.metrics().searches());
+        assertEquals(4, analyzer.metrics().coalesced() + analyzer.metrics().cacheHits());
+    }
+
+    @Test
+    void testClampsDepth() {
+        analyzer = new PositionAnalyzer(1, 4, 16, 1, 2, Duration.ofSeconds(30));
+
+        assertEquals(2, analyzer.analyze(new ChessGame(), 40).join().depth());
+        assertEquals(1, analyzer.analyze(new ChessGame(), 0).join().depth());
+    }
+
+    @Test
+    void testRejectsFinishedGame() {
+        analyzer = new PositionAnalyzer(1);
+        ChessGame game = new ChessGame();
+        game.setTeamTurn(null);
+
+        assertThrows(IllegalArgumentException.class, () -> analyzer.analyze(game, 3));
+    }
+
+    @Test
+    void testShedsLoadWhenSaturated() throws Exception {
+        analyzer = new PositionAnalyzer(1, 1, 16, 1, 64, Duration.ofMillis(300));
+        ChessGame[] games = new ChessGame[4];
+        for (int i = 0; i < games.length; i++) {
+            games[i] = new ChessGame();
+            // Different positions, so nothing is coalesced
+            games[i].makeMove(games[i].validMoves(new ChessPosition(2, i + 1)).iterator().next());
+        }
+
+        List<CompletableFuture<SearchResult>> requests = new ArrayList<>();
+        for (ChessGame game : games) {
+            requests.add(analyzer.analyze(game, 64));
+        }
+        int shed = 0;
+        for (CompletableFuture<SearchResult> request : requests) {
+            try {
+                request.join();
+            } catch (CompletionException e) {
+                assertInstanceOf(RejectedExecutionException.class, e.getCause());
+                shed++;
+            }
+        }
+
+        assertEquals(2, shed);
+        assertEquals(2, analyzer.metrics().rejected());
+    }
+}
@@ -0,0 +1,141 @@
+package bots;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPosition;
+import chess.InvalidMoveException;
+import chess.book.OpeningBook;
+import chess.book.OpeningBookBuilder;
+import chess.notation.Fen;
+import chess.notation.PgnReader;
+import chess.tablebase.Tablebase;
+import chess.tablebase.TablebaseGenerator;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BotEngineTest {
+    private BotEngine engine;
+
+    @AfterEach
+    void tearDown() {
+        if (engine != null) {
+            engine.close();
+        }
+    }
+
+    @Test
+    void testChoosesLegalMove() {
+        engine = new BotEngine(1, 4, 1);
+        ChessGame game = new ChessGame();
+
+        ChessMove move = engine.chooseMove(game, new BotProfile("bot", Duration.ofMillis(200), 3)).join();
+
+        assertTrue(game.allValidMoves(ChessGame.TeamColor.WHITE).contains(move));
+        assertEquals(1, engine.metrics().completed());
+    }
+
+    @Test
+    void testPlaysBookMovesWithoutSearching(@TempDir Path directory) throws IOException, InvalidMoveException {
+        Path file = directory.resolve("openings.book");
+        OpeningBookBuilder builder = new OpeningBookBuilder(1, 1);
+        builder.addAll(new PgnReader(new StringReader("1. d4 d5 1-0\n")));
+        builder.write(file);
+        engine = new BotEngine(1, 4, 1, OpeningBook.open(file), null);
+        BotProfile bot = new BotProfile("bot", Duration.ofMillis(200), 3);
+
+        CompletableFuture<ChessMove> booked = engine.chooseMove(new ChessGame(), bot);
+        assertTrue(booked.isDone());
+        assertEquals(new ChessPosition(4, 4), booked.join().getEndPosition());
+
+        // Past the end of the book the bot searches as usual
+        ChessGame game = new ChessGame();
+        game.makeMove(booked.join());
+        assertNotNull(engine.chooseMove(game, bot).join());
+        assertEquals(1, engine.metrics().bookMoves());
+        assertEquals(1, engine.metrics().completed());
+    }
+
+    @Test
+    void testPlaysTablebaseMovesWithoutSearching(@TempDir Path directory) throws IOException {
+        try (TablebaseGenerator generator = new TablebaseGenerator(1)) {
+            generator.generate("KQK", directory);
+        }
+        engine = new BotEngine(1, 4, 1, null, Tablebase.open(directory));
+        ChessGame game = Fen.parse("7k/8/6K1/8/8/8/8/1Q6 w - - 0 1").game();
+
+        CompletableFuture<ChessMove> move = engine.chooseMove(game, new BotProfile("bot", Duration.ofMillis(200), 3));
+
+        assertTrue(move.isDone());
+        assertEquals(new ChessPosition(8, 2), move.join().getEndPosition());
+        assertEquals(1, engine.metrics().tablebaseMoves());
+        assertEquals(0, engine.metrics().completed());
+    }
+
+    @Test
+    void testCopiesGameBeforeReturning() {
+        engine = new BotEngine(1, 4, 1);
+        ChessGame game = new ChessGame();
+
+        CompletableFuture<ChessMove> move = engine.chooseMove(game, new BotProfile("bot", Duration.ofMillis(200), 3));
+        game.setTeamTurn(null);
+
+        assertNotNull(move.join());
+    }
+
+    @Test
+    void testStaysNearTimeBudget() {
+        engine = new BotEngine(1, 4, 1);
+        long start = System.nanoTime();
+
+        engine.chooseMove(new ChessGame(), new BotProfile("bot", Duration.ofMillis(300), 64)).join();
+
+        // The last iteration may run over, but never by more than the budget again
+        assertTrue(System.nanoTime() - start < Duration.ofMillis(1_500).toNanos());
+    }
+
+    @Test
+    void testShedsLoadWhenSaturated() {
+        engine = new BotEngine(1, 1, 1);
+        BotProfile bot = new BotProfile("bot", Duration.ofMillis(300), 64);
+
+        List<CompletableFuture<ChessMove>> moves = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            moves.add(engine.chooseMove(new ChessGame(), bot));
+        }
+        int shed = 0;
+        for (CompletableFuture<ChessMove> move : moves) {
+            try {
+                assertNotNull(move.join());
+            } catch (CompletionException e) {
+                assertInstanceOf(RejectedExecutionException.class, e.getCause());
+                shed++;
+            }
+        }
+
+        assertEquals(2, shed);
+        assertEquals(2, engine.metrics().rejected());
+    }
+
+    @Test
+    void testRosterLookup() {
+        BotRoster roster = new BotRoster(List.of(new BotProfile("easy", Duration.ofMillis(100), 2)));
+
+        assertTrue(roster.isBot("easy"));
+        assertFalse(roster.isBot("hard"));
+        assertFalse(roster.isBot(null));
+        assertThrows(IllegalArgumentException.class, () -> new BotRoster(List.of(
+                new BotProfile("easy", Duration.ofMillis(100), 2), new BotProfile("easy", Duration.ofMillis(100), 3))));
+    }
+}
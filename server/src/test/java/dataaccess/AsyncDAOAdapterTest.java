@@ -0,0 +1,111 @@
+package dataaccess;
+
+import dataaccess.implementations.AsyncAuthDAOAdapter;
+import dataaccess.implementations.AsyncGameDAOAdapter;
+import dataaccess.implementations.AsyncUserDAOAdapter;
+import dataaccess.implementations.MemoryAuthDAO;
+import dataaccess.implementations.MemoryGameDAO;
+import dataaccess.implementations.MemoryUserDAO;
+import dataaccess.interfaces.AsyncAuthDAO;
+import dataaccess.interfaces.AsyncGameDAO;
+import dataaccess.interfaces.AsyncUserDAO;
+import model.AuthData;
+import model.GameData;
+import model.UserData;
+import org.junit.jupiter.api.*;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AsyncDAOAdapterTest {
+    private MemoryAuthDAO authDAO;
+    private AsyncAuthDAO asyncAuth;
+
+    @BeforeEach
+    void setUp() {
+        authDAO = new MemoryAuthDAO();
+        asyncAuth = new AsyncAuthDAOAdapter(authDAO);
+    }
+
+    @Test
+    void testRoundTrip() throws DataAccessException {
+        String token = DataAccessFutures.join(asyncAuth.createAuth("alice"));
+
+        AuthData authData = DataAccessFutures.join(asyncAuth.getAuth(token));
+        assertEquals("alice", authData.username());
+
+        DataAccessFutures.join(asyncAuth.deleteAuth(token));
+        assertNull(DataAccessFutures.join(asyncAuth.getAuth(token)));
+    }
+
+    @Test
+    void testJoinRethrowsDataAccessException() {
+        CompletableFuture<String> future = asyncAuth.createAuth("");
+
+        DataAccessException e = assertThrows(DataAccessException.class, () -> DataAccessFutures.join(future));
+        assertEquals("Username cannot be null or empty", e.getMessage());
+    }
+
+    @Test
+    void testJoinRethrowsRuntimeException() {
+        CompletableFuture<Void> future = asyncAuth.getAuth("missing").thenAccept(authData -> {
+            throw new RuntimeException("Error: unauthorized");
+        });
+
+        RuntimeException e = assertThrows(RuntimeException.class, () -> DataAccessFutures.join(future));
+        assertEquals("Error: unauthorized", e.getMessage());
+    }
+
+    @Test
+    void testCallsOverlap() throws Exception {
+        // Each game lookup waits for the other to start, so they only finish if they run at once
+        CountDownLatch started = new CountDownLatch(2);
+        MemoryGameDAO games = new MemoryGameDAO() {
+            @Override
+            public GameData getGame(int gameID) throws DataAccessException {
+                started.countDown();
+                try {
+                    if (!started.await(5, TimeUnit.SECONDS)) {
+                        throw new DataAccessException("lookups did not overlap");
+                    }
+                } catch (InterruptedException e) {
+                    throw new DataAccessException("interrupted");
+                }
+                return super.getGame(gameID);
+            }
+        };
+        int first = games.createGame("first");
+        int second = games.createGame("second");
+        AsyncGameDAO asyncGames = new AsyncGameDAOAdapter(games);
+
+        CompletableFuture<String> names = asyncGames.getGame(first)
+                .thenCombine(asyncGames.getGame(second), (a, b) -> a.gameName() + "," + b.gameName());
+
+        assertEquals("first,second", DataAccessFutures.join(names));
+    }
+
+    @Test
+    void testPasswordWorkStaysOnHasher() throws DataAccessException {
+        MemoryUserDAO users = new MemoryUserDAO() {
+            @Override
+            public boolean checkPassword(String password, String hash) {
+                throw new AssertionError("password checked on the DAO pool");
+            }
+        };
+        try (PasswordHasher hasher = new PasswordHasher(1, 4, 4, 5_000)) {
+            AsyncUserDAO asyncUsers = new AsyncUserDAOAdapter(users, hasher);
+
+            DataAccessFutures.join(asyncUsers.createUser(new UserData("alice", "password", "a@example.com")));
+
+            // Hashed at the hasher's cost rather than by the DAO
+            assertTrue(users.getUser("alice").password().startsWith("$2a$04$"));
+            assertEquals("alice", DataAccessFutures.join(asyncUsers.authenticate("alice", "password")).username());
+            assertNull(DataAccessFutures.join(asyncUsers.authenticate("alice", "wrongPassword")));
+            assertNull(DataAccessFutures.join(asyncUsers.authenticate("bob", "password")));
+            assertEquals(3, hasher.metrics().completed());
+        }
+    }
+}
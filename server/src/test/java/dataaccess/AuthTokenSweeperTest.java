@@ -0,0 +1,39 @@
+package dataaccess;
+
+import dataaccess.implementations.MemoryAuthDAO;
+import org.junit.jupiter.api.*;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuthTokenSweeperTest {
+    private AuthTokenSweeper sweeper;
+
+    @AfterEach
+    void tearDown() {
+        sweeper.close();
+    }
+
+    @Test
+    void testSweepDeletesAllExpiredInBatches() throws DataAccessException {
+        MemoryAuthDAO authDAO = new MemoryAuthDAO(Duration.ofMillis(-1));
+        for (int i = 0; i < 7; i++) {
+            authDAO.createAuth("user" + i);
+        }
+        sweeper = new AuthTokenSweeper(authDAO, Duration.ofHours(1), 2);
+
+        assertEquals(7, sweeper.sweep());
+        assertEquals(0, sweeper.sweep());
+    }
+
+    @Test
+    void testSweepKeepsLiveTokens() throws DataAccessException {
+        MemoryAuthDAO authDAO = new MemoryAuthDAO();
+        String authToken = authDAO.createAuth("testUser");
+        sweeper = new AuthTokenSweeper(authDAO, Duration.ofHours(1), 2);
+
+        assertEquals(0, sweeper.sweep());
+        assertNotNull(authDAO.getAuth(authToken));
+    }
+}
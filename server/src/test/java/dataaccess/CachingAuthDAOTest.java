@@ -0,0 +1,92 @@
+package dataaccess;
+
+import dataaccess.implementations.CachingAuthDAO;
+import dataaccess.implementations.MemoryAuthDAO;
+import model.AuthData;
+import org.junit.jupiter.api.*;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CachingAuthDAOTest {
+    private CountingAuthDAO storedTokens;
+    private CachingAuthDAO authDAO;
+
+    // Counts lookups that reach the backing DAO
+    private static class CountingAuthDAO extends MemoryAuthDAO {
+        private int lookups;
+
+        @Override
+        public AuthData getAuth(String authToken) throws DataAccessException {
+            lookups++;
+            return super.getAuth(authToken);
+        }
+    }
+
+    @BeforeEach
+    void setUp() throws DataAccessException {
+        storedTokens = new CountingAuthDAO();
+        authDAO = new CachingAuthDAO(storedTokens, 3, Duration.ofMinutes(1), Duration.ofMinutes(1));
+        authDAO.clear();
+    }
+
+    @Test
+    void testRepeatedLookupHitsCache() throws DataAccessException {
+        String authToken = authDAO.createAuth("testUser");
+
+        assertEquals("testUser", authDAO.getAuth(authToken).username());
+        assertEquals("testUser", authDAO.getAuth(authToken).username());
+
+        assertEquals(1, storedTokens.lookups);
+    }
+
+    @Test
+    void testUnknownTokenCachedNegatively() throws DataAccessException {
+        assertNull(authDAO.getAuth("missing"));
+        assertNull(authDAO.getAuth("missing"));
+
+        assertEquals(1, storedTokens.lookups);
+    }
+
+    @Test
+    void testDeleteInvalidatesImmediately() throws DataAccessException {
+        String authToken = authDAO.createAuth("testUser");
+        assertNotNull(authDAO.getAuth(authToken));
+
+        authDAO.deleteAuth(authToken);
+
+        assertNull(authDAO.getAuth(authToken));
+    }
+
+    @Test
+    void testClearInvalidatesImmediately() throws DataAccessException {
+        String authToken = authDAO.createAuth("testUser");
+        assertNotNull(authDAO.getAuth(authToken));
+
+        authDAO.clear();
+
+        assertNull(authDAO.getAuth(authToken));
+        assertEquals(1, authDAO.size());
+    }
+
+    @Test
+    void testExpiredEntriesReloaded() throws DataAccessException {
+        authDAO = new CachingAuthDAO(storedTokens, 3, Duration.ZERO, Duration.ZERO);
+        String authToken = authDAO.createAuth("testUser");
+
+        authDAO.getAuth(authToken);
+        authDAO.getAuth(authToken);
+
+        assertEquals(2, storedTokens.lookups);
+    }
+
+    @Test
+    void testSizeIsBounded() throws DataAccessException {
+        for (int i = 0; i < 10; i++) {
+            authDAO.getAuth(authDAO.createAuth("user" + i));
+        }
+
+        assertTrue(authDAO.size() <= 3);
+    }
+}
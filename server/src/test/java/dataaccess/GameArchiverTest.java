@@ -0,0 +1,166 @@
+package dataaccess;
+
+import chess.ChessGame;
+import dataaccess.implementations.LiveGameDAO;
+import dataaccess.implementations.MemoryGameArchiveDAO;
+import dataaccess.implementations.MemoryGameDAO;
+import dataaccess.implementations.TieredGameDAO;
+import model.GameData;
+import org.junit.jupiter.api.*;
+
+import java.time.Duration;
+import java.util.Collection;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameArchiverTest {
+    private MemoryGameDAO liveStore;
+    private MemoryGameArchiveDAO archive;
+    private LiveGameDAO games;
+    private GameArchiver archiver;
+
+    @BeforeEach
+    void setUp() {
+        liveStore = new MemoryGameDAO();
+        archive = new MemoryGameArchiveDAO();
+        games = new LiveGameDAO(new TieredGameDAO(liveStore, archive));
+        // Runs are triggered by the tests, so the schedule never fires
+        archiver = new GameArchiver(games, archive, Duration.ofHours(1), 2);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        archiver.close();
+        games.close();
+    }
+
+    @Test
+    void testArchivesOnlyFinishedGames() throws DataAccessException {
+        int finished = createFinishedGame("done", "alice", "bob");
+        int ongoing = games.createGame("ongoing");
+
+        assertEquals(1, archiver.archiveFinished());
+
+        assertNull(liveStore.getGame(finished));
+        assertNotNull(liveStore.getGame(ongoing));
+        assertEquals(1, archive.size());
+        assertEquals(1, games.listGames().size());
+    }
+
+    @Test
+    void testArchivedGameStillReadableByID() throws DataAccessException {
+        int gameID = createFinishedGame("done", "alice", "bob");
+        archiver.archiveFinished();
+
+        GameData archived = games.getGame(gameID);
+
+        assertNotNull(archived);
+        assertEquals("done", archived.gameName());
+        assertEquals("alice", archived.whiteUsername());
+        assertEquals("bob", archived.blackUsername());
+        assertNull(archived.game().getTeamTurn());
+        assertEquals(new ChessGame().getBoard(), archived.game().getBoard());
+    }
+
+    @Test
+    void testArchivesInBatches() throws DataAccessException {
+        for (int i = 0; i < 5; i++) {
+            createFinishedGame("done" + i, null, null);
+        }
+
+        assertEquals(5, archiver.archiveFinished());
+        assertEquals(5, archive.size());
+        assertTrue(liveStore.listGames().isEmpty());
+    }
+
+    @Test
+    void testSkipsResidentGames() throws DataAccessException {
+        int gameID = createFinishedGame("watched", "alice", "bob");
+        games.pin(gameID);
+
+        assertEquals(0, archiver.archiveFinished());
+        assertNotNull(liveStore.getGame(gameID));
+
+        games.evict(gameID);
+        assertEquals(1, archiver.archiveFinished());
+        assertNull(liveStore.getGame(gameID));
+    }
+
+    @Test
+    void testResidentGamesDoNotEndTheRun() throws DataAccessException {
+        int watched = createFinishedGame("watched", "alice", "bob");
+        for (int i = 0; i < 3; i++) {
+            createFinishedGame("done" + i, null, null);
+        }
+        games.pin(watched);
+
+        // The resident game is passed over, and the run goes on until the listing runs short
+        assertEquals(3, archiver.archiveFinished());
+        assertEquals(1, liveStore.listGames().size());
+        assertNotNull(liveStore.getGame(watched));
+    }
+
+    @Test
+    void testFullBatchOfResidentGamesDoesNotStopTheRun() throws DataAccessException {
+        int first = createFinishedGame("watched", "alice", "bob");
+        int second = createFinishedGame("watched too", "carol", "dave");
+        for (int i = 0; i < 3; i++) {
+            createFinishedGame("done" + i, null, null);
+        }
+        games.pin(first);
+        games.pin(second);
+
+        assertEquals(3, archiver.archiveFinished());
+        assertEquals(2, liveStore.listGames().size());
+        assertEquals(0, archiver.archiveFinished());
+    }
+
+    @Test
+    void testKeepsGameChangedAfterListing() throws DataAccessException {
+        MemoryGameDAO store = new MemoryGameDAO() {
+            @Override
+            public Collection<FinishedGame> listFinishedGames(int afterGameID, int limit)
+                    throws DataAccessException {
+                Collection<FinishedGame> finished = super.listFinishedGames(afterGameID, limit);
+                // A player leaves the game between the listing and the delete
+                for (FinishedGame listed : finished) {
+                    GameData game = listed.game();
+                    updateGame(game.gameID(), new GameData(game.gameID(), null, game.blackUsername(),
+                            game.gameName(), game.game()));
+                }
+                return finished;
+            }
+        };
+        try (GameArchiver racing = new GameArchiver(store, archive, Duration.ofHours(1), 2)) {
+            int gameID = store.createGame("done");
+            ChessGame game = new ChessGame();
+            game.setTeamTurn(null);
+            store.updateGame(gameID, new GameData(gameID, "alice", "bob", "done", game));
+
+            assertEquals(0, racing.archiveFinished());
+
+            assertNull(store.getGame(gameID).whiteUsername());
+            assertEquals("alice", archive.getArchivedGame(gameID).whiteUsername());
+        }
+    }
+
+    @Test
+    void testUpdateArchivedGame() throws DataAccessException {
+        int gameID = createFinishedGame("done", "alice", "bob");
+        archiver.archiveFinished();
+        GameData archived = games.getGame(gameID);
+
+        games.updateGame(gameID, new GameData(gameID, null, "bob", "done", archived.game()));
+
+        assertNull(games.getGame(gameID).whiteUsername());
+        assertNull(liveStore.getGame(gameID));
+    }
+
+    private int createFinishedGame(String name, String white, String black) throws DataAccessException {
+        int gameID = games.createGame(name);
+        ChessGame game = new ChessGame();
+        game.setTeamTurn(null);
+        games.updateGame(gameID, new GameData(gameID, white, black, name, game));
+        return gameID;
+    }
+}
@@ -0,0 +1,164 @@
+package dataaccess;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPosition;
+import chess.InvalidMoveException;
+import chess.notation.Fen;
+import dataaccess.implementations.MemoryGameArchiveDAO;
+import dataaccess.implementations.MemoryGameDAO;
+import model.GameData;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameBulkTransferTest {
+    private static final String PGN = """
+            [Event "Fool's mate"]
+            [White "alice"]
+            [Black "bob"]
+            [Result "0-1"]
+
+            1. f3 e5 2. g4 {blunder} Qh4# 0-1
+
+            [Event "Broken"]
+            [Result "*"]
+
+            1. e4 Ke7 2. Qh5 Qxh5 *
+
+            [Event "Open"]
+            [White "carol"]
+            [Result "*"]
+
+            1. d4 d5 2. c4 *
+            """;
+
+    @TempDir
+    Path dir;
+
+    private MemoryGameDAO games;
+    private GameBulkTransfer transfer;
+
+    @BeforeEach
+    void setUp() {
+        games = new MemoryGameDAO();
+        transfer = new GameBulkTransfer(games);
+    }
+
+    @Test
+    void testImportPgn() throws IOException, DataAccessException {
+        Path file = dir.resolve("games.pgn");
+        Files.writeString(file, PGN);
+
+        GameBulkTransfer.Stats stats = transfer.importFile(file, GameBulkTransfer.Format.PGN, 2);
+
+        assertEquals(2, stats.games());
+        assertEquals(1, stats.skipped());
+        assertEquals(Files.size(file), stats.bytes());
+
+        List<GameData> imported = sorted();
+        GameData mate = imported.get(0);
+        assertEquals("Fool's mate", mate.gameName());
+        assertEquals("alice", mate.whiteUsername());
+        assertEquals("bob", mate.blackUsername());
+        assertNull(mate.game().getTeamTurn());
+        assertTrue(mate.game().isInCheckmate(ChessGame.TeamColor.WHITE));
+
+        GameData open = imported.get(1);
+        assertEquals("carol", open.whiteUsername());
+        assertNull(open.blackUsername());
+        assertEquals(ChessGame.TeamColor.BLACK, open.game().getTeamTurn());
+    }
+
+    @Test
+    void testSkipsGameWithMalformedTag() throws IOException, DataAccessException {
+        Path file = dir.resolve("games.pgn");
+        Files.writeString(file, PGN.replace("[White \"alice\"]", "[White alice]"));
+
+        GameBulkTransfer.Stats stats = transfer.importFile(file, GameBulkTransfer.Format.PGN, 2);
+
+        assertEquals(1, stats.games());
+        assertEquals(2, stats.skipped());
+        assertEquals("Open", sorted().get(0).gameName());
+    }
+
+    @Test
+    void testExportIncludesArchive() throws IOException, DataAccessException {
+        games.createGame("live");
+        MemoryGameArchiveDAO archive = new MemoryGameArchiveDAO();
+        archive.archiveGame(new GameData(7, "alice", "bob", "archived", new ChessGame()));
+
+        Path file = dir.resolve("games.jsonl");
+        GameBulkTransfer.Stats exported = new GameBulkTransfer(games, archive)
+                .exportFile(file, GameBulkTransfer.Format.NATIVE);
+
+        assertEquals(2, exported.games());
+        List<String> lines = Files.readAllLines(file);
+        assertTrue(lines.get(0).contains("\"live\""));
+        assertTrue(lines.get(1).contains("\"archived\""));
+    }
+
+    @Test
+    void testNativeRoundTrip() throws IOException, DataAccessException, InvalidMoveException {
+        int first = games.createGame("first");
+        ChessGame played = new ChessGame();
+        played.makeMove(new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5)));
+        games.updateGame(first, new GameData(first, "alice", null, "first", played));
+        games.createGame("second");
+
+        Path file = dir.resolve("games.jsonl");
+        GameBulkTransfer.Stats exported = transfer.exportFile(file, GameBulkTransfer.Format.NATIVE);
+        assertEquals(2, exported.games());
+        assertEquals(2, Files.readAllLines(file).size());
+
+        MemoryGameDAO target = new MemoryGameDAO();
+        GameBulkTransfer.Stats imported = new GameBulkTransfer(target)
+                .importFile(file, GameBulkTransfer.Format.NATIVE, 1);
+        assertEquals(2, imported.games());
+
+        List<GameData> copies = new ArrayList<>(target.listGames());
+        copies.sort(Comparator.comparing(GameData::gameName));
+        assertEquals("alice", copies.get(0).whiteUsername());
+        assertEquals(played.getBoard(), copies.get(0).game().getBoard());
+        assertEquals(ChessGame.TeamColor.BLACK, copies.get(0).game().getTeamTurn());
+        assertEquals("second", copies.get(1).gameName());
+    }
+
+    @Test
+    void testPgnExportSetsUpPosition() throws IOException, DataAccessException {
+        Path in = dir.resolve("in.pgn");
+        Files.writeString(in, PGN);
+        transfer.importFile(in, GameBulkTransfer.Format.PGN, 10);
+
+        Path out = dir.resolve("out.pgn");
+        assertEquals(2, transfer.exportFile(out, GameBulkTransfer.Format.PGN).games());
+        String text = Files.readString(out);
+        assertTrue(text.contains("[Result \"0-1\"]"));
+        assertTrue(text.contains("[FEN \"rnb1kbnr/pppp1ppp/8/4p3/6Pq/5P2/PPPPP2P/RNBQKBNR w"));
+
+        MemoryGameDAO target = new MemoryGameDAO();
+        GameBulkTransfer.Stats reimported = new GameBulkTransfer(target)
+                .importFile(out, GameBulkTransfer.Format.PGN, 10);
+        assertEquals(2, reimported.games());
+        for (GameData game : target.listGames()) {
+            GameData original = games.listGames().stream()
+                    .filter(g -> g.gameName().equals(game.gameName())).findFirst().orElseThrow();
+            assertEquals(Fen.toFen(original.game()), Fen.toFen(game.game()));
+            assertEquals(original.game().getTeamTurn(), game.game().getTeamTurn());
+        }
+    }
+
+    private List<GameData> sorted() throws DataAccessException {
+        List<GameData> list = new ArrayList<>(games.listGames());
+        list.sort(Comparator.comparingInt(GameData::gameID));
+        return list;
+    }
+}
@@ -0,0 +1,285 @@
+package dataaccess;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPosition;
+import dataaccess.implementations.LiveGameDAO;
+import dataaccess.implementations.MemoryGameDAO;
+import model.GameData;
+import org.junit.jupiter.api.*;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LiveGameDAOTest {
+    private MemoryGameDAO storedGames;
+    private LiveGameDAO liveGames;
+
+    @BeforeEach
+    void setUp() throws DataAccessException {
+        storedGames = new MemoryGameDAO();
+        liveGames = new LiveGameDAO(storedGames);
+        liveGames.clear();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        liveGames.close();
+    }
+
+    @Test
+    void testPinKeepsGameResident() throws DataAccessException {
+        int gameID = liveGames.createGame("testGame");
+
+        LiveGameDAO.Snapshot snapshot = liveGames.pin(gameID);
+
+        assertNotNull(snapshot);
+        assertSame(snapshot.data(), liveGames.getGame(gameID));
+        assertSame(snapshot.data(), liveGames.getGame(gameID));
+    }
+
+    @Test
+    void testPinMissingGame() throws DataAccessException {
+        assertNull(liveGames.pin(999));
+        assertNull(liveGames.getLive(999));
+    }
+
+    @Test
+    void testUpdateChangesVersion() throws DataAccessException {
+        int gameID = liveGames.createGame("testGame");
+        LiveGameDAO.Snapshot before = liveGames.pin(gameID);
+
+        GameData joined = new GameData(gameID, "white", null, "testGame", before.data().game());
+        liveGames.updateGame(gameID, joined);
+
+        LiveGameDAO.Snapshot after = liveGames.getLive(gameID);
+        assertSame(joined, after.data());
+        assertTrue(after.version() > before.version());
+    }
+
+    @Test
+    void testEvictPersistsLatestState() throws Exception {
+        int gameID = liveGames.createGame("testGame");
+        GameData live = liveGames.pin(gameID).data();
+
+        live.game().makeMove(new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5)));
+        liveGames.updateGame(gameID, new GameData(gameID, "white", "black", "testGame", live.game()));
+        liveGames.evict(gameID);
+
+        assertNull(liveGames.getLive(gameID));
+        GameData stored = storedGames.getGame(gameID);
+        assertEquals("white", stored.whiteUsername());
+        assertEquals(ChessGame.TeamColor.BLACK, stored.game().getTeamTurn());
+        assertNotSame(live.game(), stored.game());
+    }
+
+    @Test
+    void testModifyKeepsConcurrentSeatClaim() throws DataAccessException {
+        int gameID = liveGames.createGame("testGame");
+        GameData stale = liveGames.pin(gameID).data();
+
+        liveGames.modifyGame(gameID, current -> new GameData(gameID, "white", current.blackUsername(),
+                current.gameName(), current.game()));
+        GameData moved = liveGames.modifyGame(gameID, current -> new GameData(gameID, current.whiteUsername(),
+                current.blackUsername(), current.gameName(), stale.game()));
+
+        assertEquals("white", moved.whiteUsername());
+        assertSame(moved, liveGames.getLive(gameID).data());
+    }
+
+    @Test
+    void testModifyUnpinnedGame() throws DataAccessException {
+        int gameID = liveGames.createGame("testGame");
+
+        GameData unchanged = liveGames.modifyGame(gameID, current -> null);
+        GameData joined = liveGames.modifyGame(gameID, current -> new GameData(gameID, null, "black",
+                current.gameName(), current.game()));
+
+        assertNull(unchanged.blackUsername());
+        assertEquals("black", storedGames.getGame(gameID).blackUsername());
+        assertSame(joined, storedGames.getGame(gameID));
+        assertNull(liveGames.getLive(gameID));
+    }
+
+    @Test
+    void testEvictReportsFailedWrite() throws Exception {
+        AtomicBoolean failing = new AtomicBoolean(true);
+        MemoryGameDAO flaky = new MemoryGameDAO() {
+            @Override
+            public void updateGame(int gameID, GameData game) throws DataAccessException {
+                if (failing.get()) {
+                    throw new DataAccessException("database unavailable");
+                }
+                super.updateGame(gameID, game);
+            }
+        };
+        try (LiveGameDAO games = new LiveGameDAO(flaky)) {
+            int gameID = games.createGame("testGame");
+            GameData live = games.pin(gameID).data();
+            games.updateGame(gameID, new GameData(gameID, "white", null, "testGame", live.game()));
+
+            DataAccessException e = assertThrows(DataAccessException.class, () -> games.evict(gameID));
+            assertEquals("database unavailable", e.getMessage());
+            assertNotNull(games.getLive(gameID));
+
+            failing.set(false);
+            games.evict(gameID);
+            assertNull(games.getLive(gameID));
+            assertEquals("white", flaky.getGame(gameID).whiteUsername());
+        }
+    }
+
+    @Test
+    void testEvictWaitsForWriteWithoutHoldingGame() throws Exception {
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        MemoryGameDAO slow = new MemoryGameDAO() {
+            @Override
+            public void updateGame(int gameID, GameData game) throws DataAccessException {
+                writing.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                super.updateGame(gameID, game);
+            }
+        };
+        try (LiveGameDAO games = new LiveGameDAO(slow)) {
+            int gameID = games.createGame("testGame");
+            GameData live = games.pin(gameID).data();
+            games.updateGame(gameID, new GameData(gameID, "white", null, "testGame", live.game()));
+            assertTrue(writing.await(5, TimeUnit.SECONDS));
+
+            CompletableFuture<Void> evicted = CompletableFuture.runAsync(() -> {
+                try {
+                    games.evict(gameID);
+                } catch (DataAccessException e) {
+                    throw new CompletionException(e);
+                }
+            });
+            // The game can still be read and changed while its write is in progress
+            CompletableFuture<GameData> changed = CompletableFuture.supplyAsync(() -> {
+                try {
+                    return games.modifyGame(gameID, current -> new GameData(gameID, current.whiteUsername(),
+                            "black", current.gameName(), current.game()));
+                } catch (DataAccessException e) {
+                    throw new CompletionException(e);
+                }
+            });
+            assertEquals("black", changed.get(5, TimeUnit.SECONDS).blackUsername());
+            assertNotNull(games.getLive(gameID));
+            assertFalse(evicted.isDone());
+
+            release.countDown();
+            evicted.get(5, TimeUnit.SECONDS);
+            assertNull(games.getLive(gameID));
+            assertEquals("black", slow.getGame(gameID).blackUsername());
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    void testSlowLoadHoldsUpOnlyItsOwnGame() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        MemoryGameDAO slow = new MemoryGameDAO() {
+            @Override
+            public GameData getGame(int gameID) throws DataAccessException {
+                if (gameID == 1) {
+                    loading.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                return super.getGame(gameID);
+            }
+        };
+        try (LiveGameDAO games = new LiveGameDAO(slow)) {
+            for (int i = 0; i < 17; i++) {
+                games.createGame("game" + i);
+            }
+            CompletableFuture<LiveGameDAO.Snapshot> first = CompletableFuture.supplyAsync(() -> {
+                try {
+                    return games.pin(1);
+                } catch (DataAccessException e) {
+                    throw new CompletionException(e);
+                }
+            });
+            assertTrue(loading.await(5, TimeUnit.SECONDS));
+
+            // Game 17 falls in the same bucket as game 1 of a small hash map
+            CompletableFuture<LiveGameDAO.Snapshot> other = CompletableFuture.supplyAsync(() -> {
+                try {
+                    return games.pin(17);
+                } catch (DataAccessException e) {
+                    throw new CompletionException(e);
+                }
+            });
+            assertEquals(17, other.get(5, TimeUnit.SECONDS).data().gameID());
+            assertFalse(first.isDone());
+
+            release.countDown();
+            assertEquals(1, first.get(5, TimeUnit.SECONDS).data().gameID());
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    void testEvictIfChecksConditionAfterWriting() throws DataAccessException {
+        int gameID = liveGames.createGame("testGame");
+        GameData live = liveGames.pin(gameID).data();
+        liveGames.updateGame(gameID, new GameData(gameID, "white", null, "testGame", live.game()));
+
+        // A client joins while the last one's departure is being handled
+        assertFalse(liveGames.evictIf(gameID, () -> false));
+        assertNotNull(liveGames.getLive(gameID));
+        assertEquals("white", storedGames.getGame(gameID).whiteUsername());
+
+        assertTrue(liveGames.evictIf(gameID, () -> true));
+        assertNull(liveGames.getLive(gameID));
+        assertEquals("white", liveGames.pin(gameID).data().whiteUsername());
+    }
+
+    @Test
+    void testUnpinnedGamesPassThrough() throws DataAccessException {
+        int gameID = liveGames.createGame("testGame");
+        GameData updated = new GameData(gameID, "white", null, "testGame", new ChessGame());
+
+        liveGames.updateGame(gameID, updated);
+
+        assertSame(updated, storedGames.getGame(gameID));
+        assertNull(liveGames.getLive(gameID));
+    }
+
+    @Test
+    void testListGamesShowsLiveState() throws DataAccessException {
+        int gameID = liveGames.createGame("testGame");
+        GameData live = liveGames.pin(gameID).data();
+        liveGames.updateGame(gameID, new GameData(gameID, "white", null, "testGame", live.game()));
+
+        GameData listed = liveGames.listGames().iterator().next();
+
+        assertEquals("white", listed.whiteUsername());
+    }
+
+    @Test
+    void testClearDropsLiveGames() throws DataAccessException {
+        int gameID = liveGames.createGame("testGame");
+        liveGames.pin(gameID);
+
+        liveGames.clear();
+
+        assertNull(liveGames.getLive(gameID));
+        assertNull(liveGames.getGame(gameID));
+    }
+}
@@ -4,6 +4,8 @@ import dataaccess.implementations.MemoryAuthDAO;
 import model.AuthData;
 import org.junit.jupiter.api.*;
 
+import java.time.Duration;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class MemoryAuthDAOTest {
@@ -79,4 +81,41 @@ class MemoryAuthDAOTest {
         AuthData authData = authDAO.getAuth("invalidToken");
         assertNull(authData);
     }
-}
\ No newline at end of file
+
+    @Test
+    void testGetAuthRecordsIssueTime() throws DataAccessException {
+        long before = System.currentTimeMillis();
+        String authToken = authDAO.createAuth("testUser");
+
+        assertTrue(authDAO.issuedAt(authToken) >= before);
+        assertEquals(-1, authDAO.issuedAt("invalidToken"));
+    }
+
+    @Test
+    void testExpiredTokenRejected() throws DataAccessException {
+        authDAO = new MemoryAuthDAO(Duration.ofMillis(-1));
+        String authToken = authDAO.createAuth("testUser");
+
+        assertNull(authDAO.getAuth(authToken));
+    }
+
+    @Test
+    void testDeleteExpiredInBatches() throws DataAccessException {
+        authDAO = new MemoryAuthDAO(Duration.ofMillis(-1));
+        for (int i = 0; i < 5; i++) {
+            authDAO.createAuth("user" + i);
+        }
+
+        assertEquals(3, authDAO.deleteExpired(3));
+        assertEquals(2, authDAO.deleteExpired(3));
+        assertEquals(0, authDAO.deleteExpired(3));
+    }
+
+    @Test
+    void testDeleteExpiredKeepsLiveTokens() throws DataAccessException {
+        String authToken = authDAO.createAuth("testUser");
+
+        assertEquals(0, authDAO.deleteExpired(10));
+        assertNotNull(authDAO.getAuth(authToken));
+    }
+}
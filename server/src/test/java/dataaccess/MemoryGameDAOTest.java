@@ -2,10 +2,13 @@ package dataaccess;
 
 import chess.ChessGame;
 import dataaccess.implementations.MemoryGameDAO;
+import dataaccess.interfaces.GameDAO;
 import model.GameData;
 import org.junit.jupiter.api.*;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -110,4 +113,49 @@ class MemoryGameDAOTest {
 
         assertThrows(DataAccessException.class, () -> gameDAO.updateGame(999, game));
     }
+
+    @Test
+    void testListFinishedGames() throws DataAccessException {
+        int finishedID = gameDAO.createGame("Finished");
+        gameDAO.createGame("Ongoing");
+        ChessGame finished = new ChessGame();
+        finished.setTeamTurn(null);
+        gameDAO.updateGame(finishedID, new GameData(finishedID, null, null, "Finished", finished));
+
+        Collection<GameDAO.FinishedGame> games = gameDAO.listFinishedGames(0, 10);
+
+        assertEquals(1, games.size());
+        assertEquals(finishedID, games.iterator().next().game().gameID());
+        assertTrue(gameDAO.listFinishedGames(0, 0).isEmpty());
+        assertTrue(gameDAO.listFinishedGames(finishedID, 10).isEmpty());
+    }
+
+    @Test
+    void testDeleteGameIfUnchanged() throws DataAccessException {
+        int keptID = gameDAO.createGame("Kept");
+        int movedID = gameDAO.createGame("Moved");
+        ChessGame finished = new ChessGame();
+        finished.setTeamTurn(null);
+        gameDAO.updateGame(keptID, new GameData(keptID, "alice", null, "Kept", finished));
+        gameDAO.updateGame(movedID, new GameData(movedID, "alice", null, "Moved", finished));
+        List<GameDAO.FinishedGame> listed = new ArrayList<>(gameDAO.listFinishedGames(0, 10));
+
+        // A player leaves one game after it was listed
+        gameDAO.updateGame(keptID, new GameData(keptID, null, null, "Kept", finished));
+
+        assertFalse(gameDAO.deleteGameIfUnchanged(listed.get(0)));
+        assertTrue(gameDAO.deleteGameIfUnchanged(listed.get(1)));
+        assertNotNull(gameDAO.getGame(keptID));
+        assertNull(gameDAO.getGame(movedID));
+    }
+
+    @Test
+    void testDeleteGame() throws DataAccessException {
+        int gameID = gameDAO.createGame("Doomed");
+
+        gameDAO.deleteGame(gameID);
+
+        assertNull(gameDAO.getGame(gameID));
+        assertDoesNotThrow(() -> gameDAO.deleteGame(gameID));
+    }
 }
\ No newline at end of file
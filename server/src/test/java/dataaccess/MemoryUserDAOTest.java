@@ -119,4 +119,21 @@ class MemoryUserDAOTest {
 
         assertFalse(userDAO.verifyPassword(username, "wrongPassword"));
     }
-}
\ No newline at end of file
+
+    @Test
+    void testAuthenticate() throws DataAccessException {
+        String password = "correctPassword";
+        userDAO.createUser(new UserData("testUser", userDAO.hashPassword(password), "test@example.com"));
+
+        UserData user = userDAO.authenticate("testUser", password);
+
+        assertNotNull(user);
+        assertEquals("testUser", user.username());
+        assertNull(userDAO.authenticate("testUser", "wrongPassword"));
+    }
+
+    @Test
+    void testAuthenticateUnknownUser() throws DataAccessException {
+        assertNull(userDAO.authenticate("nonexistentUser", "anyPassword"));
+    }
+}
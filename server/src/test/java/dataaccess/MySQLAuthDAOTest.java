@@ -4,6 +4,8 @@ import dataaccess.implementations.MySQLAuthDAO;
 import model.AuthData;
 import org.junit.jupiter.api.*;
 
+import java.time.Duration;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class MySQLAuthDAOTest {
@@ -97,6 +99,19 @@ class MySQLAuthDAOTest {
         assertDoesNotThrow(() -> authDAO.clear());
     }
 
+    @Test
+    void testDeleteExpired() throws Exception {
+        try (MySQLAuthDAO expiringDAO = new MySQLAuthDAO(Duration.ofMillis(-1))) {
+            String authToken = expiringDAO.createAuth("expiredUser");
+
+            assertNull(expiringDAO.getAuth(authToken));
+            assertEquals(1, expiringDAO.deleteExpired(10));
+        }
+        String authToken = authDAO.createAuth("liveUser");
+        assertEquals(0, authDAO.deleteExpired(10));
+        assertNotNull(authDAO.getAuth(authToken));
+    }
+
     @Test
     void testClose() throws Exception {
         assertDoesNotThrow(() -> authDAO.close());
@@ -1,11 +1,17 @@
 package dataaccess;
 
 import dataaccess.implementations.MySQLGameDAO;
+import dataaccess.interfaces.GameDAO;
 import model.GameData;
 import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPosition;
+import com.google.gson.Gson;
 import org.junit.jupiter.api.*;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -140,4 +146,83 @@ class MySQLGameDAOTest {
         gameDAO.close();
         assertDoesNotThrow(() -> gameDAO.close());
     }
+
+    @Test
+    void testListFinishedGames() throws DataAccessException {
+        int finishedID = gameDAO.createGame("Finished");
+        gameDAO.createGame("Ongoing");
+        ChessGame finished = new ChessGame();
+        finished.setTeamTurn(null);
+        gameDAO.updateGame(finishedID, new GameData(finishedID, null, null, "Finished", finished));
+
+        Collection<GameDAO.FinishedGame> games = gameDAO.listFinishedGames(0, 10);
+
+        assertEquals(1, games.size());
+        assertEquals(finishedID, games.iterator().next().game().gameID());
+        assertTrue(gameDAO.listFinishedGames(0, 0).isEmpty());
+        assertTrue(gameDAO.listFinishedGames(finishedID, 10).isEmpty());
+    }
+
+    @Test
+    void testMoveHistoryStoredApartFromState() throws Exception {
+        int gameID = gameDAO.createGame("Opening");
+        ChessGame game = new ChessGame();
+        game.makeMove(new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null));
+        gameDAO.updateGame(gameID, new GameData(gameID, null, null, "Opening", game));
+
+        ChessGame stored = gameDAO.getGame(gameID).game();
+
+        assertEquals(game.getMoveHistory(), stored.getMoveHistory());
+        assertFalse(new Gson().toJson(stored).contains("e2e4"));
+    }
+
+    @Test
+    void testOtherCallsRunDuringExport() throws DataAccessException {
+        int firstID = gameDAO.createGame("First");
+        int secondID = gameDAO.createGame("Second");
+        List<String> names = new ArrayList<>();
+
+        long count = gameDAO.forEachGame(game -> {
+            try {
+                // The export streams on a connection of its own, so the DAO's own stays usable
+                names.add(gameDAO.getGame(game.gameID()).gameName());
+            } catch (DataAccessException e) {
+                throw new RuntimeException(e);
+            }
+        });
+
+        assertEquals(2, count);
+        assertEquals(List.of("First", "Second"), names);
+        assertNotNull(gameDAO.getGame(firstID));
+        assertNotNull(gameDAO.getGame(secondID));
+    }
+
+    @Test
+    void testDeleteGameIfUnchanged() throws DataAccessException {
+        int keptID = gameDAO.createGame("Kept");
+        int movedID = gameDAO.createGame("Moved");
+        ChessGame finished = new ChessGame();
+        finished.setTeamTurn(null);
+        gameDAO.updateGame(keptID, new GameData(keptID, "alice", null, "Kept", finished));
+        gameDAO.updateGame(movedID, new GameData(movedID, "alice", null, "Moved", finished));
+        List<GameDAO.FinishedGame> listed = new ArrayList<>(gameDAO.listFinishedGames(0, 10));
+
+        // A player leaves one game after it was listed
+        gameDAO.updateGame(keptID, new GameData(keptID, null, null, "Kept", finished));
+
+        assertFalse(gameDAO.deleteGameIfUnchanged(listed.get(0)));
+        assertTrue(gameDAO.deleteGameIfUnchanged(listed.get(1)));
+        assertNotNull(gameDAO.getGame(keptID));
+        assertNull(gameDAO.getGame(movedID));
+    }
+
+    @Test
+    void testDeleteGame() throws DataAccessException {
+        int gameID = gameDAO.createGame("Doomed");
+
+        gameDAO.deleteGame(gameID);
+
+        assertNull(gameDAO.getGame(gameID));
+        assertDoesNotThrow(() -> gameDAO.deleteGame(gameID));
+    }
 }
\ No newline at end of file
@@ -86,6 +86,18 @@ class MySQLUserDAOTest {
         assertFalse(userDAO.verifyPassword("nonexistentUser", "anyPassword"));
     }
 
+    @Test
+    void testAuthenticate() throws DataAccessException {
+        userDAO.createUser(new UserData("authUser", "password", "email@example.com"));
+
+        UserData user = userDAO.authenticate("authUser", "password");
+
+        assertNotNull(user);
+        assertEquals("email@example.com", user.email());
+        assertNull(userDAO.authenticate("authUser", "wrongPassword"));
+        assertNull(userDAO.authenticate("nonexistentUser", "password"));
+    }
+
     @Test
     void testHashPassword() {
         String password = "plainTextPassword";
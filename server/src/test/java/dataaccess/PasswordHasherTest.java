@@ -0,0 +1,84 @@
+package dataaccess;
+
+import org.junit.jupiter.api.*;
+import org.mindrot.jbcrypt.BCrypt;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordHasherTest {
+    private PasswordHasher hasher;
+
+    @AfterEach
+    void tearDown() {
+        if (hasher != null) {
+            hasher.close();
+        }
+    }
+
+    @Test
+    void testHashAndCheck() {
+        hasher = new PasswordHasher(2, 4, 4, 5_000);
+
+        String hash = hasher.hash("password");
+
+        assertTrue(hash.startsWith("$2a$04$"));
+        assertTrue(hasher.check("password", hash));
+        assertFalse(hasher.check("wrongPassword", hash));
+        assertEquals(3, hasher.metrics().completed());
+    }
+
+    @Test
+    void testShedsLoadWhenSaturated() {
+        hasher = new PasswordHasher(1, 1, 14, 60_000);
+        ExecutorService requestThreads = Executors.newFixedThreadPool(4);
+
+        List<CompletableFuture<String>> requests = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            requests.add(CompletableFuture.supplyAsync(() -> hasher.hash("password"), requestThreads));
+        }
+        int shed = 0;
+        for (CompletableFuture<String> request : requests) {
+            try {
+                request.join();
+            } catch (CompletionException e) {
+                assertEquals(PasswordHasher.UNAVAILABLE, e.getCause().getMessage());
+                shed++;
+            }
+        }
+
+        requestThreads.shutdown();
+
+        assertTrue(shed > 0);
+        assertEquals(shed, hasher.metrics().rejected());
+    }
+
+    @Test
+    void testTimesOut() {
+        hasher = new PasswordHasher(1, 1, 12, 1);
+
+        RuntimeException e = assertThrows(RuntimeException.class, () -> hasher.hash("password"));
+        assertEquals(PasswordHasher.UNAVAILABLE, e.getMessage());
+    }
+
+    @Test
+    void testAsyncCheckFailsWithoutWaiting() {
+        hasher = new PasswordHasher(1, 1, 12, 1);
+
+        CompletableFuture<Boolean> check = hasher.checkAsync("password", BCrypt.hashpw("password", BCrypt.gensalt(12)));
+
+        CompletionException e = assertThrows(CompletionException.class, check::join);
+        assertEquals(PasswordHasher.UNAVAILABLE, e.getCause().getMessage());
+    }
+
+    @Test
+    void testRejectsInvalidCost() {
+        assertThrows(IllegalArgumentException.class, () -> new PasswordHasher(1, 1, 3, 1_000));
+    }
+}
@@ -0,0 +1,63 @@
+package dataaccess;
+
+import dataaccess.implementations.DatabaseManager;
+import dataaccess.implementations.SchemaBootstrap;
+import org.junit.jupiter.api.*;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SchemaBootstrapTest {
+
+    @Test
+    void testEnsureSchemaRecordsVersion() throws Exception {
+        SchemaBootstrap.ensureSchema();
+        SchemaBootstrap.ensureSchema(); // Second call is a no-op
+
+        try (Connection conn = connection();
+                var stmt = conn.createStatement();
+                ResultSet rs = stmt.executeQuery("SELECT version FROM schema_version WHERE id = 1")) {
+            assertTrue(rs.next());
+            assertEquals(SchemaBootstrap.VERSION, rs.getInt(1));
+        }
+    }
+
+    @Test
+    void testEnsureSchemaCreatesIndexes() throws Exception {
+        SchemaBootstrap.ensureSchema();
+
+        try (Connection conn = connection()) {
+            Set<String> gameIndexes = indexNames(conn, "games");
+            assertTrue(gameIndexes.contains("idx_games_white_username"));
+            assertTrue(gameIndexes.contains("idx_games_black_username"));
+
+            Set<String> authIndexes = indexNames(conn, "auth");
+            assertTrue(authIndexes.contains("idx_auth_username"));
+            assertTrue(authIndexes.contains("idx_auth_last_used"));
+        }
+    }
+
+    private Connection connection() throws Exception {
+        DatabaseManager.Database database = DatabaseManager.defaultDatabase();
+        Connection conn = DriverManager.getConnection(
+                String.format("jdbc:mysql://%s:%d", database.host(), database.port()),
+                database.user(), database.password());
+        conn.setCatalog(database.name());
+        return conn;
+    }
+
+    private Set<String> indexNames(Connection conn, String table) throws Exception {
+        Set<String> names = new HashSet<>();
+        try (ResultSet rs = conn.getMetaData().getIndexInfo(conn.getCatalog(), null, table, false, false)) {
+            while (rs.next()) {
+                names.add(rs.getString("INDEX_NAME"));
+            }
+        }
+        return names;
+    }
+}
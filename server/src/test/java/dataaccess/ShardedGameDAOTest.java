@@ -0,0 +1,183 @@
+package dataaccess;
+
+import chess.ChessGame;
+import dataaccess.implementations.AsyncGameDAOAdapter;
+import dataaccess.implementations.MemoryGameDAO;
+import dataaccess.implementations.ShardedGameDAO;
+import dataaccess.interfaces.AsyncGameDAO;
+import dataaccess.interfaces.GameDAO;
+import model.GameData;
+import org.junit.jupiter.api.*;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShardedGameDAOTest {
+    private List<MemoryGameDAO> shards;
+    private ShardedGameDAO gameDAO;
+
+    @BeforeEach
+    void setUp() {
+        shards = List.of(new MemoryGameDAO(), new MemoryGameDAO(), new MemoryGameDAO());
+        gameDAO = new ShardedGameDAO(shards);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        gameDAO.close();
+    }
+
+    @Test
+    void testCreateGameSpreadsAcrossShards() throws DataAccessException {
+        Set<Integer> ids = new HashSet<>();
+        for (int i = 0; i < 9; i++) {
+            ids.add(gameDAO.createGame("game" + i));
+        }
+
+        assertEquals(9, ids.size());
+        for (MemoryGameDAO shard : shards) {
+            assertEquals(3, shard.listGames().size());
+        }
+    }
+
+    @Test
+    void testGetGameRoutesToOwningShard() throws DataAccessException {
+        List<Integer> ids = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            ids.add(gameDAO.createGame("game" + i));
+        }
+
+        for (int i = 0; i < ids.size(); i++) {
+            GameData game = gameDAO.getGame(ids.get(i));
+            assertEquals(ids.get(i), game.gameID());
+            assertEquals("game" + i, game.gameName());
+        }
+    }
+
+    @Test
+    void testGetGameUnknown() throws DataAccessException {
+        assertNull(gameDAO.getGame(0));
+        assertNull(gameDAO.getGame(-4));
+        assertNull(gameDAO.getGame(2));
+        assertNull(gameDAO.getGame(3000));
+    }
+
+    @Test
+    void testUpdateGameKeepsGlobalID() throws DataAccessException {
+        gameDAO.createGame("first");
+        int gameID = gameDAO.createGame("second");
+        GameData game = gameDAO.getGame(gameID);
+
+        gameDAO.updateGame(gameID, new GameData(gameID, "white", null, game.gameName(), game.game()));
+
+        GameData updated = gameDAO.getGame(gameID);
+        assertEquals(gameID, updated.gameID());
+        assertEquals("white", updated.whiteUsername());
+        assertNull(gameDAO.getGame(gameID - 1).whiteUsername());
+    }
+
+    @Test
+    void testListGamesGathersEveryShard() throws DataAccessException {
+        Set<Integer> ids = new HashSet<>();
+        for (int i = 0; i < 7; i++) {
+            ids.add(gameDAO.createGame("game" + i));
+        }
+
+        Set<Integer> listed = new HashSet<>();
+        for (GameData game : gameDAO.listGames()) {
+            listed.add(game.gameID());
+        }
+        assertEquals(ids, listed);
+    }
+
+    @Test
+    void testListFinishedGamesPagesAcrossShards() throws DataAccessException {
+        List<Integer> ids = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            int gameID = gameDAO.createGame("game" + i);
+            ChessGame game = new ChessGame();
+            game.setTeamTurn(null);
+            gameDAO.updateGame(gameID, new GameData(gameID, null, null, "game" + i, game));
+            ids.add(gameID);
+        }
+        ids.sort(null);
+
+        List<Integer> listed = new ArrayList<>();
+        int after = 0;
+        Collection<GameDAO.FinishedGame> page;
+        do {
+            page = gameDAO.listFinishedGames(after, 3);
+            for (GameDAO.FinishedGame finished : page) {
+                listed.add(finished.game().gameID());
+                after = finished.game().gameID();
+            }
+        } while (page.size() == 3);
+
+        assertEquals(ids, listed);
+    }
+
+    @Test
+    void testListGamesWhileDaoPoolIsSaturated() throws Exception {
+        for (int i = 0; i < 6; i++) {
+            gameDAO.createGame("game" + i);
+        }
+        // Every listing starts on the DAO I/O pool and holds its thread until the others have started too, so the
+        // pool is full while the shards are queried
+        int callers = 16;
+        CountDownLatch started = new CountDownLatch(callers);
+        AsyncGameDAO asyncGames = new AsyncGameDAOAdapter(new MemoryGameDAO() {
+            @Override
+            public Collection<GameData> listGames() throws DataAccessException {
+                started.countDown();
+                try {
+                    started.await(200, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    throw new DataAccessException("interrupted");
+                }
+                return gameDAO.listGames();
+            }
+        });
+
+        List<CompletableFuture<Collection<GameData>>> listings = new ArrayList<>();
+        for (int i = 0; i < callers; i++) {
+            listings.add(asyncGames.listGames());
+        }
+
+        for (CompletableFuture<Collection<GameData>> listing : listings) {
+            assertEquals(6, listing.get(10, TimeUnit.SECONDS).size());
+        }
+    }
+
+    @Test
+    void testClearEmptiesEveryShard() throws DataAccessException {
+        for (int i = 0; i < 4; i++) {
+            gameDAO.createGame("game" + i);
+        }
+
+        gameDAO.clear();
+
+        assertTrue(gameDAO.listGames().isEmpty());
+        for (MemoryGameDAO shard : shards) {
+            assertTrue(shard.listGames().isEmpty());
+        }
+    }
+
+    @Test
+    void testSingleShardKeepsIDs() throws Exception {
+        MemoryGameDAO only = new MemoryGameDAO();
+        try (ShardedGameDAO single = new ShardedGameDAO(List.of(only))) {
+            int gameID = single.createGame("solo");
+
+            assertEquals(only.listGames().iterator().next().gameID(), gameID);
+            assertEquals("solo", single.getGame(gameID).gameName());
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package dataaccess;
+
+import dataaccess.implementations.SignedTokenAuthDAO;
+import model.AuthData;
+import org.junit.jupiter.api.*;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SignedTokenAuthDAOTest {
+    private static final byte[] KEY = "0123456789abcdef0123456789abcdef".getBytes();
+    private static final byte[] OTHER_KEY = "fedcba9876543210fedcba9876543210".getBytes();
+
+    private SignedTokenAuthDAO authDAO;
+
+    @BeforeEach
+    void setUp() {
+        authDAO = new SignedTokenAuthDAO(KEY, Duration.ofHours(1));
+    }
+
+    @Test
+    void testCreateAndVerify() throws DataAccessException {
+        String authToken = authDAO.createAuth("testUser");
+
+        AuthData authData = authDAO.getAuth(authToken);
+
+        assertNotNull(authData);
+        assertEquals("testUser", authData.username());
+        assertEquals(authToken, authData.authToken());
+    }
+
+    @Test
+    void testTokensAreUnique() throws DataAccessException {
+        assertNotEquals(authDAO.createAuth("testUser"), authDAO.createAuth("testUser"));
+    }
+
+    @Test
+    void testValidOnAnotherInstanceWithSameKey() throws DataAccessException {
+        String authToken = authDAO.createAuth("testUser");
+
+        SignedTokenAuthDAO otherNode = new SignedTokenAuthDAO(KEY, Duration.ofHours(1));
+
+        assertEquals("testUser", otherNode.getAuth(authToken).username());
+    }
+
+    @Test
+    void testRejectsTamperedAndForeignTokens() throws DataAccessException {
+        String authToken = authDAO.createAuth("testUser");
+        String forged = new SignedTokenAuthDAO(OTHER_KEY, Duration.ofHours(1)).createAuth("testUser");
+        char last = authToken.charAt(authToken.length() - 1);
+        String tampered = authToken.substring(0, authToken.length() - 1) + (last == 'A' ? 'B' : 'A');
+
+        assertNull(authDAO.getAuth(forged));
+        assertNull(authDAO.getAuth(tampered));
+        assertNull(authDAO.getAuth("not-a-token"));
+        assertNull(authDAO.getAuth(null));
+    }
+
+    @Test
+    void testRotatedKeysStillVerify() throws DataAccessException {
+        String oldToken = authDAO.createAuth("testUser");
+
+        SignedTokenAuthDAO rotated = new SignedTokenAuthDAO(Map.of(0, KEY, 1, OTHER_KEY), 1, Duration.ofHours(1));
+        String newToken = rotated.createAuth("testUser");
+
+        assertNotNull(rotated.getAuth(oldToken));
+        assertNotNull(rotated.getAuth(newToken));
+        assertNull(authDAO.getAuth(newToken));
+    }
+
+    @Test
+    void testExpiredTokenRejected() throws DataAccessException {
+        authDAO = new SignedTokenAuthDAO(KEY, Duration.ofMillis(-1));
+
+        assertNull(authDAO.getAuth(authDAO.createAuth("testUser")));
+    }
+
+    @Test
+    void testDeleteRevokesToken() throws DataAccessException {
+        String authToken = authDAO.createAuth("testUser");
+        String otherToken = authDAO.createAuth("testUser");
+
+        authDAO.deleteAuth(authToken);
+
+        assertNull(authDAO.getAuth(authToken));
+        assertNotNull(authDAO.getAuth(otherToken));
+        assertEquals(1, authDAO.revokedCount());
+    }
+
+    @Test
+    void testClearRevokesEarlierTokensOnly() throws DataAccessException {
+        String before = authDAO.createAuth("testUser");
+
+        authDAO.clear();
+        String after = authDAO.createAuth("testUser");
+
+        assertNull(authDAO.getAuth(before));
+        assertNotNull(authDAO.getAuth(after));
+    }
+}
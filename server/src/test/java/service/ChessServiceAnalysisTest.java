@@ -0,0 +1,90 @@
+package service;
+
+import analysis.PositionAnalyzer;
+import bots.BotRoster;
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPosition;
+import chess.InvalidMoveException;
+import dataaccess.DataAccessException;
+import dataaccess.implementations.MemoryAuthDAO;
+import dataaccess.implementations.MemoryGameDAO;
+import dataaccess.implementations.MemoryUserDAO;
+import model.GameData;
+import org.junit.jupiter.api.*;
+import requests.AnalysisRequest;
+import results.AnalysisResult;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChessServiceAnalysisTest {
+    private MemoryGameDAO games;
+    private PositionAnalyzer analyzer;
+    private ChessService service;
+    private String token;
+    private int gameID;
+
+    @BeforeEach
+    void setUp() throws DataAccessException {
+        MemoryAuthDAO auth = new MemoryAuthDAO();
+        games = new MemoryGameDAO();
+        // One search at a time and one waiting, each allowed longer than a request waits
+        analyzer = new PositionAnalyzer(1, 1, 16, 1, 20, Duration.ofSeconds(3));
+        service = new ChessService(new MemoryUserDAO(), games, auth, BotRoster.empty(), analyzer);
+        token = auth.createAuth("alice");
+        gameID = games.createGame("analyzed");
+    }
+
+    @AfterEach
+    void tearDown() {
+        analyzer.close();
+    }
+
+    @Test
+    void testAnalyzesPosition() throws DataAccessException {
+        AnalysisResult result = service.analyze(new AnalysisRequest(gameID, 2, token));
+
+        assertEquals(2, result.depth());
+        assertNotNull(result.bestMove());
+    }
+
+    @Test
+    void testSlowAnalysisIsBusy() {
+        long start = System.nanoTime();
+        RuntimeException e = assertThrows(RuntimeException.class,
+                () -> service.analyze(new AnalysisRequest(gameID, 20, token)));
+
+        assertEquals(PositionAnalyzer.BUSY, e.getMessage());
+        assertTrue(System.nanoTime() - start < ChessService.ANALYSIS_WAIT.toNanos() * 3);
+    }
+
+    @Test
+    void testSaturatedAnalyzerIsBusy() throws InvalidMoveException {
+        ChessGame other = new ChessGame();
+        analyzer.analyze(other, 20);
+        other.makeMove(new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5)));
+        analyzer.analyze(other, 20);
+
+        RuntimeException e = assertThrows(RuntimeException.class,
+                () -> service.analyze(new AnalysisRequest(gameID, 3, token)));
+
+        assertEquals(PositionAnalyzer.BUSY, e.getMessage());
+        assertEquals(1, analyzer.metrics().rejected());
+    }
+
+    @Test
+    void testOtherFailuresPassThrough() throws DataAccessException {
+        RuntimeException unauthorized = assertThrows(RuntimeException.class,
+                () -> service.analyze(new AnalysisRequest(gameID, 2, "not a token")));
+        assertEquals("Error: unauthorized", unauthorized.getMessage());
+
+        ChessGame finished = new ChessGame();
+        finished.setTeamTurn(null);
+        games.updateGame(gameID, new GameData(gameID, null, null, "analyzed", finished));
+        RuntimeException over = assertThrows(RuntimeException.class,
+                () -> service.analyze(new AnalysisRequest(gameID, 2, token)));
+        assertEquals("Error: bad request", over.getMessage());
+    }
+}
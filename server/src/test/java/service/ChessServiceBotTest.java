@@ -0,0 +1,87 @@
+package service;
+
+import bots.BotProfile;
+import bots.BotRoster;
+import chess.ChessGame.TeamColor;
+import dataaccess.DataAccessException;
+import dataaccess.implementations.MemoryAuthDAO;
+import dataaccess.implementations.MemoryGameDAO;
+import dataaccess.implementations.MemoryUserDAO;
+import model.GameData;
+import model.UserData;
+import org.junit.jupiter.api.*;
+import requests.JoinRequest;
+import requests.NewGameRequest;
+import requests.RegisterRequest;
+import results.JoinResult;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChessServiceBotTest {
+    private static final BotProfile BOT = new BotProfile("easybot", Duration.ofMillis(100), 2);
+
+    private MemoryUserDAO users;
+    private MemoryGameDAO games;
+    private ChessService service;
+    private String token;
+    private int gameID;
+
+    @BeforeEach
+    void setUp() throws DataAccessException {
+        users = new MemoryUserDAO();
+        games = new MemoryGameDAO();
+        service = new ChessService(users, games, new MemoryAuthDAO(), new BotRoster(List.of(BOT)), null);
+        token = service.register(new RegisterRequest("alice", "password", "alice@example.com")).authToken();
+        gameID = Integer.parseInt(service.newGame(new NewGameRequest("versus bot", token)).gameID());
+    }
+
+    @Test
+    void testSeatBot() throws DataAccessException {
+        JoinResult result = service.seatBot(new JoinRequest(gameID, TeamColor.BLACK, token), "easybot");
+
+        assertEquals(TeamColor.BLACK, result.playerColor());
+        GameData game = games.getGame(gameID);
+        assertEquals("easybot", game.blackUsername());
+        assertNull(game.whiteUsername());
+    }
+
+    @Test
+    void testSeatBotRejectsTakenSeatUnknownBotAndBadToken() throws DataAccessException {
+        service.seatBot(new JoinRequest(gameID, TeamColor.WHITE, token), "easybot");
+
+        RuntimeException taken = assertThrows(RuntimeException.class,
+                () -> service.seatBot(new JoinRequest(gameID, TeamColor.WHITE, token), "easybot"));
+        assertEquals("Error: already taken", taken.getMessage());
+        RuntimeException unknown = assertThrows(RuntimeException.class,
+                () -> service.seatBot(new JoinRequest(gameID, TeamColor.BLACK, token), "alice"));
+        assertEquals("Error: bad request", unknown.getMessage());
+        RuntimeException unauthorized = assertThrows(RuntimeException.class,
+                () -> service.seatBot(new JoinRequest(gameID, TeamColor.BLACK, "not a token"), "easybot"));
+        assertEquals("Error: unauthorized", unauthorized.getMessage());
+        assertNull(games.getGame(gameID).blackUsername());
+    }
+
+    @Test
+    void testBotNamesCannotBeRegistered() throws DataAccessException {
+        RuntimeException e = assertThrows(RuntimeException.class,
+                () -> service.register(new RegisterRequest("easybot", "password", "bot@example.com")));
+
+        assertEquals("Error: already taken", e.getMessage());
+        assertNull(users.getUser("easybot"));
+    }
+
+    @Test
+    void testRosterLeavesOutNamesUsersAlreadyHave() throws DataAccessException {
+        users.createUser(new UserData("hardbot", "password", "hard@example.com"));
+        BotRoster roster = new BotRoster(List.of(BOT, new BotProfile("hardbot", Duration.ofMillis(100), 4)));
+
+        BotRoster started = roster.withoutUsers(users);
+
+        assertTrue(started.isBot("easybot"));
+        assertFalse(started.isBot("hardbot"));
+        assertSame(started, started.withoutUsers(users));
+    }
+}
@@ -0,0 +1,44 @@
+package websocket;
+
+import org.junit.jupiter.api.*;
+import websocket.messages.NotificationMessage;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClientManagerTest {
+
+    @Test
+    void testNestedBatchSendsWithOuterFlush() throws IOException {
+        ClientManager clients = new ClientManager();
+        TestSession session = new TestSession();
+        clients.register(1, "alice", session.session());
+
+        clients.beginBatch();
+        clients.beginBatch();
+        clients.notifyMatch(1, null, new NotificationMessage("first"));
+        clients.flushBatch();
+        assertTrue(session.sent().isEmpty());
+
+        clients.notifyMatch(1, null, new NotificationMessage("second"));
+        clients.flushBatch();
+        assertEquals(2, session.sent().size());
+        assertTrue(session.sent().get(0).contains("first"));
+        assertTrue(session.sent().get(1).contains("second"));
+    }
+
+    @Test
+    void testUnbatchedMessagesGoStraightOut() throws IOException {
+        ClientManager clients = new ClientManager();
+        TestSession session = new TestSession();
+        clients.register(1, "alice", session.session());
+
+        clients.beginBatch();
+        clients.flushBatch();
+        clients.notifyMatch(1, null, new NotificationMessage("alone"));
+
+        assertEquals(1, session.sent().size());
+        assertTrue(session.sent().get(0).contains("alone"));
+    }
+}
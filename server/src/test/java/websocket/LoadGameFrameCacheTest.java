@@ -0,0 +1,69 @@
+package websocket;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPosition;
+import chess.InvalidMoveException;
+import com.google.gson.Gson;
+import model.GameData;
+import org.junit.jupiter.api.*;
+import websocket.messages.LoadGameMessage;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoadGameFrameCacheTest {
+    private LoadGameFrameCache cache;
+    private GameData gameData;
+
+    @BeforeEach
+    void setUp() {
+        cache = new LoadGameFrameCache();
+        gameData = new GameData(1, "white", "black", "testGame", new ChessGame());
+    }
+
+    @Test
+    void testFrameMatchesGson() {
+        OutboundMessage frame = cache.frameFor(gameData, 1);
+        assertEquals(new Gson().toJson(new LoadGameMessage(gameData)), frame.json());
+    }
+
+    @Test
+    void testEncodingsReusedForSameVersion() {
+        OutboundMessage frame = cache.frameFor(gameData, 1);
+        assertSame(frame.json(), cache.frameFor(gameData, 1).json());
+        assertSame(frame.binary(), cache.frameFor(gameData, 1).binary());
+    }
+
+    @Test
+    void testFrameReusedForSameVersion() {
+        OutboundMessage first = cache.frameFor(gameData, 1);
+        assertSame(first, cache.frameFor(gameData, 1));
+    }
+
+    @Test
+    void testNewVersionReflectsNewState() throws InvalidMoveException {
+        String before = cache.frameFor(gameData, 1).json();
+
+        gameData.game().makeMove(new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5)));
+        OutboundMessage after = cache.frameFor(gameData, 2);
+
+        assertNotEquals(before, after.json());
+        assertSame(after, cache.frameFor(gameData, 2));
+    }
+
+    @Test
+    void testStaleVersionDoesNotReplaceFresh() {
+        OutboundMessage fresh = cache.frameFor(gameData, 2);
+        OutboundMessage stale = cache.frameFor(gameData, 1);
+
+        assertNotSame(fresh, stale);
+        assertSame(fresh, cache.frameFor(gameData, 2));
+    }
+
+    @Test
+    void testEvict() {
+        OutboundMessage first = cache.frameFor(gameData, 1);
+        cache.evict(1);
+        assertNotSame(first, cache.frameFor(gameData, 1));
+    }
+}
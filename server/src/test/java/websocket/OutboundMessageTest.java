@@ -0,0 +1,55 @@
+package websocket;
+
+import chess.ChessGame;
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import model.GameData;
+import org.junit.jupiter.api.*;
+import websocket.codec.BinaryCodec;
+import websocket.messages.*;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OutboundMessageTest {
+    private final Gson gson = new Gson();
+    private List<OutboundMessage> messages;
+
+    @BeforeEach
+    void setUp() {
+        GameData gameData = new GameData(1, "white", "black", "testGame", new ChessGame());
+        messages = List.of(
+                new OutboundMessage(new LoadGameMessage(gameData)),
+                new OutboundMessage(new NotificationMessage("white played e2e4.")));
+    }
+
+    @Test
+    void testEncodingsAreCached() {
+        OutboundMessage message = messages.get(1);
+        assertSame(message.json(), message.json());
+        assertSame(message.binary(), message.binary());
+    }
+
+    @Test
+    void testBatchJsonEmbedsFrames() {
+        JsonObject batch = gson.fromJson(OutboundMessage.batchJson(messages), JsonObject.class);
+
+        assertEquals("BATCH", batch.get("serverMessageType").getAsString());
+        JsonArray frames = batch.getAsJsonArray("messages");
+        assertEquals(2, frames.size());
+        assertEquals(gson.fromJson(messages.get(0).json(), JsonObject.class), frames.get(0));
+        assertEquals("white played e2e4.", frames.get(1).getAsJsonObject().get("message").getAsString());
+    }
+
+    @Test
+    void testBatchBinaryRoundTrip() {
+        ServerMessage decoded = BinaryCodec.decodeServerMessage(ByteBuffer.wrap(OutboundMessage.batchBinary(messages)));
+
+        List<ServerMessage> batched = ((BatchMessage) decoded).getMessages();
+        assertEquals(ServerMessage.ServerMessageType.LOAD_GAME, batched.get(0).getServerMessageType());
+        assertEquals("white played e2e4.", ((NotificationMessage) batched.get(1)).getMessage());
+    }
+}
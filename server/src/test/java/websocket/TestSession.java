@@ -0,0 +1,60 @@
+package websocket;
+
+import org.eclipse.jetty.websocket.api.RemoteEndpoint;
+import org.eclipse.jetty.websocket.api.Session;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * An open WebSocket session that records the text frames sent to it, so the
+ * handler can be driven without a network.
+ */
+final class TestSession {
+    private final List<String> sent = new CopyOnWriteArrayList<>();
+    private final Session session;
+
+    TestSession() {
+        RemoteEndpoint remote = (RemoteEndpoint) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{RemoteEndpoint.class}, (proxy, method, args) -> {
+                    if (method.getName().equals("sendString")) {
+                        sent.add((String) args[0]);
+                    }
+                    return null;
+                });
+        session = (Session) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Session.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "isOpen" -> true;
+                    case "getRemote" -> remote;
+                    case "equals" -> proxy == args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "toString" -> "TestSession";
+                    default -> null;
+                });
+    }
+
+    Session session() {
+        return session;
+    }
+
+    /**
+     * Waits for a frame containing the text.
+     *
+     * @return Whether one arrived within five seconds
+     */
+    boolean awaitFrame(String text) throws InterruptedException {
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (System.nanoTime() < deadline) {
+            if (sent.stream().anyMatch(frame -> frame.contains(text))) {
+                return true;
+            }
+            Thread.sleep(10);
+        }
+        return false;
+    }
+
+    List<String> sent() {
+        return List.copyOf(sent);
+    }
+}
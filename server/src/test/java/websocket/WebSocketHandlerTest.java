@@ -0,0 +1,156 @@
+package websocket;
+
+import adjudication.Adjudicator;
+import bots.BotEngine;
+import bots.BotProfile;
+import bots.BotRoster;
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPosition;
+import chess.engine.SearchLimits;
+import chess.notation.Fen;
+import chess.tablebase.Tablebase;
+import chess.tablebase.TablebaseGenerator;
+import com.google.gson.Gson;
+import dataaccess.implementations.LiveGameDAO;
+import dataaccess.implementations.MemoryAuthDAO;
+import dataaccess.implementations.MemoryGameDAO;
+import model.GameData;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+import websocket.commands.ConnectCommand;
+import websocket.commands.MakeMoveCommand;
+import websocket.commands.UserGameCommand;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WebSocketHandlerTest {
+    private static final Gson GSON = new Gson();
+    private static final ChessMove E4 = new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5));
+
+    @TempDir
+    static Path directory;
+
+    private static Tablebase tablebase;
+
+    private MemoryAuthDAO auth;
+    private LiveGameDAO games;
+    private BotEngine engine;
+    private WebSocketHandler handler;
+    private TestSession alice;
+    private String aliceToken;
+    private int gameID;
+
+    @BeforeAll
+    static void generate() throws IOException {
+        try (TablebaseGenerator generator = new TablebaseGenerator(1)) {
+            generator.generate("KQK", directory);
+        }
+        tablebase = Tablebase.open(directory);
+    }
+
+    @BeforeEach
+    void setUp() throws Exception {
+        auth = new MemoryAuthDAO();
+        games = new LiveGameDAO(new MemoryGameDAO());
+        engine = new BotEngine(1, 4, 1);
+        // A long budget leaves time to change the position while the bot thinks
+        BotRoster roster = new BotRoster(List.of(
+                new BotProfile("bot", Duration.ofMillis(1000), SearchLimits.MAX_DEPTH)));
+        handler = new WebSocketHandler(auth, games, roster, engine, null, null);
+
+        aliceToken = auth.createAuth("alice");
+        gameID = games.createGame("versus bot");
+        games.updateGame(gameID, new GameData(gameID, "alice", "bot", "versus bot", new ChessGame()));
+        alice = new TestSession();
+        send(new ConnectCommand(aliceToken, gameID));
+        assertTrue(alice.awaitFrame("LOAD_GAME"));
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        engine.close();
+        games.close();
+    }
+
+    @Test
+    void testBotAnswersMove() throws Exception {
+        send(new MakeMoveCommand(aliceToken, gameID, E4));
+
+        assertTrue(alice.awaitFrame("bot played"));
+        ChessGame game = live();
+        synchronized (game) {
+            assertEquals(ChessGame.TeamColor.WHITE, game.getTeamTurn());
+        }
+    }
+
+    @Test
+    void testBotDropsMoveForChangedPosition() throws Exception {
+        send(new MakeMoveCommand(aliceToken, gameID, E4));
+        ChessGame game = live();
+        awaitTurn(game, ChessGame.TeamColor.BLACK);
+        // The bot hashes the position just after the move is made, then searches for at least half its budget
+        Thread.sleep(150);
+        synchronized (game) {
+            // Black's moves are all still legal, so only the position check keeps the bot from playing
+            game.getBoard().addPiece(new ChessPosition(2, 8), null);
+        }
+
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (engine.metrics().completed() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(1, engine.metrics().completed());
+        Thread.sleep(300);
+
+        synchronized (game) {
+            assertEquals(ChessGame.TeamColor.BLACK, game.getTeamTurn());
+        }
+        assertTrue(alice.sent().stream().noneMatch(frame -> frame.contains("bot played")));
+    }
+
+    @Test
+    void testDrawnTablebasePositionEndsGame() throws Exception {
+        handler = new WebSocketHandler(auth, games, BotRoster.empty(), null, null, new Adjudicator(tablebase, false));
+        int drawnID = games.createGame("drawn");
+        games.updateGame(drawnID, new GameData(drawnID, "alice", "bob", "drawn",
+                Fen.parse("7k/8/8/8/8/8/6Q1/K7 w - - 0 1").game()));
+        TestSession bob = new TestSession();
+        handler.onMessage(bob.session(), GSON.toJson(new ConnectCommand(auth.createAuth("bob"), drawnID)));
+        assertTrue(bob.awaitFrame("LOAD_GAME"));
+        send(new ConnectCommand(aliceToken, drawnID));
+
+        // Qg7 hangs the queen, leaving a draw
+        send(new MakeMoveCommand(aliceToken, drawnID, new ChessMove(Fen.square("g2"), Fen.square("g7"))));
+
+        assertTrue(bob.awaitFrame("The game is drawn."));
+        assertTrue(alice.awaitFrame("The game is drawn."));
+        assertNull(games.getGame(drawnID).game().getTeamTurn());
+    }
+
+    private void send(UserGameCommand command) {
+        handler.onMessage(alice.session(), GSON.toJson(command));
+    }
+
+    private ChessGame live() {
+        return games.getLive(gameID).data().game();
+    }
+
+    private static void awaitTurn(ChessGame game, ChessGame.TeamColor turn) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (System.nanoTime() < deadline) {
+            synchronized (game) {
+                if (game.getTeamTurn() == turn) {
+                    return;
+                }
+            }
+            Thread.sleep(5);
+        }
+        fail("Still waiting for " + turn + " to move");
+    }
+}
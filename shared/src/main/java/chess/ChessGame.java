@@ -3,6 +3,7 @@ package chess;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.List;
 
 import chess.ChessPiece.PieceType;
 
@@ -13,6 +14,9 @@ public class ChessGame {
 
     private TeamColor teamTurn;
     private ChessBoard board;
+    // Moves played since the board was set, in coordinate notation such as "e2e4 e7e8q". Left out of the
+    // serialized game so stored and sent games keep their format; stores keep it with getMoveText.
+    private transient String moves = "";
     // private int turn;
 
     public ChessGame() {
@@ -21,6 +25,12 @@ public class ChessGame {
         teamTurn = TeamColor.WHITE;
     }
 
+    private ChessGame(ChessBoard board, TeamColor teamTurn, String moves) {
+        this.board = board;
+        this.teamTurn = teamTurn;
+        this.moves = moves;
+    }
+
     /**
      * @return Which team's turn it is
      */
@@ -181,6 +191,80 @@ public class ChessGame {
         }
 
         applyMove(board, start, end, piece, promo);
+        String played = coordinates(move);
+        moves = moves == null || moves.isEmpty() ? played : moves + " " + played;
+    }
+
+    /**
+     * Gets the moves played since the board was set up, whether by the
+     * constructor or by {@link #setBoard}. Games stored before moves were
+     * recorded report none, so replay them and compare boards before relying
+     * on the history.
+     *
+     * @return the moves in the order they were played
+     */
+    public List<ChessMove> getMoveHistory() {
+        List<ChessMove> history = new ArrayList<>();
+        if (moves == null || moves.isEmpty()) {
+            return history;
+        }
+        for (String move : moves.split(" ")) {
+            ChessPiece.PieceType promo = null;
+            if (move.length() == 5) {
+                promo = switch (move.charAt(4)) {
+                    case 'q' -> PieceType.QUEEN;
+                    case 'r' -> PieceType.ROOK;
+                    case 'b' -> PieceType.BISHOP;
+                    case 'n' -> PieceType.KNIGHT;
+                    default -> throw new IllegalStateException("Bad promotion in move history: " + move);
+                };
+            }
+            history.add(new ChessMove(square(move, 0), square(move, 2), promo));
+        }
+        return history;
+    }
+
+    /**
+     * Gets the move history in the compact form it is stored in, apart from
+     * the serialized game
+     *
+     * @return the moves in coordinate notation, separated by spaces
+     */
+    public String getMoveText() {
+        return moves;
+    }
+
+    /**
+     * Restores a move history read back from storage, replacing the current
+     * one. It is checked when it is read with {@link #getMoveHistory}.
+     *
+     * @param moveText the moves as returned by {@link #getMoveText}, or null
+     *                 for none
+     */
+    public void setMoveText(String moveText) {
+        moves = moveText == null ? "" : moveText;
+    }
+
+    private static String coordinates(ChessMove move) {
+        String text = square(move.getStartPosition()) + square(move.getEndPosition());
+        if (move.getPromotionPiece() == null) {
+            return text;
+        }
+        return text + switch (move.getPromotionPiece()) {
+            case QUEEN -> "q";
+            case ROOK -> "r";
+            case BISHOP -> "b";
+            case KNIGHT -> "n";
+            default -> throw new IllegalArgumentException("Cannot promote to " + move.getPromotionPiece());
+        };
+    }
+
+    private static String square(ChessPosition position) {
+        return "" + (char) ('a' + position.getColumn() - 1) + position.getRow();
+    }
+
+    private static ChessPosition square(String move, int offset) {
+        return new ChessPosition(move.charAt(offset + 1) - '0', move.charAt(offset) - 'a' + 1);
     }
 
     /**
@@ -266,12 +350,14 @@ public class ChessGame {
     }
 
     /**
-     * Sets this game's chessboard with a given board
+     * Sets this game's chessboard with a given board, starting a new move
+     * history
      *
      * @param board the new board to use
      */
     public void setBoard(ChessBoard bd) {
         board = bd;
+        moves = "";
     }
 
     /**
@@ -283,4 +369,18 @@ public class ChessGame {
         return board;
     }
 
+    /**
+     * Creates an independent copy of this game, so the copy can be read or
+     * mutated without affecting this one
+     *
+     * @return a deep copy of the board, turn state and move history
+     */
+    public ChessGame copy() {
+        try {
+            return new ChessGame(board.clone(), teamTurn, moves);
+        } catch (CloneNotSupportedException e) {
+            throw new AssertionError("Cloning failed for ChessBoard", e);
+        }
+    }
+
 }
@@ -0,0 +1,205 @@
+package chess.book;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPiece;
+import chess.ChessPiece.PieceType;
+import chess.engine.SearchPosition;
+import chess.engine.Zobrist;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.random.RandomGenerator;
+
+/**
+ * A read-only opening book, memory-mapped from a file written by
+ * {@link OpeningBookBuilder}.
+ * <p>
+ * The file is a 16-byte header followed by fixed-size entries sorted by
+ * position key. Each entry is a position's {@link Zobrist} hash, one move
+ * played from it, the move's weight and the number of games it was played
+ * in. Entries for the same position are adjacent, heaviest first.
+ * </p>
+ * <p>
+ * Nothing is read into the heap. A lookup is a binary search over the mapped
+ * entries, which touches a few pages and allocates only the moves it returns.
+ * Because the mapping is read-only, every process that opens the same book
+ * shares one copy of it in the operating system's page cache.
+ * </p>
+ */
+public class OpeningBook {
+    static final int MAGIC = 0x4348424B;
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 16;
+    static final int ENTRY_BYTES = 16;
+
+    private static final PieceType[] PROMOTIONS =
+            {null, PieceType.KNIGHT, PieceType.BISHOP, PieceType.ROOK, PieceType.QUEEN};
+
+    private final MappedByteBuffer entries;
+    private final int size;
+
+    /**
+     * One move the book knows for a position.
+     *
+     * @param move   The move
+     * @param weight How strongly the move is preferred; moves are chosen in
+     *               proportion to it
+     * @param games  The number of games the move was played in
+     */
+    public record BookMove(ChessMove move, int weight, int games) {
+    }
+
+    private OpeningBook(MappedByteBuffer entries, int size) {
+        this.entries = entries;
+        this.size = size;
+    }
+
+    /**
+     * Maps a book file. The file must not be changed in place while it is
+     * mapped; {@link OpeningBookBuilder#write} replaces books atomically.
+     *
+     * @param file The book
+     * @return The book
+     * @throws IOException if the file cannot be mapped or is not a book
+     */
+    public static OpeningBook open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long bytes = channel.size();
+            if (bytes < HEADER_BYTES || bytes > Integer.MAX_VALUE) {
+                throw new IOException("Not an opening book: " + file);
+            }
+            // The mapping stays valid after the channel closes
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, bytes);
+            if (buffer.getInt(0) != MAGIC) {
+                throw new IOException("Not an opening book: " + file);
+            }
+            if (buffer.getInt(4) != VERSION) {
+                throw new IOException("Unsupported opening book version " + buffer.getInt(4) + ": " + file);
+            }
+            long count = buffer.getLong(8);
+            if (count < 0 || HEADER_BYTES + count * ENTRY_BYTES != bytes) {
+                throw new IOException("Truncated opening book: " + file);
+            }
+            return new OpeningBook(buffer, (int) count);
+        }
+    }
+
+    /**
+     * Gets the number of entries, one per position and move.
+     *
+     * @return The number of entries
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Looks up a game's current position.
+     *
+     * @param game The game
+     * @return The book's moves, heaviest first; empty if the position is not
+     *         in the book
+     */
+    public List<BookMove> lookup(ChessGame game) {
+        return lookup(Zobrist.hash(game));
+    }
+
+    /**
+     * Looks up a position by its hash.
+     *
+     * @param key The position's {@link Zobrist} hash
+     * @return The book's moves, heaviest first; empty if the position is not
+     *         in the book
+     */
+    public List<BookMove> lookup(long key) {
+        int low = 0;
+        int high = size;
+        // Find the first entry whose key is not below the one sought
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (key(mid) < key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        List<BookMove> moves = new ArrayList<>();
+        for (int i = low; i < size && key(i) == key; i++) {
+            int offset = HEADER_BYTES + i * ENTRY_BYTES;
+            moves.add(new BookMove(decodeMove(entries.getShort(offset + 8)),
+                    Short.toUnsignedInt(entries.getShort(offset + 10)), entries.getInt(offset + 12)));
+        }
+        return moves;
+    }
+
+    /**
+     * Chooses a book move for a game, at random in proportion to the moves'
+     * weights. Moves the rules engine would not accept, such as castling, are
+     * passed over, as is any move left by a hash collision.
+     *
+     * @param game   The game, with a side to move
+     * @param random The source of randomness
+     * @return The move, or null if the book has no playable move here
+     */
+    public ChessMove choose(ChessGame game, RandomGenerator random) {
+        List<BookMove> playable = new ArrayList<>();
+        long total = 0;
+        for (BookMove candidate : lookup(game)) {
+            ChessPiece piece = game.getBoard().getPiece(candidate.move().getStartPosition());
+            if (candidate.weight() == 0 || piece == null || piece.getTeamColor() != game.getTeamTurn()) {
+                continue;
+            }
+            Collection<ChessMove> legal = game.validMoves(candidate.move().getStartPosition());
+            if (legal.contains(candidate.move())) {
+                playable.add(candidate);
+                total += candidate.weight();
+            }
+        }
+        if (playable.isEmpty()) {
+            return null;
+        }
+        long pick = random.nextLong(total);
+        for (BookMove candidate : playable) {
+            pick -= candidate.weight();
+            if (pick < 0) {
+                return candidate.move();
+            }
+        }
+        throw new AssertionError("Weights do not add up");
+    }
+
+    private long key(int index) {
+        return entries.getLong(HEADER_BYTES + index * ENTRY_BYTES);
+    }
+
+    // From square in bits 0-5, to square in 6-11, promotion in 12-14
+    static short encodeMove(ChessMove move) {
+        int from = (move.getStartPosition().getRow() - 1) * 8 + move.getStartPosition().getColumn() - 1;
+        int to = (move.getEndPosition().getRow() - 1) * 8 + move.getEndPosition().getColumn() - 1;
+        int promotion = 0;
+        if (move.getPromotionPiece() != null) {
+            promotion = switch (move.getPromotionPiece()) {
+                case KNIGHT -> 1;
+                case BISHOP -> 2;
+                case ROOK -> 3;
+                case QUEEN -> 4;
+                default -> throw new IllegalArgumentException("Cannot promote to " + move.getPromotionPiece());
+            };
+        }
+        return (short) (from | to << 6 | promotion << 12);
+    }
+
+    private static ChessMove decodeMove(short encoded) {
+        int from = encoded & 0x3F;
+        int to = encoded >>> 6 & 0x3F;
+        return new ChessMove(SearchPosition.square(from / 8 + 1, from % 8 + 1),
+                SearchPosition.square(to / 8 + 1, to % 8 + 1), PROMOTIONS[encoded >>> 12 & 0x7]);
+    }
+}
@@ -0,0 +1,230 @@
+package chess.book;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.InvalidMoveException;
+import chess.engine.Zobrist;
+import chess.notation.Fen;
+import chess.notation.MoveReplayer;
+import chess.notation.PgnGame;
+import chess.notation.PgnReader;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Compiles an {@link OpeningBook} from a PGN corpus.
+ * <p>
+ * Games are read one at a time and replayed only as far as the book reaches,
+ * so the corpus is never held in memory; only the tallies for each position
+ * and move are. A move's weight is the half-points it scored for the side
+ * that played it, two for a win and one for a draw, scaled down if needed to
+ * fit the file. Moves that never scored, and moves seen in fewer than the
+ * minimum number of games, are left out.
+ * </p>
+ */
+public class OpeningBookBuilder {
+    public static final int DEFAULT_MAX_PLY = 24;
+    public static final int DEFAULT_MIN_GAMES = 3;
+
+    private static final int IO_BUFFER_SIZE = 1 << 16;
+    private static final int MAX_WEIGHT = 0xFFFF;
+
+    private final int maxPly;
+    private final int minGames;
+    private final Map<Key, Tally> tallies = new HashMap<>();
+    private long games;
+    private long skipped;
+
+    private record Key(long position, short move) {
+    }
+
+    private static final class Tally {
+        int games;
+        long points;
+    }
+
+    private record Entry(long position, short move, long points, int games) {
+    }
+
+    /**
+     * Creates a builder.
+     *
+     * @param maxPly   How many half-moves into each game the book reaches
+     * @param minGames How many games a move must appear in to be kept
+     */
+    public OpeningBookBuilder(int maxPly, int minGames) {
+        if (maxPly <= 0 || minGames <= 0) {
+            throw new IllegalArgumentException("maxPly and minGames must be positive");
+        }
+        this.maxPly = maxPly;
+        this.minGames = minGames;
+    }
+
+    /**
+     * Adds every remaining game from a reader.
+     *
+     * @param reader The games
+     * @return The number of games added
+     * @throws IOException if reading fails
+     */
+    public long addAll(PgnReader reader) throws IOException {
+        long added = 0;
+        for (PgnGame game = reader.next(); game != null; game = reader.next()) {
+            if (add(game)) {
+                added++;
+            }
+        }
+        return added;
+    }
+
+    /**
+     * Adds one game's opening moves.
+     *
+     * @param game The game
+     * @return Whether the game was added; games whose opening cannot be
+     *         replayed are skipped
+     */
+    public boolean add(PgnGame game) {
+        List<Key> plies = new ArrayList<>();
+        List<ChessGame.TeamColor> movers = new ArrayList<>();
+        try {
+            String fen = game.tag("FEN");
+            MoveReplayer replayer = fen != null ? new MoveReplayer(Fen.parse(fen)) : new MoveReplayer();
+            for (String san : game.moves().subList(0, Math.min(maxPly, game.moves().size()))) {
+                long position = Zobrist.hash(replayer.game());
+                ChessGame.TeamColor mover = replayer.game().getTeamTurn();
+                ChessMove move = replayer.play(san);
+                plies.add(new Key(position, OpeningBook.encodeMove(move)));
+                movers.add(mover);
+            }
+        } catch (InvalidMoveException | IllegalArgumentException e) {
+            skipped++;
+            return false;
+        }
+
+        for (int i = 0; i < plies.size(); i++) {
+            Tally tally = tallies.computeIfAbsent(plies.get(i), key -> new Tally());
+            tally.games++;
+            tally.points += points(game.result(), movers.get(i));
+        }
+        games++;
+        return true;
+    }
+
+    /**
+     * Gets the number of games added so far.
+     *
+     * @return The number of games
+     */
+    public long games() {
+        return games;
+    }
+
+    /**
+     * Gets the number of games skipped so far.
+     *
+     * @return The number of games
+     */
+    public long skipped() {
+        return skipped;
+    }
+
+    /**
+     * Writes the book. It is written beside the destination and moved into
+     * place, so processes that have the old book mapped keep reading it and
+     * no process ever maps a partly written file.
+     *
+     * @param file The destination, replaced if it exists
+     * @return The number of entries written
+     * @throws IOException if writing fails
+     */
+    public int write(Path file) throws IOException {
+        List<Entry> entries = new ArrayList<>();
+        long heaviest = 0;
+        for (Map.Entry<Key, Tally> tally : tallies.entrySet()) {
+            Tally counts = tally.getValue();
+            if (counts.games >= minGames && counts.points > 0) {
+                entries.add(new Entry(tally.getKey().position(), tally.getKey().move(), counts.points, counts.games));
+                heaviest = Math.max(heaviest, counts.points);
+            }
+        }
+        entries.sort(Comparator.comparingLong(Entry::position)
+                .thenComparing(Comparator.comparingLong(Entry::points).reversed())
+                .thenComparingInt(Entry::move));
+        double scale = heaviest > MAX_WEIGHT ? (double) MAX_WEIGHT / heaviest : 1;
+
+        Path directory = file.toAbsolutePath().getParent();
+        Path temp = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(temp), IO_BUFFER_SIZE))) {
+                out.writeInt(OpeningBook.MAGIC);
+                out.writeInt(OpeningBook.VERSION);
+                out.writeLong(entries.size());
+                for (Entry entry : entries) {
+                    out.writeLong(entry.position());
+                    out.writeShort(entry.move());
+                    // Scaling never rounds a move that scored down to nothing
+                    out.writeShort((int) Math.max(1, Math.round(entry.points() * scale)));
+                    out.writeInt(entry.games());
+                }
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        return entries.size();
+    }
+
+    private static int points(String result, ChessGame.TeamColor mover) {
+        return switch (result) {
+            case "1-0" -> mover == ChessGame.TeamColor.WHITE ? 2 : 0;
+            case "0-1" -> mover == ChessGame.TeamColor.BLACK ? 2 : 0;
+            case "1/2-1/2" -> 1;
+            default -> 0;
+        };
+    }
+
+    /**
+     * Builds a book from a PGN file.
+     * <p>
+     * Usage: {@code <games.pgn> <book> [maxPly] [minGames]}
+     * </p>
+     *
+     * @param args The command line
+     */
+    public static void main(String[] args) {
+        if (args.length < 2 || args.length > 4) {
+            System.err.println("Usage: OpeningBookBuilder <games.pgn> <book> [maxPly] [minGames]");
+            System.exit(2);
+        }
+        try {
+            long start = System.nanoTime();
+            OpeningBookBuilder builder = new OpeningBookBuilder(
+                    args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_MAX_PLY,
+                    args.length > 3 ? Integer.parseInt(args[3]) : DEFAULT_MIN_GAMES);
+            try (PgnReader reader = new PgnReader(
+                    Files.newBufferedReader(Path.of(args[0]), StandardCharsets.UTF_8))) {
+                builder.addAll(reader);
+            }
+            int entries = builder.write(Path.of(args[1]));
+            System.out.printf(Locale.ROOT, "[OpeningBookBuilder] Done: %d games (%d skipped), %d entries in %.1fs%n",
+                    builder.games(), builder.skipped(), entries, (System.nanoTime() - start) / 1e9);
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("[OpeningBookBuilder] Failed: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package chess.engine;
+
+/**
+ * Scores positions for the search.
+ */
+public interface Evaluator {
+    /**
+     * Scores a position that is not checkmate or stalemate.
+     *
+     * @param position The position
+     * @return The score in centipawns, positive when the side to move is better
+     */
+    int evaluate(SearchPosition position);
+}
@@ -0,0 +1,43 @@
+package chess.engine;
+
+import chess.ChessPiece;
+import chess.ChessPiece.PieceType;
+
+/**
+ * Scores a position by counting material.
+ */
+public class MaterialEvaluator implements Evaluator {
+
+    /**
+     * Gets the conventional value of a piece.
+     *
+     * @param type The piece type
+     * @return The value in centipawns; kings are worth nothing, since both sides
+     *         always have one
+     */
+    public static int value(PieceType type) {
+        return switch (type) {
+            case PAWN -> 100;
+            case KNIGHT -> 320;
+            case BISHOP -> 330;
+            case ROOK -> 500;
+            case QUEEN -> 900;
+            case KING -> 0;
+        };
+    }
+
+    @Override
+    public int evaluate(SearchPosition position) {
+        int score = 0;
+        for (int row = 1; row <= 8; row++) {
+            for (int col = 1; col <= 8; col++) {
+                ChessPiece piece = position.pieceAt(row, col);
+                if (piece != null) {
+                    int value = value(piece.getPieceType());
+                    score += piece.getTeamColor() == position.sideToMove() ? value : -value;
+                }
+            }
+        }
+        return score;
+    }
+}
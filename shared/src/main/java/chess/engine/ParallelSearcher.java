@@ -0,0 +1,190 @@
+package chess.engine;
+
+import chess.ChessGame;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Searches one position on several threads at once (Lazy SMP).
+ * <p>
+ * Each thread runs an ordinary {@link Searcher} on its own copy of the game,
+ * and all of them share one {@link TranspositionTable}. Threads do not divide
+ * up the tree. Instead, helper threads start at slightly different depths and
+ * order quiet moves differently, so they fill the table with results the main
+ * thread then finds. The main thread's limits decide when the search ends;
+ * helpers are stopped as soon as it does. The deepest result any thread
+ * completed is returned, preferring the main thread's on a tie.
+ * </p>
+ * <p>
+ * Helpers run on a fixed pool of daemon threads owned by this searcher. Several
+ * searches may run at once, and each chooses its own thread count up to the
+ * pool size plus the calling thread.
+ * </p>
+ */
+public class ParallelSearcher implements AutoCloseable {
+    private final Supplier<? extends Evaluator> evaluators;
+    private final TranspositionTable table;
+    private final int maxThreads;
+    private final ExecutorService helpers;
+    private final Set<Searcher> running = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Creates a searcher for up to one thread per processor, scoring material
+     * and piece placement and using a table of the default size.
+     */
+    public ParallelSearcher() {
+        this(PieceSquareEvaluator::new, new TranspositionTable(TranspositionTable.DEFAULT_SIZE_MB),
+                Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates a searcher.
+     *
+     * @param evaluators Makes an evaluator for each thread, so evaluators may
+     *                   keep state
+     * @param table      The table all threads share
+     * @param maxThreads The most threads one search may use, including the
+     *                   caller's
+     */
+    public ParallelSearcher(Supplier<? extends Evaluator> evaluators, TranspositionTable table, int maxThreads) {
+        if (maxThreads < 1) {
+            throw new IllegalArgumentException("maxThreads must be at least 1");
+        }
+        this.evaluators = evaluators;
+        this.table = table;
+        this.maxThreads = maxThreads;
+        AtomicInteger count = new AtomicInteger();
+        helpers = Executors.newFixedThreadPool(Math.max(1, maxThreads - 1), runnable -> {
+            Thread thread = new Thread(runnable, "search-helper-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Gets the most threads one search may use.
+     *
+     * @return The thread limit
+     */
+    public int maxThreads() {
+        return maxThreads;
+    }
+
+    /**
+     * Searches for the side to move's best move.
+     *
+     * @param game    The game, which is not changed
+     * @param limits  When to stop
+     * @param threads The threads to use, including the calling thread
+     * @return The best result found
+     * @throws IllegalArgumentException if the game is over or the thread count
+     *                                  is out of range
+     */
+    public SearchResult search(ChessGame game, SearchLimits limits, int threads) {
+        return search(game, limits, threads, result -> { });
+    }
+
+    /**
+     * Searches for the side to move's best move, reporting each iteration the
+     * main thread completes.
+     *
+     * @param game        The game, which is not changed
+     * @param limits      When to stop
+     * @param threads     The threads to use, including the calling thread
+     * @param onIteration Called with each iteration the main thread completes
+     * @return The best result found
+     * @throws IllegalArgumentException if the game is over or the thread count
+     *                                  is out of range
+     */
+    public SearchResult search(ChessGame game, SearchLimits limits, int threads,
+            Consumer<SearchResult> onIteration) {
+        if (threads < 1 || threads > maxThreads) {
+            throw new IllegalArgumentException("threads must be between 1 and " + maxThreads);
+        }
+        if (game.getTeamTurn() == null) {
+            throw new IllegalArgumentException("Cannot search a finished game");
+        }
+
+        long start = System.nanoTime();
+        table.newSearch();
+        AtomicBoolean mainDone = new AtomicBoolean();
+        // Helpers only stop when the main thread does, but never go deeper than asked
+        SearchLimits helperLimits = SearchLimits.depth(limits.maxDepth());
+        List<Searcher> helperSearchers = new ArrayList<>();
+        List<Future<SearchResult>> helperResults = new ArrayList<>();
+        for (int i = 1; i < threads; i++) {
+            Searcher helper = new Searcher(evaluators.get(), table, i);
+            ChessGame copy = game.copy();
+            helperSearchers.add(helper);
+            helperResults.add(helpers.submit(() -> helper.run(copy, helperLimits, result -> { }, mainDone::get)));
+        }
+
+        // A new searcher starts unstopped and run() keeps a stop made before it starts, so none is lost here
+        Searcher main = new Searcher(evaluators.get(), table, 0);
+        running.add(main);
+        SearchResult best;
+        try {
+            best = main.run(game, limits, onIteration, () -> false);
+        } finally {
+            running.remove(main);
+            mainDone.set(true);
+        }
+
+        long nodes = main.nodes();
+        for (int i = 0; i < helperResults.size(); i++) {
+            Future<SearchResult> pending = helperResults.get(i);
+            // Helpers still queued behind other searches are no use now
+            if (pending.cancel(false)) {
+                continue;
+            }
+            SearchResult result;
+            try {
+                result = pending.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Search helper failed", e.getCause());
+            }
+            nodes += helperSearchers.get(i).nodes();
+            if (result != null && best != null && best.bestMove() != null && result.depth() > best.depth()) {
+                best = result;
+            }
+        }
+        if (best == null || best.bestMove() == null) {
+            return best;
+        }
+        return new SearchResult(best.bestMove(), best.score(), best.depth(), nodes,
+                Duration.ofNanos(System.nanoTime() - start), best.principalVariation());
+    }
+
+    /**
+     * Asks every running search to stop. Each returns the best result it has.
+     */
+    public void stop() {
+        for (Searcher searcher : running) {
+            searcher.stop();
+        }
+    }
+
+    /**
+     * Stops the helper threads. Searches already running finish on the calling
+     * thread alone.
+     */
+    @Override
+    public void close() {
+        helpers.shutdownNow();
+    }
+}
@@ -0,0 +1,39 @@
+package chess.engine;
+
+import chess.ChessPiece;
+
+/**
+ * Follows the pieces on a {@link SearchPosition} as moves are made and taken
+ * back, so state derived from the board can be updated instead of recomputed.
+ * <p>
+ * Taking a move back reports the exact reverse of making it, so a listener
+ * that adds on placement and subtracts on removal ends where it started.
+ * </p>
+ */
+public interface PositionListener {
+    /**
+     * Starts following a position, discarding anything derived from an earlier
+     * one.
+     *
+     * @param position The position, with its current pieces
+     */
+    void reset(SearchPosition position);
+
+    /**
+     * Reports a piece leaving a square.
+     *
+     * @param piece The piece
+     * @param row   The square's row
+     * @param col   The square's column
+     */
+    void pieceRemoved(ChessPiece piece, int row, int col);
+
+    /**
+     * Reports a piece arriving on a square.
+     *
+     * @param piece The piece
+     * @param row   The square's row
+     * @param col   The square's column
+     */
+    void piecePlaced(ChessPiece piece, int row, int col);
+}
@@ -0,0 +1,84 @@
+package chess.engine;
+
+import java.time.Duration;
+
+/**
+ * When a search stops. A search stops at whichever limit it reaches first, and
+ * always completes at least depth 1 so it has a move to play.
+ *
+ * @param maxDepth The deepest iteration to search, in plies
+ * @param maxTime  The time allowed, or null for no time limit
+ * @param maxNodes The number of positions allowed, or 0 for no node limit
+ */
+public record SearchLimits(int maxDepth, Duration maxTime, long maxNodes) {
+    public static final int MAX_DEPTH = 64;
+
+    public SearchLimits {
+        if (maxDepth < 1 || maxDepth > MAX_DEPTH) {
+            throw new IllegalArgumentException("maxDepth must be between 1 and " + MAX_DEPTH);
+        }
+        if (maxNodes < 0) {
+            throw new IllegalArgumentException("maxNodes cannot be negative");
+        }
+    }
+
+    /**
+     * Limits a search to a depth.
+     *
+     * @param depth The depth in plies
+     * @return The limits
+     */
+    public static SearchLimits depth(int depth) {
+        return new SearchLimits(depth, null, 0);
+    }
+
+    /**
+     * Limits a search to a time.
+     *
+     * @param time The time allowed
+     * @return The limits
+     */
+    public static SearchLimits time(Duration time) {
+        return new SearchLimits(MAX_DEPTH, time, 0);
+    }
+
+    /**
+     * Limits a search to a number of positions.
+     *
+     * @param nodes The positions allowed
+     * @return The limits
+     */
+    public static SearchLimits nodes(long nodes) {
+        return new SearchLimits(MAX_DEPTH, null, nodes);
+    }
+
+    /**
+     * Adds a depth limit.
+     *
+     * @param depth The depth in plies
+     * @return The combined limits
+     */
+    public SearchLimits withDepth(int depth) {
+        return new SearchLimits(depth, maxTime, maxNodes);
+    }
+
+    /**
+     * Adds a time limit.
+     *
+     * @param time The time allowed
+     * @return The combined limits
+     */
+    public SearchLimits withTime(Duration time) {
+        return new SearchLimits(maxDepth, time, maxNodes);
+    }
+
+    /**
+     * Adds a node limit.
+     *
+     * @param nodes The positions allowed
+     * @return The combined limits
+     */
+    public SearchLimits withNodes(long nodes) {
+        return new SearchLimits(maxDepth, maxTime, nodes);
+    }
+}
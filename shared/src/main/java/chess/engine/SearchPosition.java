@@ -0,0 +1,415 @@
+package chess.engine;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPiece;
+import chess.ChessPiece.PieceType;
+import chess.ChessPosition;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A private, mutable copy of a game that the search plays moves on and takes
+ * them back.
+ * <p>
+ * Moves are applied to the board in place and undone from a stack, so the
+ * search never copies the board per node. Moves come from
+ * {@link ChessPiece#pieceMoves}, so the search plays by the same rules as
+ * {@link ChessGame}: a move is legal here exactly when
+ * {@link ChessGame#validMoves} allows it. Whether a king is attacked is worked
+ * out directly from the board rather than by generating the opponent's moves.
+ * </p>
+ */
+public class SearchPosition {
+    private static final ChessPosition[][] SQUARES = new ChessPosition[9][9];
+    private static final int[][] KNIGHT_STEPS =
+            {{1, 2}, {2, 1}, {2, -1}, {1, -2}, {-1, -2}, {-2, -1}, {-2, 1}, {-1, 2}};
+    private static final int[][] KING_STEPS = {{1, 0}, {1, 1}, {0, 1}, {-1, 1}, {-1, 0}, {-1, -1}, {0, -1}, {1, -1}};
+    private static final int[][] ROOK_RAYS = {{1, 0}, {0, 1}, {-1, 0}, {0, -1}};
+    private static final int[][] BISHOP_RAYS = {{1, 1}, {-1, 1}, {-1, -1}, {1, -1}};
+
+    static {
+        for (int row = 1; row <= 8; row++) {
+            for (int col = 1; col <= 8; col++) {
+                SQUARES[row][col] = new ChessPosition(row, col);
+            }
+        }
+    }
+
+    // Everything needed to take a move back
+    private static final class Undo {
+        ChessMove move;
+        ChessPiece moved;
+        ChessPiece captured;
+        boolean movedBefore;
+        long hash;
+    }
+
+    private final ChessBoard board;
+    private ChessGame.TeamColor sideToMove;
+    private long hash;
+    private final int[] kingRow = new int[2];
+    private final int[] kingCol = new int[2];
+    private Undo[] undo = new Undo[64];
+    private int ply;
+    private PositionListener listener;
+
+    /**
+     * Copies a game to search from. The game itself is never changed.
+     *
+     * @param game The game, which must not be over
+     * @throws IllegalArgumentException if the game is over or a king is missing
+     */
+    public SearchPosition(ChessGame game) {
+        if (game.getTeamTurn() == null) {
+            throw new IllegalArgumentException("Cannot search a finished game");
+        }
+        board = game.copy().getBoard();
+        sideToMove = game.getTeamTurn();
+        for (int i = 0; i < undo.length; i++) {
+            undo[i] = new Undo();
+        }
+        for (ChessGame.TeamColor color : ChessGame.TeamColor.values()) {
+            if (!findKing(color)) {
+                throw new IllegalArgumentException("No " + color + " king on the board");
+            }
+        }
+        hash = Zobrist.hash(board, sideToMove);
+    }
+
+    /**
+     * Gets the square object for a row and column, without allocating.
+     *
+     * @param row The row, 1 to 8
+     * @param col The column, 1 to 8
+     * @return The shared position for that square
+     */
+    public static ChessPosition square(int row, int col) {
+        return SQUARES[row][col];
+    }
+
+    /**
+     * Gets the side to move.
+     *
+     * @return The color to move
+     */
+    public ChessGame.TeamColor sideToMove() {
+        return sideToMove;
+    }
+
+    /**
+     * Sets the listener told about every piece that moves, replacing any
+     * earlier one.
+     *
+     * @param listener The listener, or null for none
+     */
+    public void setListener(PositionListener listener) {
+        this.listener = listener;
+        if (listener != null) {
+            listener.reset(this);
+        }
+    }
+
+    /**
+     * Gets the position's Zobrist hash, kept up to date as moves are made.
+     *
+     * @return The hash, as {@link Zobrist#hash(ChessBoard, ChessGame.TeamColor)}
+     *         would compute it
+     */
+    public long hash() {
+        return hash;
+    }
+
+    /**
+     * Gets the number of moves made since the position was copied.
+     *
+     * @return The depth below the root
+     */
+    public int ply() {
+        return ply;
+    }
+
+    /**
+     * Gets the piece on a square.
+     *
+     * @param row The row, 1 to 8
+     * @param col The column, 1 to 8
+     * @return The piece, or null if the square is empty
+     */
+    public ChessPiece pieceAt(int row, int col) {
+        return board.getPiece(SQUARES[row][col]);
+    }
+
+    /**
+     * Gets the piece on a square.
+     *
+     * @param position The square
+     * @return The piece, or null if the square is empty
+     */
+    public ChessPiece pieceAt(ChessPosition position) {
+        return board.getPiece(position);
+    }
+
+    /**
+     * Lists the side to move's moves, including ones that would leave its king
+     * in check. {@link #makeMove} rejects those.
+     *
+     * @return The pseudo-legal moves
+     */
+    public List<ChessMove> pseudoLegalMoves() {
+        List<ChessMove> moves = new ArrayList<>(48);
+        for (int row = 1; row <= 8; row++) {
+            for (int col = 1; col <= 8; col++) {
+                ChessPiece piece = board.getPiece(SQUARES[row][col]);
+                if (piece != null && piece.getTeamColor() == sideToMove) {
+                    moves.addAll(piece.pieceMoves(board, SQUARES[row][col]));
+                }
+            }
+        }
+        return moves;
+    }
+
+    /**
+     * Lists the side to move's captures and queen promotions, including ones
+     * that would leave its king in check. Promotions to other pieces are left
+     * out; they are almost never better than a queen.
+     *
+     * @return The pseudo-legal captures and promotions
+     */
+    public List<ChessMove> tacticalMoves() {
+        List<ChessMove> moves = new ArrayList<>(16);
+        for (int row = 1; row <= 8; row++) {
+            for (int col = 1; col <= 8; col++) {
+                ChessPiece piece = board.getPiece(SQUARES[row][col]);
+                if (piece == null || piece.getTeamColor() != sideToMove) {
+                    continue;
+                }
+                for (ChessMove move : piece.pieceMoves(board, SQUARES[row][col])) {
+                    PieceType promotion = move.getPromotionPiece();
+                    if (promotion == PieceType.QUEEN
+                            || (promotion == null && board.getPiece(move.getEndPosition()) != null)) {
+                        moves.add(move);
+                    }
+                }
+            }
+        }
+        return moves;
+    }
+
+    /**
+     * Lists the side to move's legal moves.
+     *
+     * @return The legal moves
+     */
+    public List<ChessMove> legalMoves() {
+        List<ChessMove> legal = new ArrayList<>();
+        for (ChessMove move : pseudoLegalMoves()) {
+            if (makeMove(move)) {
+                unmakeMove();
+                legal.add(move);
+            }
+        }
+        return legal;
+    }
+
+    /**
+     * Plays a pseudo-legal move for the side to move. A move that leaves the
+     * mover's king attacked is taken back and rejected.
+     *
+     * @param move A move from {@link #pseudoLegalMoves()}
+     * @return Whether the move was legal and is now on the board
+     */
+    public boolean makeMove(ChessMove move) {
+        if (ply == undo.length) {
+            Undo[] grown = new Undo[ply * 2];
+            System.arraycopy(undo, 0, grown, 0, ply);
+            for (int i = ply; i < grown.length; i++) {
+                grown[i] = new Undo();
+            }
+            undo = grown;
+        }
+
+        ChessPosition from = move.getStartPosition();
+        ChessPosition to = move.getEndPosition();
+        ChessPiece piece = board.getPiece(from);
+        Undo entry = undo[ply++];
+        entry.move = move;
+        entry.moved = piece;
+        entry.captured = board.getPiece(to);
+        entry.movedBefore = piece.isHasMoved();
+        entry.hash = hash;
+
+        ChessPiece placed = move.getPromotionPiece() == null ? piece
+                : new ChessPiece(piece.getTeamColor(), move.getPromotionPiece(), true);
+        hash ^= Zobrist.pieceKey(piece, from.getRow(), from.getColumn())
+                ^ Zobrist.pieceKey(placed, to.getRow(), to.getColumn()) ^ Zobrist.sideKey();
+        if (entry.captured != null) {
+            hash ^= Zobrist.pieceKey(entry.captured, to.getRow(), to.getColumn());
+        }
+        board.addPiece(from, null);
+        board.addPiece(to, placed);
+        piece.setHasMoved(true);
+        if (listener != null) {
+            listener.pieceRemoved(piece, from.getRow(), from.getColumn());
+            if (entry.captured != null) {
+                listener.pieceRemoved(entry.captured, to.getRow(), to.getColumn());
+            }
+            listener.piecePlaced(placed, to.getRow(), to.getColumn());
+        }
+        if (piece.getPieceType() == PieceType.KING) {
+            kingRow[piece.getTeamColor().ordinal()] = to.getRow();
+            kingCol[piece.getTeamColor().ordinal()] = to.getColumn();
+        }
+
+        ChessGame.TeamColor mover = sideToMove;
+        sideToMove = mover.not();
+        if (isAttacked(kingRow[mover.ordinal()], kingCol[mover.ordinal()], sideToMove)) {
+            unmakeMove();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Takes back the last move made.
+     */
+    public void unmakeMove() {
+        Undo entry = undo[--ply];
+        ChessPiece piece = entry.moved;
+        ChessPosition from = entry.move.getStartPosition();
+        ChessPosition to = entry.move.getEndPosition();
+
+        if (listener != null) {
+            listener.pieceRemoved(board.getPiece(to), to.getRow(), to.getColumn());
+            if (entry.captured != null) {
+                listener.piecePlaced(entry.captured, to.getRow(), to.getColumn());
+            }
+            listener.piecePlaced(piece, from.getRow(), from.getColumn());
+        }
+        board.addPiece(to, entry.captured);
+        board.addPiece(from, piece);
+        piece.setHasMoved(entry.movedBefore);
+        if (piece.getPieceType() == PieceType.KING) {
+            kingRow[piece.getTeamColor().ordinal()] = from.getRow();
+            kingCol[piece.getTeamColor().ordinal()] = from.getColumn();
+        }
+        sideToMove = sideToMove.not();
+        hash = entry.hash;
+        entry.move = null;
+        entry.moved = null;
+        entry.captured = null;
+    }
+
+    /**
+     * Gets the piece the last move captured.
+     *
+     * @return The captured piece, or null if the last move was quiet or no move
+     *         has been made
+     */
+    public ChessPiece lastCaptured() {
+        return ply == 0 ? null : undo[ply - 1].captured;
+    }
+
+    /**
+     * Checks whether the side to move is in check.
+     *
+     * @return Whether its king is attacked
+     */
+    public boolean inCheck() {
+        int side = sideToMove.ordinal();
+        return isAttacked(kingRow[side], kingCol[side], sideToMove.not());
+    }
+
+    /**
+     * Checks whether any piece of a color attacks a square.
+     *
+     * @param row The square's row
+     * @param col The square's column
+     * @param by  The attacking color
+     * @return Whether the square is attacked
+     */
+    public boolean isAttacked(int row, int col, ChessGame.TeamColor by) {
+        int pawnRow = row + (by == ChessGame.TeamColor.WHITE ? -1 : 1);
+        if (is(pawnRow, col - 1, by, PieceType.PAWN) || is(pawnRow, col + 1, by, PieceType.PAWN)) {
+            return true;
+        }
+        for (int[] step : KNIGHT_STEPS) {
+            if (is(row + step[0], col + step[1], by, PieceType.KNIGHT)) {
+                return true;
+            }
+        }
+        for (int[] step : KING_STEPS) {
+            if (is(row + step[0], col + step[1], by, PieceType.KING)) {
+                return true;
+            }
+        }
+        return rayAttacked(row, col, by, ROOK_RAYS, PieceType.ROOK)
+                || rayAttacked(row, col, by, BISHOP_RAYS, PieceType.BISHOP);
+    }
+
+    /**
+     * Builds a game from the current position.
+     *
+     * @return A new game with a copy of the board
+     */
+    public ChessGame toGame() {
+        ChessGame game = new ChessGame();
+        ChessBoard copy = new ChessBoard();
+        for (int row = 1; row <= 8; row++) {
+            for (int col = 1; col <= 8; col++) {
+                ChessPiece piece = board.getPiece(SQUARES[row][col]);
+                if (piece != null) {
+                    copy.addPiece(SQUARES[row][col], piece.clone());
+                }
+            }
+        }
+        game.setBoard(copy);
+        game.setTeamTurn(sideToMove);
+        return game;
+    }
+
+    // Sliders of the ray's kind, or a queen, attack along it until something blocks
+    private boolean rayAttacked(int row, int col, ChessGame.TeamColor by, int[][] rays, PieceType slider) {
+        for (int[] ray : rays) {
+            int r = row + ray[0];
+            int c = col + ray[1];
+            while (r >= 1 && r <= 8 && c >= 1 && c <= 8) {
+                ChessPiece piece = board.getPiece(SQUARES[r][c]);
+                if (piece != null) {
+                    if (piece.getTeamColor() == by
+                            && (piece.getPieceType() == slider || piece.getPieceType() == PieceType.QUEEN)) {
+                        return true;
+                    }
+                    break;
+                }
+                r += ray[0];
+                c += ray[1];
+            }
+        }
+        return false;
+    }
+
+    private boolean is(int row, int col, ChessGame.TeamColor color, PieceType type) {
+        if (row < 1 || row > 8 || col < 1 || col > 8) {
+            return false;
+        }
+        ChessPiece piece = board.getPiece(SQUARES[row][col]);
+        return piece != null && piece.getTeamColor() == color && piece.getPieceType() == type;
+    }
+
+    private boolean findKing(ChessGame.TeamColor color) {
+        for (int row = 1; row <= 8; row++) {
+            for (int col = 1; col <= 8; col++) {
+                ChessPiece piece = board.getPiece(SQUARES[row][col]);
+                if (piece != null && piece.getTeamColor() == color && piece.getPieceType() == PieceType.KING) {
+                    kingRow[color.ordinal()] = row;
+                    kingCol[color.ordinal()] = col;
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,51 @@
+package chess.engine;
+
+import chess.ChessMove;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * The outcome of a search, or of one iteration of it.
+ *
+ * @param bestMove           The move to play, or null if the side to move has
+ *                           none
+ * @param score              The score in centipawns for the side to move; see
+ *                           {@link #isMate()}
+ * @param depth              The deepest iteration completed
+ * @param nodes              The number of positions visited
+ * @param elapsed            The time spent searching
+ * @param principalVariation The expected line of play, starting with the best
+ *                           move
+ */
+public record SearchResult(ChessMove bestMove, int score, int depth, long nodes, Duration elapsed,
+        List<ChessMove> principalVariation) {
+
+    /**
+     * Checks whether the score is a forced mate for either side.
+     *
+     * @return Whether a mate was found
+     */
+    public boolean isMate() {
+        return Math.abs(score) >= Searcher.MATE - SearchLimits.MAX_DEPTH * 2;
+    }
+
+    /**
+     * Gets the number of moves until mate, when {@link #isMate()}.
+     *
+     * @return Full moves to mate, negative when the side to move is mated
+     */
+    public int mateIn() {
+        int plies = Searcher.MATE - Math.abs(score);
+        return score > 0 ? (plies + 1) / 2 : -(plies / 2);
+    }
+
+    /**
+     * Gets the search speed.
+     *
+     * @return Positions per second
+     */
+    public long nodesPerSecond() {
+        return (long) (nodes / (Math.max(elapsed.toNanos(), 1) / 1e9));
+    }
+}
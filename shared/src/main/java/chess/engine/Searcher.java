@@ -0,0 +1,467 @@
+package chess.engine;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPiece;
+import chess.ChessPiece.PieceType;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+/**
+ * Finds the best move in a position with an iterative-deepening alpha-beta
+ * search.
+ * <p>
+ * Each iteration is a negamax principal variation search one ply deeper than
+ * the last. The previous iteration's principal variation is searched first,
+ * then captures (most valuable victim first), then killer moves, so most
+ * cutoffs come early. Moves are played and taken back on a single
+ * {@link SearchPosition}, and a side in check is searched one ply deeper.
+ * At the full depth a quiescence search plays out captures and promotions,
+ * skipping those that lose material by static exchange evaluation, so no
+ * position is scored with a piece left hanging.
+ * Results are kept in a {@link TranspositionTable}, which cuts off positions
+ * reached again by another move order and supplies a best move to try first
+ * when a position is searched again. There is no move history, so
+ * repetitions are not detected.
+ * </p>
+ * <p>
+ * A searcher runs one search at a time. {@link #stop()} may be called from
+ * another thread to end the current search early. Searchers may share a
+ * table.
+ * </p>
+ */
+public class Searcher {
+    public static final int MATE = 32000;
+    public static final int MAX_PLY = 128;
+
+    private static final int INFINITY = MATE + 1;
+    private static final int MATE_BOUND = MATE - MAX_PLY;
+    private static final int CHECK_INTERVAL = 1024;
+    // Positional swing a capture may bring on top of the material it wins
+    private static final int DELTA_MARGIN = 200;
+
+    private final Evaluator evaluator;
+    private final TranspositionTable table;
+    private final int helperId;
+    private volatile boolean stopRequested;
+    private BooleanSupplier stopSignal;
+
+    private SearchPosition position;
+    private long nodes;
+    private long nodeLimit;
+    private long deadline;
+    private boolean canAbort;
+    private boolean aborted;
+    private final ChessMove[][] pv = new ChessMove[MAX_PLY + 1][MAX_PLY + 1];
+    private final int[] pvLength = new int[MAX_PLY + 1];
+    private final ChessMove[][] killers = new ChessMove[MAX_PLY + 1][2];
+    private ChessMove[] previousPv = new ChessMove[0];
+
+    /**
+     * Creates a searcher that scores material and piece placement.
+     */
+    public Searcher() {
+        this(new PieceSquareEvaluator());
+    }
+
+    /**
+     * Creates a searcher with a table of its own.
+     *
+     * @param evaluator How to score positions at the end of the search
+     */
+    public Searcher(Evaluator evaluator) {
+        this(evaluator, new TranspositionTable(TranspositionTable.DEFAULT_SIZE_MB));
+    }
+
+    /**
+     * Creates a searcher.
+     *
+     * @param evaluator How to score positions at the end of the search
+     * @param table     Where to keep search results, possibly shared with other
+     *                  searchers
+     */
+    public Searcher(Evaluator evaluator, TranspositionTable table) {
+        this(evaluator, table, 0);
+    }
+
+    /**
+     * Creates a searcher that may be one of several searching the same
+     * position.
+     *
+     * @param helperId 0 for a searcher whose result is used; otherwise a number
+     *                 that varies the search, so helpers sharing a table with
+     *                 it explore different parts of the tree
+     */
+    Searcher(Evaluator evaluator, TranspositionTable table, int helperId) {
+        this.evaluator = evaluator;
+        this.table = table;
+        this.helperId = helperId;
+    }
+
+    /**
+     * Searches for the side to move's best move.
+     *
+     * @param game   The game, which is not changed
+     * @param limits When to stop
+     * @return The result of the deepest completed iteration
+     * @throws IllegalArgumentException if the game is over
+     */
+    public SearchResult search(ChessGame game, SearchLimits limits) {
+        return search(game, limits, result -> { });
+    }
+
+    /**
+     * Searches for the side to move's best move, reporting each completed
+     * iteration.
+     *
+     * @param game        The game, which is not changed
+     * @param limits      When to stop
+     * @param onIteration Called with the result of each completed iteration
+     * @return The result of the deepest completed iteration
+     * @throws IllegalArgumentException if the game is over
+     */
+    public SearchResult search(ChessGame game, SearchLimits limits, Consumer<SearchResult> onIteration) {
+        table.newSearch();
+        stopRequested = false;
+        return run(game, limits, onIteration, () -> false);
+    }
+
+    /**
+     * Runs a search without starting a new table age, so several searchers can
+     * share one search. A {@link #stop()} made before the run starts is kept,
+     * so a searcher can be published for stopping before it runs.
+     *
+     * @param stopSignal Checked alongside {@link #stop()}; the search ends once it
+     *                   returns true
+     * @return The result of the deepest completed iteration, or null for a
+     *         helper stopped before it completed one
+     */
+    SearchResult run(ChessGame game, SearchLimits limits, Consumer<SearchResult> onIteration,
+            BooleanSupplier stopSignal) {
+        long start = System.nanoTime();
+        this.stopSignal = stopSignal;
+        position = new SearchPosition(game);
+        if (evaluator instanceof PositionListener listener) {
+            position.setListener(listener);
+        }
+        nodes = 0;
+        nodeLimit = limits.maxNodes();
+        deadline = limits.maxTime() == null ? Long.MAX_VALUE : start + limits.maxTime().toNanos();
+        aborted = false;
+        previousPv = new ChessMove[0];
+        for (ChessMove[] slot : killers) {
+            Arrays.fill(slot, null);
+        }
+
+        if (position.legalMoves().isEmpty()) {
+            int score = position.inCheck() ? -MATE : 0;
+            return new SearchResult(null, score, 0, 0, Duration.ofNanos(System.nanoTime() - start), List.of());
+        }
+
+        SearchResult best = null;
+        // Odd helpers skip a depth, so helpers are spread over two iterations
+        int firstDepth = Math.min(1 + (helperId & 1), limits.maxDepth());
+        for (int depth = firstDepth; depth <= limits.maxDepth(); depth++) {
+            // The first iteration always finishes, so there is always a move to play
+            canAbort = depth > 1 || helperId > 0;
+            int score = negamax(depth, -INFINITY, INFINITY, 0, true);
+            if (aborted) {
+                break;
+            }
+
+            List<ChessMove> line = new ArrayList<>(pvLength[0]);
+            for (int i = 0; i < pvLength[0]; i++) {
+                line.add(pv[0][i]);
+            }
+            previousPv = line.toArray(new ChessMove[0]);
+            long elapsed = System.nanoTime() - start;
+            best = new SearchResult(line.get(0), score, depth, nodes, Duration.ofNanos(elapsed), List.copyOf(line));
+            onIteration.accept(best);
+
+            if (Math.abs(score) >= MATE - depth) {
+                break;
+            }
+            // The next iteration takes several times as long as this one, so it would not finish
+            if (deadline != Long.MAX_VALUE && elapsed * 2 > deadline - start) {
+                break;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Asks the running search to stop. It returns the deepest iteration it has
+     * completed.
+     */
+    public void stop() {
+        stopRequested = true;
+    }
+
+    /**
+     * Searches one node.
+     *
+     * @param onPv Whether every move so far follows the previous iteration's
+     *             principal variation
+     */
+    private int negamax(int depth, int alpha, int beta, int ply, boolean onPv) {
+        pvLength[ply] = ply;
+        nodes++;
+        if (canAbort && ((nodes & (CHECK_INTERVAL - 1)) == 0 || nodeLimit > 0) && shouldAbort()) {
+            aborted = true;
+            return 0;
+        }
+
+        boolean inCheck = position.inCheck();
+        if (inCheck && ply < MAX_PLY) {
+            depth++;
+        }
+        if (depth <= 0 || ply >= MAX_PLY) {
+            return quiesce(alpha, beta, ply);
+        }
+
+        long hash = position.hash();
+        long entry = table.probe(hash);
+        ChessMove hashMove = TranspositionTable.move(entry);
+        // Principal variation nodes are searched in full so the variation stays complete
+        if (entry != 0 && ply > 0 && beta - alpha == 1 && TranspositionTable.depth(entry) >= depth) {
+            int score = fromTable(TranspositionTable.score(entry), ply);
+            int bound = TranspositionTable.bound(entry);
+            if (bound == TranspositionTable.EXACT
+                    || (bound == TranspositionTable.LOWER_BOUND && score >= beta)
+                    || (bound == TranspositionTable.UPPER_BOUND && score <= alpha)) {
+                return score;
+            }
+        }
+
+        List<ChessMove> moves = position.pseudoLegalMoves();
+        ChessMove pvMove = onPv && ply < previousPv.length ? previousPv[ply] : null;
+        int[] scores = orderScores(moves, ply, pvMove != null ? pvMove : hashMove);
+
+        int originalAlpha = alpha;
+        int best = -INFINITY;
+        ChessMove bestMove = null;
+        int legal = 0;
+        for (int i = 0; i < moves.size(); i++) {
+            ChessMove move = pickNext(moves, scores, i);
+            boolean capture = position.pieceAt(move.getEndPosition()) != null;
+            if (!position.makeMove(move)) {
+                continue;
+            }
+            legal++;
+            boolean childOnPv = onPv && move.equals(pvMove);
+
+            int score;
+            if (legal == 1) {
+                score = -negamax(depth - 1, -beta, -alpha, ply + 1, childOnPv);
+            } else {
+                // Later moves only need to be proved worse; re-search the rare one that is not
+                score = -negamax(depth - 1, -alpha - 1, -alpha, ply + 1, childOnPv);
+                if (score > alpha && score < beta && !aborted) {
+                    score = -negamax(depth - 1, -beta, -alpha, ply + 1, childOnPv);
+                }
+            }
+            position.unmakeMove();
+            if (aborted) {
+                return 0;
+            }
+
+            if (score > best) {
+                best = score;
+                bestMove = move;
+            }
+            if (score > alpha) {
+                alpha = score;
+                pv[ply][ply] = move;
+                System.arraycopy(pv[ply + 1], ply + 1, pv[ply], ply + 1, pvLength[ply + 1] - ply - 1);
+                pvLength[ply] = Math.max(pvLength[ply + 1], ply + 1);
+                if (alpha >= beta) {
+                    if (!capture && move.getPromotionPiece() == null) {
+                        storeKiller(ply, move);
+                    }
+                    break;
+                }
+            }
+        }
+
+        if (legal == 0) {
+            // Mates found nearer the root score higher, so the search prefers the quickest
+            return inCheck ? -MATE + ply : 0;
+        }
+
+        int bound = best >= beta ? TranspositionTable.LOWER_BOUND
+                : best > originalAlpha ? TranspositionTable.EXACT : TranspositionTable.UPPER_BOUND;
+        table.store(hash, bound == TranspositionTable.UPPER_BOUND ? null : bestMove, toTable(best, ply), depth, bound);
+        return best;
+    }
+
+    /**
+     * Plays out captures and queen promotions until the position is quiet, so
+     * a leaf is never scored in the middle of an exchange.
+     * <p>
+     * The side to move may stand pat on the static score instead of capturing.
+     * Captures that cannot raise the score to alpha even with a margin (delta
+     * pruning) and captures that lose material in the exchange are skipped. A
+     * side in check has no stand-pat option and searches every move instead.
+     * The node itself was counted by its parent; the principal variation is
+     * not extended here.
+     * </p>
+     */
+    private int quiesce(int alpha, int beta, int ply) {
+        pvLength[ply] = ply;
+        if (canAbort && ((nodes & (CHECK_INTERVAL - 1)) == 0 || nodeLimit > 0) && shouldAbort()) {
+            aborted = true;
+            return 0;
+        }
+
+        boolean inCheck = position.inCheck();
+        int standPat = -INFINITY;
+        if (!inCheck) {
+            standPat = evaluator.evaluate(position);
+            if (standPat >= beta || ply >= MAX_PLY) {
+                return standPat;
+            }
+            alpha = Math.max(alpha, standPat);
+        } else if (ply >= MAX_PLY) {
+            return evaluator.evaluate(position);
+        }
+
+        List<ChessMove> moves = inCheck ? position.pseudoLegalMoves() : position.tacticalMoves();
+        int[] scores = orderScores(moves, ply, null);
+        int best = standPat;
+        int legal = 0;
+        for (int i = 0; i < moves.size(); i++) {
+            ChessMove move = pickNext(moves, scores, i);
+            if (!inCheck) {
+                ChessPiece victim = position.pieceAt(move.getEndPosition());
+                int gain = victim == null ? 0 : MaterialEvaluator.value(victim.getPieceType());
+                if (move.getPromotionPiece() != null) {
+                    gain += MaterialEvaluator.value(move.getPromotionPiece())
+                            - MaterialEvaluator.value(PieceType.PAWN);
+                }
+                if (standPat + gain + DELTA_MARGIN <= alpha) {
+                    continue;
+                }
+                // Taking something worth at least the capturer cannot lose material, so only check the rest
+                ChessPiece attacker = position.pieceAt(move.getStartPosition());
+                if (victim != null && MaterialEvaluator.value(victim.getPieceType())
+                        < MaterialEvaluator.value(attacker.getPieceType())
+                        && StaticExchange.evaluate(position, move) < 0) {
+                    continue;
+                }
+            }
+            if (!position.makeMove(move)) {
+                continue;
+            }
+            legal++;
+            nodes++;
+            int score = -quiesce(-beta, -alpha, ply + 1);
+            position.unmakeMove();
+            if (aborted) {
+                return 0;
+            }
+
+            if (score > best) {
+                best = score;
+                if (score > alpha) {
+                    alpha = score;
+                    if (alpha >= beta) {
+                        break;
+                    }
+                }
+            }
+        }
+
+        if (inCheck && legal == 0) {
+            return -MATE + ply;
+        }
+        return best;
+    }
+
+    // The table is shared between plies, so mate scores are stored as distance from the stored position
+    private static int toTable(int score, int ply) {
+        if (score > MATE_BOUND) {
+            return score + ply;
+        }
+        return score < -MATE_BOUND ? score - ply : score;
+    }
+
+    private static int fromTable(int score, int ply) {
+        if (score > MATE_BOUND) {
+            return score - ply;
+        }
+        return score < -MATE_BOUND ? score + ply : score;
+    }
+
+    /**
+     * Gets the number of positions the last search visited, including an
+     * unfinished last iteration.
+     *
+     * @return The node count
+     */
+    long nodes() {
+        return nodes;
+    }
+
+    private boolean shouldAbort() {
+        return stopRequested || stopSignal.getAsBoolean() || (nodeLimit > 0 && nodes >= nodeLimit)
+                || System.nanoTime() > deadline;
+    }
+
+    private int[] orderScores(List<ChessMove> moves, int ply, ChessMove firstMove) {
+        int[] scores = new int[moves.size()];
+        for (int i = 0; i < scores.length; i++) {
+            ChessMove move = moves.get(i);
+            if (move.equals(firstMove)) {
+                scores[i] = 1_000_000;
+                continue;
+            }
+            ChessPiece victim = position.pieceAt(move.getEndPosition());
+            if (victim != null) {
+                ChessPiece attacker = position.pieceAt(move.getStartPosition());
+                scores[i] = 100_000 + MaterialEvaluator.value(victim.getPieceType()) * 10
+                        - MaterialEvaluator.value(attacker.getPieceType()) / 10;
+            } else if (move.getPromotionPiece() != null) {
+                scores[i] = 90_000 + MaterialEvaluator.value(move.getPromotionPiece());
+            } else if (move.equals(killers[ply][0])) {
+                scores[i] = 80_000;
+            } else if (move.equals(killers[ply][1])) {
+                scores[i] = 79_000;
+            } else if (helperId > 0) {
+                // Helpers shuffle quiet moves differently, so they reach different positions first
+                scores[i] = (move.hashCode() * 0x9E3779B9 ^ helperId * 0x85EBCA6B) >>> 24;
+            }
+        }
+        return scores;
+    }
+
+    // Selection sort one step at a time; a cutoff usually comes before the list is sorted
+    private static ChessMove pickNext(List<ChessMove> moves, int[] scores, int from) {
+        int bestIndex = from;
+        for (int i = from + 1; i < scores.length; i++) {
+            if (scores[i] > scores[bestIndex]) {
+                bestIndex = i;
+            }
+        }
+        if (bestIndex != from) {
+            ChessMove move = moves.get(bestIndex);
+            moves.set(bestIndex, moves.get(from));
+            moves.set(from, move);
+            int score = scores[bestIndex];
+            scores[bestIndex] = scores[from];
+            scores[from] = score;
+        }
+        return moves.get(from);
+    }
+
+    private void storeKiller(int ply, ChessMove move) {
+        if (!move.equals(killers[ply][0])) {
+            killers[ply][1] = killers[ply][0];
+            killers[ply][0] = move;
+        }
+    }
+}
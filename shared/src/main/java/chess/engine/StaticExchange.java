@@ -0,0 +1,149 @@
+package chess.engine;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPiece;
+import chess.ChessPiece.PieceType;
+
+/**
+ * Static exchange evaluation: what a capture wins once every piece bearing on
+ * the target square has had its chance to recapture.
+ * <p>
+ * Both sides recapture with their least valuable attacker and either side may
+ * stop when continuing would lose. Pieces lined up behind a slider join in as
+ * the pieces in front of them are used up. Nothing is played on the board, and
+ * pins and recaptures that promote are ignored, so the result is an estimate.
+ * The search uses it to skip captures that lose material.
+ * </p>
+ */
+public final class StaticExchange {
+    private static final int KING_VALUE = 20_000;
+    private static final int[][] KNIGHT_STEPS =
+            {{1, 2}, {2, 1}, {2, -1}, {1, -2}, {-1, -2}, {-2, -1}, {-2, 1}, {-1, 2}};
+    private static final int[][] KING_STEPS = {{1, 0}, {1, 1}, {0, 1}, {-1, 1}, {-1, 0}, {-1, -1}, {0, -1}, {1, -1}};
+    private static final int[][] ROOK_RAYS = {{1, 0}, {0, 1}, {-1, 0}, {0, -1}};
+    private static final int[][] BISHOP_RAYS = {{1, 1}, {-1, 1}, {-1, -1}, {1, -1}};
+
+    private StaticExchange() {
+    }
+
+    /**
+     * Estimates the material a move wins by the end of the exchange on its
+     * target square.
+     *
+     * @param position The position, with the side to move making the move
+     * @param move     A pseudo-legal move, usually a capture
+     * @return The expected gain in centipawns, negative if the move loses
+     *         material
+     */
+    public static int evaluate(SearchPosition position, ChessMove move) {
+        int row = move.getEndPosition().getRow();
+        int col = move.getEndPosition().getColumn();
+        ChessPiece mover = position.pieceAt(move.getStartPosition());
+        ChessPiece target = position.pieceAt(move.getEndPosition());
+        boolean[] gone = new boolean[64];
+        gone[index(move.getStartPosition().getRow(), move.getStartPosition().getColumn())] = true;
+
+        // gains[d] is what the side making capture d has won if the exchange stops after it
+        int[] gains = new int[32];
+        gains[0] = target == null ? 0 : value(target.getPieceType());
+        int onSquare = value(mover.getPieceType());
+        if (move.getPromotionPiece() != null) {
+            gains[0] += value(move.getPromotionPiece()) - value(PieceType.PAWN);
+            onSquare = value(move.getPromotionPiece());
+        }
+
+        ChessGame.TeamColor side = mover.getTeamColor().not();
+        int depth = 0;
+        while (depth < gains.length - 1) {
+            int from = leastValuableAttacker(position, row, col, side, gone);
+            if (from < 0) {
+                break;
+            }
+            depth++;
+            gains[depth] = onSquare - gains[depth - 1];
+            onSquare = value(position.pieceAt(from / 8 + 1, from % 8 + 1).getPieceType());
+            gone[from] = true;
+            side = side.not();
+        }
+        // Work back from the end: each side takes the exchange so far or stops, whichever is better
+        while (depth > 0) {
+            gains[depth - 1] = -Math.max(-gains[depth - 1], gains[depth]);
+            depth--;
+        }
+        return gains[0];
+    }
+
+    // Returns the attacker's square index, or -1 if the side has none left
+    private static int leastValuableAttacker(SearchPosition position, int row, int col, ChessGame.TeamColor side,
+            boolean[] gone) {
+        int pawnRow = row + (side == ChessGame.TeamColor.WHITE ? -1 : 1);
+        for (int dc = -1; dc <= 1; dc += 2) {
+            if (is(position, pawnRow, col + dc, side, PieceType.PAWN, gone)) {
+                return index(pawnRow, col + dc);
+            }
+        }
+        for (int[] step : KNIGHT_STEPS) {
+            if (is(position, row + step[0], col + step[1], side, PieceType.KNIGHT, gone)) {
+                return index(row + step[0], col + step[1]);
+            }
+        }
+        int found = slider(position, row, col, side, BISHOP_RAYS, PieceType.BISHOP, gone);
+        if (found < 0) {
+            found = slider(position, row, col, side, ROOK_RAYS, PieceType.ROOK, gone);
+        }
+        if (found < 0) {
+            found = slider(position, row, col, side, BISHOP_RAYS, PieceType.QUEEN, gone);
+        }
+        if (found < 0) {
+            found = slider(position, row, col, side, ROOK_RAYS, PieceType.QUEEN, gone);
+        }
+        if (found >= 0) {
+            return found;
+        }
+        for (int[] step : KING_STEPS) {
+            if (is(position, row + step[0], col + step[1], side, PieceType.KING, gone)) {
+                return index(row + step[0], col + step[1]);
+            }
+        }
+        return -1;
+    }
+
+    // The first piece along each ray that has not been used up blocks the rest
+    private static int slider(SearchPosition position, int row, int col, ChessGame.TeamColor side, int[][] rays,
+            PieceType type, boolean[] gone) {
+        for (int[] ray : rays) {
+            int r = row + ray[0];
+            int c = col + ray[1];
+            while (r >= 1 && r <= 8 && c >= 1 && c <= 8) {
+                ChessPiece piece = position.pieceAt(r, c);
+                if (piece != null && !gone[index(r, c)]) {
+                    if (piece.getTeamColor() == side && piece.getPieceType() == type) {
+                        return index(r, c);
+                    }
+                    break;
+                }
+                r += ray[0];
+                c += ray[1];
+            }
+        }
+        return -1;
+    }
+
+    private static boolean is(SearchPosition position, int row, int col, ChessGame.TeamColor side, PieceType type,
+            boolean[] gone) {
+        if (row < 1 || row > 8 || col < 1 || col > 8 || gone[index(row, col)]) {
+            return false;
+        }
+        ChessPiece piece = position.pieceAt(row, col);
+        return piece != null && piece.getTeamColor() == side && piece.getPieceType() == type;
+    }
+
+    private static int value(PieceType type) {
+        return type == PieceType.KING ? KING_VALUE : MaterialEvaluator.value(type);
+    }
+
+    private static int index(int row, int col) {
+        return (row - 1) * 8 + col - 1;
+    }
+}
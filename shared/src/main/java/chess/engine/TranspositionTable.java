@@ -0,0 +1,270 @@
+package chess.engine;
+
+import chess.ChessMove;
+import chess.ChessPiece.PieceType;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * A fixed-size hash table of search results, kept off the Java heap and shared
+ * by any number of search threads without locks.
+ * <p>
+ * Memory is allocated once, as direct buffers, so the table's size is set in
+ * megabytes regardless of the heap. It is limited by
+ * {@code -XX:MaxDirectMemorySize} instead. Entries are grouped into buckets of
+ * four that fill one cache line. A position can be stored in any entry of the
+ * bucket its hash selects.
+ * </p>
+ * <p>
+ * Each entry is two longs: the data, and the position's hash XOR-ed with the
+ * data. Threads read and write both words without locking. A probe accepts an
+ * entry only when the two words XOR back to the probed hash, so an entry torn
+ * by a concurrent write is simply treated as a miss.
+ * </p>
+ * <p>
+ * Within a bucket, a new result replaces the entry for the same position if
+ * there is one. Otherwise it replaces the least valuable entry, judged by
+ * depth, with entries from earlier searches counting for less.
+ * {@link #newSearch()} starts a new age.
+ * </p>
+ * <p>
+ * Probes return the packed data as a {@code long}, 0 on a miss, so nothing is
+ * allocated per node. Unpack it with {@link #move(long)}, {@link #score(long)},
+ * {@link #depth(long)} and {@link #bound(long)}.
+ * </p>
+ */
+public class TranspositionTable {
+    public static final int DEFAULT_SIZE_MB = 16;
+
+    public static final int EXACT = 1;
+    public static final int LOWER_BOUND = 2;
+    public static final int UPPER_BOUND = 3;
+
+    private static final int ENTRY_BYTES = 16;
+    private static final int BUCKET_ENTRIES = 4;
+    private static final int BUCKET_BYTES = ENTRY_BYTES * BUCKET_ENTRIES;
+    private static final int SEGMENT_SHIFT = 24;
+    private static final long MAX_SIZE_MB = 1L << 20;
+    private static final PieceType[] PROMOTIONS =
+            {null, PieceType.KNIGHT, PieceType.BISHOP, PieceType.ROOK, PieceType.QUEEN};
+
+    // Data layout, low bits first: move 16 (from 7, to 6, promotion 3), score 16, depth 8, bound 2, age 8
+    private static final int SCORE_SHIFT = 16;
+    private static final int DEPTH_SHIFT = 32;
+    private static final int BOUND_SHIFT = 40;
+    private static final int AGE_SHIFT = 42;
+
+    private final ByteBuffer[] segments;
+    private final long bucketMask;
+    private final int segmentMask;
+    private volatile int age;
+
+    /**
+     * Allocates a table.
+     *
+     * @param sizeMB The size in megabytes, rounded down to a power of two
+     * @throws IllegalArgumentException if the size is not positive or too large
+     */
+    public TranspositionTable(int sizeMB) {
+        if (sizeMB <= 0 || sizeMB > MAX_SIZE_MB) {
+            throw new IllegalArgumentException("Table size must be between 1 and " + MAX_SIZE_MB + " MB");
+        }
+        long buckets = Long.highestOneBit(sizeMB * (1L << 20) / BUCKET_BYTES);
+        int segmentBuckets = (int) Math.min(buckets, 1L << SEGMENT_SHIFT);
+        segments = new ByteBuffer[(int) (buckets / segmentBuckets)];
+        for (int i = 0; i < segments.length; i++) {
+            segments[i] = ByteBuffer.allocateDirect(segmentBuckets * BUCKET_BYTES).order(ByteOrder.nativeOrder());
+        }
+        bucketMask = buckets - 1;
+        segmentMask = segmentBuckets - 1;
+    }
+
+    /**
+     * Gets the memory the table uses.
+     *
+     * @return The size in bytes
+     */
+    public long sizeBytes() {
+        return (bucketMask + 1) * BUCKET_BYTES;
+    }
+
+    /**
+     * Starts a new age, so entries from earlier searches are replaced first.
+     * Call once per search, not once per search thread.
+     */
+    public void newSearch() {
+        age = (age + 1) & 0xFF;
+    }
+
+    /**
+     * Empties the table. Must not run while the table is being searched.
+     */
+    public void clear() {
+        for (ByteBuffer segment : segments) {
+            for (int i = 0; i < segment.capacity(); i += Long.BYTES) {
+                segment.putLong(i, 0);
+            }
+        }
+    }
+
+    /**
+     * Looks up a position.
+     *
+     * @param hash The position's hash
+     * @return The packed entry, or 0 if the position is not stored
+     */
+    public long probe(long hash) {
+        ByteBuffer segment = segment(hash);
+        int base = offset(hash);
+        for (int i = 0; i < BUCKET_ENTRIES; i++) {
+            int at = base + i * ENTRY_BYTES;
+            long data = segment.getLong(at + Long.BYTES);
+            if (data != 0 && (segment.getLong(at) ^ data) == hash) {
+                return data;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Stores a search result.
+     *
+     * @param hash  The position's hash
+     * @param move  The best move found, or null
+     * @param score The score, with mates relative to this position
+     * @param depth The depth searched
+     * @param bound {@link #EXACT}, {@link #LOWER_BOUND} or {@link #UPPER_BOUND}
+     */
+    public void store(long hash, ChessMove move, int score, int depth, int bound) {
+        ByteBuffer segment = segment(hash);
+        int base = offset(hash);
+        int currentAge = age;
+        int victim = base;
+        int victimWorth = Integer.MAX_VALUE;
+        long previous = 0;
+        for (int i = 0; i < BUCKET_ENTRIES; i++) {
+            int at = base + i * ENTRY_BYTES;
+            long data = segment.getLong(at + Long.BYTES);
+            if (data != 0 && (segment.getLong(at) ^ data) == hash) {
+                victim = at;
+                previous = data;
+                break;
+            }
+            int worth = data == 0 ? Integer.MIN_VALUE
+                    : depth(data) - 4 * ((currentAge - (int) (data >>> AGE_SHIFT)) & 0xFF);
+            if (worth < victimWorth) {
+                victim = at;
+                victimWorth = worth;
+            }
+        }
+
+        int encodedMove = encodeMove(move);
+        if (encodedMove == 0 && previous != 0) {
+            // Keep a move from an earlier visit to order this position's moves
+            encodedMove = (int) (previous & 0xFFFF);
+        }
+        long data = encodedMove
+                | (long) (score & 0xFFFF) << SCORE_SHIFT
+                | (long) Math.min(Math.max(depth, 0), 0xFF) << DEPTH_SHIFT
+                | (long) bound << BOUND_SHIFT
+                | (long) currentAge << AGE_SHIFT;
+        segment.putLong(victim, hash ^ data);
+        segment.putLong(victim + Long.BYTES, data);
+    }
+
+    /**
+     * Estimates how full the table is with entries from the current search.
+     *
+     * @return Entries per thousand
+     */
+    public int hashfull() {
+        int sampled = (int) Math.min(1000 / BUCKET_ENTRIES, bucketMask + 1);
+        int used = 0;
+        int currentAge = age;
+        for (int bucket = 0; bucket < sampled; bucket++) {
+            for (int i = 0; i < BUCKET_ENTRIES; i++) {
+                long data = segments[0].getLong(bucket * BUCKET_BYTES + i * ENTRY_BYTES + Long.BYTES);
+                if (data != 0 && (int) (data >>> AGE_SHIFT) == currentAge) {
+                    used++;
+                }
+            }
+        }
+        return used * 1000 / (sampled * BUCKET_ENTRIES);
+    }
+
+    /**
+     * Unpacks the best move of an entry.
+     *
+     * @param data A packed entry
+     * @return The move, or null if none was stored
+     */
+    public static ChessMove move(long data) {
+        int encoded = (int) (data & 0xFFFF);
+        if (encoded == 0) {
+            return null;
+        }
+        int from = (encoded & 0x7F) - 1;
+        int to = (encoded >>> 7) & 0x3F;
+        return new ChessMove(SearchPosition.square(from / 8 + 1, from % 8 + 1),
+                SearchPosition.square(to / 8 + 1, to % 8 + 1), PROMOTIONS[encoded >>> 13]);
+    }
+
+    /**
+     * Unpacks the score of an entry.
+     *
+     * @param data A packed entry
+     * @return The score
+     */
+    public static int score(long data) {
+        return (short) (data >>> SCORE_SHIFT);
+    }
+
+    /**
+     * Unpacks the depth of an entry.
+     *
+     * @param data A packed entry
+     * @return The depth searched
+     */
+    public static int depth(long data) {
+        return (int) (data >>> DEPTH_SHIFT) & 0xFF;
+    }
+
+    /**
+     * Unpacks the kind of score of an entry.
+     *
+     * @param data A packed entry
+     * @return {@link #EXACT}, {@link #LOWER_BOUND} or {@link #UPPER_BOUND}
+     */
+    public static int bound(long data) {
+        return (int) (data >>> BOUND_SHIFT) & 0x3;
+    }
+
+    // The from square is stored plus one, so an encoded move is never 0
+    private static int encodeMove(ChessMove move) {
+        if (move == null) {
+            return 0;
+        }
+        int from = (move.getStartPosition().getRow() - 1) * 8 + move.getStartPosition().getColumn() - 1;
+        int to = (move.getEndPosition().getRow() - 1) * 8 + move.getEndPosition().getColumn() - 1;
+        int promotion = 0;
+        if (move.getPromotionPiece() != null) {
+            promotion = switch (move.getPromotionPiece()) {
+                case KNIGHT -> 1;
+                case BISHOP -> 2;
+                case ROOK -> 3;
+                case QUEEN -> 4;
+                default -> throw new IllegalArgumentException("Cannot promote to " + move.getPromotionPiece());
+            };
+        }
+        return (from + 1) | to << 7 | promotion << 13;
+    }
+
+    private ByteBuffer segment(long hash) {
+        return segments[(int) ((hash & bucketMask) >>> SEGMENT_SHIFT)];
+    }
+
+    private int offset(long hash) {
+        return (int) (hash & bucketMask & segmentMask) * BUCKET_BYTES;
+    }
+}
@@ -0,0 +1,88 @@
+package chess.engine;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessPiece;
+import chess.ChessPosition;
+
+import java.util.SplittableRandom;
+
+/**
+ * 64-bit Zobrist hashes of positions.
+ * <p>
+ * A position's hash is the XOR of one fixed random key per piece on its
+ * square, plus a key when black is to move. Playing a move therefore changes
+ * the hash by XOR-ing a handful of keys, which {@link SearchPosition} does
+ * as it goes. The keys come from a fixed seed, so hashes are the same in
+ * every run and can be stored.
+ * </p>
+ */
+public final class Zobrist {
+    private static final long[][] PIECE_KEYS = new long[12][64];
+    private static final long BLACK_TO_MOVE;
+
+    static {
+        SplittableRandom random = new SplittableRandom(0x5EED_C4E55L);
+        for (long[] keys : PIECE_KEYS) {
+            for (int square = 0; square < keys.length; square++) {
+                keys[square] = random.nextLong();
+            }
+        }
+        BLACK_TO_MOVE = random.nextLong();
+    }
+
+    private Zobrist() {
+    }
+
+    /**
+     * Hashes a game's position and side to move.
+     *
+     * @param game The game
+     * @return The hash
+     */
+    public static long hash(ChessGame game) {
+        return hash(game.getBoard(), game.getTeamTurn());
+    }
+
+    /**
+     * Hashes a board and side to move.
+     *
+     * @param board      The board
+     * @param sideToMove The side to move, or null for a finished game
+     * @return The hash
+     */
+    public static long hash(ChessBoard board, ChessGame.TeamColor sideToMove) {
+        long hash = sideToMove == ChessGame.TeamColor.BLACK ? BLACK_TO_MOVE : 0;
+        for (int row = 1; row <= 8; row++) {
+            for (int col = 1; col <= 8; col++) {
+                ChessPiece piece = board.getPiece(new ChessPosition(row, col));
+                if (piece != null) {
+                    hash ^= pieceKey(piece, row, col);
+                }
+            }
+        }
+        return hash;
+    }
+
+    /**
+     * Gets the key for a piece on a square.
+     *
+     * @param piece The piece
+     * @param row   The square's row
+     * @param col   The square's column
+     * @return The key
+     */
+    public static long pieceKey(ChessPiece piece, int row, int col) {
+        return PIECE_KEYS[piece.getTeamColor().ordinal() * 6 + piece.getPieceType().ordinal()]
+                [(row - 1) * 8 + col - 1];
+    }
+
+    /**
+     * Gets the key toggled whenever the side to move changes.
+     *
+     * @return The key
+     */
+    public static long sideKey() {
+        return BLACK_TO_MOVE;
+    }
+}
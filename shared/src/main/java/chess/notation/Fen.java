@@ -0,0 +1,239 @@
+package chess.notation;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessPiece;
+import chess.ChessPiece.PieceType;
+import chess.ChessPosition;
+
+/**
+ * Reads and writes positions in Forsyth-Edwards Notation.
+ * <p>
+ * {@code ChessGame} has no move counters or en passant state, so
+ * {@link #toFen(ChessGame)} writes {@code -} for the en passant square and
+ * {@code 0 1} for the clocks. Castling rights are derived from whether the
+ * kings and rooks have moved, and are mapped back onto the has-moved flags
+ * when a position is read.
+ * </p>
+ */
+public final class Fen {
+    public static final String START = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+
+    /**
+     * A position read from FEN.
+     *
+     * @param game            The position, with the side to move set
+     * @param enPassantTarget The square a pawn may capture onto en passant, or
+     *                        null
+     * @param fullmoveNumber  The number of the next full move
+     */
+    public record Position(ChessGame game, ChessPosition enPassantTarget, int fullmoveNumber) {
+    }
+
+    private Fen() {
+    }
+
+    /**
+     * Writes a game's position as FEN. A finished game is written with white to
+     * move.
+     *
+     * @param game The game to describe
+     * @return The FEN string
+     */
+    public static String toFen(ChessGame game) {
+        ChessBoard board = game.getBoard();
+        StringBuilder fen = new StringBuilder(64);
+        for (int row = 8; row >= 1; row--) {
+            int empty = 0;
+            for (int col = 1; col <= 8; col++) {
+                ChessPiece piece = board.getPiece(new ChessPosition(row, col));
+                if (piece == null) {
+                    empty++;
+                    continue;
+                }
+                if (empty > 0) {
+                    fen.append(empty);
+                    empty = 0;
+                }
+                fen.append(letter(piece));
+            }
+            if (empty > 0) {
+                fen.append(empty);
+            }
+            if (row > 1) {
+                fen.append('/');
+            }
+        }
+
+        fen.append(game.getTeamTurn() == ChessGame.TeamColor.BLACK ? " b " : " w ");
+        String castling = castlingRights(board);
+        fen.append(castling.isEmpty() ? "-" : castling);
+        fen.append(" - 0 1");
+        return fen.toString();
+    }
+
+    /**
+     * Reads a FEN string. The halfmove clock is accepted but not kept.
+     *
+     * @param fen The FEN string
+     * @return The position it describes
+     * @throws IllegalArgumentException if the string is not valid FEN
+     */
+    public static Position parse(String fen) {
+        String[] fields = fen.trim().split("\\s+");
+        if (fields.length < 2) {
+            throw new IllegalArgumentException("FEN needs at least placement and side to move: " + fen);
+        }
+
+        ChessBoard board = new ChessBoard();
+        String[] rows = fields[0].split("/");
+        if (rows.length != 8) {
+            throw new IllegalArgumentException("FEN placement must have 8 ranks: " + fen);
+        }
+        for (int i = 0; i < 8; i++) {
+            int row = 8 - i;
+            int col = 1;
+            for (char c : rows[i].toCharArray()) {
+                if (c >= '1' && c <= '8') {
+                    col += c - '0';
+                } else {
+                    if (col > 8) {
+                        throw new IllegalArgumentException("FEN rank " + row + " is too long: " + fen);
+                    }
+                    board.addPiece(new ChessPosition(row, col), piece(c, row));
+                    col++;
+                }
+            }
+            if (col != 9) {
+                throw new IllegalArgumentException("FEN rank " + row + " does not have 8 files: " + fen);
+            }
+        }
+
+        ChessGame game = new ChessGame();
+        game.setBoard(board);
+        switch (fields[1]) {
+            case "w" -> game.setTeamTurn(ChessGame.TeamColor.WHITE);
+            case "b" -> game.setTeamTurn(ChessGame.TeamColor.BLACK);
+            default -> throw new IllegalArgumentException("FEN side to move must be w or b: " + fen);
+        }
+
+        applyCastlingRights(board, fields.length > 2 ? fields[2] : "-");
+        ChessPosition enPassant = fields.length > 3 && !fields[3].equals("-") ? square(fields[3]) : null;
+        int fullmove = 1;
+        if (fields.length > 5) {
+            try {
+                fullmove = Math.max(1, Integer.parseInt(fields[5]));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("FEN fullmove number is not a number: " + fen);
+            }
+        }
+        return new Position(game, enPassant, fullmove);
+    }
+
+    /**
+     * Parses a square in algebraic notation, such as {@code e4}.
+     *
+     * @param name The square name
+     * @return The position
+     * @throws IllegalArgumentException if the name is not a square
+     */
+    public static ChessPosition square(String name) {
+        if (name.length() != 2 || name.charAt(0) < 'a' || name.charAt(0) > 'h'
+                || name.charAt(1) < '1' || name.charAt(1) > '8') {
+            throw new IllegalArgumentException("Not a square: " + name);
+        }
+        return new ChessPosition(name.charAt(1) - '0', name.charAt(0) - 'a' + 1);
+    }
+
+    /**
+     * Names a square in algebraic notation.
+     *
+     * @param position The position
+     * @return The square name, such as {@code e4}
+     */
+    public static String squareName(ChessPosition position) {
+        return "" + (char) ('a' + position.getColumn() - 1) + position.getRow();
+    }
+
+    static char letter(ChessPiece piece) {
+        char c = switch (piece.getPieceType()) {
+            case KING -> 'k';
+            case QUEEN -> 'q';
+            case ROOK -> 'r';
+            case BISHOP -> 'b';
+            case KNIGHT -> 'n';
+            case PAWN -> 'p';
+        };
+        return piece.getTeamColor() == ChessGame.TeamColor.WHITE ? Character.toUpperCase(c) : c;
+    }
+
+    // Pawns off their starting rank have moved; kings and rooks are settled by the castling field
+    private static ChessPiece piece(char c, int row) {
+        ChessGame.TeamColor color = Character.isUpperCase(c) ? ChessGame.TeamColor.WHITE : ChessGame.TeamColor.BLACK;
+        PieceType type = switch (Character.toLowerCase(c)) {
+            case 'k' -> PieceType.KING;
+            case 'q' -> PieceType.QUEEN;
+            case 'r' -> PieceType.ROOK;
+            case 'b' -> PieceType.BISHOP;
+            case 'n' -> PieceType.KNIGHT;
+            case 'p' -> PieceType.PAWN;
+            default -> throw new IllegalArgumentException("Not a FEN piece: " + c);
+        };
+        boolean moved = switch (type) {
+            case PAWN -> row != (color == ChessGame.TeamColor.WHITE ? 2 : 7);
+            case KING, ROOK -> true;
+            default -> false;
+        };
+        return new ChessPiece(color, type, moved);
+    }
+
+    private static String castlingRights(ChessBoard board) {
+        StringBuilder rights = new StringBuilder(4);
+        if (unmoved(board, 1, 5, ChessGame.TeamColor.WHITE, PieceType.KING)) {
+            if (unmoved(board, 1, 8, ChessGame.TeamColor.WHITE, PieceType.ROOK)) {
+                rights.append('K');
+            }
+            if (unmoved(board, 1, 1, ChessGame.TeamColor.WHITE, PieceType.ROOK)) {
+                rights.append('Q');
+            }
+        }
+        if (unmoved(board, 8, 5, ChessGame.TeamColor.BLACK, PieceType.KING)) {
+            if (unmoved(board, 8, 8, ChessGame.TeamColor.BLACK, PieceType.ROOK)) {
+                rights.append('k');
+            }
+            if (unmoved(board, 8, 1, ChessGame.TeamColor.BLACK, PieceType.ROOK)) {
+                rights.append('q');
+            }
+        }
+        return rights.toString();
+    }
+
+    private static void applyCastlingRights(ChessBoard board, String rights) {
+        for (char right : rights.toCharArray()) {
+            int row = Character.isUpperCase(right) ? 1 : 8;
+            int rookCol = switch (Character.toLowerCase(right)) {
+                case 'k' -> 8;
+                case 'q' -> 1;
+                case '-' -> -1;
+                default -> throw new IllegalArgumentException("Not a FEN castling right: " + right);
+            };
+            if (rookCol < 0) {
+                continue;
+            }
+            markUnmoved(board, new ChessPosition(row, 5), PieceType.KING);
+            markUnmoved(board, new ChessPosition(row, rookCol), PieceType.ROOK);
+        }
+    }
+
+    private static void markUnmoved(ChessBoard board, ChessPosition position, PieceType type) {
+        ChessPiece piece = board.getPiece(position);
+        if (piece != null && piece.getPieceType() == type) {
+            piece.setHasMoved(false);
+        }
+    }
+
+    private static boolean unmoved(ChessBoard board, int row, int col, ChessGame.TeamColor color, PieceType type) {
+        ChessPiece piece = board.getPiece(new ChessPosition(row, col));
+        return piece != null && piece.getTeamColor() == color && piece.getPieceType() == type && !piece.isHasMoved();
+    }
+}
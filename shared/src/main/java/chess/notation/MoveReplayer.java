@@ -0,0 +1,226 @@
+package chess.notation;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPiece;
+import chess.ChessPiece.PieceType;
+import chess.ChessPosition;
+import chess.InvalidMoveException;
+
+import java.util.HashSet;
+
+/**
+ * Plays moves written in Standard Algebraic Notation onto a game.
+ * <p>
+ * Ordinary moves are matched against {@link ChessGame#validMoves} and made
+ * with {@link ChessGame#makeMove}. The rules engine has no castling or en
+ * passant, so those two moves are recognised here and applied straight to the
+ * board. They are trusted rather than checked, which is enough to replay games
+ * recorded elsewhere.
+ * </p>
+ */
+public class MoveReplayer {
+    private final ChessGame game;
+    private ChessPosition enPassantTarget;
+
+    /**
+     * Starts replaying from the standard starting position.
+     */
+    public MoveReplayer() {
+        // A reset board shares one piece object between squares, so moved flags would leak between them
+        this(Fen.parse(Fen.START));
+    }
+
+    /**
+     * Starts replaying from a position read from FEN.
+     *
+     * @param position The starting position
+     */
+    public MoveReplayer(Fen.Position position) {
+        this(position.game(), position.enPassantTarget());
+    }
+
+    private MoveReplayer(ChessGame game, ChessPosition enPassantTarget) {
+        this.game = game;
+        this.enPassantTarget = enPassantTarget;
+    }
+
+    /**
+     * Gets the game the moves are played onto.
+     *
+     * @return The game
+     */
+    public ChessGame game() {
+        return game;
+    }
+
+    /**
+     * Plays one move.
+     *
+     * @param san The move, such as {@code Nbd7}, {@code exd8=Q+} or {@code O-O}
+     * @return The move that was made, from the king's square for castling
+     * @throws InvalidMoveException if the move is malformed, illegal or
+     *                              ambiguous
+     */
+    public ChessMove play(String san) throws InvalidMoveException {
+        ChessGame.TeamColor turn = game.getTeamTurn();
+        if (turn == null) {
+            throw new InvalidMoveException("Game is already over.");
+        }
+        String move = strip(san);
+        if (move.equals("O-O") || move.equals("0-0")) {
+            return castle(turn, 8, 7, 6);
+        }
+        if (move.equals("O-O-O") || move.equals("0-0-0")) {
+            return castle(turn, 1, 3, 4);
+        }
+
+        PieceType promotion = null;
+        int equals = move.indexOf('=');
+        if (equals >= 0) {
+            if (equals != move.length() - 2) {
+                throw new InvalidMoveException("Malformed promotion: " + san);
+            }
+            promotion = pieceType(move.charAt(equals + 1), san);
+            move = move.substring(0, equals);
+        } else if (move.length() > 2 && "QRBN".indexOf(move.charAt(move.length() - 1)) >= 0
+                && Character.isDigit(move.charAt(move.length() - 2))) {
+            promotion = pieceType(move.charAt(move.length() - 1), san);
+            move = move.substring(0, move.length() - 1);
+        }
+
+        PieceType type = PieceType.PAWN;
+        if (!move.isEmpty() && "KQRBN".indexOf(move.charAt(0)) >= 0) {
+            type = pieceType(move.charAt(0), san);
+            move = move.substring(1);
+        }
+        move = move.replace("x", "").replace(":", "");
+        if (move.length() < 2) {
+            throw new InvalidMoveException("Malformed move: " + san);
+        }
+
+        ChessPosition end;
+        try {
+            end = Fen.square(move.substring(move.length() - 2));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidMoveException("Malformed move: " + san);
+        }
+        String from = move.substring(0, move.length() - 2);
+
+        if (type == PieceType.PAWN && end.equals(enPassantTarget) && game.getBoard().getPiece(end) == null
+                && from.length() == 1) {
+            return enPassant(turn, from.charAt(0) - 'a' + 1, end);
+        }
+
+        ChessMove match = null;
+        for (ChessPosition start : game.getPieces(turn)) {
+            ChessPiece piece = game.getBoard().getPiece(start);
+            if (piece.getPieceType() != type || !matches(start, from)) {
+                continue;
+            }
+            HashSet<ChessMove> moves = game.validMoves(start);
+            ChessMove candidate = new ChessMove(start, end, promotion);
+            if (moves != null && moves.contains(candidate)) {
+                if (match != null) {
+                    throw new InvalidMoveException("Ambiguous move: " + san);
+                }
+                match = candidate;
+            }
+        }
+        if (match == null) {
+            throw new InvalidMoveException("Illegal move: " + san);
+        }
+
+        game.makeMove(match);
+        boolean doublePush = type == PieceType.PAWN
+                && Math.abs(match.getEndPosition().getRow() - match.getStartPosition().getRow()) == 2;
+        enPassantTarget = doublePush
+                ? new ChessPosition((match.getStartPosition().getRow() + end.getRow()) / 2, end.getColumn())
+                : null;
+        return match;
+    }
+
+    private ChessMove castle(ChessGame.TeamColor turn, int rookCol, int kingTo, int rookTo)
+            throws InvalidMoveException {
+        ChessBoard board = game.getBoard();
+        int row = turn == ChessGame.TeamColor.WHITE ? 1 : 8;
+        ChessPosition kingFrom = new ChessPosition(row, 5);
+        ChessPosition rookFrom = new ChessPosition(row, rookCol);
+        ChessPiece king = board.getPiece(kingFrom);
+        ChessPiece rook = board.getPiece(rookFrom);
+        if (king == null || king.getPieceType() != PieceType.KING || king.getTeamColor() != turn
+                || rook == null || rook.getPieceType() != PieceType.ROOK || rook.getTeamColor() != turn) {
+            throw new InvalidMoveException("Cannot castle without king and rook in place");
+        }
+        for (int col = Math.min(5, rookCol) + 1; col < Math.max(5, rookCol); col++) {
+            if (board.getPiece(new ChessPosition(row, col)) != null) {
+                throw new InvalidMoveException("Cannot castle through pieces");
+            }
+        }
+
+        ChessPosition kingEnd = new ChessPosition(row, kingTo);
+        board.addPiece(kingFrom, null);
+        board.addPiece(rookFrom, null);
+        board.addPiece(kingEnd, king);
+        board.addPiece(new ChessPosition(row, rookTo), rook);
+        king.setHasMoved(true);
+        rook.setHasMoved(true);
+        game.incrementTurn();
+        enPassantTarget = null;
+        return new ChessMove(kingFrom, kingEnd);
+    }
+
+    private ChessMove enPassant(ChessGame.TeamColor turn, int fromCol, ChessPosition end)
+            throws InvalidMoveException {
+        ChessBoard board = game.getBoard();
+        int fromRow = end.getRow() + (turn == ChessGame.TeamColor.WHITE ? -1 : 1);
+        ChessPosition start = new ChessPosition(fromRow, fromCol);
+        ChessPiece pawn = board.getPiece(start);
+        if (pawn == null || pawn.getPieceType() != PieceType.PAWN || pawn.getTeamColor() != turn
+                || Math.abs(fromCol - end.getColumn()) != 1) {
+            throw new InvalidMoveException("Illegal en passant capture onto " + Fen.squareName(end));
+        }
+
+        board.addPiece(start, null);
+        board.addPiece(new ChessPosition(fromRow, end.getColumn()), null);
+        board.addPiece(end, pawn);
+        pawn.setHasMoved(true);
+        game.incrementTurn();
+        enPassantTarget = null;
+        return new ChessMove(start, end);
+    }
+
+    // Disambiguation is a file, a rank, or both
+    private static boolean matches(ChessPosition start, String from) {
+        for (char c : from.toCharArray()) {
+            if (c >= 'a' && c <= 'h' && start.getColumn() != c - 'a' + 1) {
+                return false;
+            }
+            if (c >= '1' && c <= '8' && start.getRow() != c - '0') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Check, mate and annotation suffixes carry no move information
+    private static String strip(String san) {
+        int end = san.length();
+        while (end > 0 && "+#!?".indexOf(san.charAt(end - 1)) >= 0) {
+            end--;
+        }
+        return san.substring(0, end);
+    }
+
+    private static PieceType pieceType(char letter, String san) throws InvalidMoveException {
+        return switch (letter) {
+            case 'K' -> PieceType.KING;
+            case 'Q' -> PieceType.QUEEN;
+            case 'R' -> PieceType.ROOK;
+            case 'B' -> PieceType.BISHOP;
+            case 'N' -> PieceType.KNIGHT;
+            default -> throw new InvalidMoveException("Unknown piece in move: " + san);
+        };
+    }
+}
@@ -0,0 +1,14 @@
+package chess.notation;
+
+import java.io.IOException;
+
+/**
+ * Indicates PGN text that could not be parsed. The input itself is still
+ * readable, so {@link PgnReader#skipToNextGame()} can move past the game.
+ */
+public class PgnFormatException extends IOException {
+
+    public PgnFormatException(String message) {
+        super(message);
+    }
+}
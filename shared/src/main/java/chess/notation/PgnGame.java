@@ -0,0 +1,27 @@
+package chess.notation;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One game from a PGN file.
+ *
+ * @param tags   The tag pairs, in file order
+ * @param moves  The main line in Standard Algebraic Notation, without move
+ *               numbers, comments or variations
+ * @param result The game termination marker: {@code 1-0}, {@code 0-1},
+ *               {@code 1/2-1/2} or {@code *}
+ */
+public record PgnGame(Map<String, String> tags, List<String> moves, String result) {
+    public static final String UNFINISHED = "*";
+
+    /**
+     * Gets the value of a tag.
+     *
+     * @param name The tag name
+     * @return The value, or null if the game has no such tag
+     */
+    public String tag(String name) {
+        return tags.get(name);
+    }
+}
@@ -0,0 +1,219 @@
+package chess.notation;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.PushbackReader;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Reads games one at a time from PGN text.
+ * <p>
+ * The input is scanned a character at a time and only the game being read is
+ * held in memory, so files of any size can be read. Comments, variations,
+ * numeric annotation glyphs and move numbers are dropped, leaving the tags and
+ * the main line. Wrap the source in a buffered reader for speed.
+ * </p>
+ */
+public class PgnReader implements Closeable {
+    private static final Set<String> RESULTS = Set.of("1-0", "0-1", "1/2-1/2", PgnGame.UNFINISHED);
+    private static final String EVENT_TAG = "[Event";
+
+    private final PushbackReader in;
+    private int peeked = -2;
+
+    /**
+     * Reads PGN from a character stream.
+     *
+     * @param in The source, closed along with this reader
+     */
+    public PgnReader(Reader in) {
+        this.in = new PushbackReader(in, EVENT_TAG.length());
+    }
+
+    /**
+     * Reads the next game.
+     *
+     * @return The game, or null at the end of the input
+     * @throws PgnFormatException if a tag is malformed
+     * @throws IOException         if reading fails
+     */
+    public PgnGame next() throws IOException {
+        Map<String, String> tags = new LinkedHashMap<>();
+        List<String> moves = new ArrayList<>();
+
+        skipWhitespace();
+        while (peek() == '[') {
+            read();
+            readTag(tags);
+            skipWhitespace();
+        }
+
+        String result = null;
+        while (result == null) {
+            skipWhitespace();
+            int c = peek();
+            if (c == -1 || c == '[') {
+                break;
+            }
+            switch (c) {
+                case '{' -> skipPast('}');
+                case ';', '%' -> skipPast('\n');
+                case '(' -> skipVariation();
+                case '$' -> {
+                    read();
+                    readToken();
+                }
+                default -> {
+                    String token = readToken();
+                    if (RESULTS.contains(token)) {
+                        result = token;
+                    } else {
+                        String move = stripMoveNumber(token);
+                        if (!move.isEmpty()) {
+                            moves.add(move);
+                        }
+                    }
+                }
+            }
+        }
+
+        if (tags.isEmpty() && moves.isEmpty() && result == null) {
+            return null;
+        }
+        if (result == null) {
+            result = tags.getOrDefault("Result", PgnGame.UNFINISHED);
+        }
+        return new PgnGame(tags, moves, result);
+    }
+
+    /**
+     * Skips the rest of a game that could not be read, up to the next line that
+     * starts with an {@code Event} tag, so reading can carry on with the game
+     * after it.
+     *
+     * @throws IOException if reading fails
+     */
+    public void skipToNextGame() throws IOException {
+        skipPast('\n');
+        while (peek() != -1 && !startsWith(EVENT_TAG)) {
+            skipPast('\n');
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    // [Name "value"] with backslash escapes inside the quotes
+    private void readTag(Map<String, String> tags) throws IOException {
+        skipWhitespace();
+        StringBuilder name = new StringBuilder();
+        while (peek() != -1 && !Character.isWhitespace(peek()) && peek() != '"' && peek() != ']') {
+            name.append((char) read());
+        }
+        skipWhitespace();
+        if (read() != '"') {
+            throw new PgnFormatException("Malformed PGN tag: " + name);
+        }
+        StringBuilder value = new StringBuilder();
+        for (int c = read(); c != '"'; c = read()) {
+            if (c == -1) {
+                throw new PgnFormatException("Unterminated PGN tag: " + name);
+            }
+            value.append((char) (c == '\\' ? read() : c));
+        }
+        skipPast(']');
+        tags.put(name.toString(), value.toString());
+    }
+
+    private void skipVariation() throws IOException {
+        int depth = 0;
+        for (int c = read(); c != -1; c = read()) {
+            if (c == '(') {
+                depth++;
+            } else if (c == ')' && --depth == 0) {
+                return;
+            } else if (c == '{') {
+                skipPast('}');
+            } else if (c == ';') {
+                skipPast('\n');
+            }
+        }
+    }
+
+    private String readToken() throws IOException {
+        StringBuilder token = new StringBuilder();
+        for (int c = peek(); c != -1 && !Character.isWhitespace(c) && "{}();[]$".indexOf(c) < 0; c = peek()) {
+            token.append((char) read());
+        }
+        if (token.isEmpty()) {
+            // A stray closing bracket; drop it so the scan moves on
+            read();
+        }
+        return token.toString();
+    }
+
+    // Handles "12.", "12..." and "12.e4"
+    private static String stripMoveNumber(String token) {
+        int i = 0;
+        while (i < token.length() && Character.isDigit(token.charAt(i))) {
+            i++;
+        }
+        if (i > 0 && i < token.length() && token.charAt(i) != '.') {
+            return token;
+        }
+        while (i < token.length() && token.charAt(i) == '.') {
+            i++;
+        }
+        return token.substring(i);
+    }
+
+    private void skipPast(char end) throws IOException {
+        for (int c = read(); c != -1 && c != end; c = read()) {
+            // Skipped
+        }
+    }
+
+    // Looks ahead for the text without consuming any of it
+    private boolean startsWith(String text) throws IOException {
+        char[] seen = new char[text.length()];
+        int length = 0;
+        while (length < text.length()) {
+            int c = read();
+            if (c == -1) {
+                break;
+            }
+            seen[length++] = (char) c;
+            if (c != text.charAt(length - 1)) {
+                break;
+            }
+        }
+        in.unread(seen, 0, length);
+        return length == text.length() && seen[length - 1] == text.charAt(length - 1);
+    }
+
+    private void skipWhitespace() throws IOException {
+        while (peek() != -1 && Character.isWhitespace(peek())) {
+            read();
+        }
+    }
+
+    private int peek() throws IOException {
+        if (peeked == -2) {
+            peeked = in.read();
+        }
+        return peeked;
+    }
+
+    private int read() throws IOException {
+        int c = peek();
+        peeked = -2;
+        return c;
+    }
+}
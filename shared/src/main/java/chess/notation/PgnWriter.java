@@ -0,0 +1,114 @@
+package chess.notation;
+
+import chess.ChessGame;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes games as PGN text, one game at a time.
+ * <p>
+ * The Seven Tag Roster is always written first, with {@code ?} for missing
+ * values, followed by any other tags. Movetext is wrapped at 80 columns.
+ * </p>
+ */
+public class PgnWriter implements Closeable, Flushable {
+    private static final List<String> SEVEN_TAG_ROSTER =
+            List.of("Event", "Site", "Date", "Round", "White", "Black", "Result");
+    private static final int LINE_LENGTH = 80;
+
+    private final Writer out;
+
+    /**
+     * Writes PGN to a character stream.
+     *
+     * @param out The destination, closed along with this writer
+     */
+    public PgnWriter(Writer out) {
+        this.out = out;
+    }
+
+    /**
+     * Writes one game.
+     *
+     * @param game The game to write
+     * @throws IOException if writing fails
+     */
+    public void write(PgnGame game) throws IOException {
+        Map<String, String> tags = game.tags();
+        for (String name : SEVEN_TAG_ROSTER) {
+            String value = name.equals("Result") ? game.result() : tags.getOrDefault(name, "?");
+            writeTag(name, value);
+        }
+        for (Map.Entry<String, String> tag : tags.entrySet()) {
+            if (!SEVEN_TAG_ROSTER.contains(tag.getKey())) {
+                writeTag(tag.getKey(), tag.getValue());
+            }
+        }
+        out.write('\n');
+
+        int moveNumber = 1;
+        boolean whiteToMove = true;
+        String fen = tags.get("FEN");
+        if (fen != null) {
+            try {
+                Fen.Position start = Fen.parse(fen);
+                moveNumber = start.fullmoveNumber();
+                whiteToMove = start.game().getTeamTurn() != ChessGame.TeamColor.BLACK;
+            } catch (IllegalArgumentException e) {
+                // Numbering from 1 is still readable
+            }
+        }
+
+        int column = 0;
+        boolean first = true;
+        for (String move : game.moves()) {
+            String token;
+            if (whiteToMove) {
+                token = moveNumber + ". " + move;
+            } else {
+                token = first ? moveNumber + "... " + move : move;
+                moveNumber++;
+            }
+            column = append(token, column);
+            whiteToMove = !whiteToMove;
+            first = false;
+        }
+        append(game.result(), column);
+        out.write("\n\n");
+    }
+
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+
+    private int append(String token, int column) throws IOException {
+        if (column > 0 && column + 1 + token.length() > LINE_LENGTH) {
+            out.write('\n');
+            column = 0;
+        } else if (column > 0) {
+            out.write(' ');
+            column++;
+        }
+        out.write(token);
+        return column + token.length();
+    }
+
+    private void writeTag(String name, String value) throws IOException {
+        out.write('[');
+        out.write(name);
+        out.write(" \"");
+        out.write(value.replace("\\", "\\\\").replace("\"", "\\\""));
+        out.write("\"]\n");
+    }
+}
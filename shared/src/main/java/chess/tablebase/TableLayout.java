@@ -0,0 +1,275 @@
+package chess.tablebase;
+
+import chess.ChessGame;
+import chess.ChessPiece.PieceType;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * How the positions of one set of pieces are numbered in a table.
+ * <p>
+ * A table is named for its pieces, white's then black's, each side led by
+ * its king: {@code KQK}, {@code KBNK}, {@code KRKN}. Names are normalized
+ * so the stronger side is white; a position with the colors the other way
+ * round is looked up with the board flipped.
+ * </p>
+ * <p>
+ * Squares are numbered 0 to 63 from a1, rank by rank. A position's index is
+ * the side to move, then the white king's square, then every other piece's
+ * square in the table's piece order. Symmetry keeps the white king to a
+ * fraction of the board: without pawns the board is reflected and rotated so
+ * the king lands in the a1-d1-d4 triangle, ten squares; with pawns only a
+ * left-right reflection is possible, so the king stays on files a to d.
+ * </p>
+ */
+final class TableLayout {
+    static final int MAX_PIECES = 4;
+
+    static final PieceType[] PROMOTIONS = {PieceType.QUEEN, PieceType.ROOK, PieceType.BISHOP, PieceType.KNIGHT};
+
+    private static final String ORDER = "KQRBNP";
+    // a1 b1 c1 d1 b2 c2 d2 c3 d3 d4
+    private static final int[] TRIANGLE = {0, 1, 2, 3, 9, 10, 11, 18, 19, 27};
+    private static final int[] TRIANGLE_SLOT = new int[64];
+
+    static {
+        Arrays.fill(TRIANGLE_SLOT, -1);
+        for (int slot = 0; slot < TRIANGLE.length; slot++) {
+            TRIANGLE_SLOT[TRIANGLE[slot]] = slot;
+        }
+    }
+
+    final String name;
+    final PieceType[] types;
+    final int[] colors;
+    final boolean pawns;
+    final int size;
+    private final int kingSlots;
+
+    private TableLayout(String name, PieceType[] types, int[] colors) {
+        this.name = name;
+        this.types = types;
+        this.colors = colors;
+        this.pawns = List.of(types).contains(PieceType.PAWN);
+        this.kingSlots = pawns ? 32 : TRIANGLE.length;
+        this.size = 2 * kingSlots * (1 << 6 * (types.length - 1));
+    }
+
+    /**
+     * Parses a table name such as {@code KQK}.
+     *
+     * @param name The pieces, white's then black's, each side led by its king
+     * @return The layout, with the stronger side as white
+     * @throws IllegalArgumentException if the name is malformed, has too many
+     *                                  pieces or describes material that cannot
+     *                                  mate
+     */
+    static TableLayout parse(String name) {
+        if (!name.matches("K[QRBNP]*K[QRBNP]*")) {
+            throw new IllegalArgumentException("Not a table name: " + name);
+        }
+        int split = name.indexOf('K', 1);
+        String white = sorted(name.substring(1, split));
+        String black = sorted(name.substring(split + 1));
+        if (white.length() + black.length() + 2 > MAX_PIECES) {
+            throw new IllegalArgumentException("Tables hold at most " + MAX_PIECES + " pieces: " + name);
+        }
+        if (cannotMate(white + black)) {
+            throw new IllegalArgumentException("Neither side can mate in " + name);
+        }
+        if (stronger(black, white)) {
+            String swap = white;
+            white = black;
+            black = swap;
+        }
+
+        List<PieceType> types = new ArrayList<>();
+        List<Integer> colors = new ArrayList<>();
+        String[] sides = {white, black};
+        for (int color = 0; color < 2; color++) {
+            types.add(PieceType.KING);
+            colors.add(color);
+            for (char letter : sides[color].toCharArray()) {
+                types.add(type(letter));
+                colors.add(color);
+            }
+        }
+        return new TableLayout("K" + white + "K" + black, types.toArray(PieceType[]::new),
+                colors.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    /**
+     * Gets the name of the table a set of pieces belongs in, normalized as
+     * {@link #parse} does.
+     *
+     * @param types   The pieces' types
+     * @param colors  The pieces' colors, 0 for white and 1 for black
+     * @param squares The pieces' squares; pieces on negative squares are left out
+     * @return The table name, or null if the pieces cannot mate
+     */
+    static String nameOf(PieceType[] types, int[] colors, int[] squares) {
+        StringBuilder white = new StringBuilder();
+        StringBuilder black = new StringBuilder();
+        for (int i = 0; i < types.length; i++) {
+            if (squares[i] >= 0 && types[i] != PieceType.KING) {
+                (colors[i] == 0 ? white : black).append(letter(types[i]));
+            }
+        }
+        String w = sorted(white.toString());
+        String b = sorted(black.toString());
+        if (cannotMate(w + b)) {
+            return null;
+        }
+        return stronger(b, w) ? "K" + b + "K" + w : "K" + w + "K" + b;
+    }
+
+    /**
+     * Numbers a position. The squares are transformed in place.
+     *
+     * @param squares The pieces' squares, in this layout's piece order
+     * @param stm     The side to move, 0 for white and 1 for black
+     * @return The index, from 0 to {@link #size} - 1
+     */
+    int index(int[] squares, int stm) {
+        if ((squares[0] & 7) > 3) {
+            for (int i = 0; i < squares.length; i++) {
+                squares[i] ^= 7;
+            }
+        }
+        if (!pawns) {
+            if (squares[0] >> 3 > 3) {
+                for (int i = 0; i < squares.length; i++) {
+                    squares[i] ^= 56;
+                }
+            }
+            if (squares[0] >> 3 > (squares[0] & 7)) {
+                for (int i = 0; i < squares.length; i++) {
+                    squares[i] = (squares[i] & 7) << 3 | squares[i] >> 3;
+                }
+            }
+        }
+        int index = stm * kingSlots + (pawns ? (squares[0] >> 3) * 4 + (squares[0] & 7) : TRIANGLE_SLOT[squares[0]]);
+        for (int i = 1; i < squares.length; i++) {
+            index = index << 6 | squares[i];
+        }
+        return index;
+    }
+
+    /**
+     * Reverses {@link #index}.
+     *
+     * @param index   The index
+     * @param squares Receives the pieces' squares, in this layout's piece order
+     * @return The side to move, 0 for white and 1 for black
+     */
+    int decode(int index, int[] squares) {
+        for (int i = squares.length - 1; i >= 1; i--) {
+            squares[i] = index & 63;
+            index >>>= 6;
+        }
+        int slot = index % kingSlots;
+        squares[0] = pawns ? (slot / 4) * 8 + slot % 4 : TRIANGLE[slot];
+        return index / kingSlots;
+    }
+
+    /**
+     * Lists the tables a position in this one can move into by a capture or
+     * promotion.
+     *
+     * @return The table names, leaving out material that cannot mate
+     */
+    List<String> successors() {
+        List<String> names = new ArrayList<>();
+        int[] squares = new int[types.length];
+        for (int i = 1; i < types.length; i++) {
+            if (types[i] == PieceType.KING) {
+                continue;
+            }
+            squares[i] = -1;
+            add(names, nameOf(types, colors, squares));
+            squares[i] = 0;
+            if (types[i] != PieceType.PAWN) {
+                continue;
+            }
+            PieceType[] promoted = types.clone();
+            for (PieceType promotion : PROMOTIONS) {
+                promoted[i] = promotion;
+                add(names, nameOf(promoted, colors, squares));
+                // A pawn can capture as it promotes
+                for (int j = 1; j < types.length; j++) {
+                    if (types[j] != PieceType.KING && colors[j] != colors[i]) {
+                        squares[j] = -1;
+                        add(names, nameOf(promoted, colors, squares));
+                        squares[j] = 0;
+                    }
+                }
+            }
+        }
+        return names;
+    }
+
+    static int color(ChessGame.TeamColor color) {
+        return color == ChessGame.TeamColor.WHITE ? 0 : 1;
+    }
+
+    private static void add(List<String> names, String name) {
+        if (name != null && !names.contains(name)) {
+            names.add(name);
+        }
+    }
+
+    // A lone minor piece, or nothing at all, can never mate
+    private static boolean cannotMate(String pieces) {
+        return pieces.isEmpty() || pieces.equals("B") || pieces.equals("N");
+    }
+
+    // More pieces is stronger; otherwise compare piece by piece, queens first
+    private static boolean stronger(String a, String b) {
+        if (a.length() != b.length()) {
+            return a.length() > b.length();
+        }
+        for (int i = 0; i < a.length(); i++) {
+            int order = ORDER.indexOf(a.charAt(i)) - ORDER.indexOf(b.charAt(i));
+            if (order != 0) {
+                return order < 0;
+            }
+        }
+        return false;
+    }
+
+    private static String sorted(String pieces) {
+        StringBuilder sorted = new StringBuilder();
+        for (char letter : ORDER.toCharArray()) {
+            for (char piece : pieces.toCharArray()) {
+                if (piece == letter) {
+                    sorted.append(piece);
+                }
+            }
+        }
+        return sorted.toString();
+    }
+
+    private static char letter(PieceType type) {
+        return switch (type) {
+            case KING -> 'K';
+            case QUEEN -> 'Q';
+            case ROOK -> 'R';
+            case BISHOP -> 'B';
+            case KNIGHT -> 'N';
+            case PAWN -> 'P';
+        };
+    }
+
+    private static PieceType type(char letter) {
+        return switch (letter) {
+            case 'Q' -> PieceType.QUEEN;
+            case 'R' -> PieceType.ROOK;
+            case 'B' -> PieceType.BISHOP;
+            case 'N' -> PieceType.KNIGHT;
+            case 'P' -> PieceType.PAWN;
+            default -> throw new IllegalArgumentException("Unknown piece: " + letter);
+        };
+    }
+}
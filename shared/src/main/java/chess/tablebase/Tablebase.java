@@ -0,0 +1,265 @@
+package chess.tablebase;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPiece;
+import chess.ChessPiece.PieceType;
+import chess.ChessPosition;
+import chess.InvalidMoveException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Perfect-play results for endgames with few pieces, read from tables built
+ * by {@link TablebaseGenerator}.
+ * <p>
+ * Each table is a file named for its pieces, such as {@code KQK.tb}, holding
+ * one byte per position: the distance to mate in plies, or a draw. Files are
+ * memory-mapped read-only, so probing reads a single byte from the page cache
+ * and every process using the same directory shares one copy of the tables.
+ * </p>
+ * <p>
+ * Positions with a lone king against a lone king, bishop or knight are draws
+ * and need no table. Castling and en passant are ignored, as they are by the
+ * rules engine.
+ * </p>
+ */
+public class Tablebase {
+    public static final String EXTENSION = ".tb";
+
+    static final int MAGIC = 0x43485442;
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 16;
+    // Stored values: 0 is a draw, ILLEGAL marks impossible positions, anything else is the distance to mate plus one
+    static final int DRAW = 0;
+    static final int ILLEGAL = 255;
+
+    private static final int MATE = 1000;
+
+    private final Map<String, Table> tables;
+
+    /**
+     * Who wins with best play, from the point of view of the side to move.
+     */
+    public enum Verdict {
+        WIN, DRAW, LOSS
+    }
+
+    /**
+     * The result of a position with best play.
+     *
+     * @param verdict Who wins, from the point of view of the side to move
+     * @param plies   The half-moves until mate, or 0 for a draw
+     */
+    public record Result(Verdict verdict, int plies) {
+        /**
+         * Gets the moves until mate, counting the winner's moves.
+         *
+         * @return The moves until mate, or 0 for a draw
+         */
+        public int movesToMate() {
+            return (plies + 1) / 2;
+        }
+    }
+
+    record Table(TableLayout layout, ByteBuffer values) {
+    }
+
+    Tablebase(Map<String, Table> tables) {
+        this.tables = tables;
+    }
+
+    /**
+     * Maps every table in a directory.
+     *
+     * @param directory The directory holding the {@code .tb} files
+     * @return The tablebase
+     * @throws IOException if the directory cannot be read or holds a file that
+     *                     is not a table
+     */
+    public static Tablebase open(Path directory) throws IOException {
+        Map<String, Table> tables = new HashMap<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + EXTENSION)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                TableLayout layout;
+                try {
+                    layout = TableLayout.parse(name.substring(0, name.length() - EXTENSION.length()));
+                } catch (IllegalArgumentException e) {
+                    throw new IOException("Not a tablebase file: " + file, e);
+                }
+                tables.put(layout.name, new Table(layout, map(file, layout)));
+            }
+        }
+        return new Tablebase(tables);
+    }
+
+    static ByteBuffer map(Path file, TableLayout layout) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() != HEADER_BYTES + (long) layout.size) {
+                throw new IOException("Wrong size for table " + layout.name + ": " + file);
+            }
+            // The mapping stays valid after the channel closes
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION || buffer.getLong(8) != layout.size) {
+                throw new IOException("Not a tablebase file: " + file);
+            }
+            return buffer.slice(HEADER_BYTES, layout.size);
+        }
+    }
+
+    /**
+     * Gets the names of the tables available.
+     *
+     * @return The table names, such as {@code KQK}
+     */
+    public Set<String> tables() {
+        return Set.copyOf(tables.keySet());
+    }
+
+    /**
+     * Looks up a game's current position.
+     *
+     * @param game The game
+     * @return The result with best play, or null if no table covers the
+     *         position or the game is over
+     */
+    public Result probe(ChessGame game) {
+        if (game.getTeamTurn() == null) {
+            return null;
+        }
+        PieceType[] types = new PieceType[TableLayout.MAX_PIECES];
+        int[] colors = new int[TableLayout.MAX_PIECES];
+        int[] squares = new int[TableLayout.MAX_PIECES];
+        int count = 0;
+        for (int row = 1; row <= 8; row++) {
+            for (int col = 1; col <= 8; col++) {
+                ChessPiece piece = game.getBoard().getPiece(new ChessPosition(row, col));
+                if (piece == null) {
+                    continue;
+                }
+                if (count == TableLayout.MAX_PIECES) {
+                    return null;
+                }
+                types[count] = piece.getPieceType();
+                colors[count] = TableLayout.color(piece.getTeamColor());
+                squares[count] = (row - 1) * 8 + col - 1;
+                count++;
+            }
+        }
+        for (int i = count; i < TableLayout.MAX_PIECES; i++) {
+            squares[i] = -1;
+        }
+        int value = lookup(tables, types, colors, squares, TableLayout.color(game.getTeamTurn()));
+        return value < 0 || value == ILLEGAL ? null : decode(value);
+    }
+
+    /**
+     * Chooses a move that keeps the best result for the side to move: the
+     * quickest mate when winning, a drawing move when drawn, and the longest
+     * resistance when losing.
+     *
+     * @param game The game
+     * @return The move, or null if no table covers the position or there is
+     *         no legal move
+     */
+    public ChessMove bestMove(ChessGame game) {
+        if (probe(game) == null) {
+            return null;
+        }
+        ChessMove best = null;
+        int bestScore = Integer.MIN_VALUE;
+        for (ChessMove move : game.allValidMoves(game.getTeamTurn())) {
+            ChessGame child = game.copy();
+            try {
+                child.makeMove(move);
+            } catch (InvalidMoveException e) {
+                continue;
+            }
+            Result reply = probe(child);
+            if (reply == null) {
+                continue;
+            }
+            // The reply is from the opponent's side, so its loss is our win
+            int score = switch (reply.verdict()) {
+                case LOSS -> MATE - reply.plies();
+                case DRAW -> 0;
+                case WIN -> -MATE + reply.plies();
+            };
+            if (score > bestScore) {
+                best = move;
+                bestScore = score;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Looks up a position in whichever table holds its pieces.
+     *
+     * @param tables  The tables, by name
+     * @param types   The pieces' types
+     * @param colors  The pieces' colors, 0 for white and 1 for black
+     * @param squares The pieces' squares; pieces on negative squares are left out
+     * @param stm     The side to move, 0 for white and 1 for black
+     * @return The stored value, {@link #DRAW} if neither side can mate, or -1
+     *         if there is no table for the pieces
+     */
+    static int lookup(Map<String, Table> tables, PieceType[] types, int[] colors, int[] squares, int stm) {
+        String name = TableLayout.nameOf(types, colors, squares);
+        if (name == null) {
+            return DRAW;
+        }
+        Table table = tables.get(name);
+        if (table == null) {
+            return -1;
+        }
+        TableLayout layout = table.layout();
+        int[] ordered = new int[layout.types.length];
+        // Try the colors as they are, then flipped; when both sides have the same pieces either will do
+        for (int flip = 0; flip < 2; flip++) {
+            if (arrange(layout, types, colors, squares, flip, ordered)) {
+                return table.values().get(layout.index(ordered, stm ^ flip)) & 0xFF;
+            }
+        }
+        throw new IllegalStateException("Pieces do not fit table " + name);
+    }
+
+    // Puts each piece on the layout's matching slot, mirroring the board top to bottom when the colors are flipped
+    private static boolean arrange(TableLayout layout, PieceType[] types, int[] colors, int[] squares, int flip,
+            int[] ordered) {
+        boolean[] used = new boolean[types.length];
+        for (int slot = 0; slot < layout.types.length; slot++) {
+            int found = -1;
+            for (int i = 0; i < types.length && found < 0; i++) {
+                if (!used[i] && squares[i] >= 0 && types[i] == layout.types[slot]
+                        && (colors[i] ^ flip) == layout.colors[slot]) {
+                    found = i;
+                }
+            }
+            if (found < 0) {
+                return false;
+            }
+            used[found] = true;
+            ordered[slot] = flip == 0 ? squares[found] : squares[found] ^ 56;
+        }
+        return true;
+    }
+
+    static Result decode(int value) {
+        if (value == DRAW) {
+            return new Result(Verdict.DRAW, 0);
+        }
+        int plies = value - 1;
+        return new Result(plies % 2 == 1 ? Verdict.WIN : Verdict.LOSS, plies);
+    }
+}
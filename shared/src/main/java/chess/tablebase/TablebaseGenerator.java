@@ -0,0 +1,521 @@
+package chess.tablebase;
+
+import chess.ChessPiece.PieceType;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Builds {@link Tablebase} tables by retrograde analysis.
+ * <p>
+ * Every position of a table is first marked as impossible, checkmated,
+ * stalemated or undecided. Then each pass settles the undecided positions one
+ * ply further from mate: on odd passes, positions with a move into a loss
+ * found on the pass before become wins; on even passes, positions whose every
+ * move leads to a win for the opponent become losses. When two passes in a row
+ * settle nothing, whatever is left is a draw.
+ * </p>
+ * <p>
+ * Each pass is split across a fork-join pool by ranges of positions. A pass
+ * only reads results from earlier passes and only writes undecided positions,
+ * so workers need no locks. Captures and promotions lead into smaller tables,
+ * which are built first, or reused from the output directory if they are
+ * already there.
+ * </p>
+ */
+public class TablebaseGenerator implements AutoCloseable {
+    private static final int CHUNK = 1 << 12;
+    // The longest mate a byte can hold, leaving room for the stalemate marker and ILLEGAL
+    private static final int MAX_PLIES = 252;
+    // Marks stalemates while building so passes skip them; written out as a draw
+    private static final int STALEMATE = 254;
+    private static final int IO_BUFFER_SIZE = 1 << 16;
+
+    private static final int[][] KING_STEPS = {{1, 0}, {1, 1}, {0, 1}, {-1, 1}, {-1, 0}, {-1, -1}, {0, -1}, {1, -1}};
+    private static final int[][] KNIGHT_STEPS =
+            {{1, 2}, {2, 1}, {2, -1}, {1, -2}, {-1, -2}, {-2, -1}, {-2, 1}, {-1, 2}};
+    private static final int[][] ROOK_RAYS = {{1, 0}, {0, 1}, {-1, 0}, {0, -1}};
+    private static final int[][] BISHOP_RAYS = {{1, 1}, {-1, 1}, {-1, -1}, {1, -1}};
+
+    private final ForkJoinPool pool;
+    private final Map<String, Tablebase.Table> tables = new ConcurrentHashMap<>();
+
+    /**
+     * What building one table found.
+     *
+     * @param table       The table name
+     * @param positions   The number of possible positions
+     * @param wins        Positions the side to move wins
+     * @param draws       Positions that are drawn
+     * @param losses      Positions the side to move loses
+     * @param longestMate The longest mate, in plies
+     * @param elapsed     The time building took
+     */
+    public record Stats(String table, long positions, long wins, long draws, long losses, int longestMate,
+            Duration elapsed) {
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "%s: %d positions, %d wins, %d draws, %d losses, longest mate %d plies"
+                    + " in %.1fs", table, positions, wins, draws, losses, longestMate, elapsed.toNanos() / 1e9);
+        }
+    }
+
+    /**
+     * Creates a generator.
+     *
+     * @param parallelism The number of worker threads
+     */
+    public TablebaseGenerator(int parallelism) {
+        this.pool = new ForkJoinPool(parallelism);
+    }
+
+    /**
+     * Builds a table and any smaller tables it depends on that are not in the
+     * directory yet, and writes them there.
+     *
+     * @param name      The table, such as {@code KQK}
+     * @param directory Where to write the tables
+     * @return What was built, smaller tables first
+     * @throws IOException              if a table cannot be read or written
+     * @throws IllegalArgumentException if the name is not a table this
+     *                                  generator can build
+     */
+    public List<Stats> generate(String name, Path directory) throws IOException {
+        TableLayout layout = TableLayout.parse(name);
+        List<Stats> built = new ArrayList<>();
+        for (String successor : layout.successors()) {
+            if (tables.containsKey(successor)) {
+                continue;
+            }
+            Path file = directory.resolve(successor + Tablebase.EXTENSION);
+            if (Files.exists(file)) {
+                TableLayout existing = TableLayout.parse(successor);
+                tables.put(successor, new Tablebase.Table(existing, Tablebase.map(file, existing)));
+            } else {
+                built.addAll(generate(successor, directory));
+            }
+        }
+        built.add(build(layout, directory));
+        return built;
+    }
+
+    private Stats build(TableLayout layout, Path directory) throws IOException {
+        long start = System.nanoTime();
+        int longestSuccessor = 0;
+        for (String successor : layout.successors()) {
+            longestSuccessor = Math.max(longestSuccessor, longestMate(tables.get(successor).values()));
+        }
+
+        byte[] values = new byte[layout.size];
+        pool.invoke(new Pass(layout, values, 0, 0, values.length));
+        int quiet = 0;
+        for (int plies = 1; quiet < 2 || plies <= longestSuccessor + 1; plies++) {
+            if (plies > MAX_PLIES) {
+                throw new IllegalStateException("Mates in " + layout.name + " are too long to store");
+            }
+            int settled = pool.invoke(new Pass(layout, values, plies, 0, values.length));
+            quiet = settled == 0 ? quiet + 1 : 0;
+        }
+
+        long positions = 0;
+        long wins = 0;
+        long losses = 0;
+        for (int i = 0; i < values.length; i++) {
+            int value = values[i] & 0xFF;
+            if (value == STALEMATE) {
+                values[i] = Tablebase.DRAW;
+                value = Tablebase.DRAW;
+            }
+            if (value != Tablebase.ILLEGAL) {
+                positions++;
+                if (value != Tablebase.DRAW) {
+                    if ((value - 1) % 2 == 1) {
+                        wins++;
+                    } else {
+                        losses++;
+                    }
+                }
+            }
+        }
+        write(layout, values, directory.resolve(layout.name + Tablebase.EXTENSION));
+        ByteBuffer table = ByteBuffer.wrap(values);
+        tables.put(layout.name, new Tablebase.Table(layout, table));
+        return new Stats(layout.name, positions, wins, positions - wins - losses, losses, longestMate(table),
+                Duration.ofNanos(System.nanoTime() - start));
+    }
+
+    private static int longestMate(ByteBuffer values) {
+        int longest = 0;
+        for (int i = 0; i < values.limit(); i++) {
+            int value = values.get(i) & 0xFF;
+            if (value != Tablebase.ILLEGAL && value != Tablebase.DRAW) {
+                longest = Math.max(longest, value - 1);
+            }
+        }
+        return longest;
+    }
+
+    // Written beside the destination and moved into place, so no reader maps a partly written table
+    private static void write(TableLayout layout, byte[] values, Path file) throws IOException {
+        Path temp = Files.createTempFile(file.toAbsolutePath().getParent(), layout.name, ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(temp), IO_BUFFER_SIZE))) {
+                out.writeInt(Tablebase.MAGIC);
+                out.writeInt(Tablebase.VERSION);
+                out.writeLong(values.length);
+                out.write(values);
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Stops the worker threads.
+     */
+    @Override
+    public void close() {
+        pool.shutdown();
+    }
+
+    // One pass over a range of positions; pass 0 marks the starting state, later passes settle mates
+    private final class Pass extends RecursiveTask<Integer> {
+        private final TableLayout layout;
+        private final byte[] values;
+        private final int plies;
+        private final int from;
+        private final int to;
+
+        Pass(TableLayout layout, byte[] values, int plies, int from, int to) {
+            this.layout = layout;
+            this.values = values;
+            this.plies = plies;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Integer compute() {
+            if (to - from > CHUNK) {
+                int mid = (from + to) >>> 1;
+                Pass left = new Pass(layout, values, plies, from, mid);
+                left.fork();
+                return new Pass(layout, values, plies, mid, to).compute() + left.join();
+            }
+            Board board = new Board(layout, values);
+            int settled = 0;
+            for (int index = from; index < to; index++) {
+                if (plies == 0) {
+                    board.classify(index);
+                } else if (values[index] == Tablebase.DRAW && board.settle(index, plies)) {
+                    settled++;
+                }
+            }
+            return settled;
+        }
+    }
+
+    // A position being examined, with the moves of the side to move
+    private final class Board {
+        private final TableLayout layout;
+        private final byte[] values;
+        private final PieceType[] types;
+        private final int[] colors;
+        private final int[] squares;
+        private final int[] scratch;
+        private final int[] kings = new int[2];
+        private final int[] moves = new int[256];
+
+        Board(TableLayout layout, byte[] values) {
+            this.layout = layout;
+            this.values = values;
+            this.types = layout.types.clone();
+            this.colors = layout.colors;
+            this.squares = new int[types.length];
+            this.scratch = new int[types.length];
+            for (int i = types.length - 1; i >= 0; i--) {
+                if (types[i] == PieceType.KING) {
+                    kings[colors[i]] = i;
+                }
+            }
+        }
+
+        void classify(int index) {
+            int stm = layout.decode(index, squares);
+            if (!possible(stm)) {
+                values[index] = (byte) Tablebase.ILLEGAL;
+                return;
+            }
+            int count = generate(stm);
+            for (int m = 0; m < count; m++) {
+                if (play(moves[m], stm) != Integer.MIN_VALUE) {
+                    return;
+                }
+            }
+            values[index] = (byte) (inCheck(stm) ? 1 : STALEMATE);
+        }
+
+        // Only called on undecided positions, which always have a legal move
+        boolean settle(int index, int plies) {
+            int stm = layout.decode(index, squares);
+            int count = generate(stm);
+            boolean winning = plies % 2 == 1;
+            for (int m = 0; m < count; m++) {
+                int child = play(moves[m], stm);
+                if (child == Integer.MIN_VALUE) {
+                    continue;
+                }
+                if (winning && child == plies) {
+                    // A move into a loss one ply shorter
+                    values[index] = (byte) (plies + 1);
+                    return true;
+                }
+                if (!winning && (child < 2 || child > plies || child % 2 != 0)) {
+                    // A move that does not lose within the plies so far
+                    return false;
+                }
+            }
+            if (winning) {
+                return false;
+            }
+            values[index] = (byte) (plies + 1);
+            return true;
+        }
+
+        private boolean possible(int stm) {
+            for (int i = 0; i < squares.length; i++) {
+                int rank = squares[i] >> 3;
+                if (types[i] == PieceType.PAWN && (rank == 0 || rank == 7)) {
+                    return false;
+                }
+                for (int j = 0; j < i; j++) {
+                    if (squares[i] == squares[j]) {
+                        return false;
+                    }
+                }
+            }
+            // The side that just moved cannot have left its king in check
+            return !inCheck(1 - stm);
+        }
+
+        // Plays a move and returns the resulting position's stored value, or MIN_VALUE if the move is illegal
+        private int play(int move, int stm) {
+            int piece = move & 7;
+            int target = move >> 3 & 63;
+            int promotion = move >> 9;
+            int from = squares[piece];
+            int captured = pieceAt(target);
+            squares[piece] = target;
+            if (captured >= 0) {
+                squares[captured] = -1;
+            }
+            if (promotion > 0) {
+                types[piece] = TableLayout.PROMOTIONS[promotion - 1];
+            }
+
+            int value;
+            if (inCheck(stm)) {
+                value = Integer.MIN_VALUE;
+            } else if (captured < 0 && promotion == 0) {
+                System.arraycopy(squares, 0, scratch, 0, squares.length);
+                value = values[layout.index(scratch, 1 - stm)] & 0xFF;
+            } else {
+                value = Tablebase.lookup(tables, types, colors, squares, 1 - stm);
+                if (value < 0) {
+                    throw new IllegalStateException("Missing table for " + TableLayout.nameOf(types, colors, squares));
+                }
+            }
+
+            squares[piece] = from;
+            if (captured >= 0) {
+                squares[captured] = target;
+            }
+            types[piece] = layout.types[piece];
+            return value;
+        }
+
+        private int generate(int stm) {
+            int count = 0;
+            for (int i = 0; i < types.length; i++) {
+                if (colors[i] != stm || squares[i] < 0) {
+                    continue;
+                }
+                switch (types[i]) {
+                    case KING -> count = steps(i, KING_STEPS, count);
+                    case KNIGHT -> count = steps(i, KNIGHT_STEPS, count);
+                    case BISHOP -> count = rays(i, BISHOP_RAYS, count);
+                    case ROOK -> count = rays(i, ROOK_RAYS, count);
+                    case QUEEN -> count = rays(i, ROOK_RAYS, rays(i, BISHOP_RAYS, count));
+                    case PAWN -> count = pawn(i, count);
+                }
+            }
+            return count;
+        }
+
+        private int steps(int piece, int[][] steps, int count) {
+            int rank = squares[piece] >> 3;
+            int file = squares[piece] & 7;
+            for (int[] step : steps) {
+                int r = rank + step[0];
+                int f = file + step[1];
+                if (r >= 0 && r < 8 && f >= 0 && f < 8 && !ownPiece(r * 8 + f, piece)) {
+                    moves[count++] = piece | (r * 8 + f) << 3;
+                }
+            }
+            return count;
+        }
+
+        private int rays(int piece, int[][] rays, int count) {
+            for (int[] ray : rays) {
+                int r = (squares[piece] >> 3) + ray[0];
+                int f = (squares[piece] & 7) + ray[1];
+                while (r >= 0 && r < 8 && f >= 0 && f < 8) {
+                    int occupant = pieceAt(r * 8 + f);
+                    if (occupant < 0 || colors[occupant] != colors[piece]) {
+                        moves[count++] = piece | (r * 8 + f) << 3;
+                    }
+                    if (occupant >= 0) {
+                        break;
+                    }
+                    r += ray[0];
+                    f += ray[1];
+                }
+            }
+            return count;
+        }
+
+        private int pawn(int piece, int count) {
+            int direction = colors[piece] == 0 ? 1 : -1;
+            int rank = squares[piece] >> 3;
+            int file = squares[piece] & 7;
+            int ahead = rank + direction;
+            if (pieceAt(ahead * 8 + file) < 0) {
+                count = pawnMove(piece, ahead * 8 + file, count);
+                int home = colors[piece] == 0 ? 1 : 6;
+                if (rank == home && pieceAt((ahead + direction) * 8 + file) < 0) {
+                    moves[count++] = piece | ((ahead + direction) * 8 + file) << 3;
+                }
+            }
+            for (int side = -1; side <= 1; side += 2) {
+                int f = file + side;
+                if (f >= 0 && f < 8) {
+                    int occupant = pieceAt(ahead * 8 + f);
+                    if (occupant >= 0 && colors[occupant] != colors[piece]) {
+                        count = pawnMove(piece, ahead * 8 + f, count);
+                    }
+                }
+            }
+            return count;
+        }
+
+        private int pawnMove(int piece, int target, int count) {
+            int rank = target >> 3;
+            if (rank != 0 && rank != 7) {
+                moves[count++] = piece | target << 3;
+                return count;
+            }
+            for (int promotion = 1; promotion <= TableLayout.PROMOTIONS.length; promotion++) {
+                moves[count++] = piece | target << 3 | promotion << 9;
+            }
+            return count;
+        }
+
+        private boolean inCheck(int color) {
+            return attacked(squares[kings[color]], 1 - color);
+        }
+
+        private boolean attacked(int square, int by) {
+            for (int i = 0; i < types.length; i++) {
+                if (colors[i] != by || squares[i] < 0) {
+                    continue;
+                }
+                int dr = (square >> 3) - (squares[i] >> 3);
+                int df = (square & 7) - (squares[i] & 7);
+                boolean hits = switch (types[i]) {
+                    case KING -> Math.max(Math.abs(dr), Math.abs(df)) == 1;
+                    case KNIGHT -> Math.abs(dr * df) == 2;
+                    case PAWN -> dr == (by == 0 ? 1 : -1) && Math.abs(df) == 1;
+                    case ROOK -> (dr == 0 || df == 0) && clear(squares[i], dr, df);
+                    case BISHOP -> Math.abs(dr) == Math.abs(df) && clear(squares[i], dr, df);
+                    case QUEEN -> (dr == 0 || df == 0 || Math.abs(dr) == Math.abs(df)) && clear(squares[i], dr, df);
+                };
+                if (hits) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        // Whether nothing stands between a slider and a square it lines up with
+        private boolean clear(int from, int dr, int df) {
+            if (dr == 0 && df == 0) {
+                return false;
+            }
+            int step = Integer.signum(dr) * 8 + Integer.signum(df);
+            int distance = Math.max(Math.abs(dr), Math.abs(df));
+            for (int k = 1; k < distance; k++) {
+                if (pieceAt(from + k * step) >= 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private boolean ownPiece(int square, int piece) {
+            int occupant = pieceAt(square);
+            return occupant >= 0 && colors[occupant] == colors[piece];
+        }
+
+        private int pieceAt(int square) {
+            for (int i = 0; i < squares.length; i++) {
+                if (squares[i] == square) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+
+    /**
+     * Builds tables into a directory.
+     * <p>
+     * Usage: {@code <directory> <table>...}, for example {@code tables KQK KRK
+     * KPK KBNK}
+     * </p>
+     *
+     * @param args The command line
+     */
+    public static void main(String[] args) {
+        if (args.length < 2) {
+            System.err.println("Usage: TablebaseGenerator <directory> <table>...");
+            System.exit(2);
+        }
+        try (TablebaseGenerator generator = new TablebaseGenerator(Runtime.getRuntime().availableProcessors())) {
+            Path directory = Path.of(args[0]);
+            Files.createDirectories(directory);
+            for (int i = 1; i < args.length; i++) {
+                for (Stats stats : generator.generate(args[i], directory)) {
+                    System.out.println("[TablebaseGenerator] " + stats);
+                }
+            }
+        } catch (IOException | IllegalArgumentException | IllegalStateException e) {
+            System.err.println("[TablebaseGenerator] Failed: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+}
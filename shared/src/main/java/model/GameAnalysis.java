@@ -0,0 +1,55 @@
+package model;
+
+import chess.ChessGame;
+
+import java.util.List;
+
+/**
+ * Holds the engine's verdict on every move of a finished game, from which
+ * each side's accuracy is measured. Moves alternate starting with white, as
+ * analyzed games are replayed from the standard starting position.
+ * 
+ * @param gameID The game analyzed
+ * @param depth  The search depth each position was evaluated to
+ * @param moves  One evaluation per move, in the order the moves were played
+ */
+public record GameAnalysis(int gameID, int depth, List<MoveEvaluation> moves) {
+    /**
+     * The largest centipawn loss counted for a single move, so that one
+     * missed mate does not swamp a side's average.
+     */
+    public static final int MAX_LOSS = 1000;
+
+    /**
+     * The engine's verdict on one move.
+     * 
+     * @param move     The move played, in coordinate notation such as
+     *                 {@code e2e4}
+     * @param bestMove The move the engine preferred, or null if it found none
+     * @param score    The evaluation after the move, in centipawns from
+     *                 white's point of view; mates score near
+     *                 ±{@link chess.engine.Searcher#MATE}
+     * @param loss     How much worse the move was than the engine's choice, in
+     *                 centipawns for the side that played it, capped at
+     *                 {@link #MAX_LOSS}
+     */
+    public record MoveEvaluation(String move, String bestMove, int score, int loss) {
+    }
+
+    /**
+     * Gets one side's average centipawn loss, the usual measure of accuracy.
+     * 
+     * @param color The side
+     * @return The average loss per move, or 0 if the side made no moves
+     */
+    public double averageLoss(ChessGame.TeamColor color) {
+        int first = color == ChessGame.TeamColor.WHITE ? 0 : 1;
+        long total = 0;
+        int count = 0;
+        for (int i = first; i < moves.size(); i += 2) {
+            total += moves.get(i).loss();
+            count++;
+        }
+        return count == 0 ? 0 : (double) total / count;
+    }
+}
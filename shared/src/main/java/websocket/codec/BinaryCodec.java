@@ -0,0 +1,498 @@
+package websocket.codec;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPiece;
+import chess.ChessPosition;
+import model.GameData;
+import websocket.commands.*;
+import websocket.messages.AnalysisMessage;
+import websocket.messages.BatchMessage;
+import websocket.messages.ErrorMessage;
+import websocket.messages.LoadGameMessage;
+import websocket.messages.NotificationMessage;
+import websocket.messages.ServerMessage;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Compact binary encoding of game commands and server messages, used as an
+ * alternative to the JSON text protocol by clients that negotiate it.
+ * <p>
+ * Every frame starts with a one-byte tag. Integers are unsigned LEB128
+ * varints (signed values are zigzag encoded first), strings are a varint
+ * length followed by UTF-8 bytes, and nullable values are shifted by one so
+ * that zero means null. Moves are packed into two bytes (start square, end
+ * square and promotion piece) and boards are sent as a 32-byte nibble-packed
+ * snapshot plus a 64-bit has-moved mask.
+ * </p>
+ */
+public final class BinaryCodec {
+  public static final byte CONNECT = 1;
+  public static final byte MAKE_MOVE = 2;
+  public static final byte LEAVE = 3;
+  public static final byte RESIGN = 4;
+  public static final byte ANALYZE = 5;
+
+  public static final byte LOAD_GAME = 1;
+  public static final byte ERROR = 2;
+  public static final byte NOTIFICATION = 3;
+  public static final byte BATCH = 4;
+  public static final byte ANALYSIS = 5;
+
+  private static final int NO_MOVE = 0xFFFF;
+  private static final int NO_PROMOTION = 7;
+  private static final int TURN_WHITE = 0;
+  private static final int TURN_BLACK = 1;
+  private static final int TURN_OVER = 2;
+  private static final int NO_GAME = 3;
+  private static final int BLACK_PIECE = 8;
+
+  private static final ChessPiece.PieceType[] PIECE_TYPES = ChessPiece.PieceType.values();
+
+  private BinaryCodec() {
+  }
+
+  /**
+   * Encodes a command sent from a client to the server.
+   *
+   * @param command the command to encode
+   * @return the binary frame
+   */
+  public static byte[] encodeCommand(UserGameCommand command) {
+    FrameWriter out = new FrameWriter(32);
+    out.writeByte(commandTag(command.getCommandType()));
+    out.writeNullableString(command.getAuthToken());
+    out.writeNullableInt(command.getGameID());
+    if (command instanceof MakeMoveCommand moveCommand) {
+      out.writeShort(packMove(moveCommand.getMove()));
+    } else if (command instanceof AnalyzeCommand analyzeCommand) {
+      out.writeNullableInt(analyzeCommand.getDepth());
+    }
+    return out.toByteArray();
+  }
+
+  /**
+   * Decodes a command frame into its concrete command class.
+   *
+   * @param frame the frame, positioned at its first byte
+   * @return the decoded command
+   * @throws IllegalArgumentException if the frame is malformed
+   */
+  public static UserGameCommand decodeCommand(ByteBuffer frame) {
+    try {
+      byte tag = frame.get();
+      String authToken = readNullableString(frame);
+      Integer gameID = readNullableInt(frame);
+      switch (tag) {
+        case CONNECT:
+          return new ConnectCommand(authToken, gameID);
+        case MAKE_MOVE:
+          return new MakeMoveCommand(authToken, gameID, unpackMove(frame.getShort() & 0xFFFF));
+        case LEAVE:
+          return new LeaveCommand(authToken, gameID);
+        case RESIGN:
+          return new ResignCommand(authToken, gameID);
+        case ANALYZE:
+          return new AnalyzeCommand(authToken, gameID, readNullableInt(frame));
+        default:
+          throw new IllegalArgumentException("Unknown command tag: " + tag);
+      }
+    } catch (BufferUnderflowException e) {
+      throw new IllegalArgumentException("Truncated command frame");
+    }
+  }
+
+  /**
+   * Encodes a message sent from the server to a client.
+   *
+   * @param message the message to encode
+   * @return the binary frame
+   */
+  public static byte[] encodeServerMessage(ServerMessage message) {
+    FrameWriter out = new FrameWriter(64);
+    switch (message.getServerMessageType()) {
+      case LOAD_GAME:
+        out.writeByte(LOAD_GAME);
+        writeGameData(out, ((LoadGameMessage) message).getGame());
+        break;
+      case ERROR:
+        out.writeByte(ERROR);
+        out.writeNullableString(((ErrorMessage) message).getErrorMessage());
+        break;
+      case NOTIFICATION:
+        out.writeByte(NOTIFICATION);
+        out.writeNullableString(((NotificationMessage) message).getMessage());
+        break;
+      case BATCH:
+        List<ServerMessage> messages = ((BatchMessage) message).getMessages();
+        List<byte[]> frames = new ArrayList<>(messages.size());
+        for (ServerMessage batched : messages) {
+          frames.add(encodeServerMessage(batched));
+        }
+        return encodeBatch(frames);
+      case ANALYSIS:
+        out.writeByte(ANALYSIS);
+        writeAnalysis(out, (AnalysisMessage) message);
+        break;
+      default:
+        throw new IllegalArgumentException("Unsupported message type: " + message.getServerMessageType());
+    }
+    return out.toByteArray();
+  }
+
+  /**
+   * Decodes a server message frame.
+   *
+   * @param frame the frame, positioned at its first byte
+   * @return the decoded message
+   * @throws IllegalArgumentException if the frame is malformed
+   */
+  public static ServerMessage decodeServerMessage(ByteBuffer frame) {
+    try {
+      byte tag = frame.get();
+      switch (tag) {
+        case LOAD_GAME:
+          return new LoadGameMessage(readGameData(frame));
+        case ERROR:
+          String error = readNullableString(frame);
+          return new ErrorMessage(error == null ? "" : error);
+        case NOTIFICATION:
+          return new NotificationMessage(readNullableString(frame));
+        case BATCH:
+          return readBatch(frame);
+        case ANALYSIS:
+          return readAnalysis(frame);
+        default:
+          throw new IllegalArgumentException("Unknown message tag: " + tag);
+      }
+    } catch (BufferUnderflowException e) {
+      throw new IllegalArgumentException("Truncated server message frame");
+    }
+  }
+
+  /**
+   * Combines already encoded server message frames into one BATCH frame, so
+   * a broadcast can reuse frames it has encoded for other recipients.
+   *
+   * @param frames the encoded frames, in order
+   * @return the batch frame
+   */
+  public static byte[] encodeBatch(List<byte[]> frames) {
+    int size = 6;
+    for (byte[] frame : frames) {
+      size += frame.length + 5;
+    }
+    FrameWriter out = new FrameWriter(size);
+    out.writeByte(BATCH);
+    out.writeVarInt(frames.size());
+    for (byte[] frame : frames) {
+      out.writeVarInt(frame.length);
+      out.writeBytes(frame);
+    }
+    return out.toByteArray();
+  }
+
+  /**
+   * Packs a move into 16 bits: start square, end square and promotion piece.
+   *
+   * @param move the move to pack, may be null
+   * @return the packed move
+   */
+  public static int packMove(ChessMove move) {
+    if (move == null) {
+      return NO_MOVE;
+    }
+    int promotion = move.getPromotionPiece() == null ? NO_PROMOTION : move.getPromotionPiece().ordinal();
+    return squareIndex(move.getStartPosition()) | squareIndex(move.getEndPosition()) << 6 | promotion << 12;
+  }
+
+  /**
+   * Reverses {@link #packMove(ChessMove)}.
+   *
+   * @param packed the packed move
+   * @return the move, or null if {@code packed} encodes no move
+   */
+  public static ChessMove unpackMove(int packed) {
+    if (packed == NO_MOVE) {
+      return null;
+    }
+    int promotion = packed >>> 12 & 7;
+    if (promotion != NO_PROMOTION && promotion >= PIECE_TYPES.length) {
+      throw new IllegalArgumentException("Invalid promotion piece: " + promotion);
+    }
+    return new ChessMove(squarePosition(packed & 63), squarePosition(packed >>> 6 & 63),
+        promotion == NO_PROMOTION ? null : PIECE_TYPES[promotion]);
+  }
+
+  private static void writeGameData(FrameWriter out, GameData gameData) {
+    out.writeVarInt(zigzag(gameData.gameID()));
+    out.writeNullableString(gameData.whiteUsername());
+    out.writeNullableString(gameData.blackUsername());
+    out.writeNullableString(gameData.gameName());
+
+    ChessGame game = gameData.game();
+    if (game == null) {
+      out.writeByte(NO_GAME);
+      return;
+    }
+    ChessGame.TeamColor turn = game.getTeamTurn();
+    out.writeByte(turn == null ? TURN_OVER : turn == ChessGame.TeamColor.WHITE ? TURN_WHITE : TURN_BLACK);
+
+    ChessBoard board = game.getBoard();
+    byte[] squares = new byte[32];
+    long moved = 0;
+    for (int square = 0; square < 64; square++) {
+      ChessPiece piece = board.getPiece(squarePosition(square));
+      if (piece == null) {
+        continue;
+      }
+      int code = piece.getPieceType().ordinal() + 1;
+      if (piece.getTeamColor() == ChessGame.TeamColor.BLACK) {
+        code |= BLACK_PIECE;
+      }
+      squares[square >> 1] |= (byte) (code << ((square & 1) << 2));
+      if (piece.isHasMoved()) {
+        moved |= 1L << square;
+      }
+    }
+    out.writeBytes(squares);
+    out.writeLong(moved);
+  }
+
+  private static GameData readGameData(ByteBuffer frame) {
+    int gameID = unzigzag(readVarInt(frame));
+    String white = readNullableString(frame);
+    String black = readNullableString(frame);
+    String name = readNullableString(frame);
+
+    int turn = frame.get();
+    if (turn == NO_GAME) {
+      return new GameData(gameID, white, black, name, null);
+    }
+
+    byte[] squares = new byte[32];
+    frame.get(squares);
+    long moved = frame.getLong();
+    ChessBoard board = new ChessBoard();
+    for (int square = 0; square < 64; square++) {
+      int code = squares[square >> 1] >> ((square & 1) << 2) & 15;
+      if (code == 0) {
+        continue;
+      }
+      int type = (code & 7) - 1;
+      if (type >= PIECE_TYPES.length) {
+        throw new IllegalArgumentException("Invalid piece code: " + code);
+      }
+      ChessGame.TeamColor color = (code & BLACK_PIECE) != 0 ? ChessGame.TeamColor.BLACK
+          : ChessGame.TeamColor.WHITE;
+      board.addPiece(squarePosition(square),
+          new ChessPiece(color, PIECE_TYPES[type], (moved >>> square & 1) != 0));
+    }
+
+    ChessGame game = new ChessGame();
+    game.setBoard(board);
+    game.setTeamTurn(turn == TURN_OVER ? null : turn == TURN_WHITE ? ChessGame.TeamColor.WHITE
+        : ChessGame.TeamColor.BLACK);
+    return new GameData(gameID, white, black, name, game);
+  }
+
+  private static void writeAnalysis(FrameWriter out, AnalysisMessage analysis) {
+    out.writeNullableInt(analysis.getGameID());
+    out.writeVarInt(analysis.getDepth());
+    out.writeVarInt(zigzag(analysis.getScore()));
+    out.writeNullableInt(analysis.getMateIn());
+    List<ChessMove> line = analysis.getLine() == null ? List.of() : analysis.getLine();
+    out.writeVarInt(line.size());
+    for (ChessMove move : line) {
+      out.writeShort(packMove(move));
+    }
+    out.writeLong(analysis.getNodes());
+  }
+
+  private static AnalysisMessage readAnalysis(ByteBuffer frame) {
+    Integer gameID = readNullableInt(frame);
+    int depth = readVarInt(frame);
+    int score = unzigzag(readVarInt(frame));
+    Integer mateIn = readNullableInt(frame);
+    int count = readVarInt(frame);
+    if (count < 0 || count * 2 > frame.remaining()) {
+      throw new IllegalArgumentException("Invalid line length: " + count);
+    }
+    List<ChessMove> line = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      line.add(unpackMove(frame.getShort() & 0xFFFF));
+    }
+    return new AnalysisMessage(gameID, depth, score, mateIn, line, frame.getLong());
+  }
+
+  private static BatchMessage readBatch(ByteBuffer frame) {
+    int count = readVarInt(frame);
+    if (count < 0 || count > frame.remaining()) {
+      throw new IllegalArgumentException("Invalid batch size: " + count);
+    }
+    List<ServerMessage> messages = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      int length = readVarInt(frame);
+      if (length <= 0 || length > frame.remaining()) {
+        throw new IllegalArgumentException("Batched frame length exceeds frame");
+      }
+      ByteBuffer nested = frame.slice();
+      nested.limit(length);
+      messages.add(decodeServerMessage(nested));
+      frame.position(frame.position() + length);
+    }
+    return new BatchMessage(messages);
+  }
+
+  private static byte commandTag(UserGameCommand.CommandType type) {
+    if (type == null) {
+      throw new IllegalArgumentException("Command has no type");
+    }
+    switch (type) {
+      case CONNECT:
+        return CONNECT;
+      case MAKE_MOVE:
+        return MAKE_MOVE;
+      case LEAVE:
+        return LEAVE;
+      case RESIGN:
+        return RESIGN;
+      case ANALYZE:
+        return ANALYZE;
+      default:
+        throw new IllegalArgumentException("Unsupported command type: " + type);
+    }
+  }
+
+  private static int squareIndex(ChessPosition position) {
+    if (!position.inBounds()) {
+      throw new IllegalArgumentException("Position out of bounds: " + position);
+    }
+    return (position.getRow() - 1) * 8 + position.getColumn() - 1;
+  }
+
+  private static ChessPosition squarePosition(int square) {
+    return new ChessPosition(square / 8 + 1, square % 8 + 1);
+  }
+
+  private static int zigzag(int value) {
+    return value << 1 ^ value >> 31;
+  }
+
+  private static int unzigzag(int value) {
+    return value >>> 1 ^ -(value & 1);
+  }
+
+  private static int readVarInt(ByteBuffer frame) {
+    int value = 0;
+    for (int shift = 0; shift < 35; shift += 7) {
+      byte b = frame.get();
+      value |= (b & 0x7F) << shift;
+      if (b >= 0) {
+        return value;
+      }
+    }
+    throw new IllegalArgumentException("Varint too long");
+  }
+
+  private static Integer readNullableInt(ByteBuffer frame) {
+    int raw = readVarInt(frame);
+    return raw == 0 ? null : unzigzag(raw - 1);
+  }
+
+  private static String readNullableString(ByteBuffer frame) {
+    int length = readVarInt(frame);
+    if (length == 0) {
+      return null;
+    }
+    length--;
+    if (length < 0 || length > frame.remaining()) {
+      throw new IllegalArgumentException("String length exceeds frame");
+    }
+    if (!frame.hasArray()) {
+      byte[] bytes = new byte[length];
+      frame.get(bytes);
+      return new String(bytes, StandardCharsets.UTF_8);
+    }
+    String value = new String(frame.array(), frame.arrayOffset() + frame.position(), length,
+        StandardCharsets.UTF_8);
+    frame.position(frame.position() + length);
+    return value;
+  }
+
+  /**
+   * Minimal growable buffer; avoids the locking of ByteArrayOutputStream.
+   */
+  private static final class FrameWriter {
+    private byte[] buffer;
+    private int size;
+
+    private FrameWriter(int capacity) {
+      buffer = new byte[capacity];
+    }
+
+    private void ensure(int extra) {
+      if (size + extra > buffer.length) {
+        buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + extra));
+      }
+    }
+
+    private void writeByte(int value) {
+      ensure(1);
+      buffer[size++] = (byte) value;
+    }
+
+    private void writeShort(int value) {
+      ensure(2);
+      buffer[size++] = (byte) (value >>> 8);
+      buffer[size++] = (byte) value;
+    }
+
+    private void writeLong(long value) {
+      ensure(8);
+      for (int shift = 56; shift >= 0; shift -= 8) {
+        buffer[size++] = (byte) (value >>> shift);
+      }
+    }
+
+    private void writeBytes(byte[] bytes) {
+      ensure(bytes.length);
+      System.arraycopy(bytes, 0, buffer, size, bytes.length);
+      size += bytes.length;
+    }
+
+    private void writeVarInt(int value) {
+      ensure(5);
+      while ((value & ~0x7F) != 0) {
+        buffer[size++] = (byte) (value & 0x7F | 0x80);
+        value >>>= 7;
+      }
+      buffer[size++] = (byte) value;
+    }
+
+    private void writeNullableInt(Integer value) {
+      writeVarInt(value == null ? 0 : zigzag(value) + 1);
+    }
+
+    private void writeNullableString(String value) {
+      if (value == null) {
+        writeVarInt(0);
+        return;
+      }
+      byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+      writeVarInt(bytes.length + 1);
+      writeBytes(bytes);
+    }
+
+    private byte[] toByteArray() {
+      return Arrays.copyOf(buffer, size);
+    }
+  }
+}
@@ -0,0 +1,31 @@
+package websocket.commands;
+
+/**
+ * Represents a request to analyze a game's current position. Players and
+ * observers may both ask; only the sender receives the analysis.
+ */
+public class AnalyzeCommand extends UserGameCommand {
+  private final Integer depth;
+
+  /**
+   * Constructs an AnalyzeCommand instance.
+   *
+   * @param authToken the user's authentication token.
+   * @param gameID    the game identifier.
+   * @param depth     the search depth in plies, or null for the server's
+   *                  default.
+   */
+  public AnalyzeCommand(String authToken, Integer gameID, Integer depth) {
+    super(CommandType.ANALYZE, authToken, gameID);
+    this.depth = depth;
+  }
+
+  /**
+   * Retrieves the requested search depth.
+   *
+   * @return the depth in plies, or null for the server's default.
+   */
+  public Integer getDepth() {
+    return depth;
+  }
+}
@@ -0,0 +1,142 @@
+package websocket.commands;
+
+import chess.ChessMove;
+import com.google.gson.Gson;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+
+/**
+ * Reads a command frame in a single pass straight into its concrete
+ * UserGameCommand subclass, so the frame doesn't have to be parsed once to
+ * find its type and again to decode it.
+ * <p>
+ * The adapter holds no per-call state and can be shared by every thread.
+ * Register it with
+ * {@code GsonBuilder.registerTypeHierarchyAdapter(UserGameCommand.class, ...)}
+ * so that subclasses are written through it as well.
+ * </p>
+ */
+public class UserGameCommandAdapter extends TypeAdapter<UserGameCommand> {
+  private static final TypeAdapter<ChessMove> MOVE_ADAPTER = new Gson().getAdapter(ChessMove.class);
+
+  @Override
+  public void write(JsonWriter out, UserGameCommand command) throws IOException {
+    if (command == null) {
+      out.nullValue();
+      return;
+    }
+    out.beginObject();
+    if (command.getCommandType() != null) {
+      out.name("commandType").value(command.getCommandType().name());
+    }
+    if (command.getAuthToken() != null) {
+      out.name("authToken").value(command.getAuthToken());
+    }
+    if (command.getGameID() != null) {
+      out.name("gameID").value(command.getGameID());
+    }
+    if (command instanceof MakeMoveCommand moveCommand && moveCommand.getMove() != null) {
+      out.name("move");
+      MOVE_ADAPTER.write(out, moveCommand.getMove());
+    }
+    if (command instanceof AnalyzeCommand analyzeCommand && analyzeCommand.getDepth() != null) {
+      out.name("depth").value(analyzeCommand.getDepth());
+    }
+    out.endObject();
+  }
+
+  @Override
+  public UserGameCommand read(JsonReader in) throws IOException {
+    if (in.peek() == JsonToken.NULL) {
+      in.nextNull();
+      return null;
+    }
+
+    UserGameCommand.CommandType commandType = null;
+    String authToken = null;
+    Integer gameID = null;
+    ChessMove move = null;
+    Integer depth = null;
+
+    // Fields may come in any order, so collect them before picking the subclass
+    in.beginObject();
+    while (in.hasNext()) {
+      switch (in.nextName()) {
+        case "commandType":
+          commandType = readCommandType(in);
+          break;
+        case "authToken":
+          authToken = readNullableString(in);
+          break;
+        case "gameID":
+          gameID = readNullableInt(in, "gameID");
+          break;
+        case "depth":
+          depth = readNullableInt(in, "depth");
+          break;
+        case "move":
+          move = MOVE_ADAPTER.read(in);
+          break;
+        default:
+          in.skipValue();
+          break;
+      }
+    }
+    in.endObject();
+
+    if (commandType == null) {
+      throw new JsonSyntaxException("Missing commandType");
+    }
+    switch (commandType) {
+      case CONNECT:
+        return new ConnectCommand(authToken, gameID);
+      case MAKE_MOVE:
+        return new MakeMoveCommand(authToken, gameID, move);
+      case LEAVE:
+        return new LeaveCommand(authToken, gameID);
+      case RESIGN:
+        return new ResignCommand(authToken, gameID);
+      case ANALYZE:
+        return new AnalyzeCommand(authToken, gameID, depth);
+      default:
+        return new UserGameCommand(commandType, authToken, gameID);
+    }
+  }
+
+  private static UserGameCommand.CommandType readCommandType(JsonReader in) throws IOException {
+    String name = readNullableString(in);
+    if (name == null) {
+      return null;
+    }
+    try {
+      return UserGameCommand.CommandType.valueOf(name);
+    } catch (IllegalArgumentException e) {
+      throw new JsonSyntaxException("Unknown command type: " + name);
+    }
+  }
+
+  private static String readNullableString(JsonReader in) throws IOException {
+    if (in.peek() == JsonToken.NULL) {
+      in.nextNull();
+      return null;
+    }
+    return in.nextString();
+  }
+
+  private static Integer readNullableInt(JsonReader in, String name) throws IOException {
+    if (in.peek() == JsonToken.NULL) {
+      in.nextNull();
+      return null;
+    }
+    try {
+      return in.nextInt();
+    } catch (NumberFormatException e) {
+      throw new JsonSyntaxException("Invalid " + name + ": " + e.getMessage());
+    }
+  }
+}
@@ -0,0 +1,102 @@
+package websocket.messages;
+
+import chess.ChessMove;
+
+import java.util.List;
+
+/**
+ * Represents the server's analysis of a game's position, sent only to the
+ * client that asked for it.
+ */
+public class AnalysisMessage extends ServerMessage {
+  private final Integer gameID;
+  private final int depth;
+  private final int score;
+  private final Integer mateIn;
+  private final List<ChessMove> line;
+  private final long nodes;
+
+  /**
+   * Constructs an AnalysisMessage instance.
+   *
+   * @param gameID the game that was analyzed.
+   * @param depth  the depth searched, in plies.
+   * @param score  the score in centipawns for the side to move.
+   * @param mateIn moves until mate, negative if the side to move is mated, or
+   *               null if no mate was found.
+   * @param line   the best line, starting with the best move.
+   * @param nodes  the number of positions searched.
+   */
+  public AnalysisMessage(Integer gameID, int depth, int score, Integer mateIn, List<ChessMove> line, long nodes) {
+    super(ServerMessageType.ANALYSIS);
+    this.gameID = gameID;
+    this.depth = depth;
+    this.score = score;
+    this.mateIn = mateIn;
+    this.line = line;
+    this.nodes = nodes;
+  }
+
+  /**
+   * Retrieves the game that was analyzed.
+   *
+   * @return the game identifier.
+   */
+  public Integer getGameID() {
+    return gameID;
+  }
+
+  /**
+   * Retrieves the depth searched.
+   *
+   * @return the depth in plies.
+   */
+  public int getDepth() {
+    return depth;
+  }
+
+  /**
+   * Retrieves the score.
+   *
+   * @return the score in centipawns for the side to move.
+   */
+  public int getScore() {
+    return score;
+  }
+
+  /**
+   * Retrieves the distance to mate.
+   *
+   * @return moves until mate, negative if the side to move is mated, or null.
+   */
+  public Integer getMateIn() {
+    return mateIn;
+  }
+
+  /**
+   * Retrieves the best line.
+   *
+   * @return the moves of the best line, starting with the best move.
+   */
+  public List<ChessMove> getLine() {
+    return line;
+  }
+
+  /**
+   * Retrieves the best move.
+   *
+   * @return the first move of the best line, or null if there is none.
+   */
+  public ChessMove getBestMove() {
+    return line == null || line.isEmpty() ? null : line.get(0);
+  }
+
+  /**
+   * Retrieves the search size.
+   *
+   * @return the number of positions searched.
+   */
+  public long getNodes() {
+    return nodes;
+  }
+}
@@ -0,0 +1,31 @@
+package websocket.messages;
+
+import java.util.List;
+
+/**
+ * Carries several server messages produced by one command in a single frame.
+ * Only sent to clients that asked for batching when they connected; the
+ * messages should be handled in order as if they had arrived separately.
+ */
+public class BatchMessage extends ServerMessage {
+  private final List<ServerMessage> messages;
+
+  /**
+   * Constructs a BatchMessage instance.
+   *
+   * @param messages the messages in the order they were produced.
+   */
+  public BatchMessage(List<ServerMessage> messages) {
+    super(ServerMessageType.BATCH);
+    this.messages = messages;
+  }
+
+  /**
+   * Retrieves the batched messages.
+   *
+   * @return the messages in the order they were produced.
+   */
+  public List<ServerMessage> getMessages() {
+    return messages;
+  }
+}
@@ -0,0 +1,132 @@
+package chess.book;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPosition;
+import chess.notation.Fen;
+import chess.notation.PgnReader;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OpeningBookTest {
+    private static final String CORPUS = """
+            [Result "1-0"]
+            1. e4 e5 2. Nf3 Nc6 1-0
+
+            [Result "1/2-1/2"]
+            1. e4 c5 2. Nf3 1/2-1/2
+
+            [Result "1-0"]
+            1. e4 e5 2. Bc4 1-0
+
+            [Result "0-1"]
+            1. d4 d5 2. c4 0-1
+
+            [Result "1-0"]
+            1. e4 Qh4 2. Zz9 1-0
+            """;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testWeightsFollowResults() throws IOException {
+        OpeningBook book = build(1);
+        List<OpeningBook.BookMove> moves = book.lookup(Fen.parse(Fen.START).game());
+
+        // 1. e4 scored two wins and a draw; 1. d4 lost its only game and is left out
+        assertEquals(1, moves.size());
+        assertEquals(new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null), moves.get(0).move());
+        assertEquals(5, moves.get(0).weight());
+        assertEquals(3, moves.get(0).games());
+    }
+
+    @Test
+    void testMovesAreHeaviestFirst() throws IOException {
+        OpeningBook book = build(1);
+        ChessGame afterE4 = Fen.parse("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1").game();
+        List<OpeningBook.BookMove> moves = book.lookup(afterE4);
+
+        // Black lost both games with e5, so only the drawn c5 is kept
+        assertEquals(1, moves.size());
+        assertEquals(new ChessPosition(5, 3), moves.get(0).move().getEndPosition());
+
+        ChessGame afterE4E5 = Fen.parse("rnbqkbnr/pppp1ppp/8/4p3/4P3/8/PPPP1PPP/RNBQKBNR w KQkq e6 0 2").game();
+        List<OpeningBook.BookMove> replies = book.lookup(afterE4E5);
+        assertEquals(2, replies.size());
+        assertTrue(replies.get(0).weight() >= replies.get(1).weight());
+    }
+
+    @Test
+    void testMinimumGamesFiltersRareMoves() throws IOException {
+        OpeningBook book = build(2);
+        assertEquals(1, book.lookup(Fen.parse(Fen.START).game()).size());
+        ChessGame afterE4E5 = Fen.parse("rnbqkbnr/pppp1ppp/8/4p3/4P3/8/PPPP1PPP/RNBQKBNR w KQkq e6 0 2").game();
+        assertTrue(book.lookup(afterE4E5).isEmpty());
+    }
+
+    @Test
+    void testUnreplayableGamesAreSkipped() throws IOException {
+        OpeningBookBuilder builder = new OpeningBookBuilder(OpeningBookBuilder.DEFAULT_MAX_PLY, 1);
+        builder.addAll(new PgnReader(new StringReader(CORPUS)));
+        assertEquals(4, builder.games());
+        assertEquals(1, builder.skipped());
+    }
+
+    @Test
+    void testChoosesOnlyLegalBookMoves() throws IOException {
+        OpeningBook book = build(1);
+        ChessGame game = Fen.parse(Fen.START).game();
+        ChessMove move = book.choose(game, new SplittableRandom(1));
+        assertEquals(new ChessPosition(4, 5), move.getEndPosition());
+
+        ChessGame outOfBook = Fen.parse("4k3/8/8/8/8/8/8/4K3 w - - 0 1").game();
+        assertNull(book.choose(outOfBook, new SplittableRandom(1)));
+    }
+
+    @Test
+    void testRebuildReplacesBook() throws IOException {
+        Path file = directory.resolve("openings.book");
+        OpeningBook first = build(1);
+        int entries = first.size();
+
+        OpeningBookBuilder builder = new OpeningBookBuilder(1, 1);
+        builder.addAll(new PgnReader(new StringReader(CORPUS)));
+        builder.write(file);
+        assertEquals(1, OpeningBook.open(file).size());
+        // A book mapped before the rebuild still reads the old file
+        assertEquals(entries, first.size());
+        assertFalse(first.lookup(Fen.parse(Fen.START).game()).isEmpty());
+    }
+
+    @Test
+    void testRejectsOtherFiles() throws IOException {
+        Path file = directory.resolve("not.book");
+        Files.writeString(file, "[Event \"?\"]\n1. e4 *\n");
+        assertThrows(IOException.class, () -> OpeningBook.open(file));
+
+        Path empty = directory.resolve("empty.book");
+        new OpeningBookBuilder(1, 1).write(empty);
+        assertEquals(0, OpeningBook.open(empty).size());
+        Files.write(empty, new byte[]{1, 2, 3}, StandardOpenOption.APPEND);
+        assertThrows(IOException.class, () -> OpeningBook.open(empty));
+    }
+
+    private OpeningBook build(int minGames) throws IOException {
+        Path file = directory.resolve("openings.book");
+        OpeningBookBuilder builder = new OpeningBookBuilder(OpeningBookBuilder.DEFAULT_MAX_PLY, minGames);
+        builder.addAll(new PgnReader(new StringReader(CORPUS)));
+        builder.write(file);
+        return OpeningBook.open(file);
+    }
+}
@@ -0,0 +1,100 @@
+package chess.engine;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.InvalidMoveException;
+import chess.notation.Fen;
+import org.junit.jupiter.api.*;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParallelSearcherTest {
+    private ParallelSearcher searcher;
+
+    @BeforeEach
+    void setUp() {
+        searcher = new ParallelSearcher(MaterialEvaluator::new, new TranspositionTable(8), 4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        searcher.close();
+    }
+
+    @Test
+    void testFindsMateWithHelpers() {
+        SearchResult result = searcher.search(Fen.parse("7k/8/8/8/8/8/1R6/R5K1 w - - 0 1").game(),
+                SearchLimits.depth(5), 4);
+
+        assertTrue(result.isMate());
+        assertEquals(2, result.mateIn());
+    }
+
+    @Test
+    void testResultIsPlayable() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        SearchResult result = searcher.search(game, SearchLimits.depth(5), 4);
+
+        assertEquals(5, result.depth());
+        assertEquals(new ChessGame().getBoard(), game.getBoard());
+        for (ChessMove move : result.principalVariation()) {
+            game.makeMove(move);
+        }
+    }
+
+    @Test
+    void testHonoursTimeLimitWithHelpers() {
+        long start = System.nanoTime();
+        SearchResult result = searcher.search(new ChessGame(), SearchLimits.time(Duration.ofMillis(300)), 4);
+
+        assertNotNull(result.bestMove());
+        assertTrue(result.nodes() > 0);
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(2));
+    }
+
+    @Test
+    void testSingleThreadMatchesSearcher() {
+        ChessGame game = Fen.parse("4k3/8/8/3q4/8/8/3R4/4K3 w - - 0 1").game();
+        SearchResult result = searcher.search(game, SearchLimits.depth(4), 1);
+
+        assertEquals(new Searcher(new MaterialEvaluator()).search(game, SearchLimits.depth(4)).bestMove(),
+                result.bestMove());
+    }
+
+    @Test
+    void testConcurrentSearchesAndStop() {
+        List<CompletableFuture<SearchResult>> searches = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            searches.add(CompletableFuture.supplyAsync(
+                    () -> searcher.search(new ChessGame(), SearchLimits.time(Duration.ofSeconds(30)), 3)));
+        }
+        CompletableFuture<Void> all = CompletableFuture.allOf(searches.toArray(new CompletableFuture<?>[0]));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        // A search that has not started yet misses a stop, so keep asking
+        while (!all.isDone() && System.nanoTime() < deadline) {
+            searcher.stop();
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        assertTrue(all.isDone());
+        for (CompletableFuture<SearchResult> search : searches) {
+            assertNotNull(search.join().bestMove());
+        }
+    }
+
+    @Test
+    void testRejectsBadThreadCount() {
+        assertThrows(IllegalArgumentException.class, () -> searcher.search(new ChessGame(), SearchLimits.depth(1), 0));
+        assertThrows(IllegalArgumentException.class, () -> searcher.search(new ChessGame(), SearchLimits.depth(1), 5));
+    }
+}
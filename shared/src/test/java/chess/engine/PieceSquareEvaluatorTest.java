@@ -0,0 +1,83 @@
+package chess.engine;
+
+import chess.ChessMove;
+import chess.notation.Fen;
+import org.junit.jupiter.api.*;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PieceSquareEvaluatorTest {
+    private static final List<String> POSITIONS = List.of(
+            "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w - - 0 1",
+            "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+            "r1bqkbnr/pppp1ppp/2n5/4p3/2B1P3/5Q2/PPPP1PPP/RNB1K1NR b - - 0 1",
+            "4k3/1P6/8/8/8/8/6p1/4K3 w - - 0 1");
+
+    @Test
+    void testStartPositionIsEven() {
+        assertEquals(0, new PieceSquareEvaluator().evaluate(new SearchPosition(Fen.parse(Fen.START).game())));
+    }
+
+    @Test
+    void testMirroredPositionsScoreTheSame() {
+        PieceSquareEvaluator evaluator = new PieceSquareEvaluator();
+        for (String fen : POSITIONS) {
+            assertEquals(evaluator.evaluate(new SearchPosition(Fen.parse(fen).game())),
+                    evaluator.evaluate(new SearchPosition(Fen.parse(mirror(fen)).game())), fen);
+        }
+    }
+
+    @Test
+    void testIncrementalScoreMatchesFullScore() {
+        for (String fen : POSITIONS) {
+            PieceSquareEvaluator evaluator = new PieceSquareEvaluator(true);
+            SearchPosition position = new SearchPosition(Fen.parse(fen).game());
+            position.setListener(evaluator);
+            int root = evaluator.evaluate(position);
+
+            // Verification throws on the first mismatch
+            walk(position, evaluator, 3);
+            assertEquals(root, evaluator.evaluate(position), fen);
+        }
+    }
+
+    @Test
+    void testUnattachedPositionIsScoredInFull() {
+        PieceSquareEvaluator evaluator = new PieceSquareEvaluator();
+        SearchPosition attached = new SearchPosition(Fen.parse(POSITIONS.get(0)).game());
+        attached.setListener(evaluator);
+        SearchPosition other = new SearchPosition(Fen.parse(POSITIONS.get(1)).game());
+
+        assertEquals(evaluator.fullEvaluate(other), evaluator.evaluate(other));
+    }
+
+    private static void walk(SearchPosition position, Evaluator evaluator, int depth) {
+        evaluator.evaluate(position);
+        if (depth == 0) {
+            return;
+        }
+        for (ChessMove move : position.pseudoLegalMoves()) {
+            if (position.makeMove(move)) {
+                walk(position, evaluator, depth - 1);
+                position.unmakeMove();
+            }
+        }
+    }
+
+    private static String mirror(String fen) {
+        String[] fields = fen.split(" ");
+        String[] ranks = fields[0].split("/");
+        StringBuilder board = new StringBuilder();
+        for (int i = ranks.length - 1; i >= 0; i--) {
+            for (char c : ranks[i].toCharArray()) {
+                board.append(Character.isUpperCase(c) ? Character.toLowerCase(c) : Character.toUpperCase(c));
+            }
+            if (i > 0) {
+                board.append('/');
+            }
+        }
+        return board + " " + (fields[1].equals("w") ? "b" : "w") + " - - 0 1";
+    }
+}
@@ -0,0 +1,104 @@
+package chess.engine;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.notation.Fen;
+import org.junit.jupiter.api.*;
+
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SearchPositionTest {
+    private static final List<String> POSITIONS = List.of(
+            Fen.START,
+            "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w - - 0 1",
+            "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+            "4k3/8/8/8/8/8/4r3/4K3 w - - 0 1",
+            "r1bqkbnr/pppp1ppp/2n5/4p3/2B1P3/5Q2/PPPP1PPP/RNB1K1NR b - - 0 1");
+
+    @Test
+    void testLegalMovesMatchRules() {
+        for (String fen : POSITIONS) {
+            ChessGame game = Fen.parse(fen).game();
+            SearchPosition position = new SearchPosition(game);
+
+            assertEquals(game.allValidMoves(game.getTeamTurn()), new HashSet<>(position.legalMoves()), fen);
+        }
+    }
+
+    @Test
+    void testMakeAndUnmakeRestorePosition() {
+        for (String fen : POSITIONS) {
+            SearchPosition position = new SearchPosition(Fen.parse(fen).game());
+            String before = Fen.toFen(position.toGame());
+
+            assertEquals(perft(position, 3), perft(new SearchPosition(Fen.parse(fen).game()), 3));
+            assertEquals(before, Fen.toFen(position.toGame()), fen);
+            assertEquals(0, position.ply());
+        }
+    }
+
+    @Test
+    void testIncrementalHashMatchesFullHash() {
+        for (String fen : POSITIONS) {
+            SearchPosition position = new SearchPosition(Fen.parse(fen).game());
+            long root = position.hash();
+            assertEquals(Zobrist.hash(Fen.parse(fen).game()), root);
+
+            checkHashes(position, 3);
+            assertEquals(root, position.hash());
+        }
+    }
+
+    @Test
+    void testPerftFromStart() {
+        assertEquals(8902, perft(new SearchPosition(new ChessGame()), 3));
+    }
+
+    @Test
+    void testSourceGameUntouched() {
+        ChessGame game = new ChessGame();
+        SearchPosition position = new SearchPosition(game);
+        position.makeMove(position.legalMoves().get(0));
+
+        assertEquals(new ChessGame().getBoard(), game.getBoard());
+        assertEquals(ChessGame.TeamColor.WHITE, game.getTeamTurn());
+        assertEquals(ChessGame.TeamColor.BLACK, position.sideToMove());
+    }
+
+    @Test
+    void testRejectsFinishedGame() {
+        ChessGame game = new ChessGame();
+        game.setTeamTurn(null);
+        assertThrows(IllegalArgumentException.class, () -> new SearchPosition(game));
+    }
+
+    private static void checkHashes(SearchPosition position, int depth) {
+        if (depth == 0) {
+            return;
+        }
+        for (ChessMove move : position.pseudoLegalMoves()) {
+            if (position.makeMove(move)) {
+                assertEquals(Zobrist.hash(position.toGame()), position.hash());
+                checkHashes(position, depth - 1);
+                position.unmakeMove();
+            }
+        }
+    }
+
+    private static long perft(SearchPosition position, int depth) {
+        if (depth == 0) {
+            return 1;
+        }
+        long count = 0;
+        for (ChessMove move : position.pseudoLegalMoves()) {
+            if (position.makeMove(move)) {
+                count += perft(position, depth - 1);
+                position.unmakeMove();
+            }
+        }
+        return count;
+    }
+}
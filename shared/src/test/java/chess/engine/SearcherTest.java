@@ -0,0 +1,107 @@
+package chess.engine;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.InvalidMoveException;
+import chess.notation.Fen;
+import org.junit.jupiter.api.*;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SearcherTest {
+    private final Searcher searcher = new Searcher();
+
+    @Test
+    void testFindsMateInOne() {
+        SearchResult result = searcher.search(Fen.parse("6k1/5ppp/8/8/8/8/8/R5K1 w - - 0 1").game(),
+                SearchLimits.depth(3));
+
+        assertEquals(new ChessMove(Fen.square("a1"), Fen.square("a8")), result.bestMove());
+        assertTrue(result.isMate());
+        assertEquals(1, result.mateIn());
+    }
+
+    @Test
+    void testFindsMateInTwo() {
+        // Rook ladder: 1. Rb7 Kg8 2. Ra8#
+        SearchResult result = searcher.search(Fen.parse("7k/8/8/8/8/8/1R6/R5K1 w - - 0 1").game(),
+                SearchLimits.depth(5));
+
+        assertTrue(result.isMate());
+        assertEquals(2, result.mateIn());
+        assertEquals(3, result.principalVariation().size());
+    }
+
+    @Test
+    void testWinsHangingQueen() {
+        SearchResult result = searcher.search(Fen.parse("4k3/8/8/3q4/8/8/3R4/4K3 w - - 0 1").game(),
+                SearchLimits.depth(4));
+
+        assertEquals(new ChessMove(Fen.square("d2"), Fen.square("d5")), result.bestMove());
+        assertTrue(result.score() > 300);
+    }
+
+    @Test
+    void testPrincipalVariationIsPlayable() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        SearchResult result = searcher.search(game, SearchLimits.depth(4));
+
+        assertEquals(4, result.depth());
+        assertEquals(result.bestMove(), result.principalVariation().get(0));
+        for (ChessMove move : result.principalVariation()) {
+            game.makeMove(move);
+        }
+    }
+
+    @Test
+    void testReportsEachIteration() {
+        List<Integer> depths = new ArrayList<>();
+        searcher.search(new ChessGame(), SearchLimits.depth(3), result -> depths.add(result.depth()));
+
+        assertEquals(List.of(1, 2, 3), depths);
+    }
+
+    @Test
+    void testStopsAtNodeLimit() {
+        SearchResult result = searcher.search(new ChessGame(), SearchLimits.nodes(5_000));
+
+        assertNotNull(result.bestMove());
+        assertTrue(result.depth() < SearchLimits.MAX_DEPTH);
+    }
+
+    @Test
+    void testStopBeforeRunIsKept() {
+        Searcher stopped = new Searcher(new MaterialEvaluator(), new TranspositionTable(1), 0);
+        stopped.stop();
+        SearchResult result = stopped.run(new ChessGame(), SearchLimits.depth(6), r -> { }, () -> false);
+
+        assertNotNull(result.bestMove());
+        assertTrue(result.depth() < 6);
+    }
+
+    @Test
+    void testStopsAtTimeLimit() {
+        long start = System.nanoTime();
+        SearchResult result = searcher.search(new ChessGame(), SearchLimits.time(Duration.ofMillis(200)));
+
+        assertNotNull(result.bestMove());
+        assertTrue(System.nanoTime() - start < Duration.ofSeconds(2).toNanos());
+    }
+
+    @Test
+    void testNoMovesWhenMatedOrStalemated() {
+        SearchResult mated = searcher.search(Fen.parse("R5k1/5ppp/8/8/8/8/8/6K1 b - - 0 1").game(),
+                SearchLimits.depth(2));
+        assertNull(mated.bestMove());
+        assertEquals(-Searcher.MATE, mated.score());
+
+        SearchResult stalemate = searcher.search(Fen.parse("7k/5Q2/8/8/8/8/8/6K1 b - - 0 1").game(),
+                SearchLimits.depth(2));
+        assertNull(stalemate.bestMove());
+        assertEquals(0, stalemate.score());
+    }
+}
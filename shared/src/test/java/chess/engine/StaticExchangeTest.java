@@ -0,0 +1,52 @@
+package chess.engine;
+
+import chess.ChessMove;
+import chess.notation.Fen;
+import org.junit.jupiter.api.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StaticExchangeTest {
+
+    @Test
+    void testUndefendedCaptureWinsThePiece() {
+        assertEquals(100, see("4k3/8/8/3p4/8/8/8/3RK3 w - - 0 1", "d1", "d5"));
+    }
+
+    @Test
+    void testCaptureOfDefendedPawnLosesTheRook() {
+        assertEquals(-400, see("4k3/8/4p3/3p4/8/8/8/3RK3 w - - 0 1", "d1", "d5"));
+    }
+
+    @Test
+    void testPieceBehindASliderJoinsIn() {
+        // Rxd5 Rxd5 Rxd5: the rook on d1 recaptures through the square the first rook left
+        assertEquals(100, see("3rk3/8/8/3p4/8/8/3R4/3RK3 w - - 0 1", "d2", "d5"));
+    }
+
+    @Test
+    void testSideStopsWhenRecapturingLoses() {
+        // Black would lose a queen for a pawn by recapturing, so white keeps the pawn
+        assertEquals(100, see("3qk3/8/8/3p4/2P5/8/3R4/3RK3 w - - 0 1", "c4", "d5"));
+    }
+
+    @Test
+    void testKingCannotTakeDefendedPiece() {
+        assertEquals(900, see("4k3/8/8/8/8/8/4q3/4K3 w - - 0 1", "e1", "e2"));
+        assertTrue(see("4k3/8/8/8/8/5b2/4q3/4K3 w - - 0 1", "e1", "e2") < 0);
+    }
+
+    @Test
+    void testQuiescenceAvoidsDefendedPawn() {
+        SearchResult result = new Searcher().search(Fen.parse("4k3/8/4p3/3p4/8/8/8/3QK3 w - - 0 1").game(),
+                SearchLimits.depth(1));
+
+        assertNotEquals(new ChessMove(Fen.square("d1"), Fen.square("d5")), result.bestMove());
+        assertTrue(result.score() > 400);
+    }
+
+    private static int see(String fen, String from, String to) {
+        SearchPosition position = new SearchPosition(Fen.parse(fen).game());
+        return StaticExchange.evaluate(position, new ChessMove(Fen.square(from), Fen.square(to)));
+    }
+}
@@ -0,0 +1,118 @@
+package chess.engine;
+
+import chess.ChessMove;
+import chess.ChessPiece;
+import org.junit.jupiter.api.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TranspositionTableTest {
+    private final TranspositionTable table = new TranspositionTable(1);
+
+    @Test
+    void testStoreAndProbe() {
+        ChessMove move = new ChessMove(SearchPosition.square(7, 8), SearchPosition.square(8, 8),
+                ChessPiece.PieceType.QUEEN);
+        table.store(42L, move, -1234, 7, TranspositionTable.LOWER_BOUND);
+
+        long entry = table.probe(42L);
+        assertEquals(move, TranspositionTable.move(entry));
+        assertEquals(-1234, TranspositionTable.score(entry));
+        assertEquals(7, TranspositionTable.depth(entry));
+        assertEquals(TranspositionTable.LOWER_BOUND, TranspositionTable.bound(entry));
+        assertEquals(0, table.probe(43L));
+    }
+
+    @Test
+    void testEncodesEveryMove() {
+        for (int from = 0; from < 64; from++) {
+            ChessMove move = new ChessMove(SearchPosition.square(from / 8 + 1, from % 8 + 1),
+                    SearchPosition.square(8 - from / 8, 8 - from % 8));
+            table.store(from + 1, move, 0, 1, TranspositionTable.EXACT);
+            assertEquals(move, TranspositionTable.move(table.probe(from + 1)));
+        }
+    }
+
+    @Test
+    void testKeepsMoveWhenStoredWithoutOne() {
+        ChessMove move = new ChessMove(SearchPosition.square(2, 5), SearchPosition.square(4, 5));
+        table.store(7L, move, 10, 3, TranspositionTable.EXACT);
+        table.store(7L, null, -5, 4, TranspositionTable.UPPER_BOUND);
+
+        long entry = table.probe(7L);
+        assertEquals(move, TranspositionTable.move(entry));
+        assertEquals(4, TranspositionTable.depth(entry));
+    }
+
+    @Test
+    void testReplacesShallowAndStaleEntriesFirst() {
+        long buckets = table.sizeBytes() / 64;
+        // Five positions that share one bucket of four
+        long[] hashes = new long[5];
+        for (int i = 0; i < hashes.length; i++) {
+            hashes[i] = 5 + buckets * (i + 1);
+        }
+        for (int i = 0; i < 4; i++) {
+            table.store(hashes[i], null, 0, 10 + i, TranspositionTable.EXACT);
+        }
+        table.store(hashes[4], null, 0, 1, TranspositionTable.EXACT);
+        assertEquals(0, table.probe(hashes[0]));
+        assertNotEquals(0, table.probe(hashes[4]));
+
+        table.newSearch();
+        table.newSearch();
+        table.newSearch();
+        table.newSearch();
+        table.store(hashes[0], null, 0, 1, TranspositionTable.EXACT);
+        // All entries are now equally stale, so the shallowest one goes
+        assertNotEquals(0, table.probe(hashes[0]));
+        assertEquals(0, table.probe(hashes[4]));
+        assertEquals(3, countPresent(hashes, 1));
+    }
+
+    @Test
+    void testConcurrentWritersNeverCorruptEntries() throws InterruptedException {
+        AtomicInteger corrupt = new AtomicInteger();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            int seed = t;
+            threads.add(Thread.ofPlatform().start(() -> {
+                SplittableRandom random = new SplittableRandom(seed);
+                for (int i = 0; i < 200_000; i++) {
+                    long hash = random.nextLong(1, 50_000);
+                    // Every writer stores the same data for a hash, so any hit must carry it
+                    long entry = table.probe(hash);
+                    if (entry != 0 && TranspositionTable.score(entry) != (int) (hash % 30_000)) {
+                        corrupt.incrementAndGet();
+                    }
+                    table.store(hash, null, (int) (hash % 30_000), (int) (hash % 100), TranspositionTable.EXACT);
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(0, corrupt.get());
+    }
+
+    @Test
+    void testRejectsBadSize() {
+        assertThrows(IllegalArgumentException.class, () -> new TranspositionTable(0));
+    }
+
+    private int countPresent(long[] hashes, int from) {
+        int present = 0;
+        for (int i = from; i < hashes.length; i++) {
+            if (table.probe(hashes[i]) != 0) {
+                present++;
+            }
+        }
+        return present;
+    }
+}
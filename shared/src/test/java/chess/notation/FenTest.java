@@ -0,0 +1,61 @@
+package chess.notation;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessPiece;
+import chess.ChessPosition;
+import org.junit.jupiter.api.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FenTest {
+
+    @Test
+    void testStartingPosition() {
+        assertEquals(Fen.START, Fen.toFen(new ChessGame()));
+
+        Fen.Position start = Fen.parse(Fen.START);
+        assertEquals(new ChessGame().getBoard(), start.game().getBoard());
+        assertEquals(ChessGame.TeamColor.WHITE, start.game().getTeamTurn());
+        assertNull(start.enPassantTarget());
+        assertEquals(1, start.fullmoveNumber());
+    }
+
+    @Test
+    void testRoundTrip() {
+        String fen = "r3k2r/pp3ppp/2n5/3pP3/8/5N2/PPP2PPP/R3K2R b Kq - 0 1";
+        assertEquals(fen, Fen.toFen(Fen.parse(fen).game()));
+    }
+
+    @Test
+    void testCastlingRightsFollowMovedFlags() {
+        ChessGame game = Fen.parse(Fen.START).game();
+        game.getBoard().getPiece(new ChessPosition(1, 8)).setHasMoved(true);
+        game.getBoard().getPiece(new ChessPosition(8, 5)).setHasMoved(true);
+
+        assertTrue(Fen.toFen(game).endsWith(" w Q - 0 1"));
+
+        ChessBoard board = Fen.parse("4k3/8/8/8/8/8/8/R3K2R w K - 0 1").game().getBoard();
+        assertFalse(board.getPiece(new ChessPosition(1, 5)).isHasMoved());
+        assertFalse(board.getPiece(new ChessPosition(1, 8)).isHasMoved());
+        assertTrue(board.getPiece(new ChessPosition(1, 1)).isHasMoved());
+    }
+
+    @Test
+    void testEnPassantAndMoveNumber() {
+        Fen.Position position = Fen.parse("4k3/8/8/3pP3/8/8/8/4K3 w - d6 0 31");
+
+        assertEquals(new ChessPosition(6, 4), position.enPassantTarget());
+        assertEquals(31, position.fullmoveNumber());
+        assertEquals(new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN),
+                position.game().getBoard().getPiece(Fen.square("d5")));
+    }
+
+    @Test
+    void testRejectsMalformed() {
+        assertThrows(IllegalArgumentException.class, () -> Fen.parse("8/8/8 w - - 0 1"));
+        assertThrows(IllegalArgumentException.class, () -> Fen.parse("9/8/8/8/8/8/8/8 w - - 0 1"));
+        assertThrows(IllegalArgumentException.class, () -> Fen.parse("8/8/8/8/8/8/8/7x w - - 0 1"));
+        assertThrows(IllegalArgumentException.class, () -> Fen.parse("8/8/8/8/8/8/8/8 x - - 0 1"));
+    }
+}
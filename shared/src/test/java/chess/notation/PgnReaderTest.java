@@ -0,0 +1,137 @@
+package chess.notation;
+
+import chess.ChessGame;
+import chess.ChessPiece;
+import chess.ChessPosition;
+import chess.InvalidMoveException;
+import org.junit.jupiter.api.*;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PgnReaderTest {
+
+    private static final String TWO_GAMES = """
+            [Event "Casual"]
+            [White "alice"]
+            [Black "bob \\"the rook\\""]
+            [Result "1-0"]
+
+            1. e4 {best by test} e5 2. Nf3 (2. f4 exf4 (2... d5) 3. Nf3) 2... Nc6 $1
+            3.Bc4 ; a comment to the end of the line
+            Nf6?! 4. O-O Bc5 5. d4 1-0
+
+            [Event "Second"]
+            [Result "*"]
+
+            1. d4 d5 *
+            """;
+
+    @Test
+    void testReadsGamesInOrder() throws IOException {
+        try (PgnReader reader = new PgnReader(new StringReader(TWO_GAMES))) {
+            PgnGame first = reader.next();
+            assertEquals("Casual", first.tag("Event"));
+            assertEquals("bob \"the rook\"", first.tag("Black"));
+            assertEquals(List.of("e4", "e5", "Nf3", "Nc6", "Bc4", "Nf6?!", "O-O", "Bc5", "d4"), first.moves());
+            assertEquals("1-0", first.result());
+
+            PgnGame second = reader.next();
+            assertEquals("Second", second.tag("Event"));
+            assertEquals(List.of("d4", "d5"), second.moves());
+            assertEquals(PgnGame.UNFINISHED, second.result());
+
+            assertNull(reader.next());
+        }
+    }
+
+    @Test
+    void testSkipsPastMalformedGame() throws IOException {
+        String pgn = """
+                [Event "Broken"]
+                [White alice]
+                [Black "bob"]
+
+                1. e4 e5 1-0
+
+                [Event "Fine"]
+
+                1. d4 *
+                """;
+        try (PgnReader reader = new PgnReader(new StringReader(pgn))) {
+            assertThrows(PgnFormatException.class, reader::next);
+            reader.skipToNextGame();
+
+            PgnGame game = reader.next();
+            assertEquals("Fine", game.tag("Event"));
+            assertEquals(List.of("d4"), game.moves());
+            assertNull(reader.next());
+        }
+    }
+
+    @Test
+    void testReplaysCastling()throws IOException, InvalidMoveException {
+        PgnGame game = new PgnReader(new StringReader(TWO_GAMES)).next();
+        MoveReplayer replayer = new MoveReplayer();
+        for (String move : game.moves()) {
+            replayer.play(move);
+        }
+
+        assertEquals(piece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KING),
+                replayer.game().getBoard().getPiece(Fen.square("g1")));
+        assertEquals(piece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK),
+                replayer.game().getBoard().getPiece(Fen.square("f1")));
+        assertNull(replayer.game().getBoard().getPiece(Fen.square("h1")));
+        assertEquals(ChessGame.TeamColor.BLACK, replayer.game().getTeamTurn());
+    }
+
+    @Test
+    void testReplaysEnPassantAndPromotion() throws InvalidMoveException {
+        MoveReplayer replayer = new MoveReplayer(Fen.parse("7k/1P6/8/8/5p2/8/4P3/K7 w - - 0 1"));
+        replayer.play("e4");
+        replayer.play("fxe3");
+        assertNull(replayer.game().getBoard().getPiece(Fen.square("e4")));
+        assertEquals(piece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN),
+                replayer.game().getBoard().getPiece(Fen.square("e3")));
+
+        replayer.play("b8=N");
+        assertEquals(piece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KNIGHT),
+                replayer.game().getBoard().getPiece(new ChessPosition(8, 2)));
+    }
+
+    @Test
+    void testRejectsIllegalAndAmbiguousMoves() throws InvalidMoveException {
+        MoveReplayer replayer = new MoveReplayer();
+        assertThrows(InvalidMoveException.class, () -> replayer.play("e5"));
+        assertThrows(InvalidMoveException.class, () -> replayer.play("Zz9"));
+
+        MoveReplayer knights = new MoveReplayer(Fen.parse("k7/8/8/8/8/8/8/1N3N1K w - - 0 1"));
+        assertThrows(InvalidMoveException.class, () -> knights.play("Nd2"));
+        knights.play("Nbd2");
+        assertNotNull(knights.game().getBoard().getPiece(Fen.square("d2")));
+    }
+
+    @Test
+    void testWriterOutputReadsBack() throws IOException {
+        PgnGame game = new PgnGame(Map.of("Event", "Written", "SetUp", "1",
+                "FEN", "4k3/8/8/8/8/8/8/4K3 b - - 0 12"), List.of("Kd7", "Kd2", "Kc6"), "1/2-1/2");
+        StringWriter out = new StringWriter();
+        new PgnWriter(out).write(game);
+
+        assertTrue(out.toString().contains("12... Kd7 13. Kd2 Kc6 1/2-1/2"));
+        PgnGame read = new PgnReader(new StringReader(out.toString())).next();
+        assertEquals(game.moves(), read.moves());
+        assertEquals("1/2-1/2", read.result());
+        assertEquals("?", read.tag("Site"));
+        assertEquals("4k3/8/8/8/8/8/8/4K3 b - - 0 12", read.tag("FEN"));
+    }
+
+    private static ChessPiece piece(ChessGame.TeamColor color, ChessPiece.PieceType type) {
+        return new ChessPiece(color, type);
+    }
+}
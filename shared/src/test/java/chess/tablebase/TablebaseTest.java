@@ -0,0 +1,139 @@
+package chess.tablebase;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.InvalidMoveException;
+import chess.notation.Fen;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TablebaseTest {
+    @TempDir
+    static Path directory;
+
+    private static List<TablebaseGenerator.Stats> built;
+    private static Tablebase tablebase;
+
+    @BeforeAll
+    static void generate() throws IOException {
+        try (TablebaseGenerator generator = new TablebaseGenerator(Runtime.getRuntime().availableProcessors())) {
+            built = generator.generate("KPK", directory);
+        }
+        tablebase = Tablebase.open(directory);
+    }
+
+    @Test
+    void testBuildsDependenciesFirst() {
+        assertEquals(List.of("KQK", "KRK", "KPK"), built.stream().map(TablebaseGenerator.Stats::table).toList());
+        assertEquals(Set.of("KQK", "KRK", "KPK"), tablebase.tables());
+    }
+
+    @Test
+    void testKnownLongestMates() throws IOException {
+        // Queen and rook mates take at most 10 and 16 moves with the stronger side to move
+        assertEquals(10, longestWin("KQK"));
+        assertEquals(16, longestWin("KRK"));
+    }
+
+    @Test
+    void testProbesMatesAndDraws() {
+        assertEquals(new Tablebase.Result(Tablebase.Verdict.WIN, 1), probe("7k/8/6K1/8/8/8/8/1Q6 w - - 0 1"));
+        assertEquals(new Tablebase.Result(Tablebase.Verdict.LOSS, 0), probe("Q6k/8/6K1/8/8/8/8/8 b - - 0 1"));
+        // Stalemate, and a queen left to be taken
+        assertEquals(Tablebase.Verdict.DRAW, probe("7k/5Q2/6K1/8/8/8/8/8 b - - 0 1").verdict());
+        assertEquals(Tablebase.Verdict.DRAW, probe("7k/6Q1/8/8/8/8/8/K7 b - - 0 1").verdict());
+    }
+
+    @Test
+    void testProbesWithColorsReversed() {
+        assertEquals(new Tablebase.Result(Tablebase.Verdict.WIN, 1), probe("1q6/8/8/8/8/6k1/8/7K b - - 0 1"));
+        assertEquals(Tablebase.Verdict.LOSS, probe("8/8/8/8/4p3/4k3/8/4K3 w - - 0 1").verdict());
+    }
+
+    @Test
+    void testKingAndPawnEndings() {
+        // A king on the sixth rank in front of its pawn wins whoever is to move
+        assertEquals(Tablebase.Verdict.WIN, probe("4k3/8/4K3/4P3/8/8/8/8 w - - 0 1").verdict());
+        assertEquals(Tablebase.Verdict.LOSS, probe("4k3/8/4K3/4P3/8/8/8/8 b - - 0 1").verdict());
+        // The defending king in the corner holds a rook pawn
+        assertEquals(Tablebase.Verdict.DRAW, probe("k7/8/8/8/8/8/P7/K7 w - - 0 1").verdict());
+    }
+
+    @Test
+    void testUncoveredPositions() {
+        assertNull(probe(Fen.START));
+        assertNull(probe("4k3/8/8/8/8/8/4B3/4K1N1 w - - 0 1"));
+        // Bare kings need no table
+        assertEquals(Tablebase.Verdict.DRAW, probe("4k3/8/8/8/8/8/8/4K3 w - - 0 1").verdict());
+    }
+
+    @Test
+    void testBestMovesMateOnTime() throws InvalidMoveException {
+        ChessGame game = Fen.parse("8/8/8/4k3/8/8/8/R3K3 w - - 0 1").game();
+        Tablebase.Result start = tablebase.probe(game);
+        assertEquals(Tablebase.Verdict.WIN, start.verdict());
+
+        // Both sides play perfectly, so the mate arrives exactly when promised
+        for (int ply = 0; ply < start.plies(); ply++) {
+            ChessMove move = tablebase.bestMove(game);
+            assertNotNull(move);
+            game.makeMove(move);
+        }
+        assertTrue(game.isInCheckmate(game.getTeamTurn()));
+        assertNull(tablebase.bestMove(game));
+    }
+
+    @Test
+    void testIndexRoundTrips() {
+        for (String name : List.of("KQK", "KPK", "KBNK")) {
+            TableLayout layout = TableLayout.parse(name);
+            int[] squares = new int[layout.types.length];
+            for (int index = 0; index < layout.size; index += 7) {
+                int stm = layout.decode(index, squares);
+                assertEquals(index, layout.index(squares, stm), name);
+            }
+        }
+    }
+
+    @Test
+    void testNormalizesTableNames() {
+        assertEquals("KQK", TableLayout.parse("KKQ").name);
+        assertEquals("KBNK", TableLayout.parse("KNBK").name);
+        assertThrows(IllegalArgumentException.class, () -> TableLayout.parse("KBK"));
+        assertThrows(IllegalArgumentException.class, () -> TableLayout.parse("KQRKR"));
+    }
+
+    @Test
+    void testRejectsDamagedTables() throws IOException {
+        Path damaged = Files.createDirectory(directory.resolve("damaged"));
+        Files.write(damaged.resolve("KQK" + Tablebase.EXTENSION), new byte[]{1, 2, 3});
+        assertThrows(IOException.class, () -> Tablebase.open(damaged));
+    }
+
+    private static int longestWin(String table) throws IOException {
+        TableLayout layout = TableLayout.parse(table);
+        ByteBuffer values = Tablebase.map(directory.resolve(table + Tablebase.EXTENSION), layout);
+        int[] squares = new int[layout.types.length];
+        int longest = 0;
+        for (int index = 0; index < layout.size; index++) {
+            int value = values.get(index) & 0xFF;
+            if (layout.decode(index, squares) == 0 && value != Tablebase.ILLEGAL && value != Tablebase.DRAW) {
+                longest = Math.max(longest, Tablebase.decode(value).movesToMate());
+            }
+        }
+        return longest;
+    }
+
+    private static Tablebase.Result probe(String fen) {
+        return tablebase.probe(Fen.parse(fen).game());
+    }
+}
@@ -0,0 +1,131 @@
+package websocket.codec;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPiece;
+import chess.ChessPosition;
+import chess.InvalidMoveException;
+import com.google.gson.Gson;
+import model.GameData;
+import org.junit.jupiter.api.*;
+import websocket.commands.*;
+import websocket.messages.*;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BinaryCodecTest {
+
+    @Test
+    void testCommandRoundTrip() {
+        ChessMove move = new ChessMove(new ChessPosition(7, 1), new ChessPosition(8, 2), ChessPiece.PieceType.KNIGHT);
+        UserGameCommand[] commands = {
+                new ConnectCommand("token", 12),
+                new MakeMoveCommand("token", 300, move),
+                new LeaveCommand(null, null),
+                new ResignCommand("token", -1),
+                new AnalyzeCommand("token", 4, 9),
+                new AnalyzeCommand("token", 4, null)
+        };
+
+        for (UserGameCommand command : commands) {
+            UserGameCommand decoded = BinaryCodec.decodeCommand(ByteBuffer.wrap(BinaryCodec.encodeCommand(command)));
+            assertEquals(command.getClass(), decoded.getClass());
+            assertEquals(command, decoded);
+        }
+        MakeMoveCommand decodedMove = (MakeMoveCommand) BinaryCodec.decodeCommand(
+                ByteBuffer.wrap(BinaryCodec.encodeCommand(commands[1])));
+        assertEquals(move, decodedMove.getMove());
+        AnalyzeCommand decodedAnalyze = (AnalyzeCommand) BinaryCodec.decodeCommand(
+                ByteBuffer.wrap(BinaryCodec.encodeCommand(commands[4])));
+        assertEquals(9, decodedAnalyze.getDepth());
+    }
+
+    @Test
+    void testMovePacking() {
+        ChessMove move = new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5));
+        assertEquals(move, BinaryCodec.unpackMove(BinaryCodec.packMove(move)));
+        assertNull(BinaryCodec.unpackMove(BinaryCodec.packMove(null)));
+        assertTrue(BinaryCodec.packMove(move) <= 0xFFFF);
+    }
+
+    @Test
+    void testLoadGameRoundTrip() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        game.makeMove(new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5)));
+        GameData gameData = new GameData(5, "white", null, "name", game);
+
+        ServerMessage decoded = BinaryCodec.decodeServerMessage(
+                ByteBuffer.wrap(BinaryCodec.encodeServerMessage(new LoadGameMessage(gameData))));
+
+        GameData result = ((LoadGameMessage) decoded).getGame();
+        assertEquals(gameData.gameID(), result.gameID());
+        assertEquals("white", result.whiteUsername());
+        assertNull(result.blackUsername());
+        assertEquals(game.getBoard(), result.game().getBoard());
+        assertEquals(game.getTeamTurn(), result.game().getTeamTurn());
+        assertTrue(result.game().getBoard().getPiece(new ChessPosition(4, 5)).isHasMoved());
+    }
+
+    @Test
+    void testLoadGameSmallerThanJson() {
+        GameData gameData = new GameData(1, "white", "black", "name", new ChessGame());
+        LoadGameMessage message = new LoadGameMessage(gameData);
+
+        assertTrue(BinaryCodec.encodeServerMessage(message).length * 10 < new Gson().toJson(message).length());
+    }
+
+    @Test
+    void testTextMessagesRoundTrip() {
+        ServerMessage error = BinaryCodec.decodeServerMessage(
+                ByteBuffer.wrap(BinaryCodec.encodeServerMessage(new ErrorMessage("Error: bad"))));
+        ServerMessage notification = BinaryCodec.decodeServerMessage(
+                ByteBuffer.wrap(BinaryCodec.encodeServerMessage(new NotificationMessage("hi ♚"))));
+
+        assertEquals("Error: bad", ((ErrorMessage) error).getErrorMessage());
+        assertEquals("hi ♚", ((NotificationMessage) notification).getMessage());
+    }
+
+    @Test
+    void testBatchRoundTrip() {
+        BatchMessage batch = new BatchMessage(List.of(new NotificationMessage("one"), new ErrorMessage("Error: two")));
+
+        ServerMessage decoded = BinaryCodec.decodeServerMessage(ByteBuffer.wrap(BinaryCodec.encodeServerMessage(batch)));
+
+        List<ServerMessage> messages = ((BatchMessage) decoded).getMessages();
+        assertEquals(2, messages.size());
+        assertEquals("one", ((NotificationMessage) messages.get(0)).getMessage());
+        assertEquals("Error: two", ((ErrorMessage) messages.get(1)).getErrorMessage());
+    }
+
+    @Test
+    void testAnalysisRoundTrip() {
+        List<ChessMove> line = List.of(new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5)),
+                new ChessMove(new ChessPosition(7, 5), new ChessPosition(5, 5)));
+        AnalysisMessage analysis = new AnalysisMessage(8, 12, -35, null, line, 1_234_567_890_123L);
+
+        AnalysisMessage decoded = (AnalysisMessage) BinaryCodec.decodeServerMessage(
+                ByteBuffer.wrap(BinaryCodec.encodeServerMessage(analysis)));
+
+        assertEquals(8, decoded.getGameID());
+        assertEquals(12, decoded.getDepth());
+        assertEquals(-35, decoded.getScore());
+        assertNull(decoded.getMateIn());
+        assertEquals(line, decoded.getLine());
+        assertEquals(line.get(0), decoded.getBestMove());
+        assertEquals(1_234_567_890_123L, decoded.getNodes());
+    }
+
+    @Test
+    void testRejectsMalformedFrames() {
+        assertThrows(IllegalArgumentException.class, () -> BinaryCodec.decodeCommand(ByteBuffer.wrap(new byte[0])));
+        assertThrows(IllegalArgumentException.class,
+                () -> BinaryCodec.decodeCommand(ByteBuffer.wrap(new byte[] {9, 0, 0})));
+        assertThrows(IllegalArgumentException.class,
+                () -> BinaryCodec.decodeCommand(ByteBuffer.wrap(new byte[] {BinaryCodec.CONNECT, 50, 1})));
+        assertThrows(IllegalArgumentException.class,
+                () -> BinaryCodec.decodeServerMessage(ByteBuffer.wrap(new byte[] {BinaryCodec.BATCH, 1, 9, 3})));
+    }
+}
@@ -0,0 +1,86 @@
+package websocket.commands;
+
+import chess.ChessMove;
+import chess.ChessPiece;
+import chess.ChessPosition;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonSyntaxException;
+import org.junit.jupiter.api.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserGameCommandAdapterTest {
+    private Gson gson;
+
+    @BeforeEach
+    void setUp() {
+        gson = new GsonBuilder()
+                .registerTypeHierarchyAdapter(UserGameCommand.class, new UserGameCommandAdapter())
+                .create();
+    }
+
+    @Test
+    void testDecodesConcreteCommand() {
+        UserGameCommand command = gson.fromJson(
+                "{\"commandType\":\"CONNECT\",\"authToken\":\"token\",\"gameID\":7}", UserGameCommand.class);
+
+        assertInstanceOf(ConnectCommand.class, command);
+        assertEquals("token", command.getAuthToken());
+        assertEquals(7, command.getGameID());
+    }
+
+    @Test
+    void testDecodesMoveBeforeType() {
+        ChessMove move = new ChessMove(new ChessPosition(7, 1), new ChessPosition(8, 1), ChessPiece.PieceType.QUEEN);
+        String json = "{\"move\":" + new Gson().toJson(move)
+                + ",\"gameID\":3,\"commandType\":\"MAKE_MOVE\",\"authToken\":\"token\"}";
+
+        UserGameCommand command = gson.fromJson(json, UserGameCommand.class);
+
+        assertInstanceOf(MakeMoveCommand.class, command);
+        assertEquals(move, ((MakeMoveCommand) command).getMove());
+    }
+
+    @Test
+    void testMatchesReflectiveEncoding() {
+        ChessMove move = new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5));
+        MakeMoveCommand original = new MakeMoveCommand("token", 3, move);
+
+        UserGameCommand decoded = gson.fromJson(new Gson().toJson(original), UserGameCommand.class);
+        UserGameCommand roundTrip = gson.fromJson(gson.toJson(original), UserGameCommand.class);
+
+        assertEquals(original, decoded);
+        assertEquals(move, ((MakeMoveCommand) roundTrip).getMove());
+    }
+
+    @Test
+    void testDecodesAnalyzeDepth() {
+        UserGameCommand command = gson.fromJson(
+                "{\"commandType\":\"ANALYZE\",\"authToken\":\"token\",\"gameID\":2,\"depth\":6}",
+                UserGameCommand.class);
+        UserGameCommand roundTrip = gson.fromJson(gson.toJson(new AnalyzeCommand("token", 2, null)),
+                UserGameCommand.class);
+
+        assertInstanceOf(AnalyzeCommand.class, command);
+        assertEquals(6, ((AnalyzeCommand) command).getDepth());
+        assertNull(((AnalyzeCommand) roundTrip).getDepth());
+    }
+
+    @Test
+    void testIgnoresUnknownFields() {
+        UserGameCommand command = gson.fromJson(
+                "{\"commandType\":\"RESIGN\",\"extra\":{\"a\":[1,2]},\"authToken\":\"token\",\"gameID\":1}",
+                UserGameCommand.class);
+
+        assertInstanceOf(ResignCommand.class, command);
+    }
+
+    @Test
+    void testRejectsMissingOrUnknownType() {
+        assertThrows(JsonSyntaxException.class,
+                () -> gson.fromJson("{\"authToken\":\"token\",\"gameID\":1}", UserGameCommand.class));
+        assertThrows(JsonSyntaxException.class,
+                () -> gson.fromJson("{\"commandType\":\"DANCE\",\"gameID\":1}", UserGameCommand.class));
+    }
+}